@@ -0,0 +1,29 @@
+-- ========================================
+-- MIGRATION: Séquence des identifiants de demandes
+-- ========================================
+-- Remplace le calcul "SELECT MAX(ct_demande_id) + 1" (collisions entre
+-- créations simultanées) par la séquence ct_demandes_id_seq.
+-- DemandeIdAllocator réserve les identifiants par blocs de 50 :
+-- INCREMENT BY doit rester égal à DemandeIdAllocator.BLOCK_SIZE.
+-- Tout autre outil qui insère dans ct_demandes doit utiliser la même
+-- séquence (nextval) et non plus MAX + 1.
+
+-- ========================================
+-- ÉTAPE 1: Séquence
+-- ========================================
+CREATE SEQUENCE IF NOT EXISTS sss_competition_db.ct_demandes_id_seq
+    INCREMENT BY 50
+    MINVALUE 1
+    NO CYCLE;
+
+ALTER SEQUENCE sss_competition_db.ct_demandes_id_seq INCREMENT BY 50;
+
+-- ========================================
+-- ÉTAPE 2: Démarrer après le plus grand identifiant existant
+-- ========================================
+-- is_called = false : le prochain nextval renvoie exactement MAX + 1
+SELECT setval(
+    'sss_competition_db.ct_demandes_id_seq',
+    (SELECT COALESCE(MAX(ct_demande_id), 0) + 1 FROM sss_competition_db.ct_demandes),
+    false
+);
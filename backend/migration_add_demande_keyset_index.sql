@@ -0,0 +1,22 @@
+-- ========================================
+-- MIGRATION: Index pour la pagination par curseur des demandes
+-- ========================================
+-- GET /api/v1/demandes-players?keyset=true trie sur
+-- (date_enregistrement DESC NULLS LAST, ct_demande_id DESC) et reprend
+-- après la dernière ligne vue : avec ces index, chaque page est un simple
+-- parcours d'index, quelle que soit sa profondeur.
+-- CONCURRENTLY : à exécuter hors transaction.
+
+-- ========================================
+-- ÉTAPE 1: Liste globale (sans filtre)
+-- ========================================
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_keyset
+ON sss_competition_db.ct_demandes (date_enregistrement DESC NULLS LAST, ct_demande_id DESC);
+
+-- ========================================
+-- ÉTAPE 2: Liste d'un club pour une saison (cas le plus fréquent)
+-- ========================================
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_team_season_keyset
+ON sss_competition_db.ct_demandes (ct_team_id, ct_season_id, date_enregistrement DESC NULLS LAST, ct_demande_id DESC);
+
+ANALYZE sss_competition_db.ct_demandes;
@@ -0,0 +1,59 @@
+-- ========================================
+-- MIGRATION: Recherche de noms par trigrammes (pg_trgm)
+-- ========================================
+-- Noms normalisés (minuscules, sans accents, espaces réduits) indexés en
+-- GIN gin_trgm_ops sur l'expression f_normalize_name(...). Ils servent :
+--   - aux filtres nom / prénom des recherches (LIKE '%x%' et 'x%' indexés)
+--   - à la recherche classée par similarité (/api/v1/name-search), tolérante
+--     aux variantes de translittération (Mohamed / Mohammed / Mouhamed...)
+-- Les index sont créés en CONCURRENTLY : exécuter ce script hors transaction.
+
+-- ========================================
+-- ÉTAPE 1: Extensions et fonction de normalisation
+-- ========================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() n'est pas IMMUTABLE : on fixe le dictionnaire pour pouvoir
+-- l'utiliser dans des index d'expression
+CREATE OR REPLACE FUNCTION sss_competition_db.f_normalize_name(value text)
+RETURNS text
+LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$
+    SELECT lower(regexp_replace(trim(public.unaccent('public.unaccent'::regdictionary, value)), '\s+', ' ', 'g'))
+$$;
+
+-- ========================================
+-- ÉTAPE 2: Index GIN trigrammes sur expressions
+-- ========================================
+-- Index d'expression plutôt que colonnes générées STORED : l'ajout d'une colonne
+-- générée réécrit toute la table sous verrou ACCESS EXCLUSIVE, alors qu'un index
+-- CONCURRENTLY laisse lectures et écritures passer pendant sa construction.
+-- Les requêtes doivent reprendre exactement la même expression pour utiliser l'index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_name_norm_trgm
+ON sss_competition_db.ct_demandes
+USING gin (sss_competition_db.f_normalize_name(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_last_name_norm_trgm
+ON sss_competition_db.ct_demandes
+USING gin (sss_competition_db.f_normalize_name(last_name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_full_name_norm_trgm
+ON sss_competition_db.ct_demandes
+USING gin (sss_competition_db.f_normalize_name(coalesce(name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_name_norm_trgm
+ON sss_competition_db.ct_intervenants
+USING gin (sss_competition_db.f_normalize_name(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_last_name_norm_trgm
+ON sss_competition_db.ct_intervenants
+USING gin (sss_competition_db.f_normalize_name(last_name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_full_name_norm_trgm
+ON sss_competition_db.ct_intervenants
+USING gin (sss_competition_db.f_normalize_name(coalesce(name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+
+-- Statistiques des expressions indexées (estimation des LIKE / <%)
+ANALYZE sss_competition_db.ct_demandes;
+ANALYZE sss_competition_db.ct_intervenants;
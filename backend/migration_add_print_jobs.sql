@@ -0,0 +1,58 @@
+-- ========================================
+-- MIGRATION: Travaux d'impression de licences (ct_print_jobs)
+-- ========================================
+-- Une ligne par impression soumise en arrière-plan (PrintJobService) :
+-- sélection (identifiants de demandes, ou équipe + saison + statut),
+-- état, avancement et fichier produit dans le répertoire de spool.
+-- La table sert de file d'attente : un travail EN_ATTENTE est pris par un worker
+--   UPDATE ... SET status = 'EN_COURS', owner = ? WHERE ct_print_job_id = ? AND status = 'EN_ATTENTE'
+-- L'instance propriétaire rafraîchit heartbeat_at tant qu'elle tourne. Un travail EN_COURS
+-- repasse EN_ATTENTE au redémarrage de son instance, ou quand heartbeat_at dépasse le bail
+-- (print.jobs.lease-seconds) ; les travaux en cours sur les autres instances ne sont pas touchés.
+
+-- ========================================
+-- ÉTAPE 1: Table
+-- ========================================
+CREATE TABLE IF NOT EXISTS sss_competition_db.ct_print_jobs (
+    ct_print_job_id      BIGSERIAL     PRIMARY KEY,
+    status               VARCHAR(20)   NOT NULL DEFAULT 'EN_ATTENTE',
+    demande_ids          TEXT,
+    ct_team_id           NUMERIC,
+    ct_season_id         NUMERIC,
+    ct_demande_statu_id  NUMERIC,
+    mark_printed         BOOLEAN       NOT NULL DEFAULT FALSE,
+    requested_by         BIGINT,
+    owner                VARCHAR(255),
+    heartbeat_at         TIMESTAMP,
+    total                INTEGER,
+    done                 INTEGER       NOT NULL DEFAULT 0,
+    printed              INTEGER,
+    failed_ids           TEXT,
+    file_size            BIGINT,
+    error                VARCHAR(1000),
+    created_at           TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at           TIMESTAMP,
+    finished_at          TIMESTAMP,
+    CHECK (status IN ('EN_ATTENTE', 'EN_COURS', 'TERMINE', 'ECHEC', 'EXPIRE'))
+);
+
+-- Table créée par une version précédente de cette migration
+ALTER TABLE sss_competition_db.ct_print_jobs ADD COLUMN IF NOT EXISTS owner VARCHAR(255);
+ALTER TABLE sss_competition_db.ct_print_jobs ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
+ALTER TABLE sss_competition_db.ct_print_jobs ADD COLUMN IF NOT EXISTS failed_ids TEXT;
+
+COMMENT ON TABLE sss_competition_db.ct_print_jobs IS 'Impressions de licences en arrière-plan (file d''attente et suivi, PrintJobService)';
+COMMENT ON COLUMN sss_competition_db.ct_print_jobs.demande_ids IS 'Identifiants des demandes à imprimer, séparés par des virgules (sinon équipe + saison + statut)';
+COMMENT ON COLUMN sss_competition_db.ct_print_jobs.done IS 'Licences déjà écrites dans le fichier';
+COMMENT ON COLUMN sss_competition_db.ct_print_jobs.failed_ids IS 'Demandes dont le passage à IMPRIMEE a été refusé, absentes du fichier';
+COMMENT ON COLUMN sss_competition_db.ct_print_jobs.owner IS 'Instance qui exécute le travail (print.jobs.instance-id)';
+COMMENT ON COLUMN sss_competition_db.ct_print_jobs.heartbeat_at IS 'Dernier signe de vie de l''instance propriétaire';
+
+-- ========================================
+-- ÉTAPE 2: Index
+-- ========================================
+-- Prise des travaux en attente (dans l'ordre de soumission) et purge des fichiers terminés
+CREATE INDEX IF NOT EXISTS idx_print_jobs_status
+ON sss_competition_db.ct_print_jobs (status, ct_print_job_id);
+
+ANALYZE sss_competition_db.ct_print_jobs;
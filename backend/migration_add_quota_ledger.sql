@@ -0,0 +1,48 @@
+-- ========================================
+-- MIGRATION: Registre des quotas (ct_quota_ledger)
+-- ========================================
+-- Une ligne par équipe, saison et type de quota (TOTAL, PROFESSIONNEL,
+-- ETRANGER) avec le nombre de places occupées par les demandes de joueurs
+-- (ct_intervenant_type_id = 1) non rejetées : INITIAL (1), VALIDEE_CLUB (2),
+-- EN_ATTENTE (8) et IMPRIMEE (9).
+-- QuotaLedger la met à jour dans la transaction de chaque écriture de demande :
+--   UPDATE ... SET used = used + 1 WHERE ... AND used < limite
+-- Une ligne absente est recréée à partir de ct_demandes au premier besoin :
+-- l'étape 2 ne fait qu'éviter ce coût lors des premières demandes.
+-- QuotaLedger.reconcile recompare périodiquement le registre avec ct_demandes.
+
+-- ========================================
+-- ÉTAPE 1: Table
+-- ========================================
+CREATE TABLE IF NOT EXISTS sss_competition_db.ct_quota_ledger (
+    ct_team_id    NUMERIC     NOT NULL,
+    ct_season_id  NUMERIC     NOT NULL,
+    quota_type    VARCHAR(20) NOT NULL,
+    used          INTEGER     NOT NULL DEFAULT 0 CHECK (used >= 0),
+    updated_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (ct_team_id, ct_season_id, quota_type)
+);
+
+COMMENT ON TABLE sss_competition_db.ct_quota_ledger IS 'Places occupées par équipe, saison et type de quota (mis à jour par QuotaLedger)';
+COMMENT ON COLUMN sss_competition_db.ct_quota_ledger.used IS 'Nombre de demandes de joueurs non rejetées comptées dans le quota';
+
+-- ========================================
+-- ÉTAPE 2: Initialisation depuis les demandes existantes
+-- ========================================
+INSERT INTO sss_competition_db.ct_quota_ledger (ct_team_id, ct_season_id, quota_type, used)
+SELECT d.ct_team_id, d.ct_season_id, q.quota_type,
+       COUNT(*) FILTER (WHERE CASE q.quota_type
+           WHEN 'TOTAL' THEN TRUE
+           WHEN 'PROFESSIONNEL' THEN d.ct_regime_id IN (2, 3, 4)
+           WHEN 'ETRANGER' THEN COALESCE(d.cr_pays_id <> 193, false)
+       END)
+FROM sss_competition_db.ct_demandes d
+CROSS JOIN (VALUES ('TOTAL'), ('PROFESSIONNEL'), ('ETRANGER')) AS q(quota_type)
+WHERE d.ct_team_id IS NOT NULL
+AND d.ct_season_id IS NOT NULL
+AND d.ct_demande_statu_id IN (1, 2, 8, 9)
+AND d.ct_intervenant_type_id = 1
+GROUP BY d.ct_team_id, d.ct_season_id, q.quota_type
+ON CONFLICT (ct_team_id, ct_season_id, quota_type) DO NOTHING;
+
+ANALYZE sss_competition_db.ct_quota_ledger;
@@ -0,0 +1,36 @@
+-- ========================================
+-- MIGRATION: Index des filtres de recherche sélectifs
+-- ========================================
+-- Les recherches de demandes et d'intervenants n'émettent plus que les
+-- prédicats renseignés (FilterQuery) : un filtre sur licence_num ou
+-- cin_number peut donc utiliser directement son index.
+-- CONCURRENTLY : à exécuter hors transaction.
+
+-- ========================================
+-- ÉTAPE 1: Demandes (égalité stricte)
+-- ========================================
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_licence_num
+ON sss_competition_db.ct_demandes (licence_num);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_cin_number
+ON sss_competition_db.ct_demandes (cin_number);
+
+-- ========================================
+-- ÉTAPE 2: Intervenants validés
+-- ========================================
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_licence_num
+ON sss_competition_db.ct_intervenants (licence_num);
+
+-- Recherche par préfixe : TRIM(UPPER(col)) LIKE 'VALEUR%'
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_cin_prefix
+ON sss_competition_db.ct_intervenants ((TRIM(UPPER(cin_number))) text_pattern_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_passport_prefix
+ON sss_competition_db.ct_intervenants ((TRIM(UPPER(passport_num))) text_pattern_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_team_intervenants_season_team
+ON sss_competition_db.ct_team_intervenants (ct_season_id, ct_team_id);
+
+ANALYZE sss_competition_db.ct_demandes;
+ANALYZE sss_competition_db.ct_intervenants;
+ANALYZE sss_competition_db.ct_team_intervenants;
@@ -0,0 +1,39 @@
+-- ========================================
+-- MIGRATION: Index du chargement du contexte de validation
+-- ========================================
+-- ValidationContextLoader recherche le joueur en une requête sur
+-- ct_intervenants (+ historique ct_team_intervenants) et sur les
+-- demandes de la saison, avec les deux jeux de critères :
+--   cin_number = ? OR passport_num = ?
+--   OR (UPPER(last_name) = UPPER(?) AND UPPER(name) = UPPER(?) AND date_of_birth = ?)
+-- Chaque branche du OR doit disposer d'un index (BitmapOr).
+-- CONCURRENTLY : à exécuter hors transaction.
+
+-- ========================================
+-- ÉTAPE 1: Intervenants
+-- ========================================
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_cin_number
+ON sss_competition_db.ct_intervenants (cin_number);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_passport_num
+ON sss_competition_db.ct_intervenants (passport_num);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_intervenants_identity
+ON sss_competition_db.ct_intervenants ((UPPER(last_name)), (UPPER(name)), date_of_birth);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_team_intervenants_intervenant
+ON sss_competition_db.ct_team_intervenants (ct_intervenant_id);
+
+-- ========================================
+-- ÉTAPE 2: Demandes de la saison
+-- ========================================
+-- cin_number : idx_ct_demandes_cin_number (migration_add_search_filter_indexes.sql)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_passport_num
+ON sss_competition_db.ct_demandes (passport_num);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ct_demandes_season_identity
+ON sss_competition_db.ct_demandes (ct_season_id, (UPPER(last_name)), (UPPER(name)), date_of_birth);
+
+ANALYZE sss_competition_db.ct_intervenants;
+ANALYZE sss_competition_db.ct_team_intervenants;
+ANALYZE sss_competition_db.ct_demandes;
@@ -1,11 +1,16 @@
 package com.football.management.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -21,4 +26,106 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Pool borné pour les requêtes statistiques exécutées en parallèle (StatsAssembler).
+     * File pleine : la requête est rejetée et signalée indisponible, plutôt que lancée sans
+     * délai sur le thread de la requête HTTP.
+     */
+    @Bean(name = "statsExecutor")
+    public Executor statsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("stats-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool borné des étapes de validation indépendantes (ValidationPipeline).
+     * File pleine : l'étape s'exécute sur le thread appelant plutôt que d'être rejetée.
+     */
+    @Bean(name = "validationExecutor")
+    public Executor validationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("validation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool des exports et impressions par lot écrits en flux (AsyncResponses.export), distinct de l'exécuteur MVC global
+     */
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool des licences et récépissés unitaires écrits en flux (AsyncResponses.pdf) : un PDF
+     * de quelques kilo-octets n'attend pas derrière les exports et les impressions par lot
+     */
+    @Bean(name = "pdfStreamExecutor")
+    public ThreadPoolTaskExecutor pdfStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("pdf-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool de rendu des licences imprimées par lot (PdfGenerationService), dédié pour que
+     * le rendu (CPU) ne prenne pas les threads du pool commun
+     */
+    @Bean(name = "pdfRenderPool", destroyMethod = "shutdown")
+    public ForkJoinPool pdfRenderPool(@Value("${pdf.render.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Workers des travaux d'impression en arrière-plan (PrintJobService) : nombre borné,
+     * priorité basse. File pleine : le travail reste en attente en base et sera repris.
+     */
+    @Bean(name = "printJobExecutor")
+    public ThreadPoolTaskExecutor printJobExecutor(@Value("${print.jobs.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 5);
+        executor.setThreadNamePrefix("print-job-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool de rendu des travaux d'impression, séparé de pdfRenderPool et limité (moitié des
+     * processeurs par défaut) pour laisser le reste du CPU aux requêtes interactives
+     */
+    @Bean(name = "printJobRenderPool", destroyMethod = "shutdown")
+    public ForkJoinPool printJobRenderPool(@Value("${print.jobs.render-parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("print-render-" + thread.getPoolIndex());
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, null, false);
+    }
+}
@@ -0,0 +1,89 @@
+package com.football.management.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+
+/**
+ * Réponses écrites en flux par les contrôleurs, chacune sur son pool et avec son délai.
+ *
+ * Les réglages asynchrones globaux de Spring MVC (exécuteur, délai) ne sont pas modifiés :
+ * un export long n'occupe que exportExecutor, et les PDF unitaires (licence, récépissé) ont
+ * leur propre pool, pdfStreamExecutor, sans attendre derrière les exports.
+ */
+@Component
+public class AsyncResponses {
+
+    /** Exécute la tâche sur le thread de la requête (réponse déjà connue) */
+    private static final AsyncTaskExecutor CALLER = new TaskExecutorAdapter(Runnable::run);
+
+    @Autowired
+    @Qualifier("exportExecutor")
+    private ThreadPoolTaskExecutor exportExecutor;
+
+    @Value("${export.async-timeout-ms:600000}")
+    private long exportTimeoutMs;
+
+    @Autowired
+    @Qualifier("pdfStreamExecutor")
+    private ThreadPoolTaskExecutor pdfStreamExecutor;
+
+    @Value("${pdf.stream.async-timeout-ms:60000}")
+    private long pdfTimeoutMs;
+
+    /**
+     * Contenu écrit directement dans la réponse
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws Exception;
+    }
+
+    /**
+     * Export (CSV, XLSX...) écrit en flux sur exportExecutor, avec le délai export.async-timeout-ms
+     */
+    public WebAsyncTask<ResponseEntity<?>> export(HttpServletResponse response, HttpHeaders headers, BodyWriter body) {
+        return stream(exportExecutor, exportTimeoutMs, response, headers, body);
+    }
+
+    /**
+     * PDF unitaire (licence, récépissé) écrit en flux sur pdfStreamExecutor, avec le délai pdf.stream.async-timeout-ms
+     */
+    public WebAsyncTask<ResponseEntity<?>> pdf(HttpServletResponse response, HttpHeaders headers, BodyWriter body) {
+        return stream(pdfStreamExecutor, pdfTimeoutMs, response, headers, body);
+    }
+
+    /**
+     * Réponse déjà construite (erreur, 304, fichier en cache...) : renvoyée sans passer par un pool
+     */
+    public static WebAsyncTask<ResponseEntity<?>> completed(ResponseEntity<?> entity) {
+        return new WebAsyncTask<>(null, CALLER, () -> entity);
+    }
+
+    private static WebAsyncTask<ResponseEntity<?>> stream(AsyncTaskExecutor executor, long timeoutMs,
+                                                         HttpServletResponse response, HttpHeaders headers,
+                                                         BodyWriter body) {
+        return new WebAsyncTask<>(timeoutMs, executor, () -> {
+            // En-têtes posés au début de l'écriture : une erreur avant le premier octet reste une 500 normale
+            response.setStatus(HttpServletResponse.SC_OK);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            ServletOutputStream out = response.getOutputStream();
+            body.writeTo(out);
+            out.flush();
+            // Corps déjà écrit : rien à ajouter
+            return null;
+        });
+    }
+}
@@ -1,20 +1,47 @@
 package com.football.management.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
-    
+
+    /**
+     * Caches rafraîchis en arrière-plan avant expiration : la valeur périmée
+     * reste servie pendant que le rechargement s'exécute (stale-while-revalidate).
+     * Chaque cache listé doit avoir un CacheRefresher (ex: DashboardService).
+     */
+    public static final List<String> REFRESH_AHEAD_CACHES = List.of(
+        "dashboardStats"
+    );
+
+    @Value("${cache.refresh-ahead.refresh-after-seconds:120}")
+    private long refreshAfterSeconds;
+
+    /** Horloge des caches rafraîchis (remplacée dans les tests) */
+    Ticker ticker = Ticker.systemTicker();
+
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(
+        ObjectProvider<CacheRefresher> refreshers,
+        @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor
+    ) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
             "dashboardStats",
             "teamsList",
@@ -23,15 +50,48 @@ public class CacheConfig {
             "statusList",
             "playerDetails"
         );
-        
+
         cacheManager.setCaffeine(Caffeine.newBuilder()
             .maximumSize(1000)
             .expireAfterWrite(10, TimeUnit.MINUTES)
             .recordStats());
-        
+
+        for (String cacheName : REFRESH_AHEAD_CACHES) {
+            cacheManager.registerCustomCache(cacheName, Caffeine.newBuilder()
+                .maximumSize(1000)
+                .refreshAfterWrite(refreshAfterSeconds, TimeUnit.SECONDS)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .executor(cacheRefreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(new RefreshingCacheLoader(cacheName, refreshers)));
+        }
+
+        // Statistiques des saisons closes : immuables, gardées sans expiration
+        cacheManager.registerCustomCache("closedSeasonStats", Caffeine.newBuilder()
+            .maximumSize(500)
+            .recordStats()
+            .build());
+
         return cacheManager;
     }
-    
+
+    /**
+     * Pool dédié aux rechargements de cache, pour ne pas occuper les threads des requêtes
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("cache-refresh-");
+        // Rechargement abandonné si la file est pleine : la valeur actuelle reste servie
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Cache pour les statistiques (rafraîchi toutes les 5 minutes)
      */
@@ -42,4 +102,28 @@ public class CacheConfig {
             .expireAfterWrite(5, TimeUnit.MINUTES)
             .recordStats();
     }
-}
\ No newline at end of file
+
+    /**
+     * Recalcule une entrée via le CacheRefresher déclaré pour ce cache.
+     * Retourne null (pas d'entrée) si aucun refresher ne connaît la clé.
+     */
+    private static final class RefreshingCacheLoader implements CacheLoader<Object, Object> {
+
+        private final String cacheName;
+        private final ObjectProvider<CacheRefresher> refreshers;
+
+        RefreshingCacheLoader(String cacheName, ObjectProvider<CacheRefresher> refreshers) {
+            this.cacheName = cacheName;
+            this.refreshers = refreshers;
+        }
+
+        @Override
+        public Object load(Object key) {
+            return refreshers.orderedStream()
+                .filter(refresher -> cacheName.equals(refresher.getCacheName()))
+                .findFirst()
+                .map(refresher -> refresher.reload(key))
+                .orElse(null);
+        }
+    }
+}
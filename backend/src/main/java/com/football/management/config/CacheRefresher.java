@@ -0,0 +1,18 @@
+package com.football.management.config;
+
+/**
+ * Recalcule les entrées d'un cache rafraîchi en arrière-plan (voir CacheConfig)
+ */
+public interface CacheRefresher {
+
+    /**
+     * Nom du cache géré
+     */
+    String getCacheName();
+
+    /**
+     * Recalcule la valeur associée à la clé, sans passer par le cache.
+     * Retourne null si la clé n'est pas reconnue.
+     */
+    Object reload(Object key);
+}
@@ -0,0 +1,12 @@
+package com.football.management.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (réconciliation des compteurs, rafraîchissements)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -9,13 +9,27 @@ import com.football.management.service.validation.ValidationResult;
 import com.football.management.service.validation.CinPassportValidator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ContentDisposition;
 
+import com.football.management.config.AsyncResponses;
+import com.football.management.dto.CursorPageDTO;
 import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.dto.DemandeSummaryDTO;
+import com.football.management.dto.LicencePrintRequest;
+import com.football.management.dto.SparseFields;
+import com.football.management.mapper.DemandePlayersMapper;
 import com.football.management.service.DemandePlayersService;
 import com.football.management.service.PdfGenerationService;
+import com.football.management.service.pdf.PdfCache;
+import com.football.management.service.print.LicenceBatchPrintService;
+import com.football.management.service.print.PrintJobService;
+import com.football.management.service.quota.QuotaExceededException;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.renewal.TeamRenewalService;
 import com.football.management.service.validation.ValidationOrchestrator;
 
 //========== IMPORTS SWAGGER/OPENAPI (AJOUTEZ CES LIGNES) ==========
@@ -37,7 +51,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import jakarta.servlet.http.HttpServletResponse;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 
 import java.util.HashMap; // AJOUTER CET IMPORT
 
@@ -46,8 +63,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import com.football.management.entity.DemandePlayers;
 import com.football.management.entity.NotificationHistory;
 import com.football.management.repository.NotificationHistoryRepository;
+import com.football.management.repository.PrintJobRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +77,8 @@ import java.time.Period;
 import java.util.List;
 
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/demandes-players")
@@ -67,6 +88,12 @@ public class DemandePlayersController {
 
 	private static final Logger logger = LoggerFactory.getLogger(DemandePlayersController.class);
 
+	// Taille maximale d'un lot de validation (effectif complet d'une équipe)
+	private static final int MAX_VALIDATION_BATCH_SIZE = 200;
+
+	// Taille maximale d'un changement de statut groupé
+	private static final int MAX_WORKFLOW_BATCH_SIZE = 1000;
+
 	@Autowired
 	private DemandePlayersService demandePlayersService;
 
@@ -88,10 +115,25 @@ public class DemandePlayersController {
 	
 	@Autowired
 	private PdfGenerationService pdfGenerationService;
+
+	@Autowired
+	private LicenceBatchPrintService licenceBatchPrintService;
+	
+	@Autowired
+	private PrintJobService printJobService;
+	
+	@Autowired
+	private AsyncResponses asyncResponses;
 	
 	@Autowired
 	private RenewalValidator renewalValidator;
 
+	@Autowired
+	private ReferenceDataStore referenceDataStore;
+
+	@Autowired
+	private TeamRenewalService teamRenewalService;
+
 	/**
 	 * Recherche des demandes avec critères et pagination
 	 */
@@ -100,7 +142,7 @@ public class DemandePlayersController {
 	@Operation(summary = "Rechercher des demandes", description = "Recherche des demandes avec filtres multiples (équipe, saison, nom, CIN, etc.) et pagination")
 	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Liste des demandes retournée avec succès"),
 			@ApiResponse(responseCode = "500", description = "Erreur serveur") })
-	public ResponseEntity<Page<DemandePlayersDTO>> searchDemandes(@RequestParam(required = false) Long demandeId,
+	public ResponseEntity<?> searchDemandes(@RequestParam(required = false) Long demandeId,
 			@RequestParam(required = false) Long demandeStatuId, @RequestParam(required = false) Long teamId,
 			@RequestParam(required = false) Long seasonId, @RequestParam(required = false) String lastName,
 			@RequestParam(required = false) String name, @RequestParam(required = false) String licenceNum,
@@ -109,18 +151,28 @@ public class DemandePlayersController {
 			@RequestParam(required = false) Long ctIntervenantTypeId, // Nouveau paramètre ajouté
 			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size,
 			@RequestParam(defaultValue = "dateEnregistrement") String sortBy,
-			@RequestParam(defaultValue = "desc") String sortDir) {
+			@RequestParam(defaultValue = "desc") String sortDir,
+			@Parameter(description = "Propriétés à renvoyer, séparées par des virgules (toutes par défaut)") @RequestParam(required = false) String fields) {
 
 		try {
 			Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
 
 			Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
+			Set<String> selected = SparseFields.parse(fields);
+
+			// Champs tous lus tels quels en base : seules ces colonnes sont chargées
+			if (selected != null && DemandePlayersMapper.DIRECT_FIELDS.containsAll(selected)) {
+				return ResponseEntity.ok(demandePlayersService.searchDemandeFields(demandeId, demandeStatuId, teamId,
+						seasonId, lastName, name, licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId,
+						pageable, selected));
+			}
+
 			Page<DemandePlayersDTO> result = demandePlayersService.searchDemandes(demandeId, demandeStatuId, teamId,
 					seasonId, lastName, name, licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId,
 					pageable); // Paramètre passé au service
 
-			return ResponseEntity.ok(result);
+			return ResponseEntity.ok(SparseFields.apply(result, selected));
 
 		} catch (Exception e) {
 			e.printStackTrace(); // Pour debug - à retirer en production
@@ -128,6 +180,76 @@ public class DemandePlayersController {
 		}
 	}
 
+	/**
+	 * Recherche des demandes en vue de liste (?view=summary)
+	 */
+	@GetMapping(params = "view=summary")
+	@Operation(summary = "Rechercher des demandes (vue liste)", description = "Mêmes filtres et pagination que la recherche ; ne renvoie que les colonnes des écrans de liste")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Liste des demandes retournée avec succès"),
+			@ApiResponse(responseCode = "500", description = "Erreur serveur") })
+	public ResponseEntity<?> searchDemandeSummaries(@RequestParam(required = false) Long demandeId,
+			@RequestParam(required = false) Long demandeStatuId, @RequestParam(required = false) Long teamId,
+			@RequestParam(required = false) Long seasonId, @RequestParam(required = false) String lastName,
+			@RequestParam(required = false) String name, @RequestParam(required = false) String licenceNum,
+			@RequestParam(required = false) String cinNumber, @RequestParam(required = false) Long regimeId,
+			@RequestParam(required = false) Long typeLicenceId,
+			@RequestParam(required = false) Long ctIntervenantTypeId,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size,
+			@RequestParam(defaultValue = "dateEnregistrement") String sortBy,
+			@RequestParam(defaultValue = "desc") String sortDir,
+			@RequestParam(required = false) String fields) {
+
+		try {
+			Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+			Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+			return ResponseEntity.ok(SparseFields.apply(demandePlayersService.searchDemandeSummaries(demandeId,
+					demandeStatuId, teamId, seasonId, lastName, name, licenceNum, cinNumber, regimeId, typeLicenceId,
+					ctIntervenantTypeId, pageable), SparseFields.parse(fields)));
+
+		} catch (Exception e) {
+			logger.error("Erreur lors de la recherche des demandes (vue liste)", e);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+
+	/**
+	 * Recherche des demandes paginée par curseur (?keyset=true)
+	 */
+	@GetMapping(params = "keyset=true")
+	@Operation(summary = "Rechercher des demandes (pagination par curseur)", description = "Mêmes filtres que la recherche paginée ; renvoie nextCursor à transmettre pour la page suivante. Le total n'est calculé que si includeTotal=true")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Page de demandes retournée avec succès"),
+			@ApiResponse(responseCode = "400", description = "Curseur invalide"),
+			@ApiResponse(responseCode = "500", description = "Erreur serveur") })
+	public ResponseEntity<?> searchDemandesKeyset(@RequestParam(required = false) Long demandeId,
+			@RequestParam(required = false) Long demandeStatuId, @RequestParam(required = false) Long teamId,
+			@RequestParam(required = false) Long seasonId, @RequestParam(required = false) String lastName,
+			@RequestParam(required = false) String name, @RequestParam(required = false) String licenceNum,
+			@RequestParam(required = false) String cinNumber, @RequestParam(required = false) Long regimeId,
+			@RequestParam(required = false) Long typeLicenceId,
+			@RequestParam(required = false) Long ctIntervenantTypeId,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size,
+			@RequestParam(defaultValue = "false") boolean includeTotal,
+			@RequestParam(required = false) String fields) {
+
+		try {
+			int pageSize = Math.max(1, Math.min(size, 200));
+
+			CursorPageDTO<DemandePlayersDTO> result = demandePlayersService.searchDemandesKeyset(demandeId,
+					demandeStatuId, teamId, seasonId, lastName, name, licenceNum, cinNumber, regimeId, typeLicenceId,
+					ctIntervenantTypeId, cursor, pageSize, includeTotal);
+
+			return ResponseEntity.ok(SparseFields.apply(result, SparseFields.parse(fields)));
+
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (Exception e) {
+			logger.error("Erreur lors de la recherche paginée par curseur", e);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+		}
+	}
+
 	/**
 	 * Obtenir une demande par ID
 	 */
@@ -138,10 +260,10 @@ public class DemandePlayersController {
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Demande trouvée avec succès", content = @Content(schema = @Schema(implementation = DemandePlayersDTO.class))),
 			@ApiResponse(responseCode = "404", description = "Demande non trouvée") })
-	public ResponseEntity<DemandePlayersDTO> getDemandeById(@PathVariable Long id) {
+	public ResponseEntity<?> getDemandeById(@PathVariable Long id, @RequestParam(required = false) String fields) {
 		try {
 			DemandePlayersDTO demande = demandePlayersService.getById(id);
-			return ResponseEntity.ok(demande);
+			return ResponseEntity.ok(SparseFields.apply(demande, SparseFields.parse(fields)));
 		} catch (RuntimeException e) {
 			return ResponseEntity.notFound().build();
 		} catch (Exception e) {
@@ -154,11 +276,11 @@ public class DemandePlayersController {
 	 * Obtenir les demandes par équipe et saison
 	 */
 	@GetMapping("/team/{teamId}/season/{seasonId}")
-	public ResponseEntity<List<DemandePlayersDTO>> getDemandesByTeamAndSeason(@PathVariable Long teamId,
-			@PathVariable Long seasonId) {
+	public ResponseEntity<?> getDemandesByTeamAndSeason(@PathVariable Long teamId,
+			@PathVariable Long seasonId, @RequestParam(required = false) String fields) {
 		try {
-			List<DemandePlayersDTO> demandes = demandePlayersService.getDemandesByTeamAndSeason(teamId, seasonId);
-			return ResponseEntity.ok(demandes);
+			List<DemandeSummaryDTO> demandes = demandePlayersService.getDemandesByTeamAndSeason(teamId, seasonId);
+			return ResponseEntity.ok(SparseFields.apply(demandes, SparseFields.parse(fields)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -169,11 +291,11 @@ public class DemandePlayersController {
 	 * Obtenir les candidats pour renouvellement
 	 */
 	@GetMapping("/renewals/team/{teamId}/season/{seasonId}")
-	public ResponseEntity<List<DemandePlayersDTO>> getRenewalCandidates(@PathVariable Long teamId,
-			@PathVariable Long seasonId) {
+	public ResponseEntity<?> getRenewalCandidates(@PathVariable Long teamId,
+			@PathVariable Long seasonId, @RequestParam(required = false) String fields) {
 		try {
-			List<DemandePlayersDTO> candidates = demandePlayersService.getRenewalCandidates(teamId, seasonId);
-			return ResponseEntity.ok(candidates);
+			List<DemandeSummaryDTO> candidates = demandePlayersService.getRenewalCandidates(teamId, seasonId);
+			return ResponseEntity.ok(SparseFields.apply(candidates, SparseFields.parse(fields)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -293,6 +415,13 @@ public class DemandePlayersController {
 
 			return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+		} catch (QuotaExceededException e) {
+			// Quota atteint par une demande enregistrée entre la validation et la création
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("success", false);
+			errorResponse.put("errors", List.of(e.getMessage()));
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+
 		} catch (Exception e) {
 			Map<String, Object> errorResponse = new HashMap<>();
 			errorResponse.put("success", false);
@@ -402,10 +531,11 @@ public class DemandePlayersController {
 	 * Obtenir les demandes par statut
 	 */
 	@GetMapping("/status/{statusId}")
-	public ResponseEntity<List<DemandePlayersDTO>> getDemandesByStatus(@PathVariable Long statusId) {
+	public ResponseEntity<?> getDemandesByStatus(@PathVariable Long statusId,
+			@RequestParam(required = false) String fields) {
 		try {
-			List<DemandePlayersDTO> demandes = demandePlayersService.getAllByStatus(statusId);
-			return ResponseEntity.ok(demandes);
+			List<DemandeSummaryDTO> demandes = demandePlayersService.getAllByStatus(statusId);
+			return ResponseEntity.ok(SparseFields.apply(demandes, SparseFields.parse(fields)));
 		} catch (Exception e) {
 			e.printStackTrace();
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -416,10 +546,12 @@ public class DemandePlayersController {
 	 * Rechercher par numéro de licence
 	 */
 	@GetMapping("/licence/{licenceNum}")
-	public ResponseEntity<DemandePlayersDTO> getByLicenceNum(@PathVariable String licenceNum) {
+	public ResponseEntity<?> getByLicenceNum(@PathVariable String licenceNum,
+			@RequestParam(required = false) String fields) {
 		try {
 			Optional<DemandePlayersDTO> demande = demandePlayersService.getByLicenceNum(licenceNum);
-			return demande.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+			return demande.<ResponseEntity<?>>map(d -> ResponseEntity.ok(SparseFields.apply(d, SparseFields.parse(fields))))
+					.orElse(ResponseEntity.notFound().build());
 		} catch (Exception e) {
 			e.printStackTrace();
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -430,10 +562,12 @@ public class DemandePlayersController {
 	 * Rechercher par numéro CIN
 	 */
 	@GetMapping("/cin/{cinNumber}")
-	public ResponseEntity<DemandePlayersDTO> getByCinNumber(@PathVariable String cinNumber) {
+	public ResponseEntity<?> getByCinNumber(@PathVariable String cinNumber,
+			@RequestParam(required = false) String fields) {
 		try {
 			Optional<DemandePlayersDTO> demande = demandePlayersService.getByCinNumber(cinNumber);
-			return demande.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+			return demande.<ResponseEntity<?>>map(d -> ResponseEntity.ok(SparseFields.apply(d, SparseFields.parse(fields))))
+					.orElse(ResponseEntity.notFound().build());
 		} catch (Exception e) {
 			e.printStackTrace();
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -618,57 +752,13 @@ public class DemandePlayersController {
 
 	/**
 	 * Calcule la catégorie d'un joueur selon sa date de naissance
-	 * Aligné avec la table ct_param_category
+	 * Plages de ct_param_category lues dans l'instantané des données de référence
 	 */
 	private Long calculateCategoryFromBirthDate(LocalDate dateOfBirth) {
 	    if (dateOfBirth == null) return null;
 	    
 	    try {
-	        // ✅ Définition des plages selon ct_param_category
-	        // CP (id=9): 2017-01-01 à 2018-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2017, 1, 1))) {
-	            return 9L; // CP
-	        }
-	        
-	        // BENJAMINS (id=1): 2015-01-01 à 2016-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2015, 1, 1)) && 
-	            !dateOfBirth.isAfter(LocalDate.of(2016, 12, 31))) {
-	            return 1L; // BENJAMINS
-	        }
-	        
-	        // ECOLES (id=2): 2013-01-01 à 2014-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2013, 1, 1)) && 
-	            !dateOfBirth.isAfter(LocalDate.of(2014, 12, 31))) {
-	            return 2L; // ECOLES
-	        }
-	        
-	        // MINIMES (id=3): 2011-01-01 à 2012-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2011, 1, 1)) && 
-	            !dateOfBirth.isAfter(LocalDate.of(2012, 12, 31))) {
-	            return 3L; // MINIMES
-	        }
-	        
-	        // CADETS (id=4): 2009-01-01 à 2010-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2009, 1, 1)) && 
-	            !dateOfBirth.isAfter(LocalDate.of(2010, 12, 31))) {
-	            return 4L; // CADETS
-	        }
-	        
-	        // JUNIORS (id=5): 2007-01-01 à 2008-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2007, 1, 1)) && 
-	            !dateOfBirth.isAfter(LocalDate.of(2008, 12, 31))) {
-	            return 5L; // JUNIORS
-	        }
-	        
-	        // ELITE (id=6): 2005-01-01 à 2006-12-31
-	        if (!dateOfBirth.isBefore(LocalDate.of(2005, 1, 1)) && 
-	            !dateOfBirth.isAfter(LocalDate.of(2006, 12, 31))) {
-	            return 6L; // ELITE
-	        }
-	        
-	        // SENIORS (id=7): avant 2005
-	        return 7L; // SENIORS
-	        
+	        return referenceDataStore.getSnapshot().categoryOf(dateOfBirth);
 	    } catch (Exception e) {
 	        logger.error("Erreur calcul catégorie pour date {}", dateOfBirth, e);
 	        return 7L; // Par défaut: SENIORS
@@ -853,65 +943,71 @@ public class DemandePlayersController {
 		}
 	}
 
-	// ✅ REMPLACEZ CETTE MÉTHODE DANS DemandePlayersController.java
+	/**
+	 * Renouveler l'effectif d'une équipe en un appel : tous les joueurs éligibles si le corps
+	 * est vide, sinon les joueurs listés (intervenantId + champs du formulaire de renouvellement)
+	 */
+	@PostMapping("/renouvellement/team/{teamId}/season/{newSeasonId}")
+	@Operation(summary = "Renouveler l'effectif d'une équipe", description = "Crée en une transaction les demandes de renouvellement des joueurs éligibles et renvoie le résultat de chaque joueur")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Lot traité, résultat par joueur"),
+			@ApiResponse(responseCode = "400", description = "Lot trop volumineux"),
+			@ApiResponse(responseCode = "409", description = "Quota atteint pendant l'enregistrement, aucune demande créée") })
+	public ResponseEntity<Map<String, Object>> renewTeam(
+			@Parameter(description = "ID de l'équipe", required = true, example = "101") @PathVariable Long teamId,
+
+			@Parameter(description = "ID de la nouvelle saison", required = true, example = "2025") @PathVariable Long newSeasonId,
+
+			@RequestBody(required = false) List<DemandePlayersDTO> joueurs) {
+		Map<String, Object> response = new HashMap<>();
+
+		try {
+			if (joueurs != null && joueurs.size() > MAX_VALIDATION_BATCH_SIZE) {
+				response.put("success", false);
+				response.put("error", "Le lot ne peut pas dépasser " + MAX_VALIDATION_BATCH_SIZE + " joueurs");
+				return ResponseEntity.badRequest().body(response);
+			}
+
+			TeamRenewalService.TeamRenewalReport report = teamRenewalService.renewTeam(teamId, newSeasonId, joueurs, 1L);
+
+			response.put("success", report.rejected() == 0);
+			response.put("total", report.total());
+			response.put("created", report.created());
+			response.put("rejected", report.rejected());
+			response.put("results", report.outcomes());
+			return ResponseEntity.ok(response);
+
+		} catch (QuotaExceededException e) {
+			// Quota atteint par une demande enregistrée pendant le lot : transaction annulée
+			response.put("success", false);
+			response.put("errors", List.of(e.getMessage()));
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+		} catch (Exception e) {
+			logger.error("Erreur renouvellement équipe {} saison {}", teamId, newSeasonId, e);
+			response.put("success", false);
+			response.put("error", "Erreur : " + e.getMessage());
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+		}
+	}
 
 	@GetMapping("/categories/calculate")
 	public ResponseEntity<Map<String, Object>> calculateCategory(@RequestParam String dateOfBirth) {
 	    try {
 	        LocalDate birthDate = LocalDate.parse(dateOfBirth);
 	        
-	        // ✅ REQUÊTE CORRIGÉE : Utilise la date complète au lieu de l'année
-	        String sql = """
-	                SELECT pc.ct_player_category_id,
-	                       CASE pc.ct_player_category_id
-	                           WHEN 1 THEN 'BENJAMINS'
-	                           WHEN 2 THEN 'ECOLES'
-	                           WHEN 3 THEN 'MINIMES'
-	                           WHEN 4 THEN 'CADETS'
-	                           WHEN 5 THEN 'JUNIORS'
-	                           WHEN 6 THEN 'ELITE'
-	                           WHEN 7 THEN 'SENIORS'
-	                           WHEN 9 THEN 'CP'
-	                           ELSE 'SENIORS'
-	                       END as libelle,
-	                       pcat.annee_debut,
-	                       pcat.annee_fin
-	                FROM ct_param_category pcat
-	                INNER JOIN (
-	                    SELECT DISTINCT ct_player_category_id 
-	                    FROM ct_param_category
-	                ) pc ON pc.ct_player_category_id = pcat.ct_player_category_id
-	                WHERE ? BETWEEN DATE(pcat.annee_debut) AND DATE(pcat.annee_fin)
-	                ORDER BY pcat.annee_debut DESC
-	                LIMIT 1
-	                """;
-
-	        List<Map<String, Object>> results = jdbcTemplate.query(sql, (rs, rowNum) -> {
-	            Map<String, Object> category = new HashMap<>();
-	            category.put("id", rs.getLong("ct_player_category_id"));
-	            category.put("label", rs.getString("libelle"));
-	            
-	            // Debug: afficher les plages de dates utilisées
-	            logger.info("Catégorie trouvée pour {} : {} (plage: {} - {})", 
-	                birthDate, 
-	                rs.getString("libelle"),
-	                rs.getDate("annee_debut"),
-	                rs.getDate("annee_fin")
-	            );
-	            
-	            return category;
-	        }, birthDate);
-
-	        if (!results.isEmpty()) {
-	            return ResponseEntity.ok(results.get(0));
+	        // Recherche en mémoire dans l'index des plages de ct_param_category
+	        Long categoryId = referenceDataStore.getSnapshot().findCategory(birthDate);
+	        
+	        if (categoryId == null) {
+	            // Par défaut : SENIORS
+	            logger.warn("Aucune catégorie trouvée pour la date {}, retour SENIORS par défaut", birthDate);
+	            categoryId = 7L;
 	        }
-
-	        // Par défaut : SENIORS
-	        logger.warn("Aucune catégorie trouvée pour la date {}, retour SENIORS par défaut", birthDate);
-	        Map<String, Object> defaultCategory = new HashMap<>();
-	        defaultCategory.put("id", 7L);
-	        defaultCategory.put("label", "SENIORS");
-	        return ResponseEntity.ok(defaultCategory);
+	        
+	        Map<String, Object> category = new HashMap<>();
+	        category.put("id", categoryId);
+	        category.put("label", getCategoryLibelle(categoryId));
+	        return ResponseEntity.ok(category);
 
 	    } catch (Exception e) {
 	        logger.error("Erreur calcul catégorie pour date {}", dateOfBirth, e);
@@ -920,6 +1016,19 @@ public class DemandePlayersController {
 	    }
 	}
 
+	private static String getCategoryLibelle(Long categoryId) {
+	    switch (categoryId.intValue()) {
+	        case 1: return "BENJAMINS";
+	        case 2: return "ECOLES";
+	        case 3: return "MINIMES";
+	        case 4: return "CADETS";
+	        case 5: return "JUNIORS";
+	        case 6: return "ELITE";
+	        case 9: return "CP";
+	        default: return "SENIORS";
+	    }
+	}
+
 	@GetMapping("/player-info/{playerId}")
 	public ResponseEntity<DemandePlayersDTO> getInfoPlayer(@PathVariable BigDecimal playerId,
 			@RequestParam BigDecimal regimeId, @RequestParam BigDecimal seasonId, @RequestParam BigDecimal teamId) {
@@ -1042,6 +1151,43 @@ public class DemandePlayersController {
 		}
 	}
 
+	/**
+	 * Valider un lot de demandes d'une même équipe et saison (effectif complet),
+	 * sans les enregistrer. Les quotas sont évalués cumulativement dans l'ordre du lot.
+	 */
+	@PostMapping("/validate-batch")
+	public ResponseEntity<Map<String, Object>> validateBatch(@RequestBody List<DemandePlayersDTO> demandes) {
+		Map<String, Object> response = new HashMap<>();
+
+		try {
+			if (demandes == null || demandes.isEmpty() || demandes.size() > MAX_VALIDATION_BATCH_SIZE) {
+				response.put("success", false);
+				response.put("error", "Le lot doit contenir entre 1 et " + MAX_VALIDATION_BATCH_SIZE + " demandes");
+				return ResponseEntity.badRequest().body(response);
+			}
+
+			List<ValidationResult> results = validationOrchestrator.validateBatch(demandes);
+			long validCount = results.stream().filter(ValidationResult::isValid).count();
+
+			response.put("success", validCount == results.size());
+			response.put("total", results.size());
+			response.put("valid", validCount);
+			response.put("invalid", results.size() - validCount);
+			response.put("results", results);
+			return ResponseEntity.ok(response);
+
+		} catch (IllegalArgumentException e) {
+			response.put("success", false);
+			response.put("error", e.getMessage());
+			return ResponseEntity.badRequest().body(response);
+		} catch (Exception e) {
+			logger.error("Erreur lors de la validation d'un lot de {} demandes", demandes.size(), e);
+			response.put("success", false);
+			response.put("error", "Erreur : " + e.getMessage());
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+		}
+	}
+
 	// ==================== ENDPOINTS WORKFLOW ====================
 
 	/**
@@ -1079,6 +1225,53 @@ public class DemandePlayersController {
 		}
 	}
 
+	/**
+	 * Changer le statut d'un lot de demandes (validation ou impression groupée).
+	 * Chaque demande est vérifiée séparément : un refus n'empêche pas les autres transitions.
+	 */
+	@PatchMapping("/workflow/change-status")
+	@Operation(summary = "Changer le statut d'un lot de demandes", description = "Applique la même transition à plusieurs demandes et renvoie le résultat de chacune")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Lot traité, résultat par demande"),
+			@ApiResponse(responseCode = "400", description = "Lot vide ou trop volumineux, ou statut invalide") })
+	public ResponseEntity<Map<String, Object>> changeStatusBulk(
+			@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "IDs des demandes", required = true) @RequestBody List<Long> ids,
+
+			@Parameter(description = "Nouveau statut (1=Initial, 2=Validée, 8=En attente, 9=Imprimée, 10=Rejetée)", required = true, example = "9") @RequestParam Long newStatusId,
+
+			@Parameter(description = "Commentaire du changement", example = "Impression groupée") @RequestParam(required = false) String comment,
+
+			@Parameter(description = "ID de l'utilisateur", example = "1") @RequestParam(required = false, defaultValue = "1") Long userId) {
+		Map<String, Object> response = new HashMap<>();
+
+		try {
+			if (ids == null || ids.isEmpty() || ids.size() > MAX_WORKFLOW_BATCH_SIZE) {
+				response.put("success", false);
+				response.put("error", "Le lot doit contenir entre 1 et " + MAX_WORKFLOW_BATCH_SIZE + " demandes");
+				return ResponseEntity.badRequest().body(response);
+			}
+
+			WorkflowService.BulkTransitionReport report = workflowService.changeStatusBulk(ids, newStatusId, userId, comment);
+
+			response.put("success", report.failed() == 0);
+			response.put("total", report.total());
+			response.put("succeeded", report.succeeded());
+			response.put("failed", report.failed());
+			response.put("results", report.outcomes());
+			return ResponseEntity.ok(response);
+
+		} catch (IllegalArgumentException e) {
+			response.put("success", false);
+			response.put("error", e.getMessage());
+			return ResponseEntity.badRequest().body(response);
+
+		} catch (Exception e) {
+			logger.error("Erreur changement de statut groupé vers {} ({} demandes)", newStatusId, ids.size(), e);
+			response.put("success", false);
+			response.put("error", "Erreur : " + e.getMessage());
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+		}
+	}
+
 	/**
 	 * Obtenir les transitions possibles pour une demande
 	 */
@@ -1219,71 +1412,249 @@ public class DemandePlayersController {
 	)
 	@ApiResponses({
 	    @ApiResponse(responseCode = "200", description = "PDF généré avec succès"),
+	    @ApiResponse(responseCode = "304", description = "PDF inchangé depuis l'ETag fourni (If-None-Match)"),
 	    @ApiResponse(responseCode = "404", description = "Demande non trouvée"),
 	    @ApiResponse(responseCode = "500", description = "Erreur lors de la génération du PDF")
 	})
-	public ResponseEntity<byte[]> downloadLicencePdf(
+	public WebAsyncTask<ResponseEntity<?>> downloadLicencePdf(
 	    @Parameter(description = "ID de la demande", required = true, example = "981532")
-	    @PathVariable Long id
+	    @PathVariable Long id,
+	    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+	    HttpServletResponse response
+	) {
+	    try {
+	        DemandePlayers demande = pdfGenerationService.findDemande(id);
+	        String etag = pdfGenerationService.licenceETag(demande);
+	        if (PdfCache.matches(ifNoneMatch, etag)) {
+	            return AsyncResponses.completed(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+	        }
+	        
+	        HttpHeaders headers = pdfHeaders("licence_" + id + ".pdf", etag);
+	        
+	        // Déjà en cache : fichier servi tel quel ; sinon rendu écrit en flux sur pdfStreamExecutor
+	        Optional<Path> cached = pdfGenerationService.cachedLicencePdf(demande, etag);
+	        if (cached.isPresent()) {
+	            return AsyncResponses.completed(ResponseEntity.ok().headers(headers).body(new FileSystemResource(cached.get())));
+	        }
+	        return asyncResponses.pdf(response, headers,
+	            out -> pdfGenerationService.writeCachedLicencePdf(demande, etag, out));
+	            
+	    } catch (IllegalArgumentException e) {
+	        return AsyncResponses.completed(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	            
+	    } catch (Exception e) {
+	        logger.error("Erreur lors de la génération de la licence {}", id, e);
+	        return AsyncResponses.completed(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+	    }
+	}
+
+	/**
+	 * Imprimer un lot de licences dans un seul PDF (club complet ou sélection de demandes)
+	 */
+	@PostMapping("/licences/pdf")
+	@Operation(
+	    summary = "Imprimer un lot de licences en PDF",
+	    description = "Génère en un seul PDF les licences des demandes indiquées, ou celles d'une équipe et saison "
+	        + "dans un statut (VALIDEE_CLUB par défaut). Avec markPrinted, les demandes passent au statut IMPRIMEE "
+	        + "avant l'écriture du PDF : seules les licences acceptées sont imprimées, les refusées sont listées "
+	        + "dans l'en-tête X-Licences-Failed"
+	)
+	@ApiResponses({
+	    @ApiResponse(responseCode = "200", description = "PDF généré avec succès"),
+	    @ApiResponse(responseCode = "400", description = "Sélection invalide, vide ou trop volumineuse"),
+	    @ApiResponse(responseCode = "409", description = "Aucune demande n'a pu passer au statut IMPRIMEE"),
+	    @ApiResponse(responseCode = "500", description = "Erreur lors de la génération du PDF")
+	})
+	public WebAsyncTask<ResponseEntity<?>> downloadLicencesPdf(
+	    @RequestBody LicencePrintRequest request,
+	    @Parameter(description = "ID de l'utilisateur", example = "1")
+	    @RequestParam(required = false, defaultValue = "1") Long userId,
+	    HttpServletResponse response
 	) {
 	    try {
-	        byte[] pdfBytes = pdfGenerationService.generateLicencePdf(id);
+	        List<DemandePlayers> demandes = licenceBatchPrintService.select(request);
+	        
+	        // Passage à IMPRIMEE validé avant le premier octet : le PDF ne contient que les licences acceptées
+	        LicenceBatchPrintService.PreparedPrint prepared =
+	            licenceBatchPrintService.prepare(demandes, request.isMarkPrinted(), userId);
+	        if (prepared.demandes().isEmpty()) {
+	            return AsyncResponses.completed(ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+	                "success", false,
+	                "error", "Aucune licence n'a pu passer au statut IMPRIMEE",
+	                "report", prepared.report())));
+	        }
+	        if (prepared.report() != null) {
+	            logger.info("Lot de {} licences : {} passées à IMPRIMEE, {} en échec",
+	                demandes.size(), prepared.report().succeeded(), prepared.report().failed());
+	        }
 	        
 	        HttpHeaders headers = new HttpHeaders();
 	        headers.setContentType(MediaType.APPLICATION_PDF);
 	        headers.setContentDisposition(
 	            ContentDisposition.attachment()
-	                .filename("licence_" + id + ".pdf")
+	                .filename("licences.pdf")
 	                .build()
 	        );
+	        headers.add("X-Licences-Count", String.valueOf(prepared.demandes().size()));
+	        List<Long> failedIds = prepared.failedIds();
+	        if (!failedIds.isEmpty()) {
+	            headers.add("X-Licences-Failed", failedIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+	        }
 	        
-	        return ResponseEntity.ok()
-	            .headers(headers)
-	            .body(pdfBytes);
+	        // Rendu long (jusqu'à pdf.batch.max-licences) : pool et délai des exports
+	        return asyncResponses.export(response, headers,
+	            out -> licenceBatchPrintService.print(prepared.demandes(), out));
 	            
 	    } catch (IllegalArgumentException e) {
-	        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-	            .body(null);
+	        logger.warn("Impression de licences refusée : {}", e.getMessage());
+	        return AsyncResponses.completed(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+	            .body(Map.of("success", false, "error", e.getMessage())));
 	            
 	    } catch (Exception e) {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	            .body(null);
+	        logger.error("Erreur lors de l'impression d'un lot de licences", e);
+	        return AsyncResponses.completed(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
 	    }
 	}
 
 	/**
-	 * Télécharger le récépissé en PDF
+	 * Soumettre une impression de licences en arrière-plan (gros lots : saison d'un club, etc.)
 	 */
-	@GetMapping("/{id}/recepisse/pdf")
+	@PostMapping("/licences/jobs")
 	@Operation(
-	    summary = "Télécharger le récépissé en PDF",
-	    description = "Génère et télécharge le récépissé de la demande"
+	    summary = "Soumettre un travail d'impression de licences",
+	    description = "Enregistre l'impression (même sélection que /licences/pdf) et la confie aux workers d'impression ; "
+	        + "l'avancement se suit sur /licences/jobs/{jobId} et le PDF se télécharge sur /licences/jobs/{jobId}/pdf"
 	)
-	public ResponseEntity<byte[]> downloadRecepissePdf(
-	    @Parameter(description = "ID de la demande", required = true, example = "981532")
-	    @PathVariable Long id
+	@ApiResponses({
+	    @ApiResponse(responseCode = "202", description = "Travail enregistré"),
+	    @ApiResponse(responseCode = "400", description = "Sélection absente")
+	})
+	public ResponseEntity<?> submitPrintJob(
+	    @RequestBody LicencePrintRequest request,
+	    @Parameter(description = "ID de l'utilisateur", example = "1")
+	    @RequestParam(required = false, defaultValue = "1") Long userId
 	) {
 	    try {
-	        byte[] pdfBytes = pdfGenerationService.generateRecepissePdf(id);
+	        PrintJobRepository.PrintJob job = printJobService.submit(request, userId);
+	        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+	        
+	    } catch (IllegalArgumentException e) {
+	        return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+	        
+	    } catch (Exception e) {
+	        logger.error("Erreur lors de la soumission d'un travail d'impression", e);
+	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+	            .body(Map.of("success", false, "error", e.getMessage()));
+	    }
+	}
+	
+	/**
+	 * État et avancement d'un travail d'impression
+	 */
+	@GetMapping("/licences/jobs/{jobId}")
+	@Operation(summary = "Suivre un travail d'impression", description = "Statut (EN_ATTENTE, EN_COURS, TERMINE, ECHEC, EXPIRE) et licences déjà écrites")
+	@ApiResponses({
+	    @ApiResponse(responseCode = "200", description = "Travail trouvé"),
+	    @ApiResponse(responseCode = "404", description = "Travail non trouvé")
+	})
+	public ResponseEntity<?> getPrintJob(@PathVariable Long jobId) {
+	    try {
+	        return ResponseEntity.ok(printJobService.getJob(jobId));
+	        
+	    } catch (IllegalArgumentException e) {
+	        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success", false, "error", e.getMessage()));
+	    }
+	}
+	
+	/**
+	 * Télécharger le PDF d'un travail d'impression terminé
+	 */
+	@GetMapping("/licences/jobs/{jobId}/pdf")
+	@Operation(summary = "Télécharger le PDF d'un travail d'impression", description = "Disponible une fois le travail TERMINE, jusqu'à sa purge")
+	@ApiResponses({
+	    @ApiResponse(responseCode = "200", description = "PDF du travail"),
+	    @ApiResponse(responseCode = "404", description = "Travail non trouvé"),
+	    @ApiResponse(responseCode = "409", description = "Travail non terminé ou fichier expiré")
+	})
+	public ResponseEntity<?> downloadPrintJob(@PathVariable Long jobId) {
+	    try {
+	        Path file = printJobService.getResult(jobId);
 	        
 	        HttpHeaders headers = new HttpHeaders();
 	        headers.setContentType(MediaType.APPLICATION_PDF);
 	        headers.setContentDisposition(
 	            ContentDisposition.attachment()
-	                .filename("recepisse_" + id + ".pdf")
+	                .filename("licences_" + jobId + ".pdf")
 	                .build()
 	        );
 	        
 	        return ResponseEntity.ok()
 	            .headers(headers)
-	            .body(pdfBytes);
+	            .body(new FileSystemResource(file));
+	            
+	    } catch (IllegalArgumentException e) {
+	        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("success", false, "error", e.getMessage()));
+	        
+	    } catch (IllegalStateException e) {
+	        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("success", false, "error", e.getMessage()));
+	    }
+	}
+
+	/**
+	 * Télécharger le récépissé en PDF
+	 */
+	@GetMapping("/{id}/recepisse/pdf")
+	@Operation(
+	    summary = "Télécharger le récépissé en PDF",
+	    description = "Génère et télécharge le récépissé de la demande"
+	)
+	public WebAsyncTask<ResponseEntity<?>> downloadRecepissePdf(
+	    @Parameter(description = "ID de la demande", required = true, example = "981532")
+	    @PathVariable Long id,
+	    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+	    HttpServletResponse response
+	) {
+	    try {
+	        DemandePlayers demande = pdfGenerationService.findDemande(id);
+	        String etag = pdfGenerationService.recepisseETag(demande);
+	        if (PdfCache.matches(ifNoneMatch, etag)) {
+	            return AsyncResponses.completed(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+	        }
+	        
+	        HttpHeaders headers = pdfHeaders("recepisse_" + id + ".pdf", etag);
+	        
+	        Optional<Path> cached = pdfGenerationService.cachedRecepissePdf(demande, etag);
+	        if (cached.isPresent()) {
+	            return AsyncResponses.completed(ResponseEntity.ok().headers(headers).body(new FileSystemResource(cached.get())));
+	        }
+	        return asyncResponses.pdf(response, headers,
+	            out -> pdfGenerationService.writeCachedRecepissePdf(demande, etag, out));
+	            
+	    } catch (IllegalArgumentException e) {
+	        return AsyncResponses.completed(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
 	            
 	    } catch (Exception e) {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	            .body(null);
+	        logger.error("Erreur lors de la génération du récépissé {}", id, e);
+	        return AsyncResponses.completed(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
 	    }
 	}
 	
+	/**
+	 * En-têtes d'un PDF unitaire : pièce jointe, revalidation par ETag à chaque téléchargement
+	 */
+	private static HttpHeaders pdfHeaders(String filename, String etag) {
+	    HttpHeaders headers = new HttpHeaders();
+	    headers.setContentType(MediaType.APPLICATION_PDF);
+	    headers.setCacheControl(CacheControl.noCache().cachePrivate());
+	    headers.setContentDisposition(
+	        ContentDisposition.attachment()
+	            .filename(filename)
+	            .build()
+	    );
+	    headers.setETag("\"" + etag + "\"");
+	    return headers;
+	}
+	
 	@GetMapping("/players/{intervenantId}/renewal-eligibility")
 	public ResponseEntity<?> checkRenewalEligibility(
 	    @PathVariable BigDecimal intervenantId,
@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
+import com.football.management.repository.FilterQuery;
+
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +21,52 @@ import java.util.HashMap;
 @CrossOrigin(origins = "http://localhost:5173")
 public class IntervenantsValidesController {
 
+    // Nom / prénom : préfixe sur f_normalize_name(col), expression indexée en trigrammes
+    // (migration_add_name_search_trgm.sql). CIN et passeport : préfixe sur TRIM(UPPER(col)),
+    // couvert par les index text_pattern_ops (la valeur est mise en majuscules côté Java)
+    private static final FilterQuery INTERVENANTS_VALIDES = FilterQuery.select("""
+                SELECT DISTINCT
+                    i.ct_intervenant_id as intervenantId,
+                    i.ct_intervenant_type_id as intervenantTypeId,
+                    i.cr_pays_id as paysId,
+                    i.cr_etat_civil_id as etatCivilId,
+                    i.name,
+                    i.last_name as lastName,
+                    i.alias,
+                    i.cin_number as cinNumber,
+                    i.passport_num as passportNum,
+                    i.date_of_birth as dateOfBirth,
+                    i.place_of_birth as placeOfBirth,
+                    i.licence_num as licenceNum,
+                    i.membership_date as membershipDate,
+                    i.team_origine_id as origineId,
+                    i.fifa_id as fifaId,
+                    COALESCE(ti.tshirt_num::text, 'N/A') as jerseyNumber,
+                    ti.weight,
+                    ti.height,
+                    ti.fifa_registred as fifaRegistered,
+                    ti.is_qualified as isQualified,
+                    ti.ct_season_id as currentSeasonId,
+                    ti.ct_team_id as currentTeamId,
+                    ti.ct_regime_id as regimeId,
+                    ti.ct_player_category_id as playerCategoryId,
+                    ti.ct_type_licence_id as typeLicenceId,
+                    ti.ct_team_intervenant_photo_id as photoId,
+                    ti.ct_player_position_id as positionId
+                FROM sss_competition_db.ct_intervenants i
+                INNER JOIN sss_competition_db.ct_team_intervenants ti
+                    ON i.ct_intervenant_id = ti.ct_intervenant_id""")
+            .filter("seasonId", "ti.ct_season_id = ?")
+            .filter("teamId", "ti.ct_team_id = ?")
+            .filter("intervenantTypeId", "ti.ct_intervenant_type_id = ?")
+            .filter("name", "sss_competition_db.f_normalize_name(i.name) LIKE sss_competition_db.f_normalize_name(?) || '%'")
+            .filter("lastName", "sss_competition_db.f_normalize_name(i.last_name) LIKE sss_competition_db.f_normalize_name(?) || '%'")
+            .filter("licenceNum", "i.licence_num = ?")
+            .filter("cinNumber", "TRIM(UPPER(i.cin_number)) LIKE ?")
+            .filter("passportNum", "TRIM(UPPER(i.passport_num)) LIKE ?")
+            .filter("paysId", "i.cr_pays_id = ?")
+            .build();
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -119,80 +167,19 @@ public class IntervenantsValidesController {
             @RequestParam(required = false) BigDecimal paysId) {
 
         try {
-            StringBuilder sql = new StringBuilder();
-            sql.append("SELECT ");
-            sql.append("DISTINCT i.ct_intervenant_id as intervenantId, ");
-            sql.append("i.ct_intervenant_type_id as intervenantTypeId, ");
-            sql.append("i.cr_pays_id as paysId, ");
-            sql.append("i.cr_etat_civil_id as etatCivilId, ");
-            sql.append("i.name, ");
-            sql.append("i.last_name as lastName, ");
-            sql.append("i.alias, ");
-            sql.append("i.cin_number as cinNumber, ");
-            sql.append("i.passport_num as passportNum, ");
-            sql.append("i.date_of_birth as dateOfBirth, ");
-            sql.append("i.place_of_birth as placeOfBirth, ");
-            sql.append("i.licence_num as licenceNum, ");
-            sql.append("i.membership_date as membershipDate, ");
-            sql.append("i.team_origine_id as origineId, ");
-            sql.append("i.fifa_id as fifaId, ");
-            sql.append("COALESCE(ti.tshirt_num::text, 'N/A') as jerseyNumber, ");
-            sql.append("ti.weight, ");
-            sql.append("ti.height, ");
-            sql.append("ti.fifa_registred as fifaRegistered, ");
-            sql.append("ti.is_qualified as isQualified, ");
-            sql.append("ti.ct_season_id as currentSeasonId, ");
-            sql.append("ti.ct_team_id as currentTeamId, ");
-            sql.append("ti.ct_regime_id as regimeId, ");
-            sql.append("ti.ct_player_category_id as playerCategoryId, ");
-            sql.append("ti.ct_type_licence_id as typeLicenceId, ");
-            sql.append("ti.ct_team_intervenant_photo_id as photoId, ");
-            sql.append("ti.ct_player_position_id as positionId ");
-            
-            sql.append("FROM sss_competition_db.ct_intervenants i ");
-            sql.append("INNER JOIN sss_competition_db.ct_team_intervenants ti ");
-            sql.append("ON i.ct_intervenant_id = ti.ct_intervenant_id ");
-            
-            sql.append("WHERE ti.ct_season_id = ? ");
-
-            if (teamId != null) {
-                sql.append("AND ti.ct_team_id = ? ");
-            }
-
-            if (intervenantTypeId != null) {
-                sql.append("AND ti.ct_intervenant_type_id = ? ");
-            }
-
-            if (name != null && !name.trim().isEmpty()) {
-                sql.append("AND TRIM(UPPER(i.name)) LIKE TRIM(UPPER(?)) ");
-            }
-
-            if (lastName != null && !lastName.trim().isEmpty()) {
-                sql.append("AND TRIM(UPPER(i.last_name)) LIKE TRIM(UPPER(?)) ");
-            }
-
-            if (licenceNum != null && !licenceNum.trim().isEmpty()) {
-                sql.append("AND i.licence_num = ? ");
-            }
-
-            if (cinNumber != null && !cinNumber.trim().isEmpty()) {
-                sql.append("AND TRIM(UPPER(i.cin_number)) LIKE TRIM(UPPER(?)) ");
-            }
-
-            if (passportNum != null && !passportNum.trim().isEmpty()) {
-                sql.append("AND TRIM(UPPER(i.passport_num)) LIKE TRIM(UPPER(?)) ");
-            }
-
-            if (paysId != null) {
-                sql.append("AND i.cr_pays_id = ? ");
-            }
-
-            sql.append("ORDER BY i.last_name, i.name");
-
-            Object[] params = buildParams(seasonId, teamId, intervenantTypeId, name, lastName, 
-                                        licenceNum, cinNumber, passportNum, paysId);
-
-            List<Map<String, Object>> results = jdbcTemplate.queryForList(sql.toString(), params);
+            FilterQuery.Binding query = INTERVENANTS_VALIDES.bind()
+                    .set("seasonId", seasonId)
+                    .set("teamId", teamId)
+                    .set("intervenantTypeId", intervenantTypeId)
+                    .set("name", name)
+                    .set("lastName", lastName)
+                    .set("licenceNum", licenceNum, v -> v)
+                    .set("cinNumber", cinNumber, v -> v.toUpperCase() + "%")
+                    .set("passportNum", passportNum, v -> v.toUpperCase() + "%")
+                    .set("paysId", paysId)
+                    .orderBy("i.last_name, i.name");
+
+            List<Map<String, Object>> results = jdbcTemplate.queryForList(query.query(), query.arguments());
             return ResponseEntity.ok(results);
 
         } catch (Exception e) {
@@ -291,49 +278,6 @@ public class IntervenantsValidesController {
         }
     }
 
-    private Object[] buildParams(BigDecimal seasonId, BigDecimal teamId, BigDecimal intervenantTypeId,
-                                String name, String lastName, String licenceNum, String cinNumber,
-                                String passportNum, BigDecimal paysId) {
-        
-        java.util.List<Object> paramsList = new java.util.ArrayList<>();
-
-        paramsList.add(seasonId);
-
-        if (teamId != null) {
-            paramsList.add(teamId);
-        }
-
-        if (intervenantTypeId != null) {
-            paramsList.add(intervenantTypeId);
-        }
-
-        if (name != null && !name.trim().isEmpty()) {
-            paramsList.add(name.trim() + "%");
-        }
-
-        if (lastName != null && !lastName.trim().isEmpty()) {
-            paramsList.add(lastName.trim() + "%");
-        }
-
-        if (licenceNum != null && !licenceNum.trim().isEmpty()) {
-            paramsList.add(licenceNum.trim());
-        }
-
-        if (cinNumber != null && !cinNumber.trim().isEmpty()) {
-            paramsList.add(cinNumber.trim() + "%");
-        }
-
-        if (passportNum != null && !passportNum.trim().isEmpty()) {
-            paramsList.add(passportNum.trim() + "%");
-        }
-
-        if (paysId != null) {
-            paramsList.add(paysId);
-        }
-
-        return paramsList.toArray();
-    }
-
     // Endpoint de débogage temporaire
     @GetMapping(value = "/intervenants-valides/{intervenantId}/debug", produces = "application/json")
     public ResponseEntity<Map<String, Object>> debugIntervenant(@PathVariable BigDecimal intervenantId) {
@@ -0,0 +1,72 @@
+package com.football.management.controller;
+
+import com.football.management.repository.NameSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche de noms tolérante aux fautes (saisie au fil de la frappe), résultats classés par score
+ */
+@RestController
+@RequestMapping("/api/v1/name-search")
+@CrossOrigin(origins = "http://localhost:5173")
+public class NameSearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameSearchController.class);
+
+    // En dessous de 3 caractères, aucun trigramme exploitable : l'index ne filtre plus rien
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private NameSearchRepository nameSearchRepository;
+
+    @GetMapping(value = "/intervenants", produces = "application/json")
+    public ResponseEntity<List<Map<String, Object>>> searchIntervenants(
+            @RequestParam String q,
+            @RequestParam(required = false) BigDecimal seasonId,
+            @RequestParam(required = false) BigDecimal teamId,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            if (q.trim().length() < MIN_TERM_LENGTH) {
+                return ResponseEntity.ok(List.of());
+            }
+            return ResponseEntity.ok(nameSearchRepository.searchIntervenants(q.trim(), seasonId, teamId, clamp(limit)));
+
+        } catch (Exception e) {
+            logger.error("Erreur lors de la recherche d'intervenants par nom", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    @GetMapping(value = "/demandes", produces = "application/json")
+    public ResponseEntity<List<Map<String, Object>>> searchDemandes(
+            @RequestParam String q,
+            @RequestParam(required = false) BigDecimal seasonId,
+            @RequestParam(required = false) BigDecimal teamId,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            if (q.trim().length() < MIN_TERM_LENGTH) {
+                return ResponseEntity.ok(List.of());
+            }
+            return ResponseEntity.ok(nameSearchRepository.searchDemandes(q.trim(), seasonId, teamId, clamp(limit)));
+
+        } catch (Exception e) {
+            logger.error("Erreur lors de la recherche de demandes par nom", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
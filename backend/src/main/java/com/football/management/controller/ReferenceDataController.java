@@ -1,13 +1,19 @@
 package com.football.management.controller;
 
 import com.football.management.service.DemandePlayersService;
+import com.football.management.service.reference.ReferenceDataSnapshot;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.stats.StatsAssembler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/reference")
@@ -17,18 +23,27 @@ public class ReferenceDataController {
     @Autowired
     private DemandePlayersService demandePlayersService;
 
+    @Autowired
+    private StatsAssembler statsAssembler;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+
     /**
-     * Récupère toutes les données de référence nécessaires pour les filtres
+     * Récupère toutes les données de référence nécessaires pour les filtres.
+     * Les statistiques sont calculées en parallèle, les parties en échec sont listées dans "erreurs".
      */
     @GetMapping("/all")
     public ResponseEntity<Map<String, Object>> getAllReferenceData() {
         try {
-            Map<String, Object> referenceData = new HashMap<>();
+            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
             
             // Récupérer les statistiques par différents critères
-            referenceData.put("regimes", getRegimeStats());
-            referenceData.put("typesLicence", getTypeLicenceStats());
-            referenceData.put("statuts", getStatusStats());
+            queries.put("regimes", () -> toReferenceStats(demandePlayersService.getRegimeStatistics(), "regimeId"));
+            queries.put("typesLicence", () -> toReferenceStats(demandePlayersService.getTypeLicenceStatistics(), "typeLicenceId"));
+            queries.put("statuts", () -> toReferenceStats(demandePlayersService.getStatusStatistics(), "statusId"));
+            
+            Map<String, Object> referenceData = statsAssembler.assemble(queries).toResponse();
             
             // Ajouter des constantes utiles
             referenceData.put("regimeLabels", getRegimeLabels());
@@ -48,13 +63,7 @@ public class ReferenceDataController {
     @GetMapping("/regimes/stats")
     public ResponseEntity<List<Map<String, Object>>> getRegimeStats() {
         try {
-            // Vous devrez créer cette méthode dans votre service
-            // Pour l'instant, on retourne des données fictives basées sur vos données
-            List<Map<String, Object>> stats = List.of(
-                Map.of("id", 1, "label", "Amateur", "count", 100),
-                Map.of("id", 2, "label", "Professionnel", "count", 50)
-            );
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(toReferenceStats(demandePlayersService.getRegimeStatistics(), "regimeId"));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
@@ -66,14 +75,7 @@ public class ReferenceDataController {
     @GetMapping("/types-licence/stats")
     public ResponseEntity<List<Map<String, Object>>> getTypeLicenceStats() {
         try {
-            List<Map<String, Object>> stats = List.of(
-                Map.of("id", 1, "label", "Nouvelle", "count", 30),
-                Map.of("id", 2, "label", "Renouvellement", "count", 80),
-                Map.of("id", 3, "label", "Transfert National", "count", 20),
-                Map.of("id", 4, "label", "Transfert International", "count", 5),
-                Map.of("id", 5, "label", "Prêt", "count", 10)
-            );
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(toReferenceStats(demandePlayersService.getTypeLicenceStatistics(), "typeLicenceId"));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
@@ -85,17 +87,65 @@ public class ReferenceDataController {
     @GetMapping("/statuts/stats")
     public ResponseEntity<List<Map<String, Object>>> getStatusStats() {
         try {
-            List<Map<String, Object>> stats = List.of(
-                Map.of("id", 1, "label", "En attente", "count", 20),
-                Map.of("id", 8, "label", "Validée par club", "count", 100),
-                Map.of("id", 9, "label", "Imprimée", "count", 50)
-            );
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(toReferenceStats(demandePlayersService.getStatusStatistics(), "statusId"));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * Version de l'instantané des données de référence utilisé par les validations
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> getSnapshotInfo() {
+        try {
+            return ResponseEntity.ok(toSnapshotInfo(referenceDataStore.getSnapshot()));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
 
+    /**
+     * Recharge immédiatement l'instantané (après modification des paramètres, catégories ou divisions)
+     */
+    @PostMapping("/snapshot/reload")
+    public ResponseEntity<Map<String, Object>> reloadSnapshot() {
+        try {
+            return ResponseEntity.ok(toSnapshotInfo(referenceDataStore.reload()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private Map<String, Object> toSnapshotInfo(ReferenceDataSnapshot snapshot) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("version", snapshot.getVersion());
+        info.put("loadedAt", snapshot.getLoadedAt().toString());
+        info.put("categorySegments", snapshot.getCategorySegmentCount());
+        info.put("teams", snapshot.getTeamCount());
+        info.put("quotas", snapshot.getQuotas());
+        return info;
+    }
+
+    /**
+     * Convertit les statistiques du service au format {id, label, count}
+     */
+    private List<Map<String, Object>> toReferenceStats(List<Map<String, Object>> statistics, String idKey) {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (Map<String, Object> stat : statistics) {
+            if (stat.get(idKey) == null) {
+                continue;
+            }
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", stat.get(idKey));
+            item.put("label", stat.get("label"));
+            item.put("count", stat.get("count"));
+            stats.add(item);
+        }
+        return stats;
+    }
+
     /**
      * Labels des régimes
      */
@@ -1,14 +1,23 @@
 	package com.football.management.controller;
 	
+	import com.football.management.config.AsyncResponses;
 	import com.football.management.service.DemandePlayersService;
+	import com.football.management.service.export.BordereauService;
+	import com.football.management.service.export.DemandeExportService;
+	import com.football.management.service.export.DemandeExportService.ExportFormat;
+	import com.football.management.service.stats.StatsAssembler;
 	import org.springframework.beans.factory.annotation.Autowired;
 	import org.springframework.http.ResponseEntity;
 	import org.springframework.web.bind.annotation.*;
+	import org.springframework.web.context.request.async.WebAsyncTask;
+	import jakarta.servlet.http.HttpServletResponse;
 	
 	import java.util.List;
 	import java.util.ArrayList;
 	import java.util.Map;
 	import java.util.HashMap;
+	import java.util.LinkedHashMap;
+	import java.util.function.Supplier;
 	import java.time.LocalDate;
 	import org.springframework.http.HttpHeaders;
 	import org.springframework.http.ContentDisposition;
@@ -29,6 +38,18 @@
 	    @Autowired
 	    private DemandePlayersService demandePlayersService;
 	
+	    @Autowired
+	    private StatsAssembler statsAssembler;
+	
+	    @Autowired
+	    private DemandeExportService demandeExportService;
+	
+	    @Autowired
+	    private BordereauService bordereauService;
+
+	    @Autowired
+	    private AsyncResponses asyncResponses;
+	
 	    /**
 	     * Test simple pour vérifier que le contrôleur fonctionne
 	     */
@@ -38,52 +59,38 @@
 	    }
 	
 	    /**
-	     * Tableau de bord avec gestion d'erreurs
+	     * Tableau de bord : les requêtes indépendantes sont exécutées en parallèle,
+	     * les parties en échec sont listées dans "erreurs"
 	     */
 	    @GetMapping("/dashboard")
 	    public ResponseEntity<Map<String, Object>> getDashboardStats(
 	            @RequestParam(required = false) Long seasonId) {
 	        try {
-	            Map<String, Object> dashboard = new HashMap<>();
-	            
-	            // Statistiques générales - CORRIGÉ : ajouter le 7ème paramètre (ctIntervenantTypeId)
-	            Long totalDemandes = demandePlayersService.countDemandes(null, seasonId, null, null, null, null, null);
-	            dashboard.put("totalDemandes", totalDemandes);
+	            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
 	            
-	            // Test si les méthodes statistiques existent
-	            try {
-	                dashboard.put("parRegime", demandePlayersService.getRegimeStatistics());
-	            } catch (Exception e) {
-	                dashboard.put("parRegime", "Méthode non disponible");
-	            }
+	            queries.put("totalDemandes", () -> demandePlayersService.countDemandes(null, seasonId, null, null, null, null, null));
 	            
-	            try {
-	                dashboard.put("parTypeLicence", demandePlayersService.getTypeLicenceStatistics());
-	            } catch (Exception e) {
-	                dashboard.put("parTypeLicence", "Méthode non disponible");
-	            }
+	            // Répartitions limitées à la saison demandée (toutes saisons sinon)
+	            queries.put("parRegime", () -> seasonId != null
+	                ? demandePlayersService.getRegimeStatistics(seasonId, null)
+	                : demandePlayersService.getRegimeStatistics());
+	            queries.put("parTypeLicence", () -> seasonId != null
+	                ? demandePlayersService.getTypeLicenceStatistics(seasonId, null)
+	                : demandePlayersService.getTypeLicenceStatistics());
+	            queries.put("parStatut", () -> seasonId != null
+	                ? demandePlayersService.getStatusStatistics(seasonId, null)
+	                : demandePlayersService.getStatusStatistics());
 	            
-	            try {
-	                dashboard.put("parStatut", demandePlayersService.getStatusStatistics());
-	            } catch (Exception e) {
-	                dashboard.put("parStatut", "Méthode non disponible");
-	            }
-	            
-	            try {
-	                LocalDate fromDate = LocalDate.now().minusDays(30);
-	                Long recentCount = demandePlayersService.countCreatedAfter(fromDate);
-	                dashboard.put("demandesRecentes", recentCount);
-	            } catch (Exception e) {
-	                dashboard.put("demandesRecentes", "Méthode non disponible");
-	            }
+	            LocalDate fromDate = LocalDate.now().minusDays(30);
+	            queries.put("demandesRecentes", () -> demandePlayersService.countCreatedAfter(fromDate));
 	            
-	            return ResponseEntity.ok(dashboard);
+	            return ResponseEntity.ok(statsAssembler.assemble(queries).toResponse());
 	        } catch (Exception e) {
 	            e.printStackTrace();
 	            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
 	        }
 	    }
-	
+
 	    /**
 	     * Statistiques par équipe et saison
 	     */
@@ -115,56 +122,46 @@
 	    }
 	
 	    /**
-	     * Statistiques générales complètes
+	     * Statistiques générales complètes (requêtes exécutées en parallèle)
 	     */
 	    @GetMapping("/general")
 	    public ResponseEntity<Map<String, Object>> getGeneralStats() {
 	        try {
-	            Map<String, Object> stats = new HashMap<>();
+	            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
 	            
-	            // Statistiques par régime
-	            stats.put("regimes", demandePlayersService.getRegimeStatistics());
-	            
-	            // Statistiques par type de licence
-	            stats.put("typesLicence", demandePlayersService.getTypeLicenceStatistics());
-	            
-	            // Statistiques par statut
-	            stats.put("statuts", demandePlayersService.getStatusStatistics());
+	            queries.put("regimes", demandePlayersService::getRegimeStatistics);
+	            queries.put("typesLicence", demandePlayersService::getTypeLicenceStatistics);
+	            queries.put("statuts", demandePlayersService::getStatusStatistics);
 	            
 	            // Demandes récentes
 	            LocalDate fromDate = LocalDate.now().minusDays(30);
-	            Long recentCount = demandePlayersService.countCreatedAfter(fromDate);
-	            stats.put("demandesRecentes", recentCount);
+	            queries.put("demandesRecentes", () -> demandePlayersService.countCreatedAfter(fromDate));
 	            
 	            // Total général - CORRIGÉ : ajouter le 7ème paramètre
-	            Long total = demandePlayersService.countDemandes(null, null, null, null, null, null, null);
-	            stats.put("totalGeneral", total);
+	            queries.put("totalGeneral", () -> demandePlayersService.countDemandes(null, null, null, null, null, null, null));
 	            
-	            return ResponseEntity.ok(stats);
+	            return ResponseEntity.ok(statsAssembler.assemble(queries).toResponse());
 	        } catch (Exception e) {
 	            e.printStackTrace();
 	            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
 	        }
 	    }
-	
+
 	    /**
 	     * Résumé par saison
 	     */
 	    @GetMapping("/season/{seasonId}/summary")
-	    public ResponseEntity<Map<String, Object>> getSeasonSummary(@PathVariable Long seasonId) {
+	    public ResponseEntity<Map<String, Object>> getSeasonSummary(
+	            @PathVariable Long seasonId,
+	            @RequestParam(required = false) Long teamId) {
 	        try {
-	            Map<String, Object> summary = new HashMap<>();
-	            
-	            // Total pour la saison - CORRIGÉ : ajouter le 7ème paramètre
-	            Long total = demandePlayersService.countDemandes(null, seasonId, null, null, null, null, null);
-	            summary.put("totalSaison", total);
-	            
-	            // Par régime pour cette saison (approximatif)
-	            summary.put("regimes", demandePlayersService.getRegimeStatistics());
-	            summary.put("typesLicence", demandePlayersService.getTypeLicenceStatistics());
-	            summary.put("statuts", demandePlayersService.getStatusStatistics());
+	            // Total, régimes, types de licence et statuts pour cette saison (et cette équipe si fournie)
+	            Map<String, Object> summary = demandePlayersService.getSeasonSummary(seasonId, teamId);
 	            
 	            summary.put("seasonId", seasonId);
+	            if (teamId != null) {
+	                summary.put("teamId", teamId);
+	            }
 	            
 	            return ResponseEntity.ok(summary);
 	        } catch (Exception e) {
@@ -199,43 +196,50 @@
 	    }
 	
 	    /**
-	     * Export de données (temporaire en JSON, PDF plus tard)
+	     * Export des demandes d'une saison (équipe optionnelle) en CSV ou XLSX.
+	     * Le fichier est écrit en flux pendant la lecture en base.
+	     * Corps : { seasonId, teamId (optionnel), format: "csv" | "xlsx" (csv par défaut) }
 	     */
 	    @PostMapping("/export")
-	    public ResponseEntity<Map<String, Object>> exportData(@RequestBody Map<String, Object> request) {
+	    public WebAsyncTask<ResponseEntity<?>> exportData(@RequestBody Map<String, Object> request,
+	                                                      HttpServletResponse response) {
+	        if (request.get("seasonId") == null) {
+	            return AsyncResponses.completed(ResponseEntity.badRequest().body(Map.of("error", "seasonId est obligatoire")));
+	        }
 	        try {
-	            String reportType = (String) request.get("reportType");
-	            Long teamId = Long.valueOf(request.get("teamId").toString());
+	            Long teamId = request.get("teamId") != null ? Long.valueOf(request.get("teamId").toString()) : null;
 	            Long seasonId = Long.valueOf(request.get("seasonId").toString());
+	            ExportFormat format = ExportFormat.from((String) request.get("format"));
 	            
-	            Map<String, Object> exportData = new HashMap<>();
-	            exportData.put("reportType", reportType);
-	            exportData.put("teamId", teamId);
-	            exportData.put("seasonId", seasonId);
-	            exportData.put("timestamp", LocalDate.now());
-	            exportData.put("message", "Export préparé - implémentation PDF à venir");
+	            String filename = "demandes_saison_" + seasonId
+	                + (teamId != null ? "_club_" + teamId : "")
+	                + "." + format.getExtension();
+	            
+	            HttpHeaders headers = new HttpHeaders();
+	            headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+	            headers.setContentDisposition(ContentDisposition.attachment().filename(filename).build());
 	            
-	            return ResponseEntity.ok(exportData);
+	            // Écrit en flux sur exportExecutor, avec le délai des exports
+	            return asyncResponses.export(response, headers,
+	                out -> demandeExportService.export(teamId, seasonId, format, out));
+	        } catch (IllegalArgumentException e) {
+	            return AsyncResponses.completed(ResponseEntity.badRequest()
+	                .body(Map.of("error", "Paramètres d'export invalides: " + e.getMessage())));
 	        } catch (Exception e) {
-	            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+	            return AsyncResponses.completed(ResponseEntity.status(500).body(Map.of("error", e.getMessage())));
 	        }
 	    }
 	    
 	    /**
-	     * bordereau
+	     * Bordereau d'envoi (HTML) des demandes sélectionnées
+	     * Corps : { teamId, seasonId, selectedIds: [ID demande, ...] }
 	     */
-	    
 	    @PostMapping("/export-bordereau-html")
 	    public ResponseEntity<String> exportBordereauHTML(@RequestBody Map<String, Object> request) {
 	        try {
-	            Long teamId = Long.valueOf(request.get("teamId").toString());
-	            Long seasonId = Long.valueOf(request.get("seasonId").toString());
-	            @SuppressWarnings("unchecked")
-	            List<Integer> selectedIds = (List<Integer>) request.get("selectedIds");
-	            
-	            List<Map<String, Object>> selectedDemandes = getSelectedDemandes(selectedIds, teamId, seasonId);
+	            BordereauService.Bordereau bordereau = loadBordereau(request);
 	            
-	            String html = generateBordereauHTML(teamId, seasonId, selectedDemandes);
+	            String html = bordereauService.renderHtml(bordereau);
 	            
 	            HttpHeaders headers = new HttpHeaders();
 	            headers.setContentType(MediaType.TEXT_HTML);
@@ -245,91 +249,60 @@
 	                .headers(headers)
 	                .body(html);
 	                
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().body("Erreur: " + e.getMessage());
 	        } catch (Exception e) {
 	            e.printStackTrace();
 	            return ResponseEntity.status(500).body("Erreur: " + e.getMessage());
 	        }
 	    }
 	
-	    private String generateBordereauHTML(Long teamId, Long seasonId, List<Map<String, Object>> demandes) {
-	        StringBuilder html = new StringBuilder();
-	        html.append("<!DOCTYPE html>");
-	        html.append("<html><head>");
-	        html.append("<meta charset='UTF-8'>");
-	        html.append("<title>Bordereau d'envoi</title>");
-	        html.append("<style>");
-	        html.append("body { font-family: Arial, sans-serif; margin: 20px; }");
-	        html.append("table { width: 100%; border-collapse: collapse; margin-top: 20px; }");
-	        html.append("th, td { border: 1px solid black; padding: 8px; text-align: left; }");
-	        html.append("th { background-color: #f0f0f0; }");
-	        html.append(".header { text-align: center; margin-bottom: 20px; }");
-	        html.append("</style></head><body>");
-	        
-	        // En-tête
-	        html.append("<div class='header'>");
-	        html.append("<h2>Fédération Tunisienne de Football</h2>");
-	        html.append("<h3>").append(getClubName(teamId)).append("</h3>");
-	        html.append("<p>Bordereau d'envoi pour la saison : ").append(seasonId).append("</p>");
-	        html.append("<p>Date: ").append(LocalDate.now().toString()).append("</p>");
-	        html.append("</div>");
-	        
-	        // Tableau
-	        html.append("<table>");
-	        html.append("<thead>");
-	        html.append("<tr>");
-	        html.append("<th>Type Intervenant</th>");
-	        html.append("<th>Nom & Prénom</th>");
-	        html.append("<th>CIN/Passeport</th>");
-	        html.append("<th>Date Naissance</th>");
-	        html.append("<th>Lieu Naissance</th>");
-	        html.append("<th>Nationalité</th>");
-	        html.append("<th>Date d'envoi</th>");
-	        html.append("</tr></thead><tbody>");
-	        
-	        for (Map<String, Object> demande : demandes) {
-	            html.append("<tr>");
-	            html.append("<td>Joueur</td>");
-	            html.append("<td>").append(demande.get("nom")).append(" ").append(demande.get("prenom")).append("</td>");
-	            html.append("<td>").append(demande.get("cin")).append("</td>");
-	            html.append("<td>").append(demande.get("dateNaissance")).append("</td>");
-	            html.append("<td>").append(demande.get("lieuNaissance")).append("</td>");
-	            html.append("<td>").append(demande.get("nationalite")).append("</td>");
-	            html.append("<td>").append(demande.get("dateEnvoi")).append("</td>");
-	            html.append("</tr>");
+	    /**
+	     * Bordereau d'envoi (PDF) des demandes sélectionnées, même corps que la version HTML
+	     */
+	    @PostMapping("/export-bordereau-pdf")
+	    public ResponseEntity<byte[]> exportBordereauPDF(@RequestBody Map<String, Object> request) {
+	        try {
+	            BordereauService.Bordereau bordereau = loadBordereau(request);
+	            
+	            byte[] pdf = bordereauService.renderPdf(bordereau);
+	            
+	            HttpHeaders headers = new HttpHeaders();
+	            headers.setContentType(MediaType.APPLICATION_PDF);
+	            headers.setContentDisposition(ContentDisposition.inline()
+	                .filename("bordereau_" + bordereau.teamId() + "_" + bordereau.seasonId() + ".pdf")
+	                .build());
+	            
+	            return ResponseEntity.ok()
+	                .headers(headers)
+	                .body(pdf);
+	                
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().build();
+	        } catch (Exception e) {
+	            e.printStackTrace();
+	            return ResponseEntity.status(500).build();
 	        }
-	        
-	        html.append("</tbody></table>");
-	        html.append("</body></html>");
-	        
-	        return html.toString();
-	    }
-	
-	    // AJOUTEZ CETTE MÉTHODE à votre StatsController (si elle n'existe pas déjà)
-	    private String getClubName(Long teamId) {
-	        if (teamId == 102L) return "Club Africain";
-	        if (teamId == 101L) return "Espérance Sportive de Tunis";
-	        return "Club ID: " + teamId;
 	    }
 	
-	    // Assurez-vous que cette méthode existe aussi
-	    private List<Map<String, Object>> getSelectedDemandes(List<Integer> selectedIds, Long teamId, Long seasonId) {
-	        List<Map<String, Object>> demandes = new ArrayList<>();
+	    private BordereauService.Bordereau loadBordereau(Map<String, Object> request) {
+	        if (request.get("teamId") == null || request.get("seasonId") == null) {
+	            throw new IllegalArgumentException("teamId et seasonId sont obligatoires");
+	        }
+	        Long teamId = Long.valueOf(request.get("teamId").toString());
+	        Long seasonId = Long.valueOf(request.get("seasonId").toString());
 	        
-	        for (Integer id : selectedIds) {
-	            Map<String, Object> demande = new HashMap<>();
-	            demande.put("nom", "JOUEUR " + id);
-	            demande.put("prenom", "PRENOM " + id);
-	            demande.put("cin", "1234567" + id);
-	            demande.put("licenceNum", "11010" + id);
-	            demande.put("dateNaissance", "01/01/1995");
-	            demande.put("lieuNaissance", "TUNIS");
-	            demande.put("nationalite", "TUNISIE");
-	            demande.put("dateEnvoi", LocalDate.now().toString());
-	            
-	            demandes.add(demande);
+	        Object ids = request.get("selectedIds");
+	        if (!(ids instanceof List<?> selectedIds) || selectedIds.isEmpty()) {
+	            throw new IllegalArgumentException("Aucune demande sélectionnée");
+	        }
+	        
+	        List<Long> demandeIds = new ArrayList<>();
+	        for (Object id : selectedIds) {
+	            demandeIds.add(Long.valueOf(id.toString()));
 	        }
 	        
-	        return demandes;
+	        return bordereauService.load(teamId, seasonId, demandeIds);
 	    }
 	    
 	}
\ No newline at end of file
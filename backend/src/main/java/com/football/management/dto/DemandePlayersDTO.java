@@ -4,6 +4,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+@JsonFilter(SparseFields.FILTER_ID)
 public class DemandePlayersDTO {
     
     // IDs principaux
@@ -0,0 +1,58 @@
+package com.football.management.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtres optionnels de recherche des demandes (null ou vide = pas de filtre)
+ */
+public class DemandeSearchCriteria {
+
+    private BigDecimal demandeId;
+    private BigDecimal demandeStatuId;
+    private BigDecimal teamId;
+    private BigDecimal seasonId;
+    private String lastName;
+    private String name;
+    private String licenceNum;
+    private String cinNumber;
+    private BigDecimal regimeId;
+    private BigDecimal typeLicenceId;
+    private BigDecimal ctIntervenantTypeId;
+
+    public DemandeSearchCriteria() {
+    }
+
+    // Getters et Setters
+    public BigDecimal getDemandeId() { return demandeId; }
+    public void setDemandeId(BigDecimal demandeId) { this.demandeId = demandeId; }
+
+    public BigDecimal getDemandeStatuId() { return demandeStatuId; }
+    public void setDemandeStatuId(BigDecimal demandeStatuId) { this.demandeStatuId = demandeStatuId; }
+
+    public BigDecimal getTeamId() { return teamId; }
+    public void setTeamId(BigDecimal teamId) { this.teamId = teamId; }
+
+    public BigDecimal getSeasonId() { return seasonId; }
+    public void setSeasonId(BigDecimal seasonId) { this.seasonId = seasonId; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getLicenceNum() { return licenceNum; }
+    public void setLicenceNum(String licenceNum) { this.licenceNum = licenceNum; }
+
+    public String getCinNumber() { return cinNumber; }
+    public void setCinNumber(String cinNumber) { this.cinNumber = cinNumber; }
+
+    public BigDecimal getRegimeId() { return regimeId; }
+    public void setRegimeId(BigDecimal regimeId) { this.regimeId = regimeId; }
+
+    public BigDecimal getTypeLicenceId() { return typeLicenceId; }
+    public void setTypeLicenceId(BigDecimal typeLicenceId) { this.typeLicenceId = typeLicenceId; }
+
+    public BigDecimal getCtIntervenantTypeId() { return ctIntervenantTypeId; }
+    public void setCtIntervenantTypeId(BigDecimal ctIntervenantTypeId) { this.ctIntervenantTypeId = ctIntervenantTypeId; }
+}
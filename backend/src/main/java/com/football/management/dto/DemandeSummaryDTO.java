@@ -0,0 +1,35 @@
+package com.football.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ligne de liste d'une demande : uniquement les colonnes affichées dans les écrans de liste,
+ * alimentée directement par la requête (SELECT new ...) sans charger l'entité.
+ * Le détail complet reste servi par DemandePlayersDTO.
+ */
+@JsonFilter(SparseFields.FILTER_ID)
+public record DemandeSummaryDTO(
+    BigDecimal demandeId,
+    String name,
+    String lastName,
+    LocalDate dateOfBirth,
+    String licenceNum,
+    String cinNumber,
+    BigDecimal teamId,
+    BigDecimal seasonId,
+    BigDecimal demandeStatuId,
+    BigDecimal typeLicenceId,
+    BigDecimal regimeId,
+    BigDecimal playerCategoryId,
+    BigDecimal ctIntervenantTypeId,
+    LocalDate dateEnregistrement
+) {
+
+    /** Expression JPQL de construction, sur l'alias "d" de DemandePlayers */
+    public static final String JPQL_CONSTRUCTOR = "new com.football.management.dto.DemandeSummaryDTO("
+        + "d.demandeId, d.name, d.lastName, d.dateOfBirth, d.licenceNum, d.cinNumber, d.teamId, d.seasonId, "
+        + "d.demandeStatuId, d.typeLicenceId, d.regimeId, d.playerCategoryId, d.ctIntervenantTypeId, d.dateEnregistrement)";
+}
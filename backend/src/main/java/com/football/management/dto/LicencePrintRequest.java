@@ -0,0 +1,36 @@
+package com.football.management.dto;
+
+import java.util.List;
+
+/**
+ * Sélection des licences à imprimer en un seul PDF : liste d'identifiants de demandes,
+ * ou équipe + saison (+ statut, VALIDEE_CLUB par défaut)
+ */
+public class LicencePrintRequest {
+
+    private List<Long> demandeIds;
+    private Long teamId;
+    private Long seasonId;
+    private Long statusId;
+    private boolean markPrinted;
+
+    public LicencePrintRequest() {
+    }
+
+    // Getters et Setters
+    public List<Long> getDemandeIds() { return demandeIds; }
+    public void setDemandeIds(List<Long> demandeIds) { this.demandeIds = demandeIds; }
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public Long getSeasonId() { return seasonId; }
+    public void setSeasonId(Long seasonId) { this.seasonId = seasonId; }
+
+    public Long getStatusId() { return statusId; }
+    public void setStatusId(Long statusId) { this.statusId = statusId; }
+
+    /** Passer les demandes imprimées au statut IMPRIMEE après génération du PDF */
+    public boolean isMarkPrinted() { return markPrinted; }
+    public void setMarkPrinted(boolean markPrinted) { this.markPrinted = markPrinted; }
+}
@@ -0,0 +1,51 @@
+package com.football.management.dto;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sélection des propriétés sérialisées via le paramètre ?fields=a,b,c.
+ *
+ * Les DTO concernés portent @JsonFilter(SparseFields.FILTER_ID) ; sans paramètre fields,
+ * le filtre par défaut (JacksonConfig) sérialise toutes les propriétés.
+ */
+public final class SparseFields {
+
+    public static final String FILTER_ID = "sparseFields";
+
+    private SparseFields() {
+    }
+
+    /**
+     * @return les noms demandés, dans l'ordre, ou null si le paramètre est absent ou vide
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        return names.isEmpty() ? null : names;
+    }
+
+    /**
+     * Enveloppe la réponse pour ne sérialiser que les propriétés demandées (inchangée si fields est null)
+     */
+    public static Object apply(Object body, Set<String> fields) {
+        if (fields == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+            .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
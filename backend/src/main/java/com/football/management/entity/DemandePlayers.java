@@ -182,6 +182,7 @@ public class DemandePlayers {
 
     @Column(name = "is_rejete")
     private Boolean isRejete;
+
     
     
     
@@ -5,11 +5,27 @@ import com.football.management.dto.DemandePlayersDTO;
 import com.football.management.entity.DemandePlayers;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class DemandePlayersMapper {
 
+    /**
+     * Propriétés du DTO copiées telles quelles depuis une colonne de l'entité (même nom) :
+     * une réponse limitée à ces champs (?fields=) peut être lue directement en base.
+     */
+    public static final Set<String> DIRECT_FIELDS = Set.of(
+        "demandeId", "demandeStatuId", "etatCivilId", "alias", "lastName", "name", "paysId",
+        "teamId", "seasonId", "playerCategoryId", "regimeId", "typeLicenceId", "licenceNum",
+        "cinNumber", "cinNumberParent", "passportNum", "dateOfBirth", "contractDate",
+        "contractDateFin", "dureePret", "contratStatus", "isDemission", "saison1Id",
+        "teamCoorBancaireId", "teamSaison1CoorBancaireId", "positionId", "feetId",
+        "typeCompetitionId", "intervenantId", "ctIntervenantTypeId", "placeOfBirth", "weight",
+        "height", "commissionId", "dateEnregistrement", "nameDoctor", "lastNameDoctor",
+        "dateConsultationDoctor", "tshirtNum", "email"
+    );
+
     public DemandePlayersDTO toDTO(DemandePlayers entity) {
         if (entity == null) {
             return null;
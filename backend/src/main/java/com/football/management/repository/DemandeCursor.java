@@ -0,0 +1,37 @@
+package com.football.management.repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position dans la liste des demandes triée par dateEnregistrement DESC NULLS LAST, demandeId DESC :
+ * la dernière ligne renvoyée. Transmise au client sous forme de jeton opaque.
+ */
+public record DemandeCursor(LocalDate dateEnregistrement, BigDecimal demandeId) {
+
+    private static final String NULL_DATE = "-";
+
+    public String encode() {
+        String raw = (dateEnregistrement != null ? dateEnregistrement.toString() : NULL_DATE) + "|" + demandeId.toPlainString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si le jeton est invalide
+     */
+    public static DemandeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String date = raw.substring(0, separator);
+            return new DemandeCursor(
+                NULL_DATE.equals(date) ? null : LocalDate.parse(date),
+                new BigDecimal(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.football.management.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture des demandes pour les exports volumineux.
+ *
+ * Les lignes sont lues avec un curseur en avance seule et une taille de fetch bornée :
+ * PostgreSQL ne renvoie qu'un lot à la fois (à condition d'être dans une transaction),
+ * la mémoire consommée ne dépend donc pas du nombre de lignes exportées.
+ */
+@Repository
+public class DemandeExportRepository {
+
+    /** Colonnes exportées, dans l'ordre du SELECT */
+    public static final List<String> COLUMNS = List.of(
+        "ID Demande", "N° Licence", "Nom", "Prénom", "Date Naissance", "Lieu Naissance",
+        "CIN", "Passeport", "Nationalité", "Club", "Saison", "Catégorie", "Régime",
+        "Type Licence", "Statut", "Date Enregistrement"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Parcourt les demandes d'une saison (équipe optionnelle), ligne par ligne.
+     * Doit être appelé dans une transaction pour que le curseur soit réellement utilisé.
+     */
+    public void streamDemandes(BigDecimal teamId, BigDecimal seasonId, int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT d.ct_demande_id, d.licence_num, d.last_name, d.name, d.date_of_birth,
+                   d.place_of_birth, d.cin_number, d.passport_num, p.nationalite, t.name AS team_name,
+                   d.ct_season_id, d.ct_player_category_id, d.ct_regime_id, d.ct_type_licence_id,
+                   d.ct_demande_statu_id, d.date_enregistrement
+            FROM sss_competition_db.ct_demandes d
+            LEFT JOIN sss_competition_db.ct_teams t ON t.ct_team_id = d.ct_team_id
+            LEFT JOIN sss_config_general_db.cr_pays p ON p.cr_pays_id = d.cr_pays_id
+            WHERE d.ct_season_id = ?
+            """);
+
+        List<Object> params = new ArrayList<>();
+        params.add(seasonId);
+
+        if (teamId != null) {
+            sql.append(" AND d.ct_team_id = ?");
+            params.add(teamId);
+        }
+        sql.append(" ORDER BY d.ct_demande_id");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Lignes du bordereau d'envoi : toutes les demandes sélectionnées en une seule requête,
+     * limitées à l'équipe et à la saison. Les IDs sont passés en tableau (= ANY(?)) :
+     * une seule forme de requête quel que soit le nombre de joueurs.
+     */
+    public List<Map<String, Object>> findBordereauLines(List<BigDecimal> demandeIds, BigDecimal teamId, BigDecimal seasonId) {
+        String sql = """
+            SELECT d.ct_demande_id, d.ct_intervenant_type_id, d.last_name, d.name, d.licence_num,
+                   COALESCE(d.cin_number, d.passport_num) AS piece_identite,
+                   d.date_of_birth, d.place_of_birth, p.nationalite, t.name AS team_name
+            FROM sss_competition_db.ct_demandes d
+            LEFT JOIN sss_competition_db.ct_teams t ON t.ct_team_id = d.ct_team_id
+            LEFT JOIN sss_config_general_db.cr_pays p ON p.cr_pays_id = d.cr_pays_id
+            WHERE d.ct_demande_id = ANY(?)
+            AND d.ct_team_id = ?
+            AND d.ct_season_id = ?
+            ORDER BY d.ct_intervenant_type_id, d.last_name, d.name
+            """;
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("numeric", demandeIds.toArray()));
+            ps.setBigDecimal(2, teamId);
+            ps.setBigDecimal(3, seasonId);
+            return ps;
+        }, (rs, rowNum) -> {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("demandeId", rs.getBigDecimal("ct_demande_id"));
+            line.put("typeIntervenantId", rs.getObject("ct_intervenant_type_id"));
+            line.put("nom", rs.getString("last_name"));
+            line.put("prenom", rs.getString("name"));
+            line.put("licenceNum", rs.getString("licence_num"));
+            line.put("cin", rs.getString("piece_identite"));
+            line.put("dateNaissance", rs.getObject("date_of_birth", LocalDate.class));
+            line.put("lieuNaissance", rs.getString("place_of_birth"));
+            line.put("nationalite", rs.getString("nationalite"));
+            line.put("clubName", rs.getString("team_name"));
+            return line;
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.football.management.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Attribution des identifiants ct_demande_id par blocs, à partir de la séquence
+ * ct_demandes_id_seq (migration_add_demande_id_sequence.sql).
+ *
+ * Chaque nextval réserve un bloc de BLOCK_SIZE identifiants [valeur, valeur + BLOCK_SIZE[
+ * distribués ensuite en mémoire : un seul aller-retour pour BLOCK_SIZE créations, et aucune
+ * collision entre créations simultanées (ni entre plusieurs instances de l'application).
+ *
+ * Un identifiant attribué n'est jamais réutilisé, même si la transaction est annulée :
+ * la numérotation peut présenter des trous.
+ */
+@Repository
+public class DemandeIdAllocator {
+
+    /** Doit être égal à l'INCREMENT BY de la séquence */
+    public static final int BLOCK_SIZE = 50;
+
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('sss_competition_db.ct_demandes_id_seq')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long next;
+    private long limit;
+
+    public synchronized BigDecimal nextId() {
+        if (next >= limit) {
+            Long blockStart = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+            if (blockStart == null) {
+                throw new IllegalStateException("Séquence ct_demandes_id_seq indisponible");
+            }
+            next = blockStart;
+            limit = blockStart + BLOCK_SIZE;
+        }
+        return BigDecimal.valueOf(next++);
+    }
+}
@@ -5,19 +5,24 @@ package com.football.management.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.football.management.dto.DemandeSummaryDTO;
 import com.football.management.entity.DemandePlayers;
+import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;  // Ajoutez cette ligne
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DemandePlayersRepository extends JpaRepository<DemandePlayers, BigDecimal> {
+public interface DemandePlayersRepository extends JpaRepository<DemandePlayers, BigDecimal>, DemandePlayersRepositoryCustom {
 	
 	
 	// ========== NOUVELLES MÉTHODES POUR LE DASHBOARD ==========
@@ -42,64 +47,8 @@ public interface DemandePlayersRepository extends JpaRepository<DemandePlayers,
 		    
 		    @Query("SELECT COUNT(d) FROM DemandePlayers d WHERE d.teamId = :teamId AND d.demandeStatuId = :statusId")
 		    Long countByTeamIdAndStatus(@Param("teamId") BigDecimal teamId, @Param("statusId") BigDecimal statusId);
-		
 
-		
-
-
-    // Recherche basique par critères (version simplifiée)
-	@Query("""
-		    SELECT d FROM DemandePlayers d 
-		    WHERE 1=1
-		    AND (:demandeId IS NULL OR d.demandeId = :demandeId)
-		    AND (:demandeStatuId IS NULL OR d.demandeStatuId = :demandeStatuId)
-		    AND (:teamId IS NULL OR d.teamId = :teamId)
-		    AND (:seasonId IS NULL OR d.seasonId = :seasonId)
-		    AND (:lastName IS NULL OR :lastName = '' OR UPPER(d.lastName) LIKE UPPER(CONCAT('%', :lastName, '%')))
-		    AND (:name IS NULL OR :name = '' OR UPPER(d.name) LIKE UPPER(CONCAT('%', :name, '%')))
-		    AND (:licenceNum IS NULL OR :licenceNum = '' OR d.licenceNum = :licenceNum)
-		    AND (:cinNumber IS NULL OR :cinNumber = '' OR d.cinNumber = :cinNumber)
-		    AND (:regimeId IS NULL OR d.regimeId = :regimeId)
-		    AND (:typeLicenceId IS NULL OR d.typeLicenceId = :typeLicenceId)
-		    AND (:ctIntervenantTypeId IS NULL OR d.ctIntervenantTypeId = :ctIntervenantTypeId)
-		    ORDER BY d.dateEnregistrement DESC NULLS LAST, d.demandeId DESC
-		    """)
-		Page<DemandePlayers> findByCriteria(
-		    @Param("demandeId") BigDecimal demandeId,
-		    @Param("demandeStatuId") BigDecimal demandeStatuId,
-		    @Param("teamId") BigDecimal teamId,
-		    @Param("seasonId") BigDecimal seasonId,
-		    @Param("lastName") String lastName,
-		    @Param("name") String name,
-		    @Param("licenceNum") String licenceNum,
-		    @Param("cinNumber") String cinNumber,
-		    @Param("regimeId") BigDecimal regimeId,
-		    @Param("typeLicenceId") BigDecimal typeLicenceId,
-		    @Param("ctIntervenantTypeId") BigDecimal ctIntervenantTypeId, // Nouveau paramètre
-		    Pageable pageable
-		);
-
-    // Compter les demandes par critères
-	@Query("""
-		    SELECT COUNT(d) FROM DemandePlayers d 
-		    WHERE 1=1
-		    AND (:teamId IS NULL OR d.teamId = :teamId)
-		    AND (:seasonId IS NULL OR d.seasonId = :seasonId)
-		    AND (:licenceNum IS NULL OR :licenceNum = '' OR d.licenceNum = :licenceNum)
-		    AND (:cinNumber IS NULL OR :cinNumber = '' OR d.cinNumber = :cinNumber)
-		    AND (:typeLicenceId IS NULL OR d.typeLicenceId = :typeLicenceId)
-		    AND (:regimeId IS NULL OR d.regimeId = :regimeId)
-		    AND (:ctIntervenantTypeId IS NULL OR d.ctIntervenantTypeId = :ctIntervenantTypeId)
-		    """)
-		Long countByAttributes(
-		    @Param("teamId") BigDecimal teamId,
-		    @Param("seasonId") BigDecimal seasonId,
-		    @Param("licenceNum") String licenceNum,
-		    @Param("cinNumber") String cinNumber,
-		    @Param("typeLicenceId") BigDecimal typeLicenceId,
-		    @Param("regimeId") BigDecimal regimeId,
-		    @Param("ctIntervenantTypeId") BigDecimal ctIntervenantTypeId
-		);
+    // Recherche et comptage par critères : DemandePlayersRepositoryCustom (requêtes dynamiques)
 
     // Méthodes de recherche simples
 	List<DemandePlayers> findByTeamIdAndSeasonId(BigDecimal teamId, BigDecimal seasonId);
@@ -108,6 +57,31 @@ public interface DemandePlayersRepository extends JpaRepository<DemandePlayers,
     Optional<DemandePlayers> findByCinNumber(String cinNumber);
     Optional<DemandePlayers> findByPassportNum(String passportNum);
 
+    // Vues de liste : colonnes affichées uniquement, sans chargement des entités
+    @Query("SELECT " + DemandeSummaryDTO.JPQL_CONSTRUCTOR + " FROM DemandePlayers d "
+        + "WHERE d.teamId = :teamId AND d.seasonId = :seasonId")
+    List<DemandeSummaryDTO> findSummariesByTeamIdAndSeasonId(
+        @Param("teamId") BigDecimal teamId,
+        @Param("seasonId") BigDecimal seasonId
+    );
+
+    @Query("SELECT " + DemandeSummaryDTO.JPQL_CONSTRUCTOR + " FROM DemandePlayers d "
+        + "WHERE d.demandeStatuId = :statusId")
+    List<DemandeSummaryDTO> findSummariesByDemandeStatuId(@Param("statusId") BigDecimal statusId);
+
+    @Query("SELECT " + DemandeSummaryDTO.JPQL_CONSTRUCTOR + """
+             FROM DemandePlayers d
+            WHERE d.teamId = :teamId
+            AND d.seasonId = :seasonId
+            AND d.typeLicenceId IN (2, 6)
+            AND (d.isDemission IS NULL OR d.isDemission = false)
+            ORDER BY d.lastName, d.name
+            """)
+    List<DemandeSummaryDTO> findRenewalCandidateSummaries(
+        @Param("teamId") BigDecimal teamId,
+        @Param("seasonId") BigDecimal seasonId
+    );
+
     // Recherche pour renouvellements
     @Query("""
             SELECT d FROM DemandePlayers d 
@@ -151,13 +125,15 @@ public interface DemandePlayersRepository extends JpaRepository<DemandePlayers,
     List<DemandePlayers> findRecentDemandes(@Param("fromDate") LocalDate fromDate);
 
     /**
-     * Recherche par nom complet (nom + prénom)
+     * Recherche par nom complet (nom + prénom), insensible aux accents.
+     * L'expression doit rester identique à celle de l'index idx_ct_demandes_full_name_norm_trgm.
      */
-    @Query("""
-        SELECT d FROM DemandePlayers d 
-        WHERE UPPER(CONCAT(d.name, ' ', d.lastName)) LIKE UPPER(CONCAT('%', :fullName, '%'))
-        ORDER BY d.lastName, d.name
-        """)
+    @Query(value = """
+        SELECT d.* FROM sss_competition_db.ct_demandes d
+        WHERE sss_competition_db.f_normalize_name(coalesce(d.name, '') || ' ' || coalesce(d.last_name, ''))
+              LIKE '%' || sss_competition_db.f_normalize_name(:fullName) || '%'
+        ORDER BY d.last_name, d.name
+        """, nativeQuery = true)
     List<DemandePlayers> findByFullNameContaining(@Param("fullName") String fullName);
 
     /**
@@ -225,10 +201,57 @@ public interface DemandePlayersRepository extends JpaRepository<DemandePlayers,
 
     @Query("SELECT d.demandeStatuId, COUNT(d) FROM DemandePlayers d GROUP BY d.demandeStatuId")
     List<Object[]> countByStatus();
-    
-    @Query(value = "SELECT COALESCE(MAX(ct_demande_id), 0) + 1 FROM sss_competition_db.ct_demandes", nativeQuery = true)
-    BigDecimal getNextDemandeId();
-    
+
+    /**
+     * Répartition par régime, type de licence et statut pour une saison, toutes équipes,
+     * en un seul parcours groupé. Lignes : (dimension REGIME / TYPE_LICENCE / STATUS, id, nombre)
+     */
+    @Query(value = """
+        SELECT
+            CASE
+                WHEN GROUPING(d.ct_regime_id) = 0 THEN 'REGIME'
+                WHEN GROUPING(d.ct_type_licence_id) = 0 THEN 'TYPE_LICENCE'
+                ELSE 'STATUS'
+            END AS dimension,
+            COALESCE(d.ct_regime_id, d.ct_type_licence_id, d.ct_demande_statu_id) AS dim_key,
+            COUNT(*) AS nb
+        FROM sss_competition_db.ct_demandes d
+        WHERE d.ct_season_id = :seasonId
+        GROUP BY GROUPING SETS (
+            (d.ct_regime_id),
+            (d.ct_type_licence_id),
+            (d.ct_demande_statu_id)
+        )
+        """, nativeQuery = true)
+    List<Object[]> countByRegimeTypeLicenceAndStatusForSeason(@Param("seasonId") BigDecimal seasonId);
+
+    /**
+     * Même répartition pour une équipe : requête distincte, pour que le filtre sur l'équipe
+     * reste une condition simple utilisable par son index
+     */
+    @Query(value = """
+        SELECT
+            CASE
+                WHEN GROUPING(d.ct_regime_id) = 0 THEN 'REGIME'
+                WHEN GROUPING(d.ct_type_licence_id) = 0 THEN 'TYPE_LICENCE'
+                ELSE 'STATUS'
+            END AS dimension,
+            COALESCE(d.ct_regime_id, d.ct_type_licence_id, d.ct_demande_statu_id) AS dim_key,
+            COUNT(*) AS nb
+        FROM sss_competition_db.ct_demandes d
+        WHERE d.ct_season_id = :seasonId
+        AND d.ct_team_id = :teamId
+        GROUP BY GROUPING SETS (
+            (d.ct_regime_id),
+            (d.ct_type_licence_id),
+            (d.ct_demande_statu_id)
+        )
+        """, nativeQuery = true)
+    List<Object[]> countByRegimeTypeLicenceAndStatusForSeasonAndTeam(
+        @Param("seasonId") BigDecimal seasonId,
+        @Param("teamId") BigDecimal teamId
+    );
+
  // ============================================================
  // MÉTHODES POUR LES VALIDATEURS
  // ============================================================
@@ -391,13 +414,54 @@ public interface DemandePlayersRepository extends JpaRepository<DemandePlayers,
  /**
   * Trouver avec pagination optimisée (projection)
   */
- @Query("SELECT d.demandeId, d.name, d.lastName, d.dateOfBirth, d.demandeStatuId, d.licenceNum " +
+ @Query(value = "SELECT " + DemandeSummaryDTO.JPQL_CONSTRUCTOR + " " +
         "FROM DemandePlayers d " +
         "WHERE d.teamId = :teamId AND d.seasonId = :seasonId " +
-        "ORDER BY d.dateEnregistrement DESC")
- Page<Object[]> findByTeamIdAndSeasonIdProjected(
+        "ORDER BY d.dateEnregistrement DESC",
+        countQuery = "SELECT COUNT(d) FROM DemandePlayers d WHERE d.teamId = :teamId AND d.seasonId = :seasonId")
+ Page<DemandeSummaryDTO> findByTeamIdAndSeasonIdProjected(
      @Param("teamId") BigDecimal teamId,
      @Param("seasonId") BigDecimal seasonId,
      Pageable pageable
  );
+ 
+ /**
+  * Demande verrouillée (SELECT ... FOR UPDATE) jusqu'à la fin de la transaction : deux
+  * modifications concurrentes de la même demande sont sérialisées, la seconde relit le statut
+  * écrit par la première avant de calculer les places à libérer ou à prendre dans les quotas
+  */
+ @Lock(LockModeType.PESSIMISTIC_WRITE)
+ @Query("SELECT d FROM DemandePlayers d WHERE d.demandeId = :id")
+ Optional<DemandePlayers> findByIdForUpdate(@Param("id") BigDecimal id);
+ 
+ /**
+  * Demandes verrouillées pour un changement de statut groupé, toujours dans l'ordre des
+  * identifiants (deux lots qui se recouvrent ne peuvent pas s'interbloquer)
+  */
+ @Lock(LockModeType.PESSIMISTIC_WRITE)
+ @Query("SELECT d FROM DemandePlayers d WHERE d.demandeId IN :ids ORDER BY d.demandeId")
+ List<DemandePlayers> findAllByIdForUpdate(@Param("ids") Collection<BigDecimal> ids);
+ 
+ /**
+  * Changement de statut groupé en une seule requête ; le contexte de persistance est vidé
+  * ensuite, les entités chargées auparavant ne reflètent plus la base
+  */
+ @Modifying(flushAutomatically = true, clearAutomatically = true)
+ @Query("UPDATE DemandePlayers d SET d.demandeStatuId = :statusId WHERE d.demandeId IN :ids")
+ int updateStatus(
+     @Param("ids") Collection<BigDecimal> ids,
+     @Param("statusId") BigDecimal statusId
+ );
+ 
+ /**
+  * Demandes d'une équipe et saison dans un statut, dans l'ordre d'impression des licences
+  */
+ @Query("SELECT d FROM DemandePlayers d " +
+        "WHERE d.teamId = :teamId AND d.seasonId = :seasonId AND d.demandeStatuId = :statusId " +
+        "ORDER BY d.name, d.lastName, d.demandeId")
+ List<DemandePlayers> findForPrinting(
+     @Param("teamId") BigDecimal teamId,
+     @Param("seasonId") BigDecimal seasonId,
+     @Param("statusId") BigDecimal statusId
+ );
 }
@@ -0,0 +1,49 @@
+package com.football.management.repository;
+
+import com.football.management.dto.DemandeSearchCriteria;
+import com.football.management.dto.DemandeSummaryDTO;
+import com.football.management.entity.DemandePlayers;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherches de demandes construites dynamiquement (implémentées dans DemandePlayersRepositoryImpl)
+ */
+public interface DemandePlayersRepositoryCustom {
+
+    /**
+     * Recherche paginée par offset ; le tri du Pageable remplace le tri par défaut
+     * (dateEnregistrement DESC NULLS LAST, demandeId DESC).
+     */
+    Page<DemandePlayers> findByCriteria(DemandeSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Même recherche en vue de liste : seules les colonnes de DemandeSummaryDTO sont lues
+     */
+    Page<DemandeSummaryDTO> findSummariesByCriteria(DemandeSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Même recherche limitée aux colonnes demandées (attributs de l'entité), une Map par ligne
+     */
+    Page<Map<String, Object>> findColumnsByCriteria(DemandeSearchCriteria criteria, Pageable pageable, List<String> columns);
+
+    /**
+     * Page suivant le curseur (première page si cursor est null), sans requête COUNT.
+     * Tri : dateEnregistrement DESC NULLS LAST, demandeId DESC.
+     */
+    Slice<DemandePlayers> searchAfter(DemandeSearchCriteria criteria, DemandeCursor cursor, int size);
+
+    long countByCriteria(DemandeSearchCriteria criteria);
+
+    /**
+     * Insertion de nouvelles demandes (identifiants déjà attribués) en lots JDBC
+     * (hibernate.jdbc.batch_size), sans le SELECT préalable de save() sur un identifiant fourni.
+     * Doit être appelée dans une transaction.
+     */
+    void insertAll(List<DemandePlayers> demandes);
+}
@@ -0,0 +1,207 @@
+package com.football.management.repository;
+
+import com.football.management.dto.DemandeSearchCriteria;
+import com.football.management.dto.DemandeSummaryDTO;
+import com.football.management.entity.DemandePlayers;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import jakarta.persistence.metamodel.EntityType;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Requêtes JPQL ne contenant que les filtres fournis (voir FilterQuery), pour que PostgreSQL
+ * puisse utiliser l'index adapté à chaque combinaison de critères.
+ */
+public class DemandePlayersRepositoryImpl implements DemandePlayersRepositoryCustom {
+
+    private static final String DEFAULT_ORDER = "d.dateEnregistrement DESC NULLS LAST, d.demandeId DESC";
+
+    private static final FilterQuery SEARCH = FilterQuery.select("SELECT d FROM DemandePlayers d")
+        .filter("demandeId", "d.demandeId = :demandeId")
+        .filter("demandeStatuId", "d.demandeStatuId = :demandeStatuId")
+        .filter("teamId", "d.teamId = :teamId")
+        .filter("seasonId", "d.seasonId = :seasonId")
+        .filter("regimeId", "d.regimeId = :regimeId")
+        .filter("typeLicenceId", "d.typeLicenceId = :typeLicenceId")
+        .filter("ctIntervenantTypeId", "d.ctIntervenantTypeId = :ctIntervenantTypeId")
+        .filter("licenceNum", "d.licenceNum = :licenceNum")
+        .filter("cinNumber", "d.cinNumber = :cinNumber")
+        // Même expression que les index trigrammes de migration_add_name_search_trgm.sql
+        // (LIKE '%x%' indexé, insensible aux accents)
+        .filter("lastName", "FUNCTION('sss_competition_db.f_normalize_name', d.lastName)"
+            + " LIKE CONCAT('%', FUNCTION('sss_competition_db.f_normalize_name', :lastName), '%')")
+        .filter("name", "FUNCTION('sss_competition_db.f_normalize_name', d.name)"
+            + " LIKE CONCAT('%', FUNCTION('sss_competition_db.f_normalize_name', :name), '%')")
+        // Reprise après la dernière ligne vue, en deux phases : dates renseignées, puis dates nulles
+        // (triées en dernier). La comparaison de lignes sert de borne de départ sur l'index
+        // (date_enregistrement DESC NULLS LAST, ct_demande_id DESC) ; elle exclut les dates nulles.
+        .filter("afterCursor", "(d.dateEnregistrement, d.demandeId) < (:cursorDate, :cursorId)", "cursorDate", "cursorId")
+        .filter("nullDate", "d.dateEnregistrement IS NULL", new String[0])
+        .filter("afterNullDateCursor", "d.dateEnregistrement IS NULL AND d.demandeId < :cursorId", "cursorId")
+        .build();
+
+    private static final FilterQuery COUNT = SEARCH.withSelect("SELECT COUNT(d) FROM DemandePlayers d");
+
+    private static final FilterQuery SUMMARIES = SEARCH.withSelect(
+        "SELECT " + DemandeSummaryDTO.JPQL_CONSTRUCTOR + " FROM DemandePlayers d");
+
+    // Une requête par liste de colonnes demandée (?fields=), bornée pour ne pas croître sans fin
+    private static final int MAX_COLUMN_QUERIES = 128;
+    private static final Map<List<String>, FilterQuery> COLUMN_QUERIES = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<DemandePlayers> findByCriteria(DemandeSearchCriteria criteria, Pageable pageable) {
+        return findPage(SEARCH, DemandePlayers.class, criteria, pageable);
+    }
+
+    @Override
+    public Page<DemandeSummaryDTO> findSummariesByCriteria(DemandeSearchCriteria criteria, Pageable pageable) {
+        return findPage(SUMMARIES, DemandeSummaryDTO.class, criteria, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findColumnsByCriteria(DemandeSearchCriteria criteria, Pageable pageable, List<String> columns) {
+        EntityType<DemandePlayers> entity = entityManager.getMetamodel().entity(DemandePlayers.class);
+        // Lève IllegalArgumentException si une colonne n'est pas un attribut de l'entité
+        columns.forEach(entity::getAttribute);
+
+        FilterQuery select = COLUMN_QUERIES.get(columns);
+        if (select == null) {
+            select = SEARCH.withSelect(columns.stream()
+                .map(column -> "d." + column)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM DemandePlayers d")));
+            if (COLUMN_QUERIES.size() < MAX_COLUMN_QUERIES) {
+                COLUMN_QUERIES.putIfAbsent(List.copyOf(columns), select);
+            }
+        }
+
+        return findPage(select, Tuple.class, criteria, pageable).map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                row.put(columns.get(i), tuple.get(i));
+            }
+            return row;
+        });
+    }
+
+    private <T> Page<T> findPage(FilterQuery select, Class<T> resultType, DemandeSearchCriteria criteria, Pageable pageable) {
+        FilterQuery.Binding binding = bindCriteria(select.bind(), criteria).orderBy(orderBy(pageable.getSort()));
+
+        TypedQuery<T> query = entityManager.createQuery(binding.query(), resultType);
+        binding.parameters().forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        // Le COUNT n'est exécuté que si la page ne suffit pas à déduire le total
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> countByCriteria(criteria));
+    }
+
+    @Override
+    public Slice<DemandePlayers> searchAfter(DemandeSearchCriteria criteria, DemandeCursor cursor, int size) {
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        List<DemandePlayers> content;
+        if (cursor == null) {
+            content = fetch(bindCriteria(SEARCH.bind(), criteria), size + 1);
+        } else if (cursor.dateEnregistrement() != null) {
+            content = fetch(bindCriteria(SEARCH.bind(), criteria)
+                .apply("afterCursor", cursor.dateEnregistrement(), cursor.demandeId()), size + 1);
+            if (content.size() <= size) {
+                // Dates épuisées : la page se poursuit avec les demandes sans date
+                content = new ArrayList<>(content);
+                content.addAll(fetch(bindCriteria(SEARCH.bind(), criteria).apply("nullDate"),
+                    size + 1 - content.size()));
+            }
+        } else {
+            content = fetch(bindCriteria(SEARCH.bind(), criteria)
+                .apply("afterNullDateCursor", cursor.demandeId()), size + 1);
+        }
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    private List<DemandePlayers> fetch(FilterQuery.Binding binding, int limit) {
+        binding.orderBy(DEFAULT_ORDER);
+        TypedQuery<DemandePlayers> query = entityManager.createQuery(binding.query(), DemandePlayers.class);
+        binding.parameters().forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countByCriteria(DemandeSearchCriteria criteria) {
+        FilterQuery.Binding binding = bindCriteria(COUNT.bind(), criteria);
+
+        TypedQuery<Long> query = entityManager.createQuery(binding.query(), Long.class);
+        binding.parameters().forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public void insertAll(List<DemandePlayers> demandes) {
+        // persist() et non merge() : l'identifiant est fourni, save() relirait chaque ligne avant l'INSERT
+        for (DemandePlayers demande : demandes) {
+            entityManager.persist(demande);
+        }
+        // Les INSERT sont envoyés au flush, regroupés par hibernate.jdbc.batch_size
+        entityManager.flush();
+    }
+
+    private FilterQuery.Binding bindCriteria(FilterQuery.Binding binding, DemandeSearchCriteria criteria) {
+        return binding
+            .set("demandeId", criteria.getDemandeId())
+            .set("demandeStatuId", criteria.getDemandeStatuId())
+            .set("teamId", criteria.getTeamId())
+            .set("seasonId", criteria.getSeasonId())
+            .set("regimeId", criteria.getRegimeId())
+            .set("typeLicenceId", criteria.getTypeLicenceId())
+            .set("ctIntervenantTypeId", criteria.getCtIntervenantTypeId())
+            .set("licenceNum", criteria.getLicenceNum())
+            .set("cinNumber", criteria.getCinNumber())
+            .set("lastName", criteria.getLastName())
+            .set("name", criteria.getName());
+    }
+
+    /**
+     * Tri demandé par le client, limité aux attributs de l'entité, avec demandeId en départage
+     */
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return DEFAULT_ORDER;
+        }
+        EntityType<DemandePlayers> entity = entityManager.getMetamodel().entity(DemandePlayers.class);
+        StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : sort) {
+            // Lève IllegalArgumentException si la propriété n'existe pas
+            entity.getAttribute(order.getProperty());
+            orderBy.append("d.").append(order.getProperty())
+                .append(order.isAscending() ? " ASC" : " DESC NULLS LAST")
+                .append(", ");
+        }
+        return orderBy.append("d.demandeId DESC").toString();
+    }
+}
@@ -0,0 +1,191 @@
+package com.football.management.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requêtes statistiques agrégées sur ct_demandes.
+ *
+ * Les indicateurs sont calculés par des parcours groupés (GROUP BY, GROUPING SETS,
+ * COUNT FILTER) au lieu d'une requête COUNT par indicateur.
+ */
+@Repository
+public class DemandeStatsRepository {
+
+    public static final String DIM_TOTAL = "TOTAL";
+    public static final String DIM_STATUS = "STATUS";
+    public static final String DIM_CATEGORY = "CATEGORY";
+    public static final String DIM_SEASON = "SEASON";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ligne d'agrégat : une dimension (statut, catégorie, saison ou total),
+     * la valeur de la clé, le total et les compteurs sur les fenêtres de dates.
+     */
+    public record AggregateRow(String dimension, BigDecimal key, long total, long sinceMonth, long sinceWeek) {}
+
+    /**
+     * Compte les demandes par statut, catégorie, saison et au total en un seul scan.
+     * teamId / seasonId sont optionnels : null = toutes les équipes / saisons.
+     */
+    public List<AggregateRow> aggregateByDimensions(
+        BigDecimal teamId,
+        BigDecimal seasonId,
+        LocalDate monthStart,
+        LocalDate weekStart
+    ) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT
+                CASE
+                    WHEN GROUPING(d.ct_demande_statu_id) = 0 THEN 'STATUS'
+                    WHEN GROUPING(d.ct_player_category_id) = 0 THEN 'CATEGORY'
+                    WHEN GROUPING(d.ct_season_id) = 0 THEN 'SEASON'
+                    ELSE 'TOTAL'
+                END AS dimension,
+                COALESCE(d.ct_demande_statu_id, d.ct_player_category_id, d.ct_season_id) AS dim_key,
+                COUNT(*) AS total,
+                COUNT(*) FILTER (WHERE d.date_enregistrement >= ?) AS since_month,
+                COUNT(*) FILTER (WHERE d.date_enregistrement >= ?) AS since_week
+            FROM sss_competition_db.ct_demandes d
+            WHERE 1=1
+            """);
+
+        List<Object> params = new ArrayList<>();
+        params.add(monthStart);
+        params.add(weekStart);
+
+        if (teamId != null) {
+            sql.append(" AND d.ct_team_id = ?");
+            params.add(teamId);
+        }
+        if (seasonId != null) {
+            sql.append(" AND d.ct_season_id = ?");
+            params.add(seasonId);
+        }
+
+        sql.append("""
+
+            GROUP BY GROUPING SETS (
+                (d.ct_demande_statu_id),
+                (d.ct_player_category_id),
+                (d.ct_season_id),
+                ()
+            )
+            """);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AggregateRow(
+            rs.getString("dimension"),
+            rs.getBigDecimal("dim_key"),
+            rs.getLong("total"),
+            rs.getLong("since_month"),
+            rs.getLong("since_week")
+        ), params.toArray());
+    }
+
+    /**
+     * Équipes ayant le plus de demandes (nom, nombre), limité à {@code limit} lignes.
+     */
+    public List<Object[]> findTopTeams(int limit) {
+        String sql = """
+            SELECT t.name, COUNT(*) AS nb
+            FROM sss_competition_db.ct_demandes d
+            INNER JOIN sss_competition_db.ct_teams t ON t.ct_team_id = d.ct_team_id
+            GROUP BY t.name
+            ORDER BY nb DESC
+            LIMIT ?
+            """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
+            rs.getString("name"),
+            rs.getLong("nb")
+        }, limit);
+    }
+
+    /**
+     * Nombre de demandes par (saison, équipe, statut, catégorie, régime, type de licence).
+     * Utilisé pour charger les compteurs en mémoire (DemandeCounterStore).
+     */
+    public List<Object[]> countByCounterDimensions() {
+        String sql = """
+            SELECT d.ct_season_id, d.ct_team_id, d.ct_demande_statu_id,
+                   d.ct_player_category_id, d.ct_regime_id, d.ct_type_licence_id,
+                   COUNT(*) AS nb
+            FROM sss_competition_db.ct_demandes d
+            GROUP BY d.ct_season_id, d.ct_team_id, d.ct_demande_statu_id,
+                     d.ct_player_category_id, d.ct_regime_id, d.ct_type_licence_id
+            """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
+            rs.getBigDecimal("ct_season_id"),
+            rs.getBigDecimal("ct_team_id"),
+            rs.getBigDecimal("ct_demande_statu_id"),
+            rs.getBigDecimal("ct_player_category_id"),
+            rs.getBigDecimal("ct_regime_id"),
+            rs.getBigDecimal("ct_type_licence_id"),
+            rs.getLong("nb")
+        });
+    }
+
+    /**
+     * Nombre de demandes par date d'enregistrement (date, nombre)
+     */
+    public List<Object[]> countByRegistrationDate() {
+        String sql = """
+            SELECT d.date_enregistrement, COUNT(*) AS nb
+            FROM sss_competition_db.ct_demandes d
+            WHERE d.date_enregistrement IS NOT NULL
+            GROUP BY d.date_enregistrement
+            """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Object[] {
+            rs.getObject("date_enregistrement", LocalDate.class),
+            rs.getLong("nb")
+        });
+    }
+
+    /**
+     * Une saison est close quand sa date de fin est passée : ses demandes ne bougent plus
+     */
+    public boolean isSeasonClosed(BigDecimal seasonId) {
+        List<Boolean> closed = jdbcTemplate.queryForList(
+            "SELECT s.end_date < CURRENT_DATE FROM sss_competition_db.ct_seasons s WHERE s.ct_season_id = ?",
+            Boolean.class,
+            seasonId
+        );
+        return !closed.isEmpty() && Boolean.TRUE.equals(closed.get(0));
+    }
+
+    /**
+     * Saison courante : la première saison non close (même règle que isSeasonClosed), null s'il n'y en a pas
+     */
+    public BigDecimal findCurrentSeasonId() {
+        List<BigDecimal> open = jdbcTemplate.queryForList("""
+            SELECT s.ct_season_id FROM sss_competition_db.ct_seasons s
+            WHERE s.end_date >= CURRENT_DATE
+            ORDER BY s.end_date, s.ct_season_id
+            LIMIT 1
+            """, BigDecimal.class);
+        return open.isEmpty() ? null : open.get(0);
+    }
+
+    /**
+     * Noms des équipes indexés par ID
+     */
+    public Map<Long, String> findTeamNames() {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT ct_team_id, name FROM sss_competition_db.ct_teams", rs -> {
+            names.put(rs.getLong("ct_team_id"), rs.getString("name"));
+        });
+        return names;
+    }
+}
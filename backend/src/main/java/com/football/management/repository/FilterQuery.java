@@ -0,0 +1,244 @@
+package com.football.management.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Requête de recherche à filtres optionnels (JPQL ou SQL) qui n'émet que les prédicats
+ * réellement renseignés, au lieu du motif "(:x IS NULL OR col = :x)".
+ *
+ * Chaque combinaison de filtres ("forme") produit toujours le même texte de requête,
+ * mis en cache ici : Hibernate et le driver PostgreSQL réutilisent alors le plan
+ * préparé pour cette forme, et PostgreSQL peut choisir l'index adapté
+ * (licence_num, cin_number...) au lieu d'un plan générique unique.
+ *
+ * Les prédicats sont toujours émis dans l'ordre de déclaration, ce qui permet aussi
+ * d'utiliser des paramètres positionnels (?) avec JdbcTemplate. Ordre des "?" :
+ * clause SELECT, filtres, ORDER BY, puis LIMIT.
+ */
+public final class FilterQuery {
+
+    private final String select;
+    private final List<Predicate> predicates;
+    private final Map<String, Integer> indexByKey = new LinkedHashMap<>();
+    private final Map<String, String> statements = new ConcurrentHashMap<>();
+
+    private FilterQuery(String select, List<Predicate> predicates) {
+        this.select = select;
+        this.predicates = List.copyOf(predicates);
+        for (int i = 0; i < this.predicates.size(); i++) {
+            indexByKey.put(this.predicates.get(i).key(), i);
+        }
+    }
+
+    public static Builder select(String select) {
+        return new Builder(select);
+    }
+
+    /**
+     * Même jeu de filtres avec une autre clause SELECT (ex. la requête COUNT associée)
+     */
+    public FilterQuery withSelect(String otherSelect) {
+        return new FilterQuery(otherSelect, predicates);
+    }
+
+    public Binding bind() {
+        return new Binding();
+    }
+
+    /** Nombre de formes déjà générées (suivi / tests) */
+    int cachedShapes() {
+        return statements.size();
+    }
+
+    private String statement(boolean[] applied, String orderBy, boolean limited) {
+        StringBuilder key = new StringBuilder(applied.length + 16);
+        for (boolean a : applied) {
+            key.append(a ? '1' : '0');
+        }
+        key.append(limited ? 'L' : '-');
+        if (orderBy != null) {
+            key.append('|').append(orderBy);
+        }
+        return statements.computeIfAbsent(key.toString(), k -> render(applied, orderBy, limited));
+    }
+
+    private String render(boolean[] applied, String orderBy, boolean limited) {
+        StringBuilder sql = new StringBuilder(select);
+        String separator = " WHERE ";
+        for (int i = 0; i < applied.length; i++) {
+            if (applied[i]) {
+                sql.append(separator).append(predicates.get(i).clause());
+                separator = " AND ";
+            }
+        }
+        if (orderBy != null) {
+            sql.append(" ORDER BY ").append(orderBy);
+        }
+        if (limited) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    private record Predicate(String key, String clause, String[] parameterNames) {
+    }
+
+    // ========== DÉCLARATION ==========
+
+    public static final class Builder {
+
+        private final String select;
+        private final List<Predicate> predicates = new ArrayList<>();
+
+        private Builder(String select) {
+            this.select = select;
+        }
+
+        /**
+         * Prédicat à un paramètre, nommé comme le filtre (":key" en JPQL, "?" en SQL)
+         */
+        public Builder filter(String key, String clause) {
+            return filter(key, clause, key);
+        }
+
+        /**
+         * Prédicat à plusieurs paramètres, dans l'ordre où les valeurs seront fournies
+         */
+        public Builder filter(String key, String clause, String... parameterNames) {
+            predicates.add(new Predicate(key, clause, parameterNames));
+            return this;
+        }
+
+        public FilterQuery build() {
+            return new FilterQuery(select, predicates);
+        }
+    }
+
+    // ========== VALEURS D'UNE RECHERCHE ==========
+
+    public final class Binding {
+
+        private final boolean[] applied = new boolean[predicates.size()];
+        private final Object[][] values = new Object[predicates.size()][];
+        private Object[] selectValues = new Object[0];
+        private String orderBy;
+        private Object[] orderByValues = new Object[0];
+        private Integer limit;
+
+        private Binding() {
+        }
+
+        /**
+         * Active le filtre si la valeur est renseignée (ni nulle, ni chaîne vide)
+         */
+        public Binding set(String key, Object value) {
+            if (isPresent(value)) {
+                apply(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Active le filtre texte si renseigné, après mise en forme (joker LIKE, majuscules...)
+         */
+        public Binding set(String key, String value, UnaryOperator<String> format) {
+            if (isPresent(value)) {
+                apply(key, format.apply(value.trim()));
+            }
+            return this;
+        }
+
+        /**
+         * Active un filtre à plusieurs paramètres sans contrôle des valeurs
+         */
+        public Binding apply(String key, Object... parameterValues) {
+            int index = indexOf(key);
+            if (parameterValues.length != predicates.get(index).parameterNames().length) {
+                throw new IllegalArgumentException("Nombre de paramètres incorrect pour le filtre " + key);
+            }
+            applied[index] = true;
+            values[index] = parameterValues;
+            return this;
+        }
+
+        /**
+         * Valeurs des "?" de la clause SELECT (score calculé, etc.)
+         */
+        public Binding selectArguments(Object... selectValues) {
+            this.selectValues = selectValues;
+            return this;
+        }
+
+        public Binding orderBy(String orderBy) {
+            return orderBy(orderBy, new Object[0]);
+        }
+
+        /**
+         * Tri contenant des "?" (tri par score...), avec leurs valeurs
+         */
+        public Binding orderBy(String orderBy, Object... orderByValues) {
+            this.orderBy = orderBy;
+            this.orderByValues = orderByValues;
+            return this;
+        }
+
+        /**
+         * Clause "LIMIT ?" (SQL uniquement ; en JPQL, passer par setMaxResults)
+         */
+        public Binding limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public String query() {
+            return statement(applied, orderBy, limit != null);
+        }
+
+        /** Paramètres nommés (JPQL) */
+        public Map<String, Object> parameters() {
+            Map<String, Object> params = new LinkedHashMap<>();
+            for (int i = 0; i < applied.length; i++) {
+                if (applied[i]) {
+                    String[] names = predicates.get(i).parameterNames();
+                    for (int p = 0; p < names.length; p++) {
+                        params.put(names[p], values[i][p]);
+                    }
+                }
+            }
+            return params;
+        }
+
+        /** Paramètres positionnels (SQL / JdbcTemplate), dans l'ordre des "?" */
+        public Object[] arguments() {
+            List<Object> args = new ArrayList<>(Arrays.asList(selectValues));
+            for (int i = 0; i < applied.length; i++) {
+                if (applied[i]) {
+                    args.addAll(Arrays.asList(values[i]));
+                }
+            }
+            args.addAll(Arrays.asList(orderByValues));
+            if (limit != null) {
+                args.add(limit);
+            }
+            return args.toArray();
+        }
+
+        private int indexOf(String key) {
+            Integer index = indexByKey.get(key);
+            if (index == null) {
+                throw new IllegalArgumentException("Filtre inconnu: " + key);
+            }
+            return index;
+        }
+
+        private boolean isPresent(Object value) {
+            return value != null && !(value instanceof String s && s.trim().isEmpty());
+        }
+    }
+}
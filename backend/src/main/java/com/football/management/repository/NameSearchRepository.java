@@ -0,0 +1,102 @@
+package com.football.management.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche de noms classée par similarité (pg_trgm) sur le nom complet normalisé
+ * de ct_intervenants et ct_demandes, expression indexée par migration_add_name_search_trgm.sql.
+ *
+ * Une ligne correspond si le terme est proche d'un mot du nom (opérateur <%, seuil
+ * pg_trgm.word_similarity_threshold) ou y figure tel quel ; les deux conditions
+ * sont servies par l'index GIN gin_trgm_ops.
+ */
+@Repository
+public class NameSearchRepository {
+
+    private static final String NORMALIZE = "sss_competition_db.f_normalize_name(?)";
+
+    // Identique à l'expression des index idx_*_full_name_norm_trgm, sinon l'index n'est pas utilisé
+    private static final String FULL_NAME =
+        "sss_competition_db.f_normalize_name(coalesce(%1$s.name, '') || ' ' || coalesce(%1$s.last_name, ''))";
+
+    private static final String MATCH = "(" + NORMALIZE + " <%% " + FULL_NAME
+        + " OR " + FULL_NAME + " LIKE '%%' || " + NORMALIZE + " || '%%')";
+
+    private static final String SCORE = "word_similarity(" + NORMALIZE + ", " + FULL_NAME + ")";
+
+    private static final String RANKING = SCORE + " DESC,"
+        + " similarity(" + NORMALIZE + ", " + FULL_NAME + ") DESC, %1$s.name, %1$s.last_name";
+
+    private static final FilterQuery INTERVENANTS = FilterQuery.select("""
+            SELECT
+                i.ct_intervenant_id as intervenantId,
+                i.name,
+                i.last_name as lastName,
+                i.licence_num as licenceNum,
+                i.date_of_birth as dateOfBirth,
+                i.cr_pays_id as paysId,
+                round(%s::numeric, 3) as score
+            FROM sss_competition_db.ct_intervenants i""".formatted(SCORE.formatted("i")))
+        .filter("match", MATCH.formatted("i"), "term", "term")
+        .filter("seasonTeam", """
+            EXISTS (SELECT 1 FROM sss_competition_db.ct_team_intervenants ti
+                    WHERE ti.ct_intervenant_id = i.ct_intervenant_id AND ti.ct_season_id = ? AND ti.ct_team_id = ?)""",
+            "seasonId", "teamId")
+        .filter("season", """
+            EXISTS (SELECT 1 FROM sss_competition_db.ct_team_intervenants ti
+                    WHERE ti.ct_intervenant_id = i.ct_intervenant_id AND ti.ct_season_id = ?)""")
+        .filter("team", """
+            EXISTS (SELECT 1 FROM sss_competition_db.ct_team_intervenants ti
+                    WHERE ti.ct_intervenant_id = i.ct_intervenant_id AND ti.ct_team_id = ?)""")
+        .build();
+
+    private static final FilterQuery DEMANDES = FilterQuery.select("""
+            SELECT
+                d.ct_demande_id as demandeId,
+                d.name,
+                d.last_name as lastName,
+                d.licence_num as licenceNum,
+                d.ct_team_id as teamId,
+                d.ct_season_id as seasonId,
+                d.ct_demande_statu_id as demandeStatuId,
+                round(%s::numeric, 3) as score
+            FROM sss_competition_db.ct_demandes d""".formatted(SCORE.formatted("d")))
+        .filter("match", MATCH.formatted("d"), "term", "term")
+        .filter("seasonId", "d.ct_season_id = ?")
+        .filter("teamId", "d.ct_team_id = ?")
+        .build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<Map<String, Object>> searchIntervenants(String term, BigDecimal seasonId, BigDecimal teamId, int limit) {
+        FilterQuery.Binding binding = INTERVENANTS.bind()
+            .selectArguments(term)
+            .apply("match", term, term)
+            .orderBy(RANKING.formatted("i"), term, term)
+            .limit(limit);
+        if (seasonId != null && teamId != null) {
+            binding.apply("seasonTeam", seasonId, teamId);
+        } else {
+            binding.set("season", seasonId).set("team", teamId);
+        }
+        return jdbcTemplate.queryForList(binding.query(), binding.arguments());
+    }
+
+    public List<Map<String, Object>> searchDemandes(String term, BigDecimal seasonId, BigDecimal teamId, int limit) {
+        FilterQuery.Binding binding = DEMANDES.bind()
+            .selectArguments(term)
+            .apply("match", term, term)
+            .set("seasonId", seasonId)
+            .set("teamId", teamId)
+            .orderBy(RANKING.formatted("d"), term, term)
+            .limit(limit);
+        return jdbcTemplate.queryForList(binding.query(), binding.arguments());
+    }
+}
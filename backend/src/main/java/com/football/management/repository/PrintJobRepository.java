@@ -0,0 +1,241 @@
+package com.football.management.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Travaux d'impression de licences en arrière-plan (ct_print_jobs, migration_add_print_jobs.sql).
+ *
+ * La table sert aussi de file d'attente : un travail n'est exécuté que par le worker
+ * qui a réussi à le passer de EN_ATTENTE à EN_COURS (claim). Le travail pris porte l'instance
+ * qui l'exécute (owner) et l'heure de son dernier signe de vie (heartbeat_at) : seul un travail
+ * de l'instance qui redémarre, ou dont l'instance ne donne plus signe de vie, est remis en attente.
+ */
+@Repository
+public class PrintJobRepository {
+
+    public enum Status { EN_ATTENTE, EN_COURS, TERMINE, ECHEC, EXPIRE }
+
+    /**
+     * Un travail : sélection (identifiants, ou équipe + saison + statut), état et avancement ;
+     * failedIds : demandes dont le passage à IMPRIMEE a été refusé, absentes du fichier
+     */
+    public record PrintJob(Long id, Status status, List<Long> demandeIds, Long teamId, Long seasonId,
+                           Long statusId, boolean markPrinted, Long requestedBy, Integer total, int done,
+                           Integer printed, List<Long> failedIds, Long fileSize, String error,
+                           LocalDateTime createdAt, LocalDateTime startedAt, LocalDateTime finishedAt) {}
+
+    private static final String COLUMNS = """
+        ct_print_job_id, status, demande_ids, ct_team_id, ct_season_id, ct_demande_statu_id,
+        mark_printed, requested_by, total, done, printed, failed_ids, file_size, error,
+        created_at, started_at, finished_at
+        """;
+
+    private static final RowMapper<PrintJob> ROW_MAPPER = (rs, rowNum) -> new PrintJob(
+        rs.getLong("ct_print_job_id"),
+        Status.valueOf(rs.getString("status")),
+        parseIds(rs.getString("demande_ids")),
+        toLong(rs.getBigDecimal("ct_team_id")),
+        toLong(rs.getBigDecimal("ct_season_id")),
+        toLong(rs.getBigDecimal("ct_demande_statu_id")),
+        rs.getBoolean("mark_printed"),
+        rs.getObject("requested_by", Long.class),
+        rs.getObject("total", Integer.class),
+        rs.getInt("done"),
+        rs.getObject("printed", Integer.class),
+        parseIds(rs.getString("failed_ids")),
+        rs.getObject("file_size", Long.class),
+        rs.getString("error"),
+        toDateTime(rs.getTimestamp("created_at")),
+        toDateTime(rs.getTimestamp("started_at")),
+        toDateTime(rs.getTimestamp("finished_at"))
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Enregistrer un travail EN_ATTENTE
+     *
+     * @return identifiant du travail
+     */
+    public Long insert(List<Long> demandeIds, Long teamId, Long seasonId, Long statusId,
+                       boolean markPrinted, Long requestedBy) {
+        return jdbcTemplate.queryForObject("""
+            INSERT INTO sss_competition_db.ct_print_jobs
+                (status, demande_ids, ct_team_id, ct_season_id, ct_demande_statu_id, mark_printed, requested_by)
+            VALUES ('EN_ATTENTE', ?, ?, ?, ?, ?, ?)
+            RETURNING ct_print_job_id
+            """, Long.class,
+            formatIds(demandeIds), toBigDecimal(teamId), toBigDecimal(seasonId), toBigDecimal(statusId),
+            markPrinted, requestedBy);
+    }
+
+    public Optional<PrintJob> findById(Long id) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM sss_competition_db.ct_print_jobs WHERE ct_print_job_id = ?",
+            ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Identifiants des travaux en attente, dans l'ordre de soumission
+     */
+    public List<Long> findQueued(int limit) {
+        return jdbcTemplate.queryForList("""
+            SELECT ct_print_job_id FROM sss_competition_db.ct_print_jobs
+            WHERE status = 'EN_ATTENTE'
+            ORDER BY ct_print_job_id
+            LIMIT ?
+            """, Long.class, limit);
+    }
+
+    /**
+     * Prendre un travail en attente pour l'instance owner
+     *
+     * @return false si un autre worker l'a déjà pris
+     */
+    public boolean claim(Long id, String owner) {
+        return jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET status = 'EN_COURS', owner = ?, heartbeat_at = CURRENT_TIMESTAMP,
+                started_at = CURRENT_TIMESTAMP, done = 0, printed = NULL, failed_ids = NULL, error = NULL
+            WHERE ct_print_job_id = ? AND status = 'EN_ATTENTE'
+            """, owner, id) == 1;
+    }
+
+    /**
+     * Avancement d'un travail, qui vaut aussi signe de vie
+     */
+    public void updateProgress(Long id, String owner, int total, int done) {
+        jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET total = ?, done = ?, heartbeat_at = CURRENT_TIMESTAMP
+            WHERE ct_print_job_id = ? AND owner = ? AND status = 'EN_COURS'
+            """, total, done, id, owner);
+    }
+
+    /**
+     * Signe de vie des travaux en cours de l'instance owner
+     */
+    public int heartbeat(String owner) {
+        return jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET heartbeat_at = CURRENT_TIMESTAMP
+            WHERE status = 'EN_COURS' AND owner = ?
+            """, owner);
+    }
+
+    /**
+     * Résultat du passage à IMPRIMEE, enregistré avant le rendu : licences imprimées et refusées
+     */
+    public void recordPrinted(Long id, String owner, int printed, List<Long> failedIds) {
+        jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET printed = ?, failed_ids = ?
+            WHERE ct_print_job_id = ? AND owner = ? AND status = 'EN_COURS'
+            """, printed, formatIds(failedIds), id, owner);
+    }
+
+    /**
+     * @return false si le travail a été remis en attente entre-temps (repris par une autre instance)
+     */
+    public boolean complete(Long id, String owner, long fileSize) {
+        return jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET status = 'TERMINE', done = total, file_size = ?, finished_at = CURRENT_TIMESTAMP
+            WHERE ct_print_job_id = ? AND owner = ? AND status = 'EN_COURS'
+            """, fileSize, id, owner) == 1;
+    }
+
+    public void fail(Long id, String owner, String error) {
+        jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET status = 'ECHEC', error = ?, finished_at = CURRENT_TIMESTAMP
+            WHERE ct_print_job_id = ? AND owner = ? AND status = 'EN_COURS'
+            """, error != null && error.length() > 1000 ? error.substring(0, 1000) : error, id, owner);
+    }
+
+    /**
+     * Remettre en attente les travaux de l'instance owner, interrompus par son arrêt
+     * (à n'appeler qu'au démarrage, avant qu'elle prenne de nouveaux travaux)
+     *
+     * @return nombre de travaux remis en attente
+     */
+    public int requeueOwned(String owner) {
+        return jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET status = 'EN_ATTENTE', owner = NULL, heartbeat_at = NULL, started_at = NULL, done = 0
+            WHERE status = 'EN_COURS' AND owner = ?
+            """, owner);
+    }
+
+    /**
+     * Remettre en attente les travaux dont l'instance n'a plus donné signe de vie depuis leaseSeconds
+     * (instance arrêtée et pas redémarrée) ; l'horloge de la base sert de référence à toutes les instances
+     *
+     * @return nombre de travaux remis en attente
+     */
+    public int requeueExpired(long leaseSeconds) {
+        return jdbcTemplate.update("""
+            UPDATE sss_competition_db.ct_print_jobs
+            SET status = 'EN_ATTENTE', owner = NULL, heartbeat_at = NULL, started_at = NULL, done = 0
+            WHERE status = 'EN_COURS'
+              AND (heartbeat_at IS NULL OR heartbeat_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second')
+            """, leaseSeconds);
+    }
+
+    /**
+     * Travaux terminés avant la date donnée, dont le fichier peut être supprimé
+     */
+    public List<Long> findFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForList("""
+            SELECT ct_print_job_id FROM sss_competition_db.ct_print_jobs
+            WHERE status = 'TERMINE' AND finished_at < ?
+            """, Long.class, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * @return false si une autre instance l'a déjà fait expirer (et supprime le fichier)
+     */
+    public boolean markExpired(Long id) {
+        return jdbcTemplate.update(
+            "UPDATE sss_competition_db.ct_print_jobs SET status = 'EXPIRE' WHERE ct_print_job_id = ? AND status = 'TERMINE'",
+            id) == 1;
+    }
+
+    private static String formatIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static List<Long> parseIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    private static Long toLong(BigDecimal value) {
+        return value != null ? value.longValue() : null;
+    }
+
+    private static BigDecimal toBigDecimal(Long value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,183 +1,304 @@
 package com.football.management.service;
 
+import com.football.management.config.CacheRefresher;
 import com.football.management.dto.DashboardStatsDTO;
 import com.football.management.enums.DemandeStatus;
-import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.repository.DemandeStatsRepository;
+import com.football.management.service.stats.DemandeCounterStore;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 @Service
-public class DashboardService {
+public class DashboardService implements CacheRefresher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    
+    private static final String DASHBOARD_CACHE = "dashboardStats";
+    private static final String GLOBAL_KEY = "global";
+    private static final String TEAM_KEY_PREFIX = "team-";
+    
+    @Autowired
+    private DemandeStatsRepository statsRepository;
+    
+    @Autowired
+    private DemandeCounterStore counterStore;
     
     @Autowired
-    private DemandePlayersRepository demandeRepository;
+    private CacheManager cacheManager;
+    
+    private static final Map<DemandeStatus, String> STATUS_LABELS = new LinkedHashMap<>();
+    private static final Map<Long, String> CATEGORY_LABELS = new LinkedHashMap<>();
+    
+    static {
+        STATUS_LABELS.put(DemandeStatus.INITIAL, "Initial");
+        STATUS_LABELS.put(DemandeStatus.EN_ATTENTE, "En attente");
+        STATUS_LABELS.put(DemandeStatus.VALIDEE_CLUB, "Validée");
+        STATUS_LABELS.put(DemandeStatus.IMPRIMEE, "Imprimée");
+        STATUS_LABELS.put(DemandeStatus.REJETEE, "Rejetée");
+        
+        CATEGORY_LABELS.put(1L, "Poussins");
+        CATEGORY_LABELS.put(2L, "Benjamins");
+        CATEGORY_LABELS.put(3L, "Minimes");
+        CATEGORY_LABELS.put(4L, "Cadets");
+        CATEGORY_LABELS.put(5L, "Juniors");
+        CATEGORY_LABELS.put(6L, "Espoirs");
+        CATEGORY_LABELS.put(7L, "Seniors");
+    }
     
     /**
-     * Statistiques globales avec cache (10 minutes)
+     * Statistiques globales (cache rafraîchi en arrière-plan, voir CacheConfig)
      */
-    @Cacheable(value = "dashboardStats", key = "'global'")
+    @Cacheable(value = DASHBOARD_CACHE, key = "'" + GLOBAL_KEY + "'")
     public DashboardStatsDTO getDashboardStats() {
-        DashboardStatsDTO stats = new DashboardStatsDTO();
+        return computeDashboardStats();
+    }
+    
+    /**
+     * Calcul des statistiques globales, sans cache
+     *
+     * Lues depuis les compteurs en mémoire (DemandeCounterStore). Tant que ceux-ci
+     * ne sont pas chargés, toutes les dimensions sont calculées en un seul scan groupé.
+     */
+    public DashboardStatsDTO computeDashboardStats() {
+        List<DemandeStatsRepository.AggregateRow> rows = loadRows(null, null);
         
-        // Total des demandes
-        Long totalDemandes = demandeRepository.count();
-        stats.setTotalDemandes(totalDemandes);
+        DashboardStatsDTO stats = buildStats(rows);
         
-        // Demandes par statut
-        stats.setDemandesEnAttente(countByStatus(DemandeStatus.EN_ATTENTE));
-        stats.setDemandesValidees(countByStatus(DemandeStatus.VALIDEE_CLUB));
-        stats.setDemandesRejetees(countByStatus(DemandeStatus.REJETEE));
-        stats.setDemandesImprimees(countByStatus(DemandeStatus.IMPRIMEE));
+        // Demandes ce mois-ci / cette semaine (ligne TOTAL)
+        DemandeStatsRepository.AggregateRow totalRow = findTotalRow(rows);
+        stats.setDemandesThisMonth(totalRow != null ? totalRow.sinceMonth() : 0L);
+        stats.setDemandesThisWeek(totalRow != null ? totalRow.sinceWeek() : 0L);
         
         // Map des statuts
         Map<String, Long> statusMap = new HashMap<>();
-        statusMap.put("Initial", countByStatus(DemandeStatus.INITIAL));
-        statusMap.put("En attente", countByStatus(DemandeStatus.EN_ATTENTE));
-        statusMap.put("Validée", countByStatus(DemandeStatus.VALIDEE_CLUB));
-        statusMap.put("Imprimée", countByStatus(DemandeStatus.IMPRIMEE));
-        statusMap.put("Rejetée", countByStatus(DemandeStatus.REJETEE));
+        for (DemandeStatus status : STATUS_LABELS.keySet()) {
+            statusMap.put(STATUS_LABELS.get(status), countFor(rows, DemandeStatsRepository.DIM_STATUS, status.getBigDecimalId()));
+        }
         stats.setDemandesByStatus(statusMap);
         
         // Calcul des taux
-        if (totalDemandes > 0) {
-            stats.setTauxValidation((stats.getDemandesValidees() * 100.0) / totalDemandes);
-            stats.setTauxRejet((stats.getDemandesRejetees() * 100.0) / totalDemandes);
-        } else {
+        if (stats.getTotalDemandes() == 0) {
             stats.setTauxValidation(0.0);
             stats.setTauxRejet(0.0);
         }
         
-        // Demandes ce mois-ci
-        LocalDate startOfMonth = LocalDate.now().with(TemporalAdjusters.firstDayOfMonth());
-        stats.setDemandesThisMonth(countDemandesSinceDate(startOfMonth));
-        
-        // Demandes cette semaine
-        LocalDate startOfWeek = LocalDate.now().minusDays(7);
-        stats.setDemandesThisWeek(countDemandesSinceDate(startOfWeek));
-        
-        // Statistiques par catégorie
-        stats.setDemandesByCategory(getDemandesByCategory());
-        
         // Statistiques par saison
-        stats.setDemandesBySeason(getDemandesBySeason());
+        Map<String, Long> seasonMap = new HashMap<>();
+        for (DemandeStatsRepository.AggregateRow row : rows) {
+            if (DemandeStatsRepository.DIM_SEASON.equals(row.dimension()) && row.key() != null) {
+                seasonMap.put("Saison " + row.key(), row.total());
+            }
+        }
+        stats.setDemandesBySeason(seasonMap);
         
         // Top 5 équipes
-        stats.setDemandesByTeam(getTop5Teams());
+        stats.setDemandesByTeam(counterStore.isReady() ? getTop5TeamsFromCounters() : getTop5Teams());
         
         return stats;
     }
     
     /**
-     * Statistiques d'un club avec cache
+     * Statistiques d'un club pour une saison
      */
-    @Cacheable(value = "dashboardStats", key = "'club-' + #teamId")
     public DashboardStatsDTO getDashboardStatsByTeam(BigDecimal teamId, BigDecimal seasonId) {
-        DashboardStatsDTO stats = new DashboardStatsDTO();
-        
-        // Total des demandes du club
-        Long totalDemandes = demandeRepository.countByTeamIdAndSeasonId(teamId, seasonId);
-        stats.setTotalDemandes(totalDemandes);
-        
-        // Demandes par statut
-        stats.setDemandesEnAttente(countByTeamAndStatus(teamId, seasonId, DemandeStatus.EN_ATTENTE));
-        stats.setDemandesValidees(countByTeamAndStatus(teamId, seasonId, DemandeStatus.VALIDEE_CLUB));
-        stats.setDemandesRejetees(countByTeamAndStatus(teamId, seasonId, DemandeStatus.REJETEE));
-        stats.setDemandesImprimees(countByTeamAndStatus(teamId, seasonId, DemandeStatus.IMPRIMEE));
-        
-        // Calcul des taux
-        if (totalDemandes > 0) {
-            stats.setTauxValidation((stats.getDemandesValidees() * 100.0) / totalDemandes);
-            stats.setTauxRejet((stats.getDemandesRejetees() * 100.0) / totalDemandes);
+        return buildStats(loadRows(teamId, seasonId));
+    }
+    
+    // ========== Rafraîchissement du cache ==========
+    
+    @Override
+    public String getCacheName() {
+        return DASHBOARD_CACHE;
+    }
+    
+    /**
+     * Recalcul d'une entrée du cache dashboardStats, appelé sur le pool cacheRefreshExecutor
+     */
+    @Override
+    public Object reload(Object key) {
+        String cacheKey = String.valueOf(key);
+        if (GLOBAL_KEY.equals(cacheKey)) {
+            return computeDashboardStats();
+        }
+        if (cacheKey.startsWith(TEAM_KEY_PREFIX)) {
+            try {
+                return computeTeamStats(Long.valueOf(cacheKey.substring(TEAM_KEY_PREFIX.length())));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Précalcul périodique des statistiques globales et de celles des équipes actives
+     * (équipes ayant des demandes sur la saison courante), pour que le premier
+     * appel après expiration ne paie jamais le calcul complet
+     */
+    @Scheduled(
+        fixedDelayString = "${cache.refresh-ahead.warmup-delay-ms:120000}",
+        initialDelayString = "${cache.refresh-ahead.warmup-initial-delay-ms:30000}"
+    )
+    public void warmUpCache() {
+        Cache cache = cacheManager.getCache(DASHBOARD_CACHE);
+        if (cache == null) {
+            return;
         }
         
-        // Statistiques par catégorie du club
-        stats.setDemandesByCategory(getDemandesByCategoryForTeam(teamId, seasonId));
-        
-        return stats;
+        try {
+            cache.put(GLOBAL_KEY, computeDashboardStats());
+            
+            // Équipes actives : uniquement connues via les compteurs en mémoire
+            BigDecimal currentSeasonId = statsRepository.findCurrentSeasonId();
+            if (counterStore.isReady() && currentSeasonId != null) {
+                Long seasonId = currentSeasonId.longValue();
+                Map<Long, Long> activeTeams = counterStore.countBy(
+                    DemandeCounterStore.CounterKey::teamId,
+                    key -> key.teamId() != null && seasonId.equals(key.seasonId())
+                );
+                for (Long teamId : activeTeams.keySet()) {
+                    cache.put(TEAM_KEY_PREFIX + teamId, computeTeamStats(teamId, currentSeasonId));
+                }
+                logger.debug("Cache dashboard précalculé : global + {} équipe(s)", activeTeams.size());
+            }
+        } catch (Exception e) {
+            // Les entrées existantes restent servies jusqu'au prochain passage
+            logger.error("Précalcul du cache dashboard échoué", e);
+        }
     }
     
     /**
-     * Invalider le cache après une modification
+     * Forcer la resynchronisation : les compteurs sont rechargés depuis la base
+     * et les statistiques en cache sont recalculées au prochain appel
      */
-    @CacheEvict(value = {"dashboardStats", "teamsList"}, allEntries = true)
+    @CacheEvict(value = {DASHBOARD_CACHE, "teamsList", "closedSeasonStats"}, allEntries = true)
     public void clearCache() {
-        // Le cache est automatiquement vidé
+        counterStore.reload();
     }
     
     // ========== Méthodes privées ==========
     
-    private Long countByStatus(DemandeStatus status) {
-        return demandeRepository.countByDemandeStatuId(status.getBigDecimalId());
-    }
-    
-    private Long countByTeamAndStatus(BigDecimal teamId, BigDecimal seasonId, DemandeStatus status) {
-        return demandeRepository.countByTeamIdAndSeasonIdAndStatus(teamId, seasonId, status.getBigDecimalId());
+    private List<DemandeStatsRepository.AggregateRow> loadRows(BigDecimal teamId, BigDecimal seasonId) {
+        if (!counterStore.isReady()) {
+            return aggregate(teamId, seasonId);
+        }
+        
+        Predicate<DemandeCounterStore.CounterKey> filter = DemandeCounterStore.forTeamAndSeason(
+            teamId != null ? teamId.longValue() : null,
+            seasonId != null ? seasonId.longValue() : null
+        );
+        
+        // Les fenêtres de dates ne sont suivies qu'au niveau global
+        long sinceMonth = 0;
+        long sinceWeek = 0;
+        if (teamId == null && seasonId == null) {
+            sinceMonth = counterStore.countRegisteredSince(LocalDate.now().with(TemporalAdjusters.firstDayOfMonth()));
+            sinceWeek = counterStore.countRegisteredSince(LocalDate.now().minusDays(7));
+        }
+        
+        List<DemandeStatsRepository.AggregateRow> rows = new ArrayList<>();
+        rows.add(new DemandeStatsRepository.AggregateRow(
+            DemandeStatsRepository.DIM_TOTAL, null, counterStore.count(filter), sinceMonth, sinceWeek));
+        addCounterRows(rows, DemandeStatsRepository.DIM_STATUS, counterStore.countBy(DemandeCounterStore.CounterKey::statusId, filter));
+        addCounterRows(rows, DemandeStatsRepository.DIM_CATEGORY, counterStore.countBy(DemandeCounterStore.CounterKey::categoryId, filter));
+        addCounterRows(rows, DemandeStatsRepository.DIM_SEASON, counterStore.countBy(DemandeCounterStore.CounterKey::seasonId, filter));
+        return rows;
     }
     
-    private Long countDemandesSinceDate(LocalDate date) {
-        return demandeRepository.countByDateEnregistrementAfter(date);
+    private void addCounterRows(List<DemandeStatsRepository.AggregateRow> rows, String dimension, Map<Long, Long> counts) {
+        for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+            BigDecimal key = entry.getKey() != null ? BigDecimal.valueOf(entry.getKey()) : null;
+            rows.add(new DemandeStatsRepository.AggregateRow(dimension, key, entry.getValue(), 0, 0));
+        }
     }
     
-    private Map<String, Long> getDemandesByCategory() {
-        Map<String, Long> categoryMap = new HashMap<>();
-        categoryMap.put("Poussins", countByCategory(1L));
-        categoryMap.put("Benjamins", countByCategory(2L));
-        categoryMap.put("Minimes", countByCategory(3L));
-        categoryMap.put("Cadets", countByCategory(4L));
-        categoryMap.put("Juniors", countByCategory(5L));
-        categoryMap.put("Espoirs", countByCategory(6L));
-        categoryMap.put("Seniors", countByCategory(7L));
-        return categoryMap;
+    private List<DemandeStatsRepository.AggregateRow> aggregate(BigDecimal teamId, BigDecimal seasonId) {
+        LocalDate startOfMonth = LocalDate.now().with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate startOfWeek = LocalDate.now().minusDays(7);
+        return statsRepository.aggregateByDimensions(teamId, seasonId, startOfMonth, startOfWeek);
     }
     
-    private Map<String, Long> getDemandesByCategoryForTeam(BigDecimal teamId, BigDecimal seasonId) {
+    /**
+     * Remplit total, compteurs par statut, taux et catégories à partir des lignes agrégées
+     */
+    private DashboardStatsDTO buildStats(List<DemandeStatsRepository.AggregateRow> rows) {
+        DashboardStatsDTO stats = new DashboardStatsDTO();
+        
+        DemandeStatsRepository.AggregateRow totalRow = findTotalRow(rows);
+        Long totalDemandes = totalRow != null ? totalRow.total() : 0L;
+        stats.setTotalDemandes(totalDemandes);
+        
+        // Demandes par statut
+        stats.setDemandesEnAttente(countFor(rows, DemandeStatsRepository.DIM_STATUS, DemandeStatus.EN_ATTENTE.getBigDecimalId()));
+        stats.setDemandesValidees(countFor(rows, DemandeStatsRepository.DIM_STATUS, DemandeStatus.VALIDEE_CLUB.getBigDecimalId()));
+        stats.setDemandesRejetees(countFor(rows, DemandeStatsRepository.DIM_STATUS, DemandeStatus.REJETEE.getBigDecimalId()));
+        stats.setDemandesImprimees(countFor(rows, DemandeStatsRepository.DIM_STATUS, DemandeStatus.IMPRIMEE.getBigDecimalId()));
+        
+        // Calcul des taux
+        if (totalDemandes > 0) {
+            stats.setTauxValidation((stats.getDemandesValidees() * 100.0) / totalDemandes);
+            stats.setTauxRejet((stats.getDemandesRejetees() * 100.0) / totalDemandes);
+        }
+        
+        // Statistiques par catégorie
         Map<String, Long> categoryMap = new HashMap<>();
-        categoryMap.put("Poussins", countByTeamAndCategory(teamId, seasonId, 1L));
-        categoryMap.put("Benjamins", countByTeamAndCategory(teamId, seasonId, 2L));
-        categoryMap.put("Minimes", countByTeamAndCategory(teamId, seasonId, 3L));
-        categoryMap.put("Cadets", countByTeamAndCategory(teamId, seasonId, 4L));
-        categoryMap.put("Juniors", countByTeamAndCategory(teamId, seasonId, 5L));
-        categoryMap.put("Espoirs", countByTeamAndCategory(teamId, seasonId, 6L));
-        categoryMap.put("Seniors", countByTeamAndCategory(teamId, seasonId, 7L));
-        return categoryMap;
+        for (Map.Entry<Long, String> entry : CATEGORY_LABELS.entrySet()) {
+            categoryMap.put(entry.getValue(), countFor(rows, DemandeStatsRepository.DIM_CATEGORY, BigDecimal.valueOf(entry.getKey())));
+        }
+        stats.setDemandesByCategory(categoryMap);
+        
+        return stats;
     }
     
-    private Long countByCategory(Long categoryId) {
-        return demandeRepository.countByPlayerCategoryId(BigDecimal.valueOf(categoryId));
+    private DemandeStatsRepository.AggregateRow findTotalRow(List<DemandeStatsRepository.AggregateRow> rows) {
+        for (DemandeStatsRepository.AggregateRow row : rows) {
+            if (DemandeStatsRepository.DIM_TOTAL.equals(row.dimension())) {
+                return row;
+            }
+        }
+        return null;
     }
     
-    private Long countByTeamAndCategory(BigDecimal teamId, BigDecimal seasonId, Long categoryId) {
-        return demandeRepository.countByTeamIdAndSeasonIdAndCategory(
-            teamId, seasonId, BigDecimal.valueOf(categoryId)
-        );
+    private Long countFor(List<DemandeStatsRepository.AggregateRow> rows, String dimension, BigDecimal key) {
+        for (DemandeStatsRepository.AggregateRow row : rows) {
+            if (dimension.equals(row.dimension()) && row.key() != null && row.key().compareTo(key) == 0) {
+                return row.total();
+            }
+        }
+        return 0L;
     }
     
-    private Map<String, Long> getDemandesBySeason() {
-        Map<String, Long> seasonMap = new HashMap<>();
-        List<Object[]> results = demandeRepository.countBySeasonGrouped();
-        
-        for (Object[] result : results) {
-            BigDecimal seasonId = (BigDecimal) result[0];
-            Long count = ((Number) result[1]).longValue();
-            seasonMap.put("Saison " + seasonId, count);
-        }
-        
-        return seasonMap;
+    private Map<String, Long> getTop5TeamsFromCounters() {
+        Map<String, Long> teamMap = new HashMap<>();
+        counterStore.countBy(DemandeCounterStore.CounterKey::teamId, key -> key.teamId() != null)
+            .entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+            .limit(5)
+            .forEach(entry -> teamMap.put(counterStore.getTeamName(entry.getKey()), entry.getValue()));
+        return teamMap;
     }
     
     private Map<String, Long> getTop5Teams() {
         Map<String, Long> teamMap = new HashMap<>();
-        List<Object[]> results = demandeRepository.findTop5TeamsByDemandesCount();
+        List<Object[]> results = statsRepository.findTopTeams(5);
         
         for (Object[] result : results) {
             String teamName = (String) result[0];
@@ -189,13 +310,24 @@ public class DashboardService {
     }
     
     /**
-     * Statistiques d'une équipe pour la saison courante
+     * Statistiques d'une équipe pour la saison courante (cache rafraîchi en arrière-plan)
      */
-    @Cacheable(value = "dashboardStats", key = "'team-' + #teamId")
+    @Cacheable(value = DASHBOARD_CACHE, key = "'" + TEAM_KEY_PREFIX + "' + #teamId")
     public Map<String, Object> getTeamStats(Long teamId) {
-        // Obtenir la saison courante (vous pouvez adapter selon votre logique)
-        BigDecimal currentSeasonId = getCurrentSeasonId();
-        
+        return computeTeamStats(teamId);
+    }
+    
+    /**
+     * Calcul des statistiques d'une équipe pour la saison courante, sans cache
+     */
+    public Map<String, Object> computeTeamStats(Long teamId) {
+        return computeTeamStats(teamId, statsRepository.findCurrentSeasonId());
+    }
+    
+    /**
+     * @param currentSeasonId saison courante, déjà résolue (null : aucune saison ouverte, toutes les saisons)
+     */
+    private Map<String, Object> computeTeamStats(Long teamId, BigDecimal currentSeasonId) {
         // Récupérer les stats via la méthode existante
         DashboardStatsDTO stats = getDashboardStatsByTeam(
             BigDecimal.valueOf(teamId), 
@@ -217,14 +349,4 @@ public class DashboardService {
         
         return result;
     }
-
-    /**
-     * Obtenir l'ID de la saison courante
-     */
-    private BigDecimal getCurrentSeasonId() {
-        // TODO: Implémenter votre logique pour obtenir la saison courante
-        // Par exemple, chercher dans une table Season la saison active
-        // Pour l'instant, retourne une valeur par défaut
-        return BigDecimal.valueOf(1); // À adapter selon votre logique
-    }
 }
\ No newline at end of file
@@ -3,18 +3,31 @@ package com.football.management.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import com.football.management.service.validation.ValidationResult;
 
+import com.football.management.dto.CursorPageDTO;
 import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.dto.DemandeSearchCriteria;
+import com.football.management.dto.DemandeSummaryDTO;
 import com.football.management.entity.DemandePlayers;
+import com.football.management.repository.DemandeCursor;
+import com.football.management.repository.DemandeIdAllocator;
 import com.football.management.repository.DemandePlayersRepository;
 import com.football.management.mapper.DemandePlayersMapper;
+import com.football.management.service.pdf.PdfCache;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.stats.DemandeCounterStore;
+import com.football.management.service.stats.SeasonStatsService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +35,9 @@ public class DemandePlayersService {
 
     @Autowired
     private DemandePlayersRepository demandePlayersRepository;
+
+    @Autowired
+    private DemandeIdAllocator demandeIdAllocator;
     
     @Autowired
     private DemandePlayersMapper demandePlayersMapper;
@@ -32,6 +48,21 @@ public class DemandePlayersService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
     
+    @Autowired
+    private DemandeCounterStore counterStore;
+
+    @Autowired
+    private QuotaLedger quotaLedger;
+    
+    @Autowired
+    private PdfCache pdfCache;
+    
+    @Autowired
+    private SeasonStatsService seasonStatsService;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+    
 
 
     // ========== MÉTHODES DE CONVERSION ==========
@@ -64,6 +95,25 @@ public class DemandePlayersService {
         }
     }
 
+    private DemandeSearchCriteria toCriteria(
+            Long demandeId, Long demandeStatuId, Long teamId, Long seasonId,
+            String lastName, String name, String licenceNum, String cinNumber,
+            Long regimeId, Long typeLicenceId, Long ctIntervenantTypeId) {
+        DemandeSearchCriteria criteria = new DemandeSearchCriteria();
+        criteria.setDemandeId(toBigDecimal(demandeId));
+        criteria.setDemandeStatuId(toBigDecimal(demandeStatuId));
+        criteria.setTeamId(toBigDecimal(teamId));
+        criteria.setSeasonId(toBigDecimal(seasonId));
+        criteria.setLastName(lastName);
+        criteria.setName(name);
+        criteria.setLicenceNum(licenceNum);
+        criteria.setCinNumber(cinNumber);
+        criteria.setRegimeId(toBigDecimal(regimeId));
+        criteria.setTypeLicenceId(toBigDecimal(typeLicenceId));
+        criteria.setCtIntervenantTypeId(toBigDecimal(ctIntervenantTypeId));
+        return criteria;
+    }
+
     // ========== MÉTHODES CRUD DE BASE ==========
 
     public Page<DemandePlayersDTO> searchDemandes(
@@ -73,15 +123,75 @@ public class DemandePlayersService {
             Pageable pageable) {
 
         Page<DemandePlayers> entities = demandePlayersRepository.findByCriteria(
-                toBigDecimal(demandeId), toBigDecimal(demandeStatuId), 
-                toBigDecimal(teamId), toBigDecimal(seasonId),
-                lastName, name, licenceNum, cinNumber,
-                toBigDecimal(regimeId), toBigDecimal(typeLicenceId),
-                toBigDecimal(ctIntervenantTypeId), pageable);
+                toCriteria(demandeId, demandeStatuId, teamId, seasonId, lastName, name,
+                        licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId),
+                pageable);
 
         return entities.map(demandePlayersMapper::toDTO);
     }
 
+    /**
+     * Recherche limitée aux colonnes demandées (?fields=), sans entité ni DTO complet.
+     * Les champs doivent faire partie de DemandePlayersMapper.DIRECT_FIELDS.
+     */
+    public Page<Map<String, Object>> searchDemandeFields(
+            Long demandeId, Long demandeStatuId, Long teamId, Long seasonId,
+            String lastName, String name, String licenceNum, String cinNumber,
+            Long regimeId, Long typeLicenceId, Long ctIntervenantTypeId,
+            Pageable pageable, Collection<String> fields) {
+
+        return demandePlayersRepository.findColumnsByCriteria(
+                toCriteria(demandeId, demandeStatuId, teamId, seasonId, lastName, name,
+                        licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId),
+                pageable, List.copyOf(fields));
+    }
+
+    /**
+     * Recherche en vue de liste (colonnes affichées uniquement, sans entité ni mapping)
+     */
+    public Page<DemandeSummaryDTO> searchDemandeSummaries(
+            Long demandeId, Long demandeStatuId, Long teamId, Long seasonId,
+            String lastName, String name, String licenceNum, String cinNumber,
+            Long regimeId, Long typeLicenceId, Long ctIntervenantTypeId,
+            Pageable pageable) {
+
+        return demandePlayersRepository.findSummariesByCriteria(
+                toCriteria(demandeId, demandeStatuId, teamId, seasonId, lastName, name,
+                        licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId),
+                pageable);
+    }
+
+    /**
+     * Recherche paginée par curseur (keyset) : coût constant quelle que soit la profondeur,
+     * pas de COUNT sauf si includeTotal est demandé
+     *
+     * @param cursor jeton renvoyé par la page précédente (null pour la première page)
+     */
+    public CursorPageDTO<DemandePlayersDTO> searchDemandesKeyset(
+            Long demandeId, Long demandeStatuId, Long teamId, Long seasonId,
+            String lastName, String name, String licenceNum, String cinNumber,
+            Long regimeId, Long typeLicenceId, Long ctIntervenantTypeId,
+            String cursor, int size, boolean includeTotal) {
+
+        DemandeSearchCriteria criteria = toCriteria(demandeId, demandeStatuId, teamId, seasonId, lastName, name,
+                licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId);
+
+        Slice<DemandePlayers> slice = demandePlayersRepository.searchAfter(
+                criteria, cursor != null && !cursor.isEmpty() ? DemandeCursor.decode(cursor) : null, size);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            DemandePlayers last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new DemandeCursor(last.getDateEnregistrement(), last.getDemandeId()).encode();
+        }
+
+        Long total = includeTotal ? demandePlayersRepository.countByCriteria(criteria) : null;
+
+        return new CursorPageDTO<>(
+                demandePlayersMapper.toDTOList(slice.getContent()),
+                nextCursor, slice.hasNext(), size, total);
+    }
+
     public DemandePlayersDTO getById(Long id) {
         Optional<DemandePlayers> entity = demandePlayersRepository.findById(toBigDecimal(id));
         if (entity.isPresent()) {
@@ -99,20 +209,19 @@ public class DemandePlayersService {
         throw new RuntimeException("Demande non trouvée avec l'ID: " + id);
     }
 
-    public List<DemandePlayersDTO> getDemandesByTeamAndSeason(Long teamId, Long seasonId) {
-        List<DemandePlayers> entities = demandePlayersRepository.findByTeamIdAndSeasonId(
+    public List<DemandeSummaryDTO> getDemandesByTeamAndSeason(Long teamId, Long seasonId) {
+        return demandePlayersRepository.findSummariesByTeamIdAndSeasonId(
                 toBigDecimal(teamId), toBigDecimal(seasonId));
-        return demandePlayersMapper.toDTOList(entities);
     }
 
-    public List<DemandePlayersDTO> getRenewalCandidates(Long teamId, Long seasonId) {
-        List<DemandePlayers> entities = demandePlayersRepository.findRenewalCandidates(
+    public List<DemandeSummaryDTO> getRenewalCandidates(Long teamId, Long seasonId) {
+        return demandePlayersRepository.findRenewalCandidateSummaries(
                 toBigDecimal(teamId), toBigDecimal(seasonId));
-        return demandePlayersMapper.toDTOList(entities);
     }
 
     
     
+    @Transactional
     public DemandePlayersDTO createDemande(DemandePlayersDTO demandeDTO, Long userId) {
     	
 
@@ -121,7 +230,7 @@ public class DemandePlayersService {
         DemandePlayers entity = demandePlayersMapper.toEntity(demandeDTO);
         
         // ✅ GÉNÉRER L'ID AUTOMATIQUEMENT
-        BigDecimal newId = demandePlayersRepository.getNextDemandeId();
+        BigDecimal newId = demandeIdAllocator.nextId();
         entity.setDemandeId(newId);
         
         entity.setDateEnregistrement(LocalDate.now());
@@ -131,36 +240,54 @@ public class DemandePlayersService {
             entity.setDemandeStatuId(BigDecimal.ONE);
         }
         
+        // Prendre les places dans les quotas (échec si un quota est atteint entre-temps)
+        quotaLedger.reserve(entity);
         DemandePlayers savedEntity = demandePlayersRepository.save(entity);
+        counterStore.recordCreated(savedEntity);
         return demandePlayersMapper.toDTO(savedEntity);
     }
 
+    @Transactional
     public DemandePlayersDTO updateDemande(Long id, DemandePlayersDTO demandeDTO, Long userId) {
-        Optional<DemandePlayers> existingEntity = demandePlayersRepository.findById(toBigDecimal(id));
+        Optional<DemandePlayers> existingEntity = demandePlayersRepository.findByIdForUpdate(toBigDecimal(id));
         
         if (existingEntity.isPresent()) {
             DemandePlayers entity = existingEntity.get();
+            DemandeCounterStore.CounterKey before = DemandeCounterStore.CounterKey.of(entity);
+            QuotaLedger.Holding holding = QuotaLedger.Holding.of(entity);
             demandePlayersMapper.updateEntityFromDTO(demandeDTO, entity);
+            quotaLedger.update(holding, entity);
             DemandePlayers savedEntity = demandePlayersRepository.save(entity);
+            counterStore.recordChanged(before, savedEntity);
+            pdfCache.invalidate(id);
             return demandePlayersMapper.toDTO(savedEntity);
         }
         throw new RuntimeException("Demande non trouvée avec l'ID: " + id);
     }
 
+    @Transactional
     public void deleteDemande(Long id) {
-        if (!demandePlayersRepository.existsById(toBigDecimal(id))) {
-            throw new RuntimeException("Demande non trouvée avec l'ID: " + id);
-        }
-        demandePlayersRepository.deleteById(toBigDecimal(id));
+        DemandePlayers entity = demandePlayersRepository.findByIdForUpdate(toBigDecimal(id))
+            .orElseThrow(() -> new RuntimeException("Demande non trouvée avec l'ID: " + id));
+        quotaLedger.release(entity);
+        demandePlayersRepository.delete(entity);
+        counterStore.recordDeleted(entity);
+        pdfCache.invalidate(id);
     }
 
+    @Transactional
     public DemandePlayersDTO changeStatus(Long id, Long statusId, Long userId) {
-        Optional<DemandePlayers> existingEntity = demandePlayersRepository.findById(toBigDecimal(id));
+        Optional<DemandePlayers> existingEntity = demandePlayersRepository.findByIdForUpdate(toBigDecimal(id));
         
         if (existingEntity.isPresent()) {
             DemandePlayers entity = existingEntity.get();
+            DemandeCounterStore.CounterKey before = DemandeCounterStore.CounterKey.of(entity);
+            QuotaLedger.Holding holding = QuotaLedger.Holding.of(entity);
             entity.setDemandeStatuId(toBigDecimal(statusId));
+            quotaLedger.update(holding, entity);
             DemandePlayers savedEntity = demandePlayersRepository.save(entity);
+            counterStore.recordChanged(before, savedEntity);
+            pdfCache.invalidate(id);
             return demandePlayersMapper.toDTO(savedEntity);
         }
         throw new RuntimeException("Demande non trouvée avec l'ID: " + id);
@@ -178,9 +305,8 @@ public class DemandePlayersService {
         return entity.map(demandePlayersMapper::toDTO);
     }
 
-    public List<DemandePlayersDTO> getAllByStatus(Long statusId) {
-        List<DemandePlayers> entities = demandePlayersRepository.findByDemandeStatuId(toBigDecimal(statusId));
-        return demandePlayersMapper.toDTOList(entities);
+    public List<DemandeSummaryDTO> getAllByStatus(Long statusId) {
+        return demandePlayersRepository.findSummariesByDemandeStatuId(toBigDecimal(statusId));
     }
 
     // ========== MÉTHODES DE COMPTAGE ==========
@@ -188,29 +314,47 @@ public class DemandePlayersService {
     public Long countDemandes(Long teamId, Long seasonId, String licenceNum,
             String cinNumber, Long typeLicenceId, Long regimeId, 
             Long ctIntervenantTypeId) {
-        return demandePlayersRepository.countByAttributes(
-            toBigDecimal(teamId), toBigDecimal(seasonId), licenceNum, cinNumber,
-            toBigDecimal(typeLicenceId), toBigDecimal(regimeId), 
-            toBigDecimal(ctIntervenantTypeId));
+        // Filtres couverts par les compteurs en mémoire : pas d'accès base
+        if (counterStore.isReady() && isNullOrEmpty(licenceNum) && isNullOrEmpty(cinNumber) && ctIntervenantTypeId == null) {
+            return counterStore.count(key -> (teamId == null || teamId.equals(key.teamId()))
+                && (seasonId == null || seasonId.equals(key.seasonId()))
+                && (typeLicenceId == null || typeLicenceId.equals(key.typeLicenceId()))
+                && (regimeId == null || regimeId.equals(key.regimeId())));
+        }
+        return demandePlayersRepository.countByCriteria(toCriteria(null, null, teamId, seasonId, null, null,
+            licenceNum, cinNumber, regimeId, typeLicenceId, ctIntervenantTypeId));
     }
 
     public Long countCreatedAfter(LocalDate fromDate) {
+        if (counterStore.isReady()) {
+            return counterStore.countRegisteredSince(fromDate);
+        }
         return demandePlayersRepository.countCreatedAfter(fromDate);
     }
 
     public Long countDemandesByTeamSeasonAndStatus(Long teamId, Long seasonId, Long statusId) {
+        if (counterStore.isReady()) {
+            // Comme la requête JPQL (d.teamId = :teamId) : un filtre null ne correspond à rien
+            if (teamId == null || seasonId == null || statusId == null) {
+                return 0L;
+            }
+            return counterStore.count(key -> teamId.equals(key.teamId())
+                && seasonId.equals(key.seasonId())
+                && statusId.equals(key.statusId()));
+        }
         return demandePlayersRepository.countByTeamIdAndSeasonIdAndDemandeStatuId(
             toBigDecimal(teamId), toBigDecimal(seasonId), toBigDecimal(statusId));
     }
 
     
+    @Transactional
     public DemandePlayersDTO createNouveauJoueur(DemandePlayersDTO demandeDTO, Long userId) {
         validateNouveauJoueur(demandeDTO);
         
         DemandePlayers entity = new DemandePlayers();
         
         // Générer l'ID
-        BigDecimal newId = demandePlayersRepository.getNextDemandeId();
+        BigDecimal newId = demandeIdAllocator.nextId();
         entity.setDemandeId(newId);
         
         // Informations personnelles
@@ -235,8 +379,8 @@ public class DemandePlayersService {
         entity.setFeetId(convertToBigDecimal(demandeDTO.getFeetId()));
         entity.setTypeCompetitionId(convertToBigDecimal(demandeDTO.getTypeCompetitionId()));
         
-        // Calcul automatique de la catégorie
-        BigDecimal calculatedCategory = calculatePlayerCategoryByAge(demandeDTO.getDateOfBirth());
+        // Calcul automatique de la catégorie (plages de ct_param_category, comme à la validation)
+        BigDecimal calculatedCategory = calculatePlayerCategory(demandeDTO.getDateOfBirth());
         entity.setPlayerCategoryId(calculatedCategory);
         
         entity.setTshirtNum(convertToBigDecimal(demandeDTO.getTshirtNum()));
@@ -274,14 +418,17 @@ public class DemandePlayersService {
         entity.setDemandeStatuId(BigDecimal.ONE);
         entity.setDateEnregistrement(LocalDate.now());
         
+        quotaLedger.reserve(entity);
         try {
             DemandePlayers savedEntity = demandePlayersRepository.save(entity);
+            counterStore.recordCreated(savedEntity);
             return demandePlayersMapper.toDTO(savedEntity);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de l'enregistrement: " + e.getMessage(), e);
         }
     }
 
+    @Transactional
     public DemandePlayersDTO createRenouvellement(Long previousDemandeId, Long newSeasonId, Long userId) {
         Optional<DemandePlayers> previousDemande = demandePlayersRepository.findById(toBigDecimal(previousDemandeId));
         
@@ -293,7 +440,7 @@ public class DemandePlayersService {
         DemandePlayers newEntity = new DemandePlayers();
         
         // Générer nouvel ID
-        BigDecimal newId = demandePlayersRepository.getNextDemandeId();
+        BigDecimal newId = demandeIdAllocator.nextId();
         newEntity.setDemandeId(newId);
         
         // Copier les informations du joueur précédent
@@ -306,32 +453,23 @@ public class DemandePlayersService {
         newEntity.setDateEnregistrement(LocalDate.now());
         
         // Recalculer la catégorie selon l'âge actuel
-        BigDecimal categoryId = calculatePlayerCategoryByAge(previousEntity.getDateOfBirth());
+        BigDecimal categoryId = calculatePlayerCategory(previousEntity.getDateOfBirth());
         newEntity.setPlayerCategoryId(categoryId);
         
+        quotaLedger.reserve(newEntity);
         DemandePlayers savedEntity = demandePlayersRepository.save(newEntity);
+        counterStore.recordCreated(savedEntity);
         return demandePlayersMapper.toDTO(savedEntity);
     }
 
     // ========== MÉTHODES UTILITAIRES PRIVÉES ==========
 
-    private BigDecimal calculatePlayerCategoryByAge(LocalDate dateOfBirth) {
-        if (dateOfBirth == null) {
-            return BigDecimal.valueOf(7); // SENIORS par défaut
-        }
-        
-        int year = dateOfBirth.getYear();
-        
-        // Logique basée sur ct_param_category
-        if (year >= 2017) return BigDecimal.valueOf(9); // CP (2017-2018)
-        if (year >= 2015) return BigDecimal.valueOf(1); // BENJAMINS (2015-2016)
-        if (year >= 2013) return BigDecimal.valueOf(2); // ECOLES (2013-2014)
-        if (year >= 2011) return BigDecimal.valueOf(3); // MINIMES (2011-2012)
-        if (year >= 2009) return BigDecimal.valueOf(4); // CADETS (2009-2010)
-        if (year >= 2007) return BigDecimal.valueOf(5); // JUNIORS (2007-2008)
-        if (year >= 2005) return BigDecimal.valueOf(6); // ELITE (2005-2006)
-        
-        return BigDecimal.valueOf(7); // SENIORS (avant 2005)
+    /**
+     * Catégorie d'après les plages de naissance en mémoire (ReferenceDataSnapshot), la même
+     * que la validation, le calcul /categories/calculate et le renouvellement par équipe
+     */
+    private BigDecimal calculatePlayerCategory(LocalDate dateOfBirth) {
+        return BigDecimal.valueOf(referenceDataStore.getSnapshot().categoryOf(dateOfBirth));
     }
 
     private void validateNouveauJoueur(DemandePlayersDTO demandeDTO) {
@@ -387,7 +525,52 @@ public class DemandePlayersService {
     // ========== MÉTHODES STATISTIQUES ==========
 
     public List<Map<String, Object>> getRegimeStatistics() {
-        List<Object[]> results = demandePlayersRepository.countByRegime();
+        return toRegimeStatistics(counterStore.isReady()
+            ? countFromCounters(DemandeCounterStore.CounterKey::regimeId)
+            : demandePlayersRepository.countByRegime());
+    }
+
+    public List<Map<String, Object>> getTypeLicenceStatistics() {
+        return toTypeLicenceStatistics(counterStore.isReady()
+            ? countFromCounters(DemandeCounterStore.CounterKey::typeLicenceId)
+            : demandePlayersRepository.countByTypeLicence());
+    }
+
+    public List<Map<String, Object>> getStatusStatistics() {
+        return toStatusStatistics(counterStore.isReady()
+            ? countFromCounters(DemandeCounterStore.CounterKey::statusId)
+            : demandePlayersRepository.countByStatus());
+    }
+
+    // ========== Statistiques par saison (équipe optionnelle) ==========
+
+    public List<Map<String, Object>> getRegimeStatistics(Long seasonId, Long teamId) {
+        return toRegimeStatistics(toRows(seasonStatsService.getSeasonStats(seasonId, teamId).byRegime()));
+    }
+
+    public List<Map<String, Object>> getTypeLicenceStatistics(Long seasonId, Long teamId) {
+        return toTypeLicenceStatistics(toRows(seasonStatsService.getSeasonStats(seasonId, teamId).byTypeLicence()));
+    }
+
+    public List<Map<String, Object>> getStatusStatistics(Long seasonId, Long teamId) {
+        return toStatusStatistics(toRows(seasonStatsService.getSeasonStats(seasonId, teamId).byStatus()));
+    }
+
+    /**
+     * Résumé d'une saison : total et trois répartitions tirés d'une seule lecture des statistiques
+     */
+    public Map<String, Object> getSeasonSummary(Long seasonId, Long teamId) {
+        SeasonStatsService.SeasonStats stats = seasonStatsService.getSeasonStats(seasonId, teamId);
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalSaison", stats.byStatus().values().stream().mapToLong(Long::longValue).sum());
+        summary.put("regimes", toRegimeStatistics(toRows(stats.byRegime())));
+        summary.put("typesLicence", toTypeLicenceStatistics(toRows(stats.byTypeLicence())));
+        summary.put("statuts", toStatusStatistics(toRows(stats.byStatus())));
+        return summary;
+    }
+
+    private List<Map<String, Object>> toRegimeStatistics(List<Object[]> results) {
         return results.stream()
             .map(result -> {
                 Map<String, Object> stat = new HashMap<>();
@@ -402,8 +585,7 @@ public class DemandePlayersService {
             .collect(Collectors.toList());
     }
 
-    public List<Map<String, Object>> getTypeLicenceStatistics() {
-        List<Object[]> results = demandePlayersRepository.countByTypeLicence();
+    private List<Map<String, Object>> toTypeLicenceStatistics(List<Object[]> results) {
         return results.stream()
             .map(result -> {
                 Map<String, Object> stat = new HashMap<>();
@@ -418,8 +600,7 @@ public class DemandePlayersService {
             .collect(Collectors.toList());
     }
 
-    public List<Map<String, Object>> getStatusStatistics() {
-        List<Object[]> results = demandePlayersRepository.countByStatus();
+    private List<Map<String, Object>> toStatusStatistics(List<Object[]> results) {
         return results.stream()
             .map(result -> {
                 Map<String, Object> stat = new HashMap<>();
@@ -434,6 +615,26 @@ public class DemandePlayersService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Même format que les requêtes groupées du repository : (id, nombre)
+     */
+    private List<Object[]> countFromCounters(Function<DemandeCounterStore.CounterKey, Long> dimension) {
+        return toRows(counterStore.countBy(dimension, key -> true));
+    }
+
+    private List<Object[]> toRows(Map<Long, Long> counts) {
+        return counts.entrySet().stream()
+            .map(entry -> new Object[] {
+                entry.getKey() != null ? BigDecimal.valueOf(entry.getKey()) : null,
+                entry.getValue()
+            })
+            .collect(Collectors.toList());
+    }
+
+    private boolean isNullOrEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
     public Map<String, Object> getTeamSeasonStats(Long teamId, Long seasonId) {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalDemandes", countDemandes(teamId, seasonId, null, null, null, null, null));
@@ -649,7 +850,7 @@ public class DemandePlayersService {
 
     // ========== MÉTHODES UTILITAIRES POUR LABELS ==========
 
-    private String getRegimeLabel(BigDecimal regimeId) {
+    public String getRegimeLabel(BigDecimal regimeId) {
         if (regimeId == null) return "Non défini";
         int id = regimeId.intValue();
         switch (id) {
@@ -662,7 +863,7 @@ public class DemandePlayersService {
         }
     }
 
-    private String getTypeLicenceLabel(BigDecimal typeLicenceId) {
+    public String getTypeLicenceLabel(BigDecimal typeLicenceId) {
         if (typeLicenceId == null) return "Non défini";
         int id = typeLicenceId.intValue();
         switch (id) {
@@ -683,7 +884,7 @@ public class DemandePlayersService {
         }
     }
 
-    private String getStatusLabel(BigDecimal statusId) {
+    public String getStatusLabel(BigDecimal statusId) {
         if (statusId == null) return "Non défini";
         int id = statusId.intValue();
         switch (id) {
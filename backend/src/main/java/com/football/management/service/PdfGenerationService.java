@@ -3,18 +3,36 @@ package com.football.management.service;
 import com.football.management.dto.DemandePlayersDTO;
 import com.football.management.entity.DemandePlayers;
 import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.service.pdf.PdfCache;
+import com.football.management.service.pdf.PdfTemplates;
 
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
-import com.itextpdf.text.pdf.draw.LineSeparator;  // ✅ AJOUTEZ CETTE LIGNE
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 
 @Service
 public class PdfGenerationService {
@@ -24,77 +42,224 @@ public class PdfGenerationService {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     
+    @Autowired
+    private PdfTemplates pdfTemplates;
+    
+    @Autowired
+    private PdfCache pdfCache;
+    
+    @Autowired
+    @Qualifier("pdfRenderPool")
+    private ForkJoinPool pdfRenderPool;
+    
+    /**
+     * Charger une demande à imprimer (à appeler avant d'écrire la réponse, pour pouvoir encore répondre 404)
+     */
+    public DemandePlayers findDemande(Long demandeId) {
+        return demandeRepository.findById(BigDecimal.valueOf(demandeId))
+            .orElseThrow(() -> new IllegalArgumentException("Demande non trouvée"));
+    }
+    
     /**
      * Générer le PDF d'une licence
      */
     public byte[] generateLicencePdf(Long demandeId) throws Exception {
-        DemandePlayers demande = demandeRepository.findById(BigDecimal.valueOf(demandeId))
-            .orElseThrow(() -> new IllegalArgumentException("Demande non trouvée"));
-        
+        return renderLicence(findDemande(demandeId));
+    }
+    
+    /**
+     * Écrire le PDF d'une licence directement dans le flux (réponse HTTP)
+     */
+    public void writeLicencePdf(DemandePlayers demande, OutputStream out) throws IOException {
+        try {
+            writeLicence(demande, out);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de la génération de la licence " + demande.getDemandeId(), e);
+        }
+    }
+    
+    /**
+     * Écrire la licence depuis le cache disque (rendue et mise en cache si absente)
+     * 
+     * @param etag empreinte obtenue par licenceETag
+     */
+    public void writeCachedLicencePdf(DemandePlayers demande, String etag, OutputStream out) throws IOException {
+        pdfCache.write(demande.getDemandeId().longValue(), "licence", etag,
+            file -> writeLicencePdf(demande, file), out);
+    }
+    
+    /**
+     * Licence déjà en cache disque pour cette empreinte (servie comme fichier, sans rendu)
+     */
+    public Optional<Path> cachedLicencePdf(DemandePlayers demande, String etag) {
+        return pdfCache.lookup(demande.getDemandeId().longValue(), "licence", etag);
+    }
+    
+    /**
+     * ETag de la licence : empreinte de tous les champs imprimés (et du statut),
+     * qui change dès que la demande change
+     */
+    public String licenceETag(DemandePlayers demande) {
+        return fingerprint("licence",
+            demande.getDemandeId(),
+            demande.getDemandeStatuId(),
+            demande.getLicenceNum(),
+            LocalDate.now(),
+            demande.getSeasonId(),
+            demande.getName(),
+            demande.getLastName(),
+            demande.getDateOfBirth(),
+            demande.getCinNumber(),
+            demande.getPassportNum(),
+            demande.getPlayerCategoryId(),
+            demande.getEmail());
+    }
+    
+    /**
+     * ETag du récépissé : empreinte des champs imprimés (et du statut)
+     */
+    public String recepisseETag(DemandePlayers demande) {
+        return fingerprint("recepisse",
+            demande.getDemandeId(),
+            demande.getDemandeStatuId(),
+            demande.getName(),
+            demande.getLastName(),
+            LocalDate.now());
+    }
+    
+    private static String fingerprint(String type, Object... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((type + "/" + PdfTemplates.VERSION).getBytes(StandardCharsets.UTF_8));
+            for (Object field : fields) {
+                digest.update((byte) 0);
+                digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Générer les licences d'un lot dans un seul PDF, dans l'ordre de la liste
+     */
+    public byte[] generateLicencesPdf(List<DemandePlayers> demandes) throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter writer = PdfWriter.getInstance(document, baos);
-        
-        document.open();
-        
-        // Ajouter le contenu
-        addHeader(document);
-        addLicenceInfo(document, demande);
-        addPlayerInfo(document, demande);
-        addFooter(document);
+        writeLicencesPdf(demandes, baos);
+        return baos.toByteArray();
+    }
+    
+    /**
+     * Écrire les licences d'un lot dans un seul PDF, dans l'ordre de la liste, directement dans le flux.
+     * Chaque licence est rendue séparément sur le pool pdfRenderPool, puis ses pages sont copiées
+     * dans le flux (ressources identiques, comme les polices, partagées par PdfSmartCopy).
+     * Seule une fenêtre de licences est rendue d'avance : la mémoire ne dépend pas de la taille du lot
+     * et les premiers octets partent dès la première licence.
+     */
+    public void writeLicencesPdf(List<DemandePlayers> demandes, OutputStream out) throws IOException {
+        writeLicencesPdf(demandes, out, pdfRenderPool, done -> { });
+    }
+    
+    /**
+     * Écrire un lot de licences en rendant sur le pool donné (travaux d'impression en arrière-plan)
+     * 
+     * @param progress appelé avec le nombre de licences écrites, après chaque licence
+     */
+    public void writeLicencesPdf(List<DemandePlayers> demandes, OutputStream out,
+                                 ForkJoinPool renderPool, IntConsumer progress) throws IOException {
+        if (demandes.isEmpty()) {
+            throw new IllegalArgumentException("Aucune licence à imprimer");
+        }
         
-        document.close();
-        writer.close();
+        int window = Math.max(2, renderPool.getParallelism() * 2);
+        Iterator<DemandePlayers> pending = demandes.iterator();
+        Deque<ForkJoinTask<byte[]>> renderings = new ArrayDeque<>(window);
+        while (renderings.size() < window && pending.hasNext()) {
+            renderings.add(submitLicence(renderPool, pending.next()));
+        }
         
+        try {
+            Document document = new Document(PageSize.A4);
+            PdfSmartCopy copy = new PdfSmartCopy(document, out);
+            copy.setCloseStream(false);
+            document.open();
+            
+            int written = 0;
+            while (!renderings.isEmpty()) {
+                byte[] licence = renderings.poll().get();
+                if (pending.hasNext()) {
+                    renderings.add(submitLicence(renderPool, pending.next()));
+                }
+                
+                PdfReader reader = new PdfReader(licence);
+                copy.addDocument(reader);
+                copy.freeReader(reader);
+                reader.close();
+                progress.accept(++written);
+            }
+            
+            document.close();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur lors de la génération d'une licence : "
+                + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Impression du lot interrompue", e);
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de l'assemblage du lot de licences", e);
+        } finally {
+            renderings.forEach(rendering -> rendering.cancel(false));
+        }
+    }
+    
+    private ForkJoinTask<byte[]> submitLicence(ForkJoinPool renderPool, DemandePlayers demande) {
+        return renderPool.submit(() -> renderLicence(demande));
+    }
+    
+    /**
+     * PDF d'une licence en mémoire (une licence fait quelques Ko), pour la fusion des lots
+     */
+    private byte[] renderLicence(DemandePlayers demande) throws DocumentException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeLicence(demande, baos);
         return baos.toByteArray();
     }
     
     /**
-     * Ajouter l'en-tête du PDF
+     * PDF d'une licence (sans accès base : appelable depuis plusieurs threads).
+     * En-tête, pied de page et cachet viennent du modèle préparé par PdfTemplates :
+     * seuls les champs propres au joueur sont mis en page ici.
      */
-    private void addHeader(Document document) throws DocumentException {
-        // Logo et titre
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20, BaseColor.DARK_GRAY);
-        Paragraph title = new Paragraph("FÉDÉRATION TUNISIENNE DE FOOTBALL", titleFont);
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingAfter(10);
-        document.add(title);
+    private void writeLicence(DemandePlayers demande, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4,
+            PdfTemplates.MARGIN, PdfTemplates.MARGIN,
+            PdfTemplates.LICENCE_TOP_MARGIN, PdfTemplates.LICENCE_BOTTOM_MARGIN);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        writer.setPageEvent(pdfTemplates.licenceBackground());
         
-        Font subtitleFont = FontFactory.getFont(FontFactory.HELVETICA, 14, BaseColor.GRAY);
-        Paragraph subtitle = new Paragraph("LICENCE DE JOUEUR", subtitleFont);
-        subtitle.setAlignment(Element.ALIGN_CENTER);
-        subtitle.setSpacingAfter(20);
-        document.add(subtitle);
+        document.open();
         
-        // Ligne de séparation
-        LineSeparator line = new LineSeparator();
-        line.setLineColor(BaseColor.LIGHT_GRAY);
-        document.add(new Chunk(line));
-        document.add(Chunk.NEWLINE);
+        // Ajouter le contenu
+        addLicenceInfo(document, demande);
+        addPlayerInfo(document, demande);
+        
+        document.close();
     }
     
     /**
      * Ajouter les informations de la licence
      */
     private void addLicenceInfo(Document document, DemandePlayers demande) throws DocumentException {
-        Font labelFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-        Font valueFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
+        Font labelFont = PdfTemplates.LABEL_FONT;
+        Font valueFont = PdfTemplates.VALUE_FONT;
         
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(100);
         table.setSpacingBefore(10);
         table.setSpacingAfter(15);
         
-        // Style des cellules
-        PdfPCell labelCell = new PdfPCell();
-        labelCell.setBackgroundColor(new BaseColor(240, 240, 240));
-        labelCell.setPadding(8);
-        labelCell.setBorder(Rectangle.NO_BORDER);
-        
-        PdfPCell valueCell = new PdfPCell();
-        valueCell.setPadding(8);
-        valueCell.setBorder(Rectangle.NO_BORDER);
-        
         // Numéro de licence
         addTableRow(table, "Numéro de Licence :", 
             demande.getLicenceNum() != null ? demande.getLicenceNum() : "N/A", 
@@ -124,14 +289,13 @@ public class PdfGenerationService {
      * Ajouter les informations du joueur
      */
     private void addPlayerInfo(Document document, DemandePlayers demande) throws DocumentException {
-        Font sectionFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.DARK_GRAY);
-        Paragraph sectionTitle = new Paragraph("INFORMATIONS DU JOUEUR", sectionFont);
+        Paragraph sectionTitle = new Paragraph("INFORMATIONS DU JOUEUR", PdfTemplates.SECTION_FONT);
         sectionTitle.setSpacingBefore(20);
         sectionTitle.setSpacingAfter(10);
         document.add(sectionTitle);
         
-        Font labelFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
-        Font valueFont = FontFactory.getFont(FontFactory.HELVETICA, 11);
+        Font labelFont = PdfTemplates.PLAYER_LABEL_FONT;
+        Font valueFont = PdfTemplates.PLAYER_VALUE_FONT;
         
         PdfPTable table = new PdfPTable(2);
         table.setWidthPercentage(100);
@@ -181,63 +345,12 @@ public class PdfGenerationService {
         document.add(table);
     }
     
-    /**
-     * Ajouter le pied de page
-     */
-    private void addFooter(Document document) throws DocumentException {
-        document.add(Chunk.NEWLINE);
-        document.add(Chunk.NEWLINE);
-        
-        // Ligne de séparation
-        LineSeparator line = new LineSeparator();
-        line.setLineColor(BaseColor.LIGHT_GRAY);
-        document.add(new Chunk(line));
-        
-        Font footerFont = FontFactory.getFont(FontFactory.HELVETICA, 9, BaseColor.GRAY);
-        
-        Paragraph footer = new Paragraph();
-        footer.setAlignment(Element.ALIGN_CENTER);
-        footer.setSpacingBefore(10);
-        
-        footer.add(new Chunk("Fédération Tunisienne de Football\n", footerFont));
-        footer.add(new Chunk("Rue XYZ, Tunis - Tunisie\n", footerFont));
-        footer.add(new Chunk("Tél: +216 71 123 456 | Email: contact@ftf.tn\n", footerFont));
-        footer.add(new Chunk("www.ftf.tn", footerFont));
-        
-        document.add(footer);
-        
-        // Cachet et signature
-        document.add(Chunk.NEWLINE);
-        document.add(Chunk.NEWLINE);
-        
-        PdfPTable signatureTable = new PdfPTable(2);
-        signatureTable.setWidthPercentage(100);
-        signatureTable.setSpacingBefore(20);
-        
-        Font signFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-        
-        PdfPCell leftCell = new PdfPCell(new Phrase("Cachet de la Fédération", signFont));
-        leftCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        leftCell.setBorder(Rectangle.NO_BORDER);
-        leftCell.setPaddingTop(30);
-        
-        PdfPCell rightCell = new PdfPCell(new Phrase("Signature du Président", signFont));
-        rightCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        rightCell.setBorder(Rectangle.NO_BORDER);
-        rightCell.setPaddingTop(30);
-        
-        signatureTable.addCell(leftCell);
-        signatureTable.addCell(rightCell);
-        
-        document.add(signatureTable);
-    }
-    
     /**
      * Ajouter une ligne au tableau
      */
     private void addTableRow(PdfPTable table, String label, String value, Font labelFont, Font valueFont) {
         PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBackgroundColor(new BaseColor(245, 245, 245));
+        labelCell.setBackgroundColor(PdfTemplates.LABEL_BACKGROUND);
         labelCell.setPadding(8);
         labelCell.setBorder(Rectangle.NO_BORDER);
         
@@ -269,39 +382,52 @@ public class PdfGenerationService {
      * Générer un récépissé de demande
      */
     public byte[] generateRecepissePdf(Long demandeId) throws Exception {
-        DemandePlayers demande = demandeRepository.findById(BigDecimal.valueOf(demandeId))
-            .orElseThrow(() -> new IllegalArgumentException("Demande non trouvée"));
-        
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, baos);
-        
-        document.open();
-        
-        // Titre
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-        Paragraph title = new Paragraph("RÉCÉPISSÉ DE DEMANDE", titleFont);
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingAfter(30);
-        document.add(title);
-        
-        // Informations
-        Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
-        
-        document.add(new Paragraph("Demande N° : " + demande.getDemandeId(), normalFont));
-        document.add(new Paragraph("Nom : " + demande.getName() + " " + demande.getLastName(), normalFont));
-        document.add(new Paragraph("Date : " + LocalDate.now().format(DATE_FORMATTER), normalFont));
-        document.add(Chunk.NEWLINE);
-        
-        Paragraph text = new Paragraph(
-            "Nous accusons réception de votre demande de licence. " +
-            "Vous serez notifié par email dès que votre demande sera traitée.",
-            normalFont
-        );
-        document.add(text);
-        
-        document.close();
-        
+        writeRecepissePdf(findDemande(demandeId), baos);
         return baos.toByteArray();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Écrire le récépissé depuis le cache disque (rendu et mis en cache si absent)
+     * 
+     * @param etag empreinte obtenue par recepisseETag
+     */
+    public void writeCachedRecepissePdf(DemandePlayers demande, String etag, OutputStream out) throws IOException {
+        pdfCache.write(demande.getDemandeId().longValue(), "recepisse", etag,
+            file -> writeRecepissePdf(demande, file), out);
+    }
+    
+    /**
+     * Récépissé déjà en cache disque pour cette empreinte
+     */
+    public Optional<Path> cachedRecepissePdf(DemandePlayers demande, String etag) {
+        return pdfCache.lookup(demande.getDemandeId().longValue(), "recepisse", etag);
+    }
+    
+    /**
+     * Écrire le récépissé d'une demande directement dans le flux (réponse HTTP)
+     */
+    public void writeRecepissePdf(DemandePlayers demande, OutputStream out) throws IOException {
+        try {
+            Document document = new Document(PageSize.A4,
+                PdfTemplates.MARGIN, PdfTemplates.MARGIN,
+                PdfTemplates.RECEPISSE_TOP_MARGIN, PdfTemplates.RECEPISSE_BOTTOM_MARGIN);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            writer.setPageEvent(pdfTemplates.recepisseBackground());
+            
+            document.open();
+            
+            // Informations (titre et texte d'accusé de réception fournis par le modèle)
+            Font normalFont = PdfTemplates.NORMAL_FONT;
+            
+            document.add(new Paragraph("Demande N° : " + demande.getDemandeId(), normalFont));
+            document.add(new Paragraph("Nom : " + demande.getName() + " " + demande.getLastName(), normalFont));
+            document.add(new Paragraph("Date : " + LocalDate.now().format(DATE_FORMATTER), normalFont));
+            
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Erreur lors de la génération du récépissé " + demande.getDemandeId(), e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.football.management.service.export;
+
+import com.football.management.repository.DemandeExportRepository;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bordereau d'envoi des demandes sélectionnées par un club, en HTML ou en PDF.
+ *
+ * Les demandes sont chargées en une seule requête (quel que soit le nombre de joueurs),
+ * le HTML est rendu par le template Thymeleaf templates/bordereau/bordereau.html.
+ *
+ * Le template a son propre moteur, avec cache : il est analysé une fois, sans dépendre
+ * de spring.thymeleaf.cache, qui reste désactivé pour les autres templates (emails).
+ */
+@Service
+public class BordereauService {
+
+    private static final String TEMPLATE = "bordereau/bordereau";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final String[] PDF_COLUMNS = {
+        "Type Intervenant", "Nom & Prénom", "CIN/Passeport", "Date Naissance",
+        "Lieu Naissance", "Nationalité", "Date d'envoi"
+    };
+
+    @Autowired
+    private DemandeExportRepository exportRepository;
+
+    private final SpringTemplateEngine templateEngine = createTemplateEngine();
+
+    /**
+     * Contenu du bordereau : club, saison, date et lignes prêtes à afficher
+     */
+    public record Bordereau(Long teamId, Long seasonId, String clubName, String date, List<Map<String, Object>> lignes) {}
+
+    public Bordereau load(Long teamId, Long seasonId, List<Long> demandeIds) {
+        List<Map<String, Object>> lignes = exportRepository.findBordereauLines(
+            demandeIds.stream().map(BigDecimal::valueOf).collect(Collectors.toList()),
+            BigDecimal.valueOf(teamId),
+            BigDecimal.valueOf(seasonId)
+        );
+
+        String today = LocalDate.now().format(DATE_FORMATTER);
+        for (Map<String, Object> ligne : lignes) {
+            ligne.put("typeIntervenant", getTypeIntervenantLabel(ligne.get("typeIntervenantId")));
+            LocalDate dateNaissance = (LocalDate) ligne.get("dateNaissance");
+            ligne.put("dateNaissance", dateNaissance != null ? dateNaissance.format(DATE_FORMATTER) : "");
+            ligne.put("dateEnvoi", today);
+        }
+
+        String clubName = lignes.isEmpty() || lignes.get(0).get("clubName") == null
+            ? "Club ID: " + teamId
+            : (String) lignes.get(0).get("clubName");
+
+        return new Bordereau(teamId, seasonId, clubName, today, lignes);
+    }
+
+    public String renderHtml(Bordereau bordereau) {
+        Context context = new Context();
+        context.setVariable("clubName", bordereau.clubName());
+        context.setVariable("seasonId", bordereau.seasonId());
+        context.setVariable("date", bordereau.date());
+        context.setVariable("lignes", bordereau.lignes());
+        return templateEngine.process(TEMPLATE, context);
+    }
+
+    public byte[] renderPdf(Bordereau bordereau) throws DocumentException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4.rotate(), 20, 20, 20, 20);
+        PdfWriter.getInstance(document, baos);
+
+        document.open();
+
+        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+        Font subtitleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 13);
+        Font textFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+
+        Paragraph title = new Paragraph("Fédération Tunisienne de Football", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+
+        Paragraph club = new Paragraph(bordereau.clubName(), subtitleFont);
+        club.setAlignment(Element.ALIGN_CENTER);
+        document.add(club);
+
+        Paragraph info = new Paragraph(
+            "Bordereau d'envoi pour la saison : " + bordereau.seasonId() + "    Date: " + bordereau.date(), textFont);
+        info.setAlignment(Element.ALIGN_CENTER);
+        info.setSpacingAfter(15);
+        document.add(info);
+
+        PdfPTable table = new PdfPTable(PDF_COLUMNS.length);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String column : PDF_COLUMNS) {
+            PdfPCell cell = new PdfPCell(new Phrase(column, headerFont));
+            cell.setBackgroundColor(new BaseColor(240, 240, 240));
+            cell.setPadding(5);
+            table.addCell(cell);
+        }
+
+        for (Map<String, Object> ligne : bordereau.lignes()) {
+            addCell(table, ligne.get("typeIntervenant"), textFont);
+            addCell(table, nullToEmpty(ligne.get("nom")) + " " + nullToEmpty(ligne.get("prenom")), textFont);
+            addCell(table, ligne.get("cin"), textFont);
+            addCell(table, ligne.get("dateNaissance"), textFont);
+            addCell(table, ligne.get("lieuNaissance"), textFont);
+            addCell(table, ligne.get("nationalite"), textFont);
+            addCell(table, ligne.get("dateEnvoi"), textFont);
+        }
+
+        document.add(table);
+        document.close();
+
+        return baos.toByteArray();
+    }
+
+    private static SpringTemplateEngine createTemplateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private void addCell(PdfPTable table, Object value, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(nullToEmpty(value), font));
+        cell.setPadding(4);
+        table.addCell(cell);
+    }
+
+    private String nullToEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private String getTypeIntervenantLabel(Object typeId) {
+        if (!(typeId instanceof Number)) return "Joueur";
+        switch (((Number) typeId).intValue()) {
+            case 2: return "Dirigeant";
+            case 3: return "Entraîneur";
+            case 4: return "Staff médical";
+            default: return "Joueur";
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.football.management.service.export;
+
+import com.football.management.repository.DemandeExportRepository;
+import com.football.management.service.DemandePlayersService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Export des demandes d'une saison (équipe optionnelle) en CSV ou XLSX.
+ *
+ * Les lignes sont lues par curseur et écrites au fil de l'eau dans le flux de réponse :
+ * mémoire constante quel que soit le volume, premiers octets envoyés immédiatement.
+ */
+@Service
+public class DemandeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemandeExportService.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Nombre de lignes écrites entre deux envois vers le client */
+    private static final int FLUSH_EVERY = 500;
+
+    public enum ExportFormat {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        /**
+         * Format demandé (CSV par défaut)
+         */
+        public static ExportFormat from(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Format d'export non supporté: " + value));
+        }
+    }
+
+    @Autowired
+    private DemandeExportRepository exportRepository;
+
+    @Autowired
+    private DemandePlayersService demandePlayersService;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Écrit l'export dans le flux. La transaction en lecture seule est nécessaire
+     * pour que le pilote PostgreSQL lise par lots au lieu de charger tout le résultat.
+     *
+     * @return nombre de demandes exportées
+     */
+    @Transactional(readOnly = true)
+    public long export(Long teamId, Long seasonId, ExportFormat format, OutputStream out) throws IOException {
+        TabularWriter writer = format == ExportFormat.XLSX
+            ? new XlsxTabularWriter(out, "Demandes")
+            : new CsvTabularWriter(out);
+
+        writer.writeRow(DemandeExportRepository.COLUMNS);
+        writer.flush();
+
+        long[] count = {0};
+        try {
+            exportRepository.streamDemandes(
+                teamId != null ? BigDecimal.valueOf(teamId) : null,
+                BigDecimal.valueOf(seasonId),
+                fetchSize,
+                rs -> {
+                    try {
+                        writer.writeRow(toRow(rs));
+                        if (++count[0] % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        } catch (UncheckedIOException e) {
+            // Client déconnecté en cours d'export
+            throw e.getCause();
+        }
+
+        writer.finish();
+        logger.info("Export {} : {} demande(s) (saison {}, équipe {})", format, count[0], seasonId, teamId);
+        return count[0];
+    }
+
+    private List<Object> toRow(ResultSet rs) throws SQLException {
+        return Arrays.asList(
+            rs.getBigDecimal("ct_demande_id"),
+            rs.getString("licence_num"),
+            rs.getString("last_name"),
+            rs.getString("name"),
+            formatDate(rs.getObject("date_of_birth", LocalDate.class)),
+            rs.getString("place_of_birth"),
+            rs.getString("cin_number"),
+            rs.getString("passport_num"),
+            rs.getString("nationalite"),
+            rs.getString("team_name"),
+            rs.getBigDecimal("ct_season_id"),
+            rs.getBigDecimal("ct_player_category_id"),
+            demandePlayersService.getRegimeLabel(rs.getBigDecimal("ct_regime_id")),
+            demandePlayersService.getTypeLicenceLabel(rs.getBigDecimal("ct_type_licence_id")),
+            demandePlayersService.getStatusLabel(rs.getBigDecimal("ct_demande_statu_id")),
+            formatDate(rs.getObject("date_enregistrement", LocalDate.class))
+        );
+    }
+
+    private String formatDate(LocalDate date) {
+        return date != null ? date.format(DATE_FORMAT) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.football.management.service.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Écriture ligne par ligne d'un export tabulaire, sans garder les lignes en mémoire
+ */
+public interface TabularWriter {
+
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * Pousse les octets déjà écrits vers le client
+     */
+    void flush() throws IOException;
+
+    /**
+     * Termine le document (le flux sous-jacent reste ouvert)
+     */
+    void finish() throws IOException;
+}
@@ -19,6 +19,8 @@ import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class EmailNotificationService {
@@ -50,6 +52,34 @@ public class EmailNotificationService {
             return;
         }
         
+        notificationHistoryRepository.save(deliver(request));
+    }
+    
+    /**
+     * Envoyer les notifications d'un changement de statut groupé dans une seule tâche asynchrone,
+     * l'historique étant enregistré en un lot à la fin
+     */
+    @Async
+    public void sendNotifications(List<NotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        if (!emailEnabled) {
+            logger.info("Les emails sont désactivés. {} notifications ignorées.", requests.size());
+            return;
+        }
+        
+        List<NotificationHistory> histories = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            histories.add(deliver(request));
+        }
+        notificationHistoryRepository.saveAll(histories);
+    }
+    
+    /**
+     * Envoyer un email et renvoyer son historique (succès ou échec), sans l'enregistrer
+     */
+    private NotificationHistory deliver(NotificationRequest request) {
         NotificationHistory history = new NotificationHistory(
             request.getDemandeId(),
             request.getRecipientEmail(),
@@ -78,9 +108,8 @@ public class EmailNotificationService {
             
             logger.error("Erreur lors de l'envoi de l'email à {}: {}", 
                         request.getRecipientEmail(), e.getMessage());
-        } finally {
-            notificationHistoryRepository.save(history);
         }
+        return history;
     }
     
     /**
@@ -0,0 +1,202 @@
+package com.football.management.service.pdf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Cache disque des PDF par demande (licence, récépissé).
+ *
+ * Une entrée est nommée par l'empreinte des champs imprimés ({demande}/{type}-{empreinte}.pdf),
+ * la même qui sert d'ETag : si la demande change, l'empreinte change et l'ancienne entrée
+ * n'est plus jamais servie. L'invalidation, faite après commit à chaque modification
+ * ou changement de statut, ne sert qu'à libérer la place.
+ */
+@Component
+public class PdfCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfCache.class);
+
+    /**
+     * Production du PDF en cas d'absence dans le cache
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws IOException;
+    }
+
+    @Value("${pdf.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.cache.dir:${java.io.tmpdir}/ftf-pdf-cache}")
+    private String directory;
+
+    /**
+     * Fichier déjà en cache pour cette empreinte, à servir tel quel (vide si absent ou cache désactivé)
+     */
+    public Optional<Path> lookup(Long demandeId, String type, String fingerprint) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path entry = entry(demandeId, type, fingerprint);
+        return Files.isRegularFile(entry) ? Optional.of(entry) : Optional.empty();
+    }
+
+    /**
+     * Écrire le PDF dans le flux : copie du fichier en cache, ou rendu, mise en cache puis copie
+     */
+    public void write(Long demandeId, String type, String fingerprint, Renderer renderer, OutputStream out)
+            throws IOException {
+        if (!enabled) {
+            renderer.render(out);
+            return;
+        }
+
+        Path entry = entry(demandeId, type, fingerprint);
+        try (InputStream in = Files.newInputStream(entry)) {
+            in.transferTo(out);
+            return;
+        } catch (NoSuchFileException e) {
+            // Absent : rendu puis mise en cache
+        }
+
+        Path tmp;
+        try {
+            Files.createDirectories(entry.getParent());
+            tmp = Files.createTempFile(entry.getParent(), type + "-", ".tmp");
+        } catch (IOException e) {
+            logger.warn("Cache PDF indisponible ({}), rendu direct", e.getMessage());
+            renderer.render(out);
+            return;
+        }
+
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                renderer.render(file);
+            }
+            Files.copy(tmp, out);
+            store(tmp, entry, type);
+        } catch (NoSuchFileException e) {
+            // Fichier temporaire disparu avant la copie (répertoire nettoyé) : rien n'a encore été écrit dans le flux
+            logger.debug("Fichier temporaire {} disparu, rendu direct", tmp);
+            renderer.render(out);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Supprimer les PDF d'une demande, après le commit de la transaction courante
+     * (les fichiers temporaires d'un rendu en cours sont laissés à leur propriétaire)
+     */
+    public void invalidate(Long demandeId) {
+        if (enabled) {
+            afterCommit(() -> delete(demandeDirectory(demandeId)));
+        }
+    }
+
+    public void invalidateAll(Collection<Long> demandeIds) {
+        if (enabled && !demandeIds.isEmpty()) {
+            afterCommit(() -> demandeIds.forEach(id -> delete(demandeDirectory(id))));
+        }
+    }
+
+    /**
+     * En-tête If-None-Match correspondant à l'ETag (liste, "*", étiquettes faibles acceptées)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path demandeDirectory(Long demandeId) {
+        return Paths.get(directory, String.valueOf(demandeId));
+    }
+
+    private Path entry(Long demandeId, String type, String fingerprint) {
+        return demandeDirectory(demandeId).resolve(type + "-" + fingerprint + ".pdf");
+    }
+
+    /**
+     * Publier le fichier rendu et retirer les versions précédentes du même type
+     * (échec sans conséquence : le PDF a déjà été servi)
+     */
+    private void store(Path tmp, Path entry, String type) {
+        try {
+            Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+            try (Stream<Path> files = Files.list(entry.getParent())) {
+                files.filter(file -> !file.equals(entry))
+                    .filter(file -> file.getFileName().toString().startsWith(type + "-"))
+                    .filter(file -> file.getFileName().toString().endsWith(".pdf"))
+                    .forEach(PdfCache::deleteQuietly);
+            }
+        } catch (IOException e) {
+            logger.debug("PDF non mis en cache : {}", e.getMessage());
+        }
+    }
+
+    private static void delete(Path demandeDirectory) {
+        try (Stream<Path> files = Files.list(demandeDirectory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".pdf"))
+                .forEach(PdfCache::deleteQuietly);
+        } catch (NoSuchFileException e) {
+            // Rien en cache pour cette demande
+        } catch (IOException e) {
+            logger.warn("Invalidation du cache PDF incomplète pour {} : {}", demandeDirectory, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Suppression impossible de {} : {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Exécute l'action après le commit de la transaction courante (ou immédiatement s'il n'y en a pas)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
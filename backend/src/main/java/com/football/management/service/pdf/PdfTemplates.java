@@ -0,0 +1,215 @@
+package com.football.management.service.pdf;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.*;
+import com.itextpdf.text.pdf.draw.LineSeparator;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Ressources partagées par tous les PDF générés (licences, récépissés) :
+ * polices construites une fois sur des BaseFont communes, et parties fixes des pages
+ * (en-tête, pied de page, cachet, texte du récépissé) dessinées une seule fois.
+ *
+ * Chaque partie fixe est un PDF d'une page conservé en mémoire ; un document l'importe
+ * comme XObject (PdfImportedPage) et le pose sous son contenu, qui se limite aux champs
+ * du joueur. Lors d'une fusion par PdfSmartCopy, ce XObject n'est stocké qu'une fois.
+ */
+@Component
+public class PdfTemplates {
+
+    // ========== POLICES ==========
+
+    private static final BaseFont HELVETICA = baseFont(BaseFont.HELVETICA);
+    private static final BaseFont HELVETICA_BOLD = baseFont(BaseFont.HELVETICA_BOLD);
+
+    public static final BaseColor LABEL_BACKGROUND = new BaseColor(245, 245, 245);
+
+    public static final Font TITLE_FONT = new Font(HELVETICA_BOLD, 20, Font.NORMAL, BaseColor.DARK_GRAY);
+    public static final Font SUBTITLE_FONT = new Font(HELVETICA, 14, Font.NORMAL, BaseColor.GRAY);
+    public static final Font SECTION_FONT = new Font(HELVETICA_BOLD, 14, Font.NORMAL, BaseColor.DARK_GRAY);
+    public static final Font LABEL_FONT = new Font(HELVETICA_BOLD, 12);
+    public static final Font VALUE_FONT = new Font(HELVETICA, 12);
+    public static final Font PLAYER_LABEL_FONT = new Font(HELVETICA_BOLD, 11);
+    public static final Font PLAYER_VALUE_FONT = new Font(HELVETICA, 11);
+    public static final Font FOOTER_FONT = new Font(HELVETICA, 9, Font.NORMAL, BaseColor.GRAY);
+    public static final Font SIGNATURE_FONT = new Font(HELVETICA_BOLD, 10);
+    public static final Font RECEPISSE_TITLE_FONT = new Font(HELVETICA_BOLD, 18);
+    public static final Font NORMAL_FONT = new Font(HELVETICA, 12);
+
+    // ========== MISE EN PAGE ==========
+
+    /** Version de la mise en page, incluse dans l'empreinte des PDF en cache : à changer avec les modèles */
+    public static final String VERSION = "1";
+
+    public static final float MARGIN = 36;
+
+    /** Marges des documents : le contenu variable reste entre l'en-tête et le pied de page fixes */
+    public static final float LICENCE_TOP_MARGIN = 150;
+    public static final float LICENCE_BOTTOM_MARGIN = 230;
+    public static final float RECEPISSE_TOP_MARGIN = 110;
+    public static final float RECEPISSE_BOTTOM_MARGIN = 36;
+
+    /** Position (depuis le haut de la page) du texte fixe du récépissé, sous les champs variables */
+    private static final float RECEPISSE_TEXT_TOP = 230;
+
+    private final byte[] licenceArtwork;
+    private final byte[] recepisseArtwork;
+
+    public PdfTemplates() {
+        try {
+            this.licenceArtwork = drawLicenceArtwork();
+            this.recepisseArtwork = drawRecepisseArtwork();
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Impossible de préparer les modèles PDF", e);
+        }
+    }
+
+    /**
+     * Événement à enregistrer sur le PdfWriter d'une licence (un par document)
+     */
+    public PdfPageEvent licenceBackground() {
+        return new Background(licenceArtwork);
+    }
+
+    /**
+     * Événement à enregistrer sur le PdfWriter d'un récépissé (un par document)
+     */
+    public PdfPageEvent recepisseBackground() {
+        return new Background(recepisseArtwork);
+    }
+
+    // ========== PARTIES FIXES ==========
+
+    private static byte[] drawLicenceArtwork() throws DocumentException, IOException {
+        return drawPage(canvas -> {
+            Rectangle page = PageSize.A4;
+
+            ColumnText header = column(canvas, page.getTop() - LICENCE_TOP_MARGIN, page.getTop() - MARGIN);
+            Paragraph title = new Paragraph("FÉDÉRATION TUNISIENNE DE FOOTBALL", TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            title.setSpacingAfter(10);
+            header.addElement(title);
+
+            Paragraph subtitle = new Paragraph("LICENCE DE JOUEUR", SUBTITLE_FONT);
+            subtitle.setAlignment(Element.ALIGN_CENTER);
+            subtitle.setSpacingAfter(20);
+            header.addElement(subtitle);
+            header.addElement(separator());
+            header.go();
+
+            ColumnText footer = column(canvas, MARGIN, LICENCE_BOTTOM_MARGIN);
+            footer.addElement(separator());
+
+            Paragraph address = new Paragraph();
+            address.setAlignment(Element.ALIGN_CENTER);
+            address.setSpacingBefore(10);
+            address.add(new Chunk("Fédération Tunisienne de Football\n", FOOTER_FONT));
+            address.add(new Chunk("Rue XYZ, Tunis - Tunisie\n", FOOTER_FONT));
+            address.add(new Chunk("Tél: +216 71 123 456 | Email: contact@ftf.tn\n", FOOTER_FONT));
+            address.add(new Chunk("www.ftf.tn", FOOTER_FONT));
+            footer.addElement(address);
+
+            PdfPTable signatureTable = new PdfPTable(2);
+            signatureTable.setWidthPercentage(100);
+            signatureTable.setSpacingBefore(20);
+            signatureTable.addCell(signatureCell("Cachet de la Fédération"));
+            signatureTable.addCell(signatureCell("Signature du Président"));
+            footer.addElement(signatureTable);
+            footer.go();
+        });
+    }
+
+    private static byte[] drawRecepisseArtwork() throws DocumentException, IOException {
+        return drawPage(canvas -> {
+            Rectangle page = PageSize.A4;
+
+            ColumnText header = column(canvas, page.getTop() - RECEPISSE_TOP_MARGIN, page.getTop() - MARGIN);
+            Paragraph title = new Paragraph("RÉCÉPISSÉ DE DEMANDE", RECEPISSE_TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            header.addElement(title);
+            header.go();
+
+            ColumnText text = column(canvas, MARGIN, page.getTop() - RECEPISSE_TEXT_TOP);
+            text.addElement(new Paragraph(
+                "Nous accusons réception de votre demande de licence. " +
+                "Vous serez notifié par email dès que votre demande sera traitée.",
+                NORMAL_FONT
+            ));
+            text.go();
+        });
+    }
+
+    private interface Drawing {
+        void draw(PdfContentByte canvas) throws DocumentException;
+    }
+
+    private static byte[] drawPage(Drawing drawing) throws DocumentException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+        drawing.draw(writer.getDirectContent());
+        // Page dessinée uniquement en contenu direct : ne pas la considérer comme vide
+        writer.setPageEmpty(false);
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static ColumnText column(PdfContentByte canvas, float bottom, float top) {
+        ColumnText column = new ColumnText(canvas);
+        column.setSimpleColumn(MARGIN, bottom, PageSize.A4.getRight() - MARGIN, top);
+        return column;
+    }
+
+    private static Paragraph separator() {
+        LineSeparator line = new LineSeparator();
+        line.setLineColor(BaseColor.LIGHT_GRAY);
+        return new Paragraph(new Chunk(line));
+    }
+
+    private static PdfPCell signatureCell(String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, SIGNATURE_FONT));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setPaddingTop(30);
+        return cell;
+    }
+
+    private static BaseFont baseFont(String name) {
+        try {
+            return BaseFont.createFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Police indisponible : " + name, e);
+        }
+    }
+
+    /**
+     * Pose la partie fixe sous le contenu de chaque page. La page modèle est importée une fois
+     * par document : toutes ses pages référencent le même XObject.
+     */
+    private static final class Background extends PdfPageEventHelper {
+
+        private final byte[] artwork;
+        private PdfImportedPage page;
+
+        Background(byte[] artwork) {
+            this.artwork = artwork;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            if (page == null) {
+                try {
+                    page = writer.getImportedPage(new PdfReader(artwork), 1);
+                } catch (IOException e) {
+                    throw new ExceptionConverter(e);
+                }
+            }
+            writer.getDirectContentUnder().addTemplate(page, 0, 0);
+        }
+    }
+}
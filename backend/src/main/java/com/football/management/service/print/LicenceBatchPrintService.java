@@ -0,0 +1,190 @@
+package com.football.management.service.print;
+
+import com.football.management.dto.LicencePrintRequest;
+import com.football.management.entity.DemandePlayers;
+import com.football.management.enums.DemandeStatus;
+import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.service.PdfGenerationService;
+import com.football.management.service.workflow.WorkflowService;
+import com.football.management.service.workflow.WorkflowService.BulkTransitionReport;
+import com.football.management.service.workflow.WorkflowService.TransitionOutcome;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Impression des licences d'un club ou d'une sélection de demandes en un seul PDF :
+ * une requête pour charger les demandes, éventuellement un changement de statut groupé vers
+ * IMPRIMEE, puis un rendu parallèle écrit en flux des seules licences acceptées.
+ */
+@Service
+public class LicenceBatchPrintService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LicenceBatchPrintService.class);
+
+    @Autowired
+    private DemandePlayersRepository demandeRepository;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    /** Demandes passées à IMPRIMEE par transaction (même plafond que les changements groupés de l'API) */
+    static final int MARK_PRINTED_CHUNK_SIZE = 1000;
+
+    @Value("${pdf.batch.max-licences:1000}")
+    private int maxLicences;
+
+    /**
+     * Licences à écrire après le passage éventuel à IMPRIMEE
+     *
+     * @param demandes demandes à imprimer (toutes si le statut n'est pas modifié, sinon les seules acceptées)
+     * @param report   résultat du passage à IMPRIMEE, null si non demandé
+     */
+    public record PreparedPrint(List<DemandePlayers> demandes, BulkTransitionReport report) {
+
+        /** Demandes restées dans leur statut (transition interdite, quota atteint...), non imprimées */
+        public List<Long> failedIds() {
+            if (report == null) {
+                return List.of();
+            }
+            return report.outcomes().stream()
+                .filter(outcome -> !outcome.success())
+                .map(TransitionOutcome::demandeId)
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Passer les demandes à IMPRIMEE avant d'écrire la réponse, si demandé : le client sait
+     * avant le premier octet quelles licences ont été refusées, et ne reçoit que les licences
+     * dont le statut a bien changé. Le changement est validé dans sa propre transaction.
+     */
+    public PreparedPrint prepare(List<DemandePlayers> demandes, boolean markPrinted, Long userId) {
+        if (!markPrinted) {
+            return new PreparedPrint(demandes, null);
+        }
+        BulkTransitionReport report = markPrinted(demandes, userId);
+        Set<Long> accepted = report.outcomes().stream()
+            .filter(TransitionOutcome::success)
+            .map(TransitionOutcome::demandeId)
+            .collect(Collectors.toSet());
+        List<DemandePlayers> printable = demandes.stream()
+            .filter(d -> accepted.contains(d.getDemandeId().longValue()))
+            .collect(Collectors.toList());
+        if (report.failed() > 0) {
+            report.outcomes().stream()
+                .filter(outcome -> !outcome.success())
+                .forEach(outcome -> logger.warn("Licence {} non imprimée : {}", outcome.demandeId(), outcome.error()));
+        }
+        return new PreparedPrint(printable, report);
+    }
+
+    /**
+     * Écrire le PDF du lot dans le flux
+     */
+    public void print(List<DemandePlayers> demandes, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        pdfGenerationService.writeLicencesPdf(demandes, out);
+        logger.info("{} licences générées en {} ms", demandes.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Passer des licences au statut IMPRIMEE, par tranches de MARK_PRINTED_CHUNK_SIZE demandes :
+     * chaque tranche est validée dans sa propre transaction (verrous et liste IN bornés),
+     * et les résultats sont réunis dans l'ordre des demandes
+     */
+    public BulkTransitionReport markPrinted(List<DemandePlayers> demandes, Long userId) {
+        List<Long> ids = demandes.stream().map(d -> d.getDemandeId().longValue()).collect(Collectors.toList());
+        List<TransitionOutcome> outcomes = new ArrayList<>(ids.size());
+        int succeeded = 0;
+        int failed = 0;
+        for (int from = 0; from < ids.size(); from += MARK_PRINTED_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MARK_PRINTED_CHUNK_SIZE, ids.size()));
+            BulkTransitionReport report = workflowService.changeStatusBulk(
+                chunk, DemandeStatus.IMPRIMEE.getId(), userId, "Licence imprimée");
+            outcomes.addAll(report.outcomes());
+            succeeded += report.succeeded();
+            failed += report.failed();
+        }
+        return new BulkTransitionReport(DemandeStatus.IMPRIMEE.getId(), outcomes.size(), succeeded, failed, outcomes);
+    }
+
+    /**
+     * Demandes à imprimer, chargées en une requête avant d'écrire la réponse
+     * (une sélection invalide peut encore être refusée en 400)
+     */
+    public List<DemandePlayers> select(LicencePrintRequest request) {
+        return select(request, maxLicences);
+    }
+
+    /**
+     * Demandes à imprimer, avec un plafond propre à l'appelant (travaux d'impression en arrière-plan)
+     */
+    public List<DemandePlayers> select(LicencePrintRequest request, int limit) {
+        List<DemandePlayers> demandes = load(request);
+        if (demandes.isEmpty()) {
+            throw new IllegalArgumentException("Aucune licence à imprimer");
+        }
+        if (demandes.size() > limit) {
+            throw new IllegalArgumentException(
+                "Impression limitée à " + limit + " licences (" + demandes.size() + " demandées)");
+        }
+        return demandes;
+    }
+
+    /**
+     * Vérifier qu'une sélection est indiquée (identifiants, ou équipe et saison), sans accès base
+     */
+    public static void requireSelection(LicencePrintRequest request) {
+        boolean byIds = request.getDemandeIds() != null && !request.getDemandeIds().isEmpty();
+        if (!byIds && (request.getTeamId() == null || request.getSeasonId() == null)) {
+            throw new IllegalArgumentException("Indiquer les demandes à imprimer, ou l'équipe et la saison");
+        }
+    }
+
+    /**
+     * Identifiants fournis (dans leur ordre) ou équipe + saison + statut
+     */
+    private List<DemandePlayers> load(LicencePrintRequest request) {
+        if (request.getDemandeIds() != null && !request.getDemandeIds().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(request.getDemandeIds());
+            Map<Long, DemandePlayers> found = demandeRepository.findAllById(
+                    ids.stream().map(BigDecimal::valueOf).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(d -> d.getDemandeId().longValue(), Function.identity()));
+
+            List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Demandes non trouvées : " + missing);
+            }
+
+            List<DemandePlayers> demandes = new ArrayList<>(ids.size());
+            ids.forEach(id -> demandes.add(found.get(id)));
+            return demandes;
+        }
+
+        requireSelection(request);
+        Long statusId = request.getStatusId() != null ? request.getStatusId() : DemandeStatus.VALIDEE_CLUB.getId();
+        return demandeRepository.findForPrinting(
+            BigDecimal.valueOf(request.getTeamId()),
+            BigDecimal.valueOf(request.getSeasonId()),
+            BigDecimal.valueOf(statusId));
+    }
+}
@@ -0,0 +1,330 @@
+package com.football.management.service.print;
+
+import com.football.management.dto.LicencePrintRequest;
+import com.football.management.entity.DemandePlayers;
+import com.football.management.repository.PrintJobRepository;
+import com.football.management.repository.PrintJobRepository.PrintJob;
+import com.football.management.repository.PrintJobRepository.Status;
+import com.football.management.service.PdfGenerationService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Impressions de licences en arrière-plan, pour les gros lots (saison complète d'un club, etc.).
+ *
+ * Un travail est enregistré en base (ct_print_jobs) puis confié à un pool borné de workers
+ * de priorité basse ; le PDF est écrit dans le répertoire de spool ({id}.pdf) et téléchargé
+ * une fois le travail terminé. Ce répertoire (print.jobs.spool-dir, obligatoire) est partagé
+ * par toutes les instances : le fichier est servi et purgé par n'importe laquelle. Le rendu utilise un pool dédié (printJobRenderPool) : les
+ * impressions interactives et les autres requêtes gardent leurs threads.
+ *
+ * La base fait foi : un travail refusé par un pool plein reste EN_ATTENTE et est repris par
+ * le répartiteur périodique. Un travail pris porte l'identifiant de l'instance qui l'exécute,
+ * qui le rafraîchit à chaque répartition : au démarrage, une instance ne remet en attente que
+ * ses propres travaux interrompus, et ceux d'une instance silencieuse depuis plus de
+ * lease-seconds sont repris par les autres. Les travaux en cours ailleurs ne sont pas touchés.
+ */
+@Service
+public class PrintJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrintJobService.class);
+
+    @Autowired
+    private PrintJobRepository printJobRepository;
+
+    @Autowired
+    private LicenceBatchPrintService licenceBatchPrintService;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    @Qualifier("printJobExecutor")
+    private ThreadPoolTaskExecutor printJobExecutor;
+
+    @Autowired
+    @Qualifier("printJobRenderPool")
+    private ForkJoinPool printJobRenderPool;
+
+    /** Répertoire partagé par toutes les instances, sans valeur par défaut locale */
+    @Value("${print.jobs.spool-dir}")
+    private String spoolDirectory;
+
+    @Value("${print.jobs.max-licences:20000}")
+    private int maxLicences;
+
+    @Value("${print.jobs.retention-hours:72}")
+    private int retentionHours;
+
+    /** Identifiant de l'instance, unique dans le déploiement (nom d'hôte par défaut) */
+    @Value("${print.jobs.instance-id:}")
+    private String instanceId;
+
+    @Value("${print.jobs.lease-seconds:300}")
+    private long leaseSeconds;
+
+    /** Travaux confiés au pool et pas encore démarrés (évite de les soumettre deux fois) */
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Enregistrer un travail et le confier au pool s'il a de la place
+     */
+    public PrintJob submit(LicencePrintRequest request, Long userId) {
+        LicenceBatchPrintService.requireSelection(request);
+
+        Long jobId = printJobRepository.insert(request.getDemandeIds(), request.getTeamId(),
+            request.getSeasonId(), request.getStatusId(), request.isMarkPrinted(), userId);
+        logger.info("Travail d'impression {} soumis par l'utilisateur {}", jobId, userId);
+
+        dispatch(jobId);
+        return getJob(jobId);
+    }
+
+    public PrintJob getJob(Long jobId) {
+        return printJobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Travail d'impression non trouvé : " + jobId));
+    }
+
+    /**
+     * Fichier d'un travail terminé
+     *
+     * @throws IllegalArgumentException travail inconnu
+     * @throws IllegalStateException travail non terminé ou fichier supprimé
+     */
+    public Path getResult(Long jobId) {
+        PrintJob job = getJob(jobId);
+        if (job.status() != Status.TERMINE) {
+            throw new IllegalStateException("Travail d'impression " + jobId + " : " + job.status());
+        }
+        Path file = spoolFile(jobId);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Fichier du travail d'impression " + jobId + " introuvable");
+        }
+        return file;
+    }
+
+    // ========== RÉPARTITION ==========
+
+    /**
+     * @throws IllegalStateException répertoire de spool vide ou inaccessible (démarrage interrompu)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        requireSpoolDirectory();
+        try {
+            // Travaux de cette instance encore EN_COURS : interrompus par son arrêt
+            int requeued = printJobRepository.requeueOwned(owner());
+            if (requeued > 0) {
+                logger.warn("{} travail(aux) d'impression interrompu(s) remis en attente", requeued);
+            }
+            dispatchQueued();
+        } catch (Exception e) {
+            logger.error("Reprise des travaux d'impression impossible", e);
+        }
+    }
+
+    /**
+     * Signe de vie des travaux en cours de l'instance, reprise de ceux des instances arrêtées,
+     * puis confie au pool les travaux en attente (refusés faute de place, ou repris)
+     * et supprime les fichiers des travaux terminés depuis plus de retentionHours
+     */
+    @Scheduled(
+        fixedDelayString = "${print.jobs.dispatch-delay-ms:30000}",
+        initialDelayString = "${print.jobs.dispatch-delay-ms:30000}"
+    )
+    public void dispatchQueued() {
+        try {
+            printJobRepository.heartbeat(owner());
+            int expired = printJobRepository.requeueExpired(leaseSeconds);
+            if (expired > 0) {
+                logger.warn("{} travail(aux) d'impression sans signe de vie depuis {} s remis en attente",
+                    expired, leaseSeconds);
+            }
+            for (Long jobId : printJobRepository.findQueued(printJobExecutor.getMaxPoolSize() * 5)) {
+                if (!dispatch(jobId)) {
+                    break;
+                }
+            }
+            purgeExpired();
+        } catch (Exception e) {
+            logger.error("Répartition des travaux d'impression échouée", e);
+        }
+    }
+
+    /**
+     * @return false si le pool est plein (le travail reste en attente en base)
+     */
+    private boolean dispatch(Long jobId) {
+        if (!submitted.add(jobId)) {
+            return true;
+        }
+        try {
+            printJobExecutor.execute(() -> run(jobId));
+            return true;
+        } catch (TaskRejectedException e) {
+            submitted.remove(jobId);
+            logger.info("Pool d'impression plein, travail {} laissé en attente", jobId);
+            return false;
+        }
+    }
+
+    // ========== EXÉCUTION ==========
+
+    void run(Long jobId) {
+        submitted.remove(jobId);
+        String owner = owner();
+        if (!printJobRepository.claim(jobId, owner)) {
+            return;
+        }
+
+        Path file = spoolFile(jobId);
+        Path part = file.resolveSibling(jobId + ".pdf.part");
+        try {
+            PrintJob job = getJob(jobId);
+            List<DemandePlayers> selected = licenceBatchPrintService.select(toRequest(job), maxLicences);
+
+            // Passage à IMPRIMEE avant le rendu, comme l'impression interactive : seules les licences
+            // acceptées sont écrites, les refusées sont enregistrées sur le travail
+            LicenceBatchPrintService.PreparedPrint prepared = licenceBatchPrintService.prepare(selected, job.markPrinted(), job.requestedBy());
+            List<DemandePlayers> demandes = prepared.demandes();
+            if (prepared.report() != null) {
+                printJobRepository.recordPrinted(jobId, owner, demandes.size(), prepared.failedIds());
+            }
+            if (demandes.isEmpty()) {
+                throw new IllegalStateException("Aucune licence n'a pu passer au statut IMPRIMEE");
+            }
+            printJobRepository.updateProgress(jobId, owner, demandes.size(), 0);
+
+            long start = System.currentTimeMillis();
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                pdfGenerationService.writeLicencesPdf(demandes, out, printJobRenderPool,
+                    progress(jobId, owner, demandes.size()));
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            if (!printJobRepository.complete(jobId, owner, Files.size(file))) {
+                logger.warn("Travail d'impression {} repris par une autre instance pendant son exécution", jobId);
+                return;
+            }
+            logger.info("Travail d'impression {} terminé : {} licences en {} ms",
+                jobId, demandes.size(), System.currentTimeMillis() - start);
+
+        } catch (Exception e) {
+            logger.error("Travail d'impression {} en échec", jobId, e);
+            deleteQuietly(part);
+            printJobRepository.fail(jobId, owner, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Avancement enregistré environ tous les 1 % (au plus une centaine d'UPDATE par travail)
+     */
+    private IntConsumer progress(Long jobId, String owner, int total) {
+        int step = Math.max(1, total / 100);
+        return done -> {
+            if (done % step == 0 && done < total) {
+                printJobRepository.updateProgress(jobId, owner, total, done);
+            }
+        };
+    }
+
+    /**
+     * Chaque travail expiré est d'abord pris en base (TERMINE → EXPIRE) : une seule instance
+     * supprime son fichier du spool partagé
+     */
+    private void purgeExpired() {
+        int purged = 0;
+        for (Long jobId : printJobRepository.findFinishedBefore(LocalDateTime.now().minusHours(retentionHours))) {
+            if (printJobRepository.markExpired(jobId)) {
+                deleteQuietly(spoolFile(jobId));
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            logger.info("{} fichier(s) d'impression expiré(s) supprimé(s)", purged);
+        }
+    }
+
+    private void requireSpoolDirectory() {
+        if (spoolDirectory == null || spoolDirectory.isBlank()) {
+            throw new IllegalStateException("print.jobs.spool-dir (PRINT_SPOOL_DIR) doit désigner un répertoire partagé");
+        }
+        try {
+            Files.createDirectories(Paths.get(spoolDirectory));
+        } catch (IOException e) {
+            throw new IllegalStateException("Répertoire de spool inaccessible : " + spoolDirectory, e);
+        }
+        if (!Files.isWritable(Paths.get(spoolDirectory))) {
+            throw new IllegalStateException("Répertoire de spool en lecture seule : " + spoolDirectory);
+        }
+    }
+
+    /**
+     * Instance enregistrée sur les travaux qu'elle exécute : print.jobs.instance-id, sinon le nom d'hôte
+     */
+    String owner() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = hostName();
+        }
+        return instanceId;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            logger.warn("Nom d'hôte indisponible ({}), définir print.jobs.instance-id pour chaque instance",
+                e.getMessage());
+            return "localhost";
+        }
+    }
+
+    private Path spoolFile(Long jobId) {
+        return Paths.get(spoolDirectory, jobId + ".pdf");
+    }
+
+    private static LicencePrintRequest toRequest(PrintJob job) {
+        LicencePrintRequest request = new LicencePrintRequest();
+        request.setDemandeIds(job.demandeIds());
+        request.setTeamId(job.teamId());
+        request.setSeasonId(job.seasonId());
+        request.setStatusId(job.statusId());
+        request.setMarkPrinted(job.markPrinted());
+        return request;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Suppression impossible de {} : {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.football.management.service.quota;
+
+/**
+ * Plus de place disponible dans un quota au moment de l'enregistrement :
+ * la transaction est annulée, la demande n'est pas créée ni réactivée.
+ */
+public class QuotaExceededException extends IllegalStateException {
+
+    private final QuotaType quotaType;
+    private final int limit;
+
+    public QuotaExceededException(QuotaType quotaType, int limit) {
+        super(quotaType.exceededMessage(limit));
+        this.quotaType = quotaType;
+        this.limit = limit;
+    }
+
+    public QuotaType getQuotaType() {
+        return quotaType;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
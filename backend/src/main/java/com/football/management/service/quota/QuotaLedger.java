@@ -0,0 +1,374 @@
+package com.football.management.service.quota;
+
+import com.football.management.entity.DemandePlayers;
+import com.football.management.service.reference.ReferenceDataSnapshot;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registre des places occupées dans chaque quota (ct_quota_ledger : une ligne par
+ * équipe, saison et type de quota).
+ *
+ * Chaque création, modification, suppression ou changement de statut d'une demande met à jour
+ * le registre dans la même transaction, avant l'écriture de la demande :
+ * - prise de place : UPDATE ... SET used = used + 1 WHERE used < limite
+ * - libération    : UPDATE ... SET used = used - 1 WHERE used > 0
+ *
+ * Le verrou de ligne pris par l'UPDATE sérialise les demandes concurrentes d'une même équipe :
+ * la seconde relit le compteur après la validation de la première, un quota ne peut donc pas
+ * être dépassé. Une ligne absente est initialisée à partir de ct_demandes au premier besoin.
+ * Les appelants chargent la demande verrouillée (findByIdForUpdate) avant de capturer ses places,
+ * pour que deux modifications concurrentes d'une même demande ne libèrent ou ne prennent pas deux fois.
+ *
+ * Une réconciliation périodique recompte ct_demandes et corrige les lignes en écart.
+ */
+@Component
+public class QuotaLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaLedger.class);
+
+    private static final Long LIGUE_I = 1L;
+    private static final Long LIGUE_II = 2L;
+
+    private static final String RESERVE_SQL = """
+        UPDATE ct_quota_ledger
+        SET used = used + 1, updated_at = CURRENT_TIMESTAMP
+        WHERE ct_team_id = ? AND ct_season_id = ? AND quota_type = ? AND used < ?
+        """;
+
+    private static final String RELEASE_SQL = """
+        UPDATE ct_quota_ledger
+        SET used = used - 1, updated_at = CURRENT_TIMESTAMP
+        WHERE ct_team_id = ? AND ct_season_id = ? AND quota_type = ? AND used > 0
+        """;
+
+    // Annulation d'une libération faite par la même demande (ligne déjà verrouillée par la transaction)
+    private static final String RESTORE_SQL = """
+        UPDATE ct_quota_ledger
+        SET used = used + 1, updated_at = CURRENT_TIMESTAMP
+        WHERE ct_team_id = ? AND ct_season_id = ? AND quota_type = ?
+        """;
+
+    private static final String SEED_SQL = """
+        INSERT INTO ct_quota_ledger (ct_team_id, ct_season_id, quota_type, used, updated_at)
+        SELECT ?, ?, ?, COUNT(*), CURRENT_TIMESTAMP
+        FROM ct_demandes d
+        WHERE d.ct_team_id = ? AND d.ct_season_id = ?
+        AND d.ct_demande_statu_id IN %s
+        AND d.ct_intervenant_type_id = 1
+        AND %s
+        ON CONFLICT (ct_team_id, ct_season_id, quota_type) DO NOTHING
+        """;
+
+    // Lignes du registre dont le compteur diffère du nombre de demandes (lecture sans verrou)
+    private static final String DRIFT_SQL = """
+        SELECT l.ct_team_id, l.ct_season_id, l.quota_type
+        FROM ct_quota_ledger l
+        LEFT JOIN (
+            SELECT d.ct_team_id, d.ct_season_id, q.quota_type,
+                   COUNT(*) FILTER (WHERE CASE q.quota_type %s END) AS actual
+            FROM ct_demandes d
+            CROSS JOIN (VALUES %s) AS q(quota_type)
+            WHERE d.ct_demande_statu_id IN %s
+            AND d.ct_intervenant_type_id = 1
+            GROUP BY d.ct_team_id, d.ct_season_id, q.quota_type
+        ) a ON a.ct_team_id = l.ct_team_id AND a.ct_season_id = l.ct_season_id AND a.quota_type = l.quota_type
+        WHERE l.used <> COALESCE(a.actual, 0)
+        """.formatted(
+            Arrays.stream(QuotaType.values())
+                .map(t -> "WHEN '" + t.name() + "' THEN " + t.sqlCondition())
+                .collect(Collectors.joining(" ")),
+            Arrays.stream(QuotaType.values())
+                .map(t -> "('" + t.name() + "')")
+                .collect(Collectors.joining(", ")),
+            QuotaType.HOLDING_STATUSES_SQL);
+
+    private static final String LOCK_ROW_SQL = """
+        SELECT used FROM ct_quota_ledger
+        WHERE ct_team_id = ? AND ct_season_id = ? AND quota_type = ?
+        FOR UPDATE
+        """;
+
+    private static final String COUNT_SQL = """
+        SELECT COUNT(*)
+        FROM ct_demandes d
+        WHERE d.ct_team_id = ? AND d.ct_season_id = ?
+        AND d.ct_demande_statu_id IN %s
+        AND d.ct_intervenant_type_id = 1
+        AND %s
+        """;
+
+    private static final String CORRECT_SQL = """
+        UPDATE ct_quota_ledger
+        SET used = ?, updated_at = CURRENT_TIMESTAMP
+        WHERE ct_team_id = ? AND ct_season_id = ? AND quota_type = ?
+        """;
+
+    private static final String USAGE_SQL = """
+        SELECT quota_type, used
+        FROM ct_quota_ledger
+        WHERE ct_team_id = ? AND ct_season_id = ?
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Places occupées par une demande, capturées avant sa modification
+     */
+    public record Holding(Long teamId, Long seasonId, Set<QuotaType> types) {
+
+        static final Holding NONE = new Holding(null, null, Set.of());
+
+        public static Holding of(DemandePlayers demande) {
+            Long teamId = toLong(demande.getTeamId());
+            Long seasonId = toLong(demande.getSeasonId());
+            if (teamId == null || seasonId == null) {
+                return NONE;
+            }
+            return new Holding(teamId, seasonId, QuotaType.heldBy(demande));
+        }
+
+        /**
+         * Places qu'occuperait la demande avec un autre statut, sans modifier l'entité
+         */
+        public static Holding of(DemandePlayers demande, BigDecimal statusId) {
+            Holding current = of(demande);
+            if (current == NONE) {
+                return NONE;
+            }
+            return new Holding(current.teamId(), current.seasonId(), QuotaType.heldBy(demande, statusId));
+        }
+
+        boolean sameTeamAndSeason(Holding other) {
+            return Objects.equals(teamId, other.teamId) && Objects.equals(seasonId, other.seasonId);
+        }
+    }
+
+    // ========== MISES À JOUR ==========
+
+    /**
+     * Nouvelle demande : prend ses places
+     *
+     * @throws QuotaExceededException si un quota est atteint
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(DemandePlayers demande) {
+        apply(Holding.NONE, Holding.of(demande));
+    }
+
+    /**
+     * Demande modifiée (statut, régime, nationalité, équipe...) : libère les places qu'elle
+     * n'occupe plus et prend celles qu'elle occupe désormais
+     *
+     * @param before places capturées avant la modification de l'entité
+     * @throws QuotaExceededException si un quota est atteint
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void update(Holding before, DemandePlayers after) {
+        apply(before, Holding.of(after));
+    }
+
+    /**
+     * Comme update, sans lever d'exception : si un quota est atteint, les places de la demande
+     * restent celles d'avant et le refus est renvoyé. Pour les traitements par lot, où le refus
+     * d'une demande ne doit pas marquer la transaction des autres pour annulation.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<QuotaExceededException> tryUpdate(Holding before, Holding after) {
+        try {
+            apply(before, after);
+            return Optional.empty();
+        } catch (QuotaExceededException e) {
+            return Optional.of(e);
+        }
+    }
+
+    /**
+     * Demande supprimée : libère ses places
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(DemandePlayers demande) {
+        apply(Holding.of(demande), Holding.NONE);
+    }
+
+    private void apply(Holding before, Holding after) {
+        Set<QuotaType> released = EnumSet.noneOf(QuotaType.class);
+        Set<QuotaType> reserved = EnumSet.noneOf(QuotaType.class);
+        released.addAll(before.types());
+        reserved.addAll(after.types());
+        if (before.sameTeamAndSeason(after)) {
+            released.removeAll(after.types());
+            reserved.removeAll(before.types());
+        }
+
+        // Libérer d'abord, puis réserver dans l'ordre des types (ordre de verrouillage constant)
+        List<QuotaType> releasedRows = new ArrayList<>();
+        for (QuotaType type : released) {
+            if (jdbcTemplate.update(RELEASE_SQL, before.teamId(), before.seasonId(), type.name()) == 1) {
+                releasedRows.add(type);
+            }
+        }
+        List<QuotaType> reservedRows = new ArrayList<>();
+        try {
+            for (QuotaType type : reserved) {
+                reserveOne(after.teamId(), after.seasonId(), type);
+                reservedRows.add(type);
+            }
+        } catch (QuotaExceededException e) {
+            // Quota atteint : annuler les mouvements déjà faits pour cette demande
+            for (QuotaType type : reservedRows) {
+                jdbcTemplate.update(RELEASE_SQL, after.teamId(), after.seasonId(), type.name());
+            }
+            for (QuotaType type : releasedRows) {
+                jdbcTemplate.update(RESTORE_SQL, before.teamId(), before.seasonId(), type.name());
+            }
+            throw e;
+        }
+    }
+
+    private void reserveOne(Long teamId, Long seasonId, QuotaType type) {
+        int limit = limitOf(type, teamId);
+        if (jdbcTemplate.update(RESERVE_SQL, teamId, seasonId, type.name(), limit) == 1) {
+            return;
+        }
+
+        // Ligne absente : initialisée depuis ct_demandes (sans effet si elle existe déjà), puis nouvel essai
+        jdbcTemplate.update(SEED_SQL.formatted(QuotaType.HOLDING_STATUSES_SQL, type.sqlCondition()),
+            teamId, seasonId, type.name(), teamId, seasonId);
+        if (jdbcTemplate.update(RESERVE_SQL, teamId, seasonId, type.name(), limit) == 1) {
+            return;
+        }
+
+        throw new QuotaExceededException(type, limit);
+    }
+
+    /**
+     * Limite du quota pour l'équipe, depuis l'instantané des données de référence.
+     * Le quota d'étrangers ne s'applique qu'en Ligue I et Ligue II.
+     */
+    private int limitOf(QuotaType type, Long teamId) {
+        ReferenceDataSnapshot reference = referenceDataStore.getSnapshot();
+        QuotaParameters quotas = reference.getQuotas();
+        return switch (type) {
+            case TOTAL -> quotas.maxPlayers();
+            case PROFESSIONNEL -> quotas.maxProPlayers();
+            case ETRANGER -> {
+                Long divisionId = reference.latestDivision(teamId);
+                if (LIGUE_I.equals(divisionId)) {
+                    yield quotas.maxForeignLigue1();
+                }
+                yield LIGUE_II.equals(divisionId) ? quotas.maxForeignLigue2() : Integer.MAX_VALUE;
+            }
+        };
+    }
+
+    // ========== RÉCONCILIATION ==========
+
+    /**
+     * Ligne du registre (équipe, saison, type de quota)
+     */
+    record LedgerRow(Long teamId, Long seasonId, QuotaType type) {
+    }
+
+    /**
+     * Recompte ct_demandes et corrige les lignes du registre en écart (écriture faite hors de
+     * QuotaLedger, correction manuelle en base...).
+     *
+     * Chaque ligne est corrigée dans sa propre transaction après avoir été verrouillée : une
+     * écriture de demande en cours sur ce quota est d'abord validée, et le recomptage, exécuté
+     * ensuite avec un nouvel instantané (READ COMMITTED), la prend en compte.
+     */
+    @Scheduled(
+        fixedDelayString = "${quota.ledger.reconcile-delay-ms:3600000}",
+        initialDelayString = "${quota.ledger.reconcile-delay-ms:3600000}"
+    )
+    public void reconcile() {
+        try {
+            List<LedgerRow> candidates = jdbcTemplate.query(DRIFT_SQL, (rs, rowNum) -> new LedgerRow(
+                rs.getLong("ct_team_id"), rs.getLong("ct_season_id"), QuotaType.valueOf(rs.getString("quota_type"))));
+            long drift = 0;
+            for (LedgerRow row : candidates) {
+                drift += reconcile(row);
+            }
+            if (drift > 0) {
+                logger.warn("Réconciliation du registre des quotas : {} place(s) d'écart corrigée(s) sur {} ligne(s)",
+                    drift, candidates.size());
+            }
+        } catch (Exception e) {
+            logger.error("Réconciliation du registre des quotas échouée", e);
+        }
+    }
+
+    /**
+     * Corrige une ligne du registre ; renvoie l'écart corrigé (0 si elle était juste)
+     */
+    long reconcile(LedgerRow row) {
+        Long drift = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Integer> used = jdbcTemplate.queryForList(LOCK_ROW_SQL, Integer.class,
+                row.teamId(), row.seasonId(), row.type().name());
+            if (used.isEmpty()) {
+                return 0L;
+            }
+            Integer actual = jdbcTemplate.queryForObject(
+                COUNT_SQL.formatted(QuotaType.HOLDING_STATUSES_SQL, row.type().sqlCondition()), Integer.class,
+                row.teamId(), row.seasonId());
+            int counted = actual != null ? actual : 0;
+            if (counted == used.get(0)) {
+                return 0L;
+            }
+            jdbcTemplate.update(CORRECT_SQL, counted, row.teamId(), row.seasonId(), row.type().name());
+            return (long) Math.abs(counted - used.get(0));
+        });
+        return drift != null ? drift : 0L;
+    }
+
+    // ========== LECTURES ==========
+
+    /**
+     * Places occupées par quota pour l'équipe et la saison ; un type absent n'a pas encore de ligne
+     */
+    public Map<QuotaType, Long> usage(Long teamId, Long seasonId) {
+        Map<QuotaType, Long> usage = new EnumMap<>(QuotaType.class);
+        if (teamId == null || seasonId == null) {
+            return usage;
+        }
+        jdbcTemplate.query(USAGE_SQL, rs -> {
+            usage.put(QuotaType.valueOf(rs.getString("quota_type")), rs.getLong("used"));
+        }, teamId, seasonId);
+        return usage;
+    }
+
+    private static Long toLong(BigDecimal value) {
+        return value != null ? value.longValue() : null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.football.management.service.quota;
+
+import com.football.management.entity.DemandePlayers;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Quotas de joueurs par équipe et saison suivis dans le registre ct_quota_ledger.
+ *
+ * Une demande de joueur occupe une place dans un quota de sa création jusqu'à son rejet :
+ * INITIAL, VALIDEE_CLUB, EN_ATTENTE et IMPRIMEE. La place n'est donc ni rendue à la
+ * validation par le club ni reprise à l'impression ; seuls le rejet et la suppression la libèrent.
+ */
+public enum QuotaType {
+
+    TOTAL("Nombre maximum de joueurs atteint pour cette équipe", "TRUE"),
+    PROFESSIONNEL("Nombre maximum de joueurs professionnels atteint", "d.ct_regime_id IN (2, 3, 4)"),
+    ETRANGER("Nombre maximum de joueurs étrangers atteint", "COALESCE(d.cr_pays_id <> 193, false)");
+
+    /** INITIAL, VALIDEE_CLUB, EN_ATTENTE, IMPRIMEE (tous les statuts sauf REJETEE) */
+    private static final Set<Long> HOLDING_STATUSES = Set.of(1L, 2L, 8L, 9L);
+
+    /** Mêmes statuts, pour les requêtes sur ct_demandes (initialisation et réconciliation du registre) */
+    static final String HOLDING_STATUSES_SQL = "(1, 2, 8, 9)";
+    private static final Set<Long> PRO_REGIMES = Set.of(2L, 3L, 4L);  // PRO, SEMI-PRO, STAGIAIRE
+    private static final Long JOUEUR_TYPE = 1L;
+    private static final long TUNISIE = 193L;
+
+    private final String label;
+    private final String sqlCondition;
+
+    QuotaType(String label, String sqlCondition) {
+        this.label = label;
+        this.sqlCondition = sqlCondition;
+    }
+
+    /** Message d'erreur lorsque le quota est atteint, ex: "... atteint (25)" */
+    public String exceededMessage(int limit) {
+        return label + " (" + limit + ")";
+    }
+
+    /** Condition SQL sur l'alias "d" de ct_demandes (initialisation du registre) */
+    String sqlCondition() {
+        return sqlCondition;
+    }
+
+    /**
+     * Une demande dans ce statut occupe-t-elle une place dans les quotas ?
+     */
+    public static boolean holdsPlace(Long statusId) {
+        return statusId != null && HOLDING_STATUSES.contains(statusId);
+    }
+
+    /**
+     * Quotas occupés par une demande
+     */
+    public static Set<QuotaType> heldBy(Long statusId, Long intervenantTypeId, Long regimeId, boolean foreign) {
+        Set<QuotaType> types = EnumSet.noneOf(QuotaType.class);
+        if (!holdsPlace(statusId) || !JOUEUR_TYPE.equals(intervenantTypeId)) {
+            return types;
+        }
+        types.add(TOTAL);
+        if (regimeId != null && PRO_REGIMES.contains(regimeId)) {
+            types.add(PROFESSIONNEL);
+        }
+        if (foreign) {
+            types.add(ETRANGER);
+        }
+        return types;
+    }
+
+    public static Set<QuotaType> heldBy(DemandePlayers demande) {
+        return heldBy(demande, demande.getDemandeStatuId());
+    }
+
+    /**
+     * Quotas qu'occuperait la demande avec le statut indiqué
+     */
+    public static Set<QuotaType> heldBy(DemandePlayers demande, BigDecimal statusId) {
+        return heldBy(
+            toLong(statusId),
+            toLong(demande.getCtIntervenantTypeId()),
+            toLong(demande.getRegimeId()),
+            demande.getPaysId() != null && demande.getPaysId().longValue() != TUNISIE
+        );
+    }
+
+    private static Long toLong(BigDecimal value) {
+        return value != null ? value.longValue() : null;
+    }
+}
@@ -0,0 +1,224 @@
+package com.football.management.service.reference;
+
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Données de référence figées à un instant donné : paramètres de quotas (ct_param_demandes,
+ * ct_param_category), plages de dates des catégories et divisions des équipes (ct_team_divisions).
+ *
+ * Un instantané n'est jamais modifié : ReferenceDataStore en construit un nouveau à chaque
+ * rechargement et le remplace atomiquement, les lecteurs en cours gardent le précédent.
+ */
+public final class ReferenceDataSnapshot {
+
+    public static final Long DEFAULT_CATEGORY = 7L;   // SENIORS
+    public static final Long DEFAULT_DIVISION = 10L;  // LIGUE_REG
+
+    private final long version;
+    private final Instant loadedAt;
+    private final QuotaParameters quotas;
+    private final CategoryIndex categories;
+    private final Map<Long, List<TeamDivision>> teamDivisions;
+
+    public ReferenceDataSnapshot(
+        long version,
+        Instant loadedAt,
+        QuotaParameters quotas,
+        List<CategoryRange> categoryRanges,
+        List<TeamDivision> divisions
+    ) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.quotas = quotas;
+        this.categories = CategoryIndex.of(categoryRanges);
+
+        // Divisions par équipe, de la saison la plus récente à la plus ancienne
+        Map<Long, List<TeamDivision>> byTeam = new HashMap<>();
+        for (TeamDivision division : divisions) {
+            if (division.teamId() != null) {
+                byTeam.computeIfAbsent(division.teamId(), id -> new ArrayList<>()).add(division);
+            }
+        }
+        Comparator<TeamDivision> latestFirst = Comparator.comparing(
+            TeamDivision::seasonId, Comparator.nullsLast(Comparator.reverseOrder()));
+        byTeam.replaceAll((teamId, list) -> list.stream().sorted(latestFirst).toList());
+        this.teamDivisions = Map.copyOf(byTeam);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public QuotaParameters getQuotas() {
+        return quotas;
+    }
+
+    // ========== CATÉGORIES ==========
+
+    /**
+     * Catégorie dont la plage contient la date de naissance, null si aucune.
+     * Si plusieurs plages se chevauchent, celle qui commence le plus tard l'emporte
+     * (comme "ORDER BY annee_debut DESC LIMIT 1").
+     */
+    public Long findCategory(LocalDate birthDate) {
+        return birthDate != null ? categories.find(birthDate) : null;
+    }
+
+    /**
+     * Catégorie du joueur, SENIORS si la date est absente ou hors de toute plage
+     */
+    public Long categoryOf(LocalDate birthDate) {
+        Long categoryId = findCategory(birthDate);
+        return categoryId != null ? categoryId : DEFAULT_CATEGORY;
+    }
+
+    public int getCategorySegmentCount() {
+        return categories.size();
+    }
+
+    // ========== DIVISIONS ==========
+
+    /**
+     * Division de la saison la plus récente de l'équipe (LIGUE_REG par défaut)
+     */
+    public Long latestDivision(Long teamId) {
+        List<TeamDivision> divisions = teamDivisions.get(teamId);
+        if (divisions == null || divisions.get(0).divisionId() == null) {
+            return DEFAULT_DIVISION;
+        }
+        return divisions.get(0).divisionId();
+    }
+
+    /**
+     * Divisions de l'équipe pour une saison donnée
+     */
+    public Set<Long> seasonDivisions(Long teamId, Long seasonId) {
+        List<TeamDivision> divisions = teamDivisions.get(teamId);
+        if (divisions == null || seasonId == null) {
+            return Set.of();
+        }
+        return divisions.stream()
+            .filter(d -> seasonId.equals(d.seasonId()) && d.divisionId() != null)
+            .map(TeamDivision::divisionId)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public int getTeamCount() {
+        return teamDivisions.size();
+    }
+
+    // ========== LIGNES CHARGÉES ==========
+
+    /**
+     * Ligne ct_param_category : plage de dates de naissance (bornes incluses)
+     */
+    public record CategoryRange(Long categoryId, LocalDate startDate, LocalDate endDate) {
+
+        boolean isValid() {
+            return categoryId != null && startDate != null && endDate != null && !endDate.isBefore(startDate);
+        }
+
+        boolean contains(LocalDate date) {
+            return !date.isBefore(startDate) && !date.isAfter(endDate);
+        }
+    }
+
+    public record TeamDivision(Long teamId, Long seasonId, Long divisionId) {
+    }
+
+    /**
+     * Index d'intervalles des catégories : les plages (qui peuvent se chevaucher) sont
+     * découpées une fois au chargement en segments disjoints triés, chacun portant la
+     * catégorie retenue ; une recherche est ensuite une dichotomie en O(log n).
+     */
+    static final class CategoryIndex {
+
+        private final LocalDate[] starts;
+        private final LocalDate[] ends;  // borne exclue
+        private final Long[] categoryIds;
+
+        private CategoryIndex(List<LocalDate> starts, List<LocalDate> ends, List<Long> categoryIds) {
+            this.starts = starts.toArray(new LocalDate[0]);
+            this.ends = ends.toArray(new LocalDate[0]);
+            this.categoryIds = categoryIds.toArray(new Long[0]);
+        }
+
+        static CategoryIndex of(List<CategoryRange> ranges) {
+            List<CategoryRange> valid = ranges.stream().filter(CategoryRange::isValid).toList();
+
+            TreeSet<LocalDate> bounds = new TreeSet<>();
+            for (CategoryRange range : valid) {
+                bounds.add(range.startDate());
+                bounds.add(range.endDate().plusDays(1));
+            }
+
+            List<LocalDate> starts = new ArrayList<>();
+            List<LocalDate> ends = new ArrayList<>();
+            List<Long> categoryIds = new ArrayList<>();
+
+            LocalDate[] points = bounds.toArray(new LocalDate[0]);
+            for (int i = 0; i + 1 < points.length; i++) {
+                CategoryRange winner = winner(valid, points[i]);
+                if (winner == null) {
+                    continue;
+                }
+                int last = starts.size() - 1;
+                if (last >= 0 && ends.get(last).equals(points[i]) && categoryIds.get(last).equals(winner.categoryId())) {
+                    ends.set(last, points[i + 1]);  // segment contigu de même catégorie : fusion
+                } else {
+                    starts.add(points[i]);
+                    ends.add(points[i + 1]);
+                    categoryIds.add(winner.categoryId());
+                }
+            }
+            return new CategoryIndex(starts, ends, categoryIds);
+        }
+
+        /** Plage couvrant la date qui commence le plus tard (à égalité, plus petit identifiant) */
+        private static CategoryRange winner(List<CategoryRange> ranges, LocalDate date) {
+            CategoryRange winner = null;
+            for (CategoryRange range : ranges) {
+                if (!range.contains(date)) {
+                    continue;
+                }
+                if (winner == null
+                    || range.startDate().isAfter(winner.startDate())
+                    || (range.startDate().equals(winner.startDate()) && range.categoryId() < winner.categoryId())) {
+                    winner = range;
+                }
+            }
+            return winner;
+        }
+
+        Long find(LocalDate date) {
+            int index = Arrays.binarySearch(starts, date);
+            if (index < 0) {
+                index = -index - 2;  // dernier segment commençant avant la date
+            }
+            if (index < 0 || !date.isBefore(ends[index])) {
+                return null;
+            }
+            return categoryIds[index];
+        }
+
+        int size() {
+            return starts.length;
+        }
+    }
+}
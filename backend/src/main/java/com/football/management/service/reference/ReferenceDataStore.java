@@ -0,0 +1,172 @@
+package com.football.management.service.reference;
+
+import com.football.management.service.reference.ReferenceDataSnapshot.CategoryRange;
+import com.football.management.service.reference.ReferenceDataSnapshot.TeamDivision;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instantané courant des données de référence utilisées par les validateurs et le calcul
+ * de catégorie.
+ *
+ * Chargé au démarrage, puis reconstruit périodiquement ou à la demande (endpoint d'administration)
+ * et remplacé atomiquement : aucune lecture ne touche la base entre deux rechargements.
+ * En cas d'échec d'un rechargement, l'instantané précédent reste en service.
+ */
+@Component
+public class ReferenceDataStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataStore.class);
+
+    private static final int DEFAULT_MAX_PLAYERS = 80;
+    private static final int DEFAULT_MAX_PRO_PLAYERS = 25;
+    private static final int DEFAULT_MAX_FOREIGN_LIGUE_I = 4;
+    private static final int DEFAULT_MAX_FOREIGN_LIGUE_II = 3;
+
+    private static final String CATEGORY_RANGES_SQL = """
+        SELECT ct_player_category_id, DATE(annee_debut) AS date_debut, DATE(annee_fin) AS date_fin
+        FROM ct_param_category
+        WHERE annee_debut IS NOT NULL AND annee_fin IS NOT NULL
+        """;
+
+    private static final String TEAM_DIVISIONS_SQL = """
+        SELECT ct_team_id, ct_season_id, ct_division_id
+        FROM ct_team_divisions
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicReference<ReferenceDataSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    // ========== CHARGEMENT ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Nouvelle tentative au premier accès ou au prochain rafraîchissement
+            logger.error("Chargement initial des données de référence impossible", e);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${reference-data.refresh-delay-ms:600000}",
+        initialDelayString = "${reference-data.refresh-delay-ms:600000}"
+    )
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("Rafraîchissement des données de référence échoué, version {} conservée",
+                current.get() != null ? current.get().getVersion() : "aucune", e);
+        }
+    }
+
+    /**
+     * Reconstruit l'instantané depuis la base et le publie
+     */
+    public synchronized ReferenceDataSnapshot reload() {
+        List<CategoryRange> categoryRanges = jdbcTemplate.query(CATEGORY_RANGES_SQL, (rs, rowNum) -> new CategoryRange(
+            getLong(rs, "ct_player_category_id"),
+            rs.getObject("date_debut", LocalDate.class),
+            rs.getObject("date_fin", LocalDate.class)
+        ));
+
+        List<TeamDivision> divisions = jdbcTemplate.query(TEAM_DIVISIONS_SQL, (rs, rowNum) -> new TeamDivision(
+            getLong(rs, "ct_team_id"),
+            getLong(rs, "ct_season_id"),
+            getLong(rs, "ct_division_id")
+        ));
+
+        ReferenceDataSnapshot snapshot = new ReferenceDataSnapshot(
+            versions.incrementAndGet(),
+            Instant.now(),
+            loadQuotaParameters(),
+            categoryRanges,
+            divisions
+        );
+        current.set(snapshot);
+
+        logger.info("Données de référence v{} chargées : {} plages de catégories ({} segments), {} équipes",
+            snapshot.getVersion(), categoryRanges.size(), snapshot.getCategorySegmentCount(), snapshot.getTeamCount());
+        return snapshot;
+    }
+
+    /**
+     * Instantané courant ; chargé à la volée s'il n'a pas encore pu l'être
+     */
+    public ReferenceDataSnapshot getSnapshot() {
+        ReferenceDataSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Paramètres de quotas : ligne ct_param_demandes + quota pro de ct_param_category.
+     * Une colonne absente ou vide garde la valeur par défaut.
+     */
+    private QuotaParameters loadQuotaParameters() {
+        Map<String, Object> params = Map.of();
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM ct_param_demandes ORDER BY ct_param_demande_id LIMIT 1");
+            if (!rows.isEmpty()) {
+                params = rows.get(0);
+            }
+        } catch (Exception e) {
+            logger.warn("Paramètres ct_param_demandes indisponibles: {}", e.getMessage());
+        }
+
+        Integer maxProPlayers = null;
+        try {
+            List<Integer> rows = jdbcTemplate.queryForList("""
+                SELECT nbr_licences
+                FROM ct_param_category
+                WHERE ct_player_category_id = 7
+                AND ct_regime_id = 2
+                LIMIT 1
+                """, Integer.class);
+            maxProPlayers = rows.isEmpty() ? null : rows.get(0);
+        } catch (Exception e) {
+            logger.warn("Quota professionnel indisponible: {}", e.getMessage());
+        }
+
+        return new QuotaParameters(
+            intValue(params.get("nbr_joueurs_max"), DEFAULT_MAX_PLAYERS),
+            maxProPlayers != null ? maxProPlayers : DEFAULT_MAX_PRO_PLAYERS,
+            intValue(params.get("nbr_etr_senior_1"), DEFAULT_MAX_FOREIGN_LIGUE_I),
+            intValue(params.get("nbr_etr_senior_2"), DEFAULT_MAX_FOREIGN_LIGUE_II),
+            params.get("nbr_pret") instanceof Number n ? n.intValue() : null
+        );
+    }
+
+    // ========== UTILITAIRES ==========
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        return value instanceof Number n ? n.intValue() : defaultValue;
+    }
+}
@@ -0,0 +1,317 @@
+package com.football.management.service.renewal;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.entity.DemandePlayers;
+import com.football.management.mapper.DemandePlayersMapper;
+import com.football.management.repository.DemandeIdAllocator;
+import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.service.DemandePlayersService;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.stats.DemandeCounterStore;
+import com.football.management.service.validation.ValidationOrchestrator;
+import com.football.management.service.validation.ValidationResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renouvellement de l'effectif d'une équipe en une seule transaction, à la place d'un appel
+ * à /renouvellement/joueur/{joueurId}/season/{newSeasonId} par joueur.
+ *
+ * - joueurs éligibles et informations des joueurs : une requête chacun pour tout le lot
+ * - validation : ValidationOrchestrator.validateBatch (contexte de l'équipe chargé une fois,
+ *   quotas et doublons évalués cumulativement)
+ * - identifiants : DemandeIdAllocator (un nextval par bloc de 50)
+ * - enregistrement : insertAll, INSERT regroupés en lots JDBC
+ *
+ * Un joueur refusé n'empêche pas le renouvellement des autres ; chacun reçoit son résultat.
+ * Seul un quota atteint entre la validation et l'écriture (demande concurrente) annule le lot.
+ */
+@Service
+public class TeamRenewalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamRenewalService.class);
+
+    private static final BigDecimal RENOUVELLEMENT = BigDecimal.valueOf(2);
+    private static final Set<Integer> PRO_REGIMES = Set.of(2, 3, 4);
+
+    /**
+     * Dernière inscription de chaque joueur (même logique que le renouvellement unitaire)
+     */
+    private static final String PLAYERS_SQL = """
+        SELECT DISTINCT ON (i.ct_intervenant_id)
+               i.ct_intervenant_id, i.name, i.last_name, i.date_of_birth, i.place_of_birth,
+               i.cin_number, i.passport_num, i.cr_pays_id,
+               ti.ct_regime_id, ti.ct_type_competition_id
+        FROM ct_intervenants i
+        INNER JOIN ct_team_intervenants ti ON i.ct_intervenant_id = ti.ct_intervenant_id
+        WHERE i.ct_intervenant_id IN (%s)
+        ORDER BY i.ct_intervenant_id, ti.ct_season_id DESC
+        """;
+
+    public enum Status { CREE, REFUSE, NON_ELIGIBLE }
+
+    /**
+     * Résultat du renouvellement d'un joueur
+     */
+    public record PlayerOutcome(
+        BigDecimal joueurId,
+        String nom,
+        String prenom,
+        Status status,
+        BigDecimal demandeId,
+        List<String> errors,
+        List<String> warnings
+    ) {}
+
+    public record TeamRenewalReport(
+        Long teamId,
+        Long seasonId,
+        int total,
+        int created,
+        int rejected,
+        List<PlayerOutcome> outcomes
+    ) {}
+
+    private record PlayerInfo(
+        String name, String lastName, LocalDate dateOfBirth, String placeOfBirth,
+        String cinNumber, String passportNum, BigDecimal paysId,
+        BigDecimal regimeId, BigDecimal typeCompetitionId
+    ) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DemandePlayersService demandePlayersService;
+
+    @Autowired
+    private ValidationOrchestrator validationOrchestrator;
+
+    @Autowired
+    private DemandePlayersRepository demandePlayersRepository;
+
+    @Autowired
+    private DemandeIdAllocator demandeIdAllocator;
+
+    @Autowired
+    private DemandePlayersMapper demandePlayersMapper;
+
+    @Autowired
+    private QuotaLedger quotaLedger;
+
+    @Autowired
+    private DemandeCounterStore counterStore;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+
+    /**
+     * Renouvelle les joueurs de l'équipe pour la nouvelle saison
+     *
+     * @param forms une demande par joueur (intervenantId obligatoire, plus les champs du formulaire
+     *              de renouvellement : dates de contrat, CIN, passeport...), ou une liste vide
+     *              pour renouveler tous les joueurs éligibles
+     * @return un résultat par joueur, dans l'ordre de la demande
+     * @throws com.football.management.service.quota.QuotaExceededException si un quota est atteint
+     *         à l'écriture ; aucune demande n'est alors créée
+     */
+    @Transactional
+    public TeamRenewalReport renewTeam(Long teamId, Long newSeasonId, List<DemandePlayersDTO> forms, Long userId) {
+        Map<BigDecimal, Map<String, Object>> eligible = new LinkedHashMap<>();
+        for (Map<String, Object> joueur : demandePlayersService.getJoueursEligiblesRenouvellement(teamId, null, newSeasonId)) {
+            eligible.put(toBigDecimal(joueur.get("id")), joueur);
+        }
+
+        if (forms == null || forms.isEmpty()) {
+            forms = new ArrayList<>();
+            for (BigDecimal joueurId : eligible.keySet()) {
+                DemandePlayersDTO form = new DemandePlayersDTO();
+                form.setIntervenantId(joueurId);
+                forms.add(form);
+            }
+        }
+
+        PlayerOutcome[] outcomes = new PlayerOutcome[forms.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Map<BigDecimal, Integer> seen = new HashMap<>();
+
+        for (int i = 0; i < forms.size(); i++) {
+            BigDecimal joueurId = normalize(forms.get(i).getIntervenantId());
+            Map<String, Object> joueur = eligible.get(joueurId);
+            if (joueurId == null || joueur == null) {
+                outcomes[i] = new PlayerOutcome(joueurId, null, null, Status.NON_ELIGIBLE, null,
+                    List.of("Joueur non éligible au renouvellement pour cette équipe et cette saison"), List.of());
+            } else if (seen.putIfAbsent(joueurId, i) != null) {
+                outcomes[i] = rejected(joueurId, joueur, List.of("Joueur présent plusieurs fois dans le lot"));
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // Informations de tous les joueurs en une requête
+        Map<BigDecimal, PlayerInfo> players = loadPlayers(seen.keySet());
+
+        List<Integer> toValidate = new ArrayList<>();
+        List<DemandePlayersDTO> demandes = new ArrayList<>();
+        for (int i : candidates) {
+            DemandePlayersDTO form = forms.get(i);
+            BigDecimal joueurId = normalize(form.getIntervenantId());
+            PlayerInfo player = players.get(joueurId);
+            if (player == null) {
+                outcomes[i] = rejected(joueurId, eligible.get(joueurId), List.of("Joueur non trouvé"));
+                continue;
+            }
+
+            DemandePlayersDTO demande = toRenewalDemande(form, joueurId, player, teamId, newSeasonId);
+            List<String> contractErrors = checkContract(demande);
+            if (!contractErrors.isEmpty()) {
+                outcomes[i] = rejected(joueurId, eligible.get(joueurId), contractErrors);
+                continue;
+            }
+            toValidate.add(i);
+            demandes.add(demande);
+        }
+
+        // Validation du lot sur un contexte partagé (quotas cumulés dans l'ordre du lot)
+        List<ValidationResult> results = validationOrchestrator.validateBatch(demandes);
+
+        List<DemandePlayers> entities = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        for (int k = 0; k < toValidate.size(); k++) {
+            int i = toValidate.get(k);
+            DemandePlayersDTO demande = demandes.get(k);
+            ValidationResult result = results.get(k);
+            BigDecimal joueurId = demande.getIntervenantId();
+            if (!result.isValid()) {
+                outcomes[i] = new PlayerOutcome(joueurId, demande.getName(), demande.getLastName(), Status.REFUSE,
+                    null, result.getErrors(), result.getWarnings());
+                continue;
+            }
+
+            DemandePlayers entity = demandePlayersMapper.toEntity(demande);
+            entity.setDemandeId(demandeIdAllocator.nextId());
+            entity.setDateEnregistrement(LocalDate.now());
+            quotaLedger.reserve(entity);
+            entities.add(entity);
+            createdIndexes.add(i);
+            outcomes[i] = new PlayerOutcome(joueurId, demande.getName(), demande.getLastName(), Status.CREE,
+                entity.getDemandeId(), List.of(), result.getWarnings());
+        }
+
+        demandePlayersRepository.insertAll(entities);
+        entities.forEach(counterStore::recordCreated);
+
+        logger.info("Renouvellement équipe {} saison {} : {} demandes créées sur {} joueurs",
+            teamId, newSeasonId, entities.size(), forms.size());
+
+        List<PlayerOutcome> outcomeList = List.of(outcomes);
+        return new TeamRenewalReport(teamId, newSeasonId, outcomeList.size(), entities.size(),
+            outcomeList.size() - entities.size(), outcomeList);
+    }
+
+    /**
+     * Même construction que le renouvellement unitaire : identité depuis la base, CIN et
+     * passeport du formulaire s'ils sont fournis, catégorie recalculée selon l'âge
+     */
+    private DemandePlayersDTO toRenewalDemande(DemandePlayersDTO form, BigDecimal joueurId, PlayerInfo player,
+                                               Long teamId, Long newSeasonId) {
+        form.setName(player.name());
+        form.setLastName(player.lastName());
+        form.setDateOfBirth(player.dateOfBirth());
+        form.setPlaceOfBirth(player.placeOfBirth());
+        if (form.getCinNumber() == null || form.getCinNumber().trim().isEmpty()) {
+            form.setCinNumber(player.cinNumber());
+        }
+        if (form.getPassportNum() == null || form.getPassportNum().trim().isEmpty()) {
+            form.setPassportNum(player.passportNum());
+        }
+        form.setPaysId(player.paysId());
+        form.setRegimeId(player.regimeId());
+        form.setTypeCompetitionId(player.typeCompetitionId());
+        form.setPlayerCategoryId(BigDecimal.valueOf(
+            referenceDataStore.getSnapshot().categoryOf(player.dateOfBirth())));
+
+        form.setIntervenantId(joueurId);
+        form.setTeamId(BigDecimal.valueOf(teamId));
+        form.setSeasonId(BigDecimal.valueOf(newSeasonId));
+        form.setTypeLicenceId(RENOUVELLEMENT);
+        form.setCtIntervenantTypeId(BigDecimal.ONE);
+        form.setDemandeStatuId(BigDecimal.ONE);
+        return form;
+    }
+
+    private static List<String> checkContract(DemandePlayersDTO demande) {
+        if (demande.getRegimeId() == null || !PRO_REGIMES.contains(demande.getRegimeId().intValue())) {
+            return List.of();
+        }
+        List<String> errors = new ArrayList<>();
+        if (demande.getContractDate() == null) {
+            errors.add("Date de début de contrat obligatoire pour les professionnels");
+        }
+        if (demande.getContractDateFin() == null) {
+            errors.add("Date de fin de contrat obligatoire pour les professionnels");
+        }
+        return errors;
+    }
+
+    private Map<BigDecimal, PlayerInfo> loadPlayers(Set<BigDecimal> joueurIds) {
+        Map<BigDecimal, PlayerInfo> players = new HashMap<>();
+        if (joueurIds.isEmpty()) {
+            return players;
+        }
+        String sql = PLAYERS_SQL.formatted(String.join(", ", Collections.nCopies(joueurIds.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            Date dateOfBirth = rs.getDate("date_of_birth");
+            players.put(normalize(rs.getBigDecimal("ct_intervenant_id")), new PlayerInfo(
+                rs.getString("name"),
+                rs.getString("last_name"),
+                dateOfBirth != null ? dateOfBirth.toLocalDate() : null,
+                rs.getString("place_of_birth"),
+                rs.getString("cin_number"),
+                rs.getString("passport_num"),
+                rs.getBigDecimal("cr_pays_id"),
+                rs.getBigDecimal("ct_regime_id"),
+                rs.getBigDecimal("ct_type_competition_id")
+            ));
+        }, joueurIds.toArray());
+        return players;
+    }
+
+    private static PlayerOutcome rejected(BigDecimal joueurId, Map<String, Object> joueur, List<String> errors) {
+        return new PlayerOutcome(joueurId,
+            joueur != null ? (String) joueur.get("nom") : null,
+            joueur != null ? (String) joueur.get("prenom") : null,
+            Status.REFUSE, null, errors, List.of());
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return normalize(decimal);
+        }
+        return value instanceof Number number ? BigDecimal.valueOf(number.longValue()) : null;
+    }
+
+    /**
+     * Identifiants comparés sans tenir compte de l'échelle (12345 et 12345.0)
+     */
+    private static BigDecimal normalize(BigDecimal value) {
+        return value != null ? BigDecimal.valueOf(value.longValue()) : null;
+    }
+}
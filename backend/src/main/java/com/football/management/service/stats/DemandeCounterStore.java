@@ -0,0 +1,342 @@
+package com.football.management.service.stats;
+
+import com.football.management.entity.DemandePlayers;
+import com.football.management.repository.DemandeStatsRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compteurs de demandes maintenus en mémoire.
+ *
+ * Chargés une fois au démarrage par une requête groupée, puis mis à jour en O(1)
+ * après commit à chaque création, modification, suppression ou changement de statut.
+ * Une réconciliation périodique recharge les compteurs depuis la base pour corriger
+ * toute dérive (modifications faites hors de l'application, etc.).
+ *
+ * Les trois lectures du rechargement partagent un même instantané (transaction REPEATABLE READ
+ * en lecture seule). Les mises à jour reçues après la prise de cet instantané sont journalisées
+ * et rejouées sur le nouvel état au moment de l'échange : elles ne sont ni perdues avec l'ancien
+ * état, ni comptées deux fois (celles validées avant l'instantané sont déjà dans les lectures).
+ */
+@Component
+public class DemandeCounterStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemandeCounterStore.class);
+
+    @Autowired
+    private DemandeStatsRepository statsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Clé de comptage : (saison, équipe, statut, catégorie, régime, type de licence)
+     */
+    public record CounterKey(Long seasonId, Long teamId, Long statusId,
+                             Long categoryId, Long regimeId, Long typeLicenceId) {
+
+        public static CounterKey of(DemandePlayers demande) {
+            return new CounterKey(
+                toLong(demande.getSeasonId()),
+                toLong(demande.getTeamId()),
+                toLong(demande.getDemandeStatuId()),
+                toLong(demande.getPlayerCategoryId()),
+                toLong(demande.getRegimeId()),
+                toLong(demande.getTypeLicenceId())
+            );
+        }
+    }
+
+    /**
+     * État complet des compteurs, remplacé atomiquement à chaque rechargement
+     */
+    private static final class Snapshot {
+        final Map<CounterKey, LongAdder> counters = new ConcurrentHashMap<>();
+        final Map<LocalDate, LongAdder> byRegistrationDate = new ConcurrentHashMap<>();
+        final Map<Long, String> teamNames = new ConcurrentHashMap<>();
+    }
+
+    private volatile Snapshot snapshot;
+
+    /** Protège l'échange d'état et le journal des mises à jour reçues pendant un rechargement */
+    private final Object updateLock = new Object();
+
+    /** Mises à jour reçues pendant le rechargement en cours (null hors rechargement) */
+    private List<Consumer<Snapshot>> reloadJournal;
+
+    // ========== CHARGEMENT / RÉCONCILIATION ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reloadSnapshot();
+        } catch (Exception e) {
+            // Les lecteurs retombent sur les requêtes SQL tant que le store n'est pas prêt
+            logger.error("Chargement initial des compteurs de demandes impossible", e);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${stats.counters.reconcile-delay-ms:900000}",
+        initialDelayString = "${stats.counters.reconcile-delay-ms:900000}"
+    )
+    public void reconcile() {
+        try {
+            Snapshot previous = snapshot;
+            Snapshot reloaded = reloadSnapshot();
+            if (previous != null) {
+                long drift = countDrift(previous, reloaded);
+                if (drift > 0) {
+                    logger.warn("Réconciliation des compteurs : {} demande(s) d'écart corrigée(s)", drift);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Réconciliation des compteurs de demandes échouée", e);
+        }
+    }
+
+    /**
+     * Recharge tous les compteurs depuis la base et remplace l'état courant
+     */
+    public void reload() {
+        reloadSnapshot();
+    }
+
+    private synchronized Snapshot reloadSnapshot() {
+        try {
+            TransactionTemplate snapshotTransaction = new TransactionTemplate(transactionManager);
+            snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshotTransaction.setReadOnly(true);
+            // Transaction propre même appelé depuis une transaction en cours (l'isolation s'applique au début)
+            snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            // Journal ouvert une fois l'instantané pris par la première requête
+            Snapshot fresh = snapshotTransaction.execute(status -> loadFromDatabase(() -> {
+                synchronized (updateLock) {
+                    reloadJournal = new ArrayList<>();
+                }
+            }));
+
+            int replayed;
+            synchronized (updateLock) {
+                replayed = reloadJournal.size();
+                reloadJournal.forEach(update -> update.accept(fresh));
+                snapshot = fresh;
+            }
+            logger.info("Compteurs de demandes chargés : {} clés, {} mise(s) à jour rejouée(s)",
+                fresh.counters.size(), replayed);
+            return fresh;
+        } finally {
+            synchronized (updateLock) {
+                reloadJournal = null;
+            }
+        }
+    }
+
+    /**
+     * Lectures du rechargement, dans la transaction de l'instantané
+     *
+     * @param snapshotTaken appelé après la première requête, qui fixe l'instantané des suivantes
+     */
+    private Snapshot loadFromDatabase(Runnable snapshotTaken) {
+        Snapshot fresh = new Snapshot();
+
+        List<Object[]> counterRows = statsRepository.countByCounterDimensions();
+        snapshotTaken.run();
+        for (Object[] row : counterRows) {
+            CounterKey key = new CounterKey(
+                toLong(row[0]), toLong(row[1]), toLong(row[2]),
+                toLong(row[3]), toLong(row[4]), toLong(row[5])
+            );
+            fresh.counters.computeIfAbsent(key, k -> new LongAdder()).add(((Number) row[6]).longValue());
+        }
+
+        for (Object[] row : statsRepository.countByRegistrationDate()) {
+            fresh.byRegistrationDate.computeIfAbsent((LocalDate) row[0], k -> new LongAdder())
+                .add(((Number) row[1]).longValue());
+        }
+
+        fresh.teamNames.putAll(statsRepository.findTeamNames());
+        return fresh;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    // ========== MISES À JOUR INCRÉMENTALES ==========
+
+    public void recordCreated(DemandePlayers demande) {
+        CounterKey key = CounterKey.of(demande);
+        LocalDate registeredOn = demande.getDateEnregistrement();
+        afterCommit(() -> {
+            add(key, 1);
+            addRegistration(registeredOn, 1);
+        });
+    }
+
+    public void recordDeleted(DemandePlayers demande) {
+        CounterKey key = CounterKey.of(demande);
+        LocalDate registeredOn = demande.getDateEnregistrement();
+        afterCommit(() -> {
+            add(key, -1);
+            addRegistration(registeredOn, -1);
+        });
+    }
+
+    /**
+     * @param before clé capturée avant la modification de l'entité
+     * @param after  entité après modification
+     */
+    public void recordChanged(CounterKey before, DemandePlayers after) {
+        CounterKey key = CounterKey.of(after);
+        if (key.equals(before)) {
+            return;
+        }
+        afterCommit(() -> {
+            add(before, -1);
+            add(key, 1);
+        });
+    }
+
+    private void add(CounterKey key, long delta) {
+        apply(state -> state.counters.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+    }
+
+    private void addRegistration(LocalDate date, long delta) {
+        if (date != null) {
+            apply(state -> state.byRegistrationDate.computeIfAbsent(date, k -> new LongAdder()).add(delta));
+        }
+    }
+
+    /**
+     * Applique une mise à jour à l'état courant, et la journalise si un rechargement est en cours
+     * (validée après l'instantané du rechargement, elle n'est pas dans ses lectures ; elle sera
+     * rejouée sur le nouvel état)
+     */
+    private void apply(Consumer<Snapshot> update) {
+        synchronized (updateLock) {
+            if (reloadJournal != null) {
+                reloadJournal.add(update);
+            }
+            Snapshot current = snapshot;
+            if (current != null) {
+                update.accept(current);
+            }
+        }
+    }
+
+    /**
+     * Exécute l'action après le commit de la transaction courante (ou immédiatement s'il n'y en a pas)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ========== LECTURES ==========
+
+    /**
+     * Nombre de demandes dont la clé satisfait le filtre
+     */
+    public long count(Predicate<CounterKey> filter) {
+        long total = 0;
+        for (Map.Entry<CounterKey, LongAdder> entry : snapshot.counters.entrySet()) {
+            if (filter.test(entry.getKey())) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Nombre de demandes regroupées selon une dimension de la clé (ex: CounterKey::statusId)
+     */
+    public Map<Long, Long> countBy(Function<CounterKey, Long> dimension, Predicate<CounterKey> filter) {
+        Map<Long, Long> result = new HashMap<>();
+        for (Map.Entry<CounterKey, LongAdder> entry : snapshot.counters.entrySet()) {
+            if (filter.test(entry.getKey())) {
+                long value = entry.getValue().sum();
+                if (value != 0) {
+                    result.merge(dimension.apply(entry.getKey()), value, Long::sum);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Nombre de demandes enregistrées depuis la date donnée (incluse)
+     */
+    public long countRegisteredSince(LocalDate fromDate) {
+        long total = 0;
+        for (Map.Entry<LocalDate, LongAdder> entry : snapshot.byRegistrationDate.entrySet()) {
+            if (!entry.getKey().isBefore(fromDate)) {
+                total += entry.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    public String getTeamName(Long teamId) {
+        String name = snapshot.teamNames.get(teamId);
+        return name != null ? name : "Club ID: " + teamId;
+    }
+
+    /**
+     * Filtre sur saison / équipe, null = pas de filtre
+     */
+    public static Predicate<CounterKey> forTeamAndSeason(Long teamId, Long seasonId) {
+        return key -> (teamId == null || teamId.equals(key.teamId()))
+                   && (seasonId == null || seasonId.equals(key.seasonId()));
+    }
+
+    // ========== UTILITAIRES ==========
+
+    private long countDrift(Snapshot previous, Snapshot reloaded) {
+        long drift = 0;
+        for (Map.Entry<CounterKey, LongAdder> entry : reloaded.counters.entrySet()) {
+            LongAdder old = previous.counters.get(entry.getKey());
+            drift += Math.abs(entry.getValue().sum() - (old != null ? old.sum() : 0));
+        }
+        for (Map.Entry<CounterKey, LongAdder> entry : previous.counters.entrySet()) {
+            if (!reloaded.counters.containsKey(entry.getKey())) {
+                drift += Math.abs(entry.getValue().sum());
+            }
+        }
+        return drift;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
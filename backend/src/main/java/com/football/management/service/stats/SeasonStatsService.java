@@ -0,0 +1,75 @@
+package com.football.management.service.stats;
+
+import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.repository.DemandeStatsRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Répartition des demandes d'une saison (et éventuellement d'une équipe)
+ * par régime, type de licence et statut.
+ *
+ * Une saison close ne bouge plus : son résultat est calculé une fois en base et gardé
+ * sans expiration (cache closedSeasonStats). La saison ouverte est lue depuis les
+ * compteurs en mémoire, ou recalculée en base tant que ceux-ci ne sont pas chargés.
+ */
+@Service
+public class SeasonStatsService {
+
+    @Autowired
+    private DemandePlayersRepository demandePlayersRepository;
+
+    @Autowired
+    private DemandeStatsRepository statsRepository;
+
+    @Autowired
+    private DemandeCounterStore counterStore;
+
+    /**
+     * Nombre de demandes par ID de régime, de type de licence et de statut
+     */
+    public record SeasonStats(Long seasonId, Long teamId, boolean closed,
+                              Map<Long, Long> byRegime,
+                              Map<Long, Long> byTypeLicence,
+                              Map<Long, Long> byStatus) {}
+
+    @Cacheable(value = "closedSeasonStats", key = "#seasonId + '-' + #teamId", unless = "!#result.closed()")
+    public SeasonStats getSeasonStats(Long seasonId, Long teamId) {
+        boolean closed = statsRepository.isSeasonClosed(BigDecimal.valueOf(seasonId));
+
+        if (!closed && counterStore.isReady()) {
+            var filter = DemandeCounterStore.forTeamAndSeason(teamId, seasonId);
+            return new SeasonStats(seasonId, teamId, false,
+                counterStore.countBy(DemandeCounterStore.CounterKey::regimeId, filter),
+                counterStore.countBy(DemandeCounterStore.CounterKey::typeLicenceId, filter),
+                counterStore.countBy(DemandeCounterStore.CounterKey::statusId, filter));
+        }
+
+        Map<Long, Long> byRegime = new HashMap<>();
+        Map<Long, Long> byTypeLicence = new HashMap<>();
+        Map<Long, Long> byStatus = new HashMap<>();
+
+        List<Object[]> rows = teamId != null
+            ? demandePlayersRepository.countByRegimeTypeLicenceAndStatusForSeasonAndTeam(
+                BigDecimal.valueOf(seasonId), BigDecimal.valueOf(teamId))
+            : demandePlayersRepository.countByRegimeTypeLicenceAndStatusForSeason(BigDecimal.valueOf(seasonId));
+        for (Object[] row : rows) {
+            Long key = row[1] != null ? ((Number) row[1]).longValue() : null;
+            long count = ((Number) row[2]).longValue();
+            switch ((String) row[0]) {
+                case "REGIME" -> byRegime.put(key, count);
+                case "TYPE_LICENCE" -> byTypeLicence.put(key, count);
+                default -> byStatus.put(key, count);
+            }
+        }
+
+        return new SeasonStats(seasonId, teamId, closed, byRegime, byTypeLicence, byStatus);
+    }
+}
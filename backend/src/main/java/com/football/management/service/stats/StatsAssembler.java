@@ -0,0 +1,126 @@
+package com.football.management.service.stats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Assemble une réponse statistique à partir de requêtes indépendantes exécutées
+ * en parallèle sur le pool statsExecutor.
+ *
+ * Chaque requête a son propre délai maximal. Une requête en échec ou trop lente
+ * n'empêche pas les autres d'être renvoyées : elle est signalée dans les erreurs.
+ *
+ * Le délai s'applique aussi côté base : chaque requête s'exécute dans une transaction en
+ * lecture seule dont le timeout est reporté sur les Statement (JdbcTemplate et JPA), ce qui
+ * annule la requête SQL et rend sa connexion au pool. Une requête refusée par un pool plein
+ * n'est pas exécutée sur le thread appelant : elle est signalée comme indisponible.
+ */
+@Component
+public class StatsAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsAssembler.class);
+
+    /** Clé de la réponse listant les parties en échec */
+    public static final String ERRORS_KEY = "erreurs";
+
+    @Autowired
+    @Qualifier("statsExecutor")
+    private Executor statsExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stats.fan-out.timeout-ms:5000}")
+    private long timeoutMs;
+
+    /**
+     * Résultat partiel : valeurs obtenues et message d'erreur par partie en échec
+     */
+    public record StatsResult(Map<String, Object> values, Map<String, String> errors) {
+
+        public boolean isComplete() {
+            return errors.isEmpty();
+        }
+
+        /**
+         * Valeurs obtenues, plus la clé "erreurs" si au moins une partie a échoué
+         */
+        public Map<String, Object> toResponse() {
+            Map<String, Object> response = new LinkedHashMap<>(values);
+            if (!errors.isEmpty()) {
+                response.put(ERRORS_KEY, errors);
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Lance toutes les requêtes en parallèle et attend au plus le délai configuré
+     *
+     * @param queries requêtes indexées par clé de réponse (l'ordre est conservé)
+     */
+    public StatsResult assemble(Map<String, Supplier<?>> queries) {
+        TransactionTemplate withTimeout = statementTimeout();
+        Map<String, Object> values = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<?>> query : queries.entrySet()) {
+            Supplier<?> supplier = query.getValue();
+            try {
+                futures.put(query.getKey(), CompletableFuture
+                    .supplyAsync(() -> withTimeout.execute(status -> (Object) supplier.get()), statsExecutor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Statistique '{}' non lancée : pool statistique saturé", query.getKey());
+                errors.put(query.getKey(), "Service saturé, réessayer plus tard");
+            }
+        }
+
+        for (Map.Entry<String, CompletableFuture<Object>> entry : futures.entrySet()) {
+            try {
+                values.put(entry.getKey(), entry.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(entry.getKey(), "Interrompu");
+            } catch (ExecutionException | CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String message = cause instanceof TimeoutException
+                    ? "Délai dépassé (" + timeoutMs + " ms)"
+                    : (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+                logger.warn("Statistique '{}' indisponible : {}", entry.getKey(), message);
+                errors.put(entry.getKey(), message);
+            }
+        }
+
+        return new StatsResult(values, errors);
+    }
+
+    /**
+     * Transaction en lecture seule dont le timeout (secondes, arrondi au supérieur) devient
+     * le timeout des Statement exécutés dedans
+     */
+    private TransactionTemplate statementTimeout() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+        return template;
+    }
+}
@@ -1,9 +1,6 @@
 package com.football.management.service.validation;
 
 import com.football.management.dto.DemandePlayersDTO;
-import com.football.management.repository.DemandePlayersRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 /**
@@ -15,16 +12,11 @@ public class DuplicateDemandeValidator {
     private static final Long CADETS = 4L;
     private static final Long NOUVELLE = 1L;
     
-    @Autowired
-    private JdbcTemplate jdbcTemplate;
-    
-    @Autowired
-    private DemandePlayersRepository demandePlayersRepository;
-    
     public boolean validate(
         DemandePlayersDTO demande,
         ValidationResult result,
-        Long categoryId
+        Long categoryId,
+        ValidationContext context
     ) {
         if (demande.getTypeLicenceId() == null) {
             return true;
@@ -32,7 +24,7 @@ public class DuplicateDemandeValidator {
         
         // Vérifier les doublons uniquement pour les nouvelles licences
         if (demande.getTypeLicenceId().longValue() == NOUVELLE) {
-            return validateNoExistingDemand(demande, result, categoryId);
+            return validateNoExistingDemand(demande, result, categoryId, context);
         }
         
         return true;
@@ -41,66 +33,45 @@ public class DuplicateDemandeValidator {
     private boolean validateNoExistingDemand(
         DemandePlayersDTO demande,
         ValidationResult result,
-        Long categoryId
+        Long categoryId,
+        ValidationContext context
     ) {
-        try {
-            String sql;
-            Long count;
-            
-            // Pour les cadets et au-dessus : recherche par CIN
-            if (categoryId != null && categoryId >= CADETS) {
-                if (demande.getCinNumber() == null || demande.getCinNumber().trim().isEmpty()) {
-                    return true; // Déjà validé par CinPassportValidator
-                }
-                
-                sql = """
-                    SELECT COUNT(*) FROM ct_demandes 
-                    WHERE ct_season_id = ? 
-                    AND cin_number = ?
-                    AND ct_demande_statu_id IN (1, 8, 9)
-                    """;
-                
-                count = jdbcTemplate.queryForObject(
-                    sql, 
-                    Long.class, 
-                    demande.getSeasonId(), 
-                    demande.getCinNumber()
-                );
-            } 
-            // Pour les jeunes : recherche par nom + prénom + date de naissance
-            else {
-                sql = """
-                    SELECT COUNT(*) FROM ct_demandes 
-                    WHERE ct_season_id = ? 
-                    AND name = ? 
-                    AND last_name = ? 
-                    AND date_of_birth = ?
-                    AND ct_demande_statu_id IN (1, 8, 9)
-                    """;
-                
-                count = jdbcTemplate.queryForObject(
-                    sql,
-                    Long.class,
-                    demande.getSeasonId(),
-                    demande.getName(),
-                    demande.getLastName(),
-                    demande.getDateOfBirth()
-                );
+        boolean duplicate;
+        
+        // Pour les cadets et au-dessus : recherche par CIN (toutes équipes confondues)
+        if (categoryId != null && categoryId >= CADETS) {
+            if (demande.getCinNumber() == null || demande.getCinNumber().trim().isEmpty()) {
+                return true; // Déjà validé par CinPassportValidator
             }
             
-            if (count != null && count > 0) {
-                result.addError(
-                    "Demande déjà enregistrée pour ce joueur cette saison"
+            duplicate = context.getSeasonDemandes().stream().anyMatch(d ->
+                isActive(d) && demande.getCinNumber().equals(d.cinNumber())
+            );
+        } 
+        // Pour les jeunes : recherche par nom + prénom + date de naissance (égalité stricte)
+        else {
+            duplicate = demande.getName() != null
+                && demande.getLastName() != null
+                && demande.getDateOfBirth() != null
+                && context.getSeasonDemandes().stream().anyMatch(d ->
+                    isActive(d)
+                    && demande.getName().equals(d.name())
+                    && demande.getLastName().equals(d.lastName())
+                    && demande.getDateOfBirth().equals(d.dateOfBirth())
                 );
-                return false;
-            }
-            
-        } catch (Exception e) {
-            result.addWarning(
-                "Impossible de vérifier les doublons: " + e.getMessage()
+        }
+        
+        if (duplicate) {
+            result.addError(
+                "Demande déjà enregistrée pour ce joueur cette saison"
             );
+            return false;
         }
         
         return true;
     }
-}
\ No newline at end of file
+    
+    private boolean isActive(ValidationContext.SeasonDemande demande) {
+        return demande.statusId() != null && ValidationContext.ACTIVE_STATUSES.contains(demande.statusId());
+    }
+}
@@ -1,16 +1,17 @@
 package com.football.management.service.validation;
 
 import com.football.management.dto.DemandePlayersDTO;
-import com.football.management.repository.DemandePlayersRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.football.management.service.quota.QuotaType;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 
 /**
  * Validation de tous les quotas (nombre max de joueurs par équipe, régime, catégorie)
+ * sur les compteurs de l'équipe chargés dans le ValidationContext.
+ *
+ * Contrôle indicatif pour l'utilisateur : la garantie qu'un quota n'est jamais dépassé,
+ * même avec des demandes simultanées, est apportée par QuotaLedger à l'enregistrement.
  */
 @Component
 public class PlayerQuotaValidator {
@@ -22,25 +23,14 @@ public class PlayerQuotaValidator {
     private static final Long SEMI_PROFESSIONNEL = 3L;
     private static final Long STAGIAIRE = 4L;
     private static final Long JOUEUR_TYPE = 1L;
-    
-    // Statuts actifs
-    private static final List<BigDecimal> ACTIVE_STATUSES = Arrays.asList(
-        BigDecimal.valueOf(1L),  // INITIAL
-        BigDecimal.valueOf(8L),  // VALIDÉE
-        BigDecimal.valueOf(9L)   // À IMPRIMER
-    );
-    
-    @Autowired
-    private DemandePlayersRepository demandeRepository;
-    
-    @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private static final Set<Long> PRO_REGIMES = Set.of(PROFESSIONNEL, SEMI_PROFESSIONNEL, STAGIAIRE);
     
     public boolean validate(
         DemandePlayersDTO demande,
         ValidationResult result,
         Long categoryId,
-        Long divisionId
+        Long divisionId,
+        ValidationContext context
     ) {
         if (demande.getTeamId() == null || demande.getSeasonId() == null) {
             return true;
@@ -49,9 +39,9 @@ public class PlayerQuotaValidator {
         boolean valid = true;
         
         try {
-            valid &= validateTotalPlayersQuota(demande, result);
-            valid &= validateProfessionalQuota(demande, result);
-            valid &= validateForeignPlayersQuota(demande, result, categoryId, divisionId);
+            valid &= validateTotalPlayersQuota(demande, result, context);
+            valid &= validateProfessionalQuota(demande, result, context);
+            valid &= validateForeignPlayersQuota(demande, result, divisionId, context);
             
         } catch (Exception e) {
             result.addWarning("Impossible de vérifier certains quotas: " + e.getMessage());
@@ -61,85 +51,41 @@ public class PlayerQuotaValidator {
     }
     
     /**
-     * ✅ CORRIGÉ : Récupère le quota depuis la VRAIE colonne
+     * Quota d'étrangers selon la division (nbr_etr_senior_1 / nbr_etr_senior_2)
      */
-    private Integer getMaxPlayersQuota() {
-        try {
-            String sql = "SELECT nbr_joueurs_max FROM ct_param_demandes LIMIT 1";
-            return jdbcTemplate.queryForObject(sql, Integer.class);
-        } catch (Exception e) {
-            return 80; // Valeur par défaut
+    private int getMaxForeignPlayersQuota(Long divisionId, ValidationContext context) {
+        if (divisionId == null) {
+            return 5;
         }
+        return divisionId.equals(LIGUE_I)
+            ? context.getQuotas().maxForeignLigue1()
+            : context.getQuotas().maxForeignLigue2();
     }
     
-    /**
-     * Récupère le quota de joueurs professionnels
-     */
-    private Integer getMaxProPlayersQuota() {
-        try {
-            String sql = """
-                SELECT nbr_licences 
-                FROM ct_param_category 
-                WHERE ct_player_category_id = 7 
-                AND ct_regime_id = 2 
-                LIMIT 1
-                """;
-            return jdbcTemplate.queryForObject(sql, Integer.class);
-        } catch (Exception e) {
-            return 25; // Valeur par défaut
-        }
-    }
-    
-    /**
-     * ✅ CORRIGÉ : Récupère le quota d'étrangers selon la division
-     */
-    private Integer getMaxForeignPlayersQuota(Long divisionId) {
-        try {
-            if (divisionId == null) {
-                return 5;
-            }
-            
-            // Utiliser les colonnes nbr_etr_senior_1 ou nbr_etr_senior_2
-            String columnName = divisionId.equals(LIGUE_I) ? "nbr_etr_senior_1" : "nbr_etr_senior_2";
-            
-            String sql = "SELECT " + columnName + " FROM ct_param_demandes LIMIT 1";
-            Integer quota = jdbcTemplate.queryForObject(sql, Integer.class);
-            return quota != null ? quota : (divisionId.equals(LIGUE_I) ? 4 : 3);
-        } catch (Exception e) {
-            // Valeur par défaut selon division
-            return divisionId.equals(LIGUE_I) ? 4 : 3;
-        }
+    /** Demandes de joueurs de l'équipe occupant une place (mêmes statuts que le registre des quotas) */
+    private static boolean isActivePlayer(ValidationContext.TeamDemandeCount row) {
+        return QuotaType.holdsPlace(row.statusId()) && JOUEUR_TYPE.equals(row.intervenantTypeId());
     }
     
     private boolean validateTotalPlayersQuota(
         DemandePlayersDTO demande,
-        ValidationResult result
+        ValidationResult result,
+        ValidationContext context
     ) {
-        try {
-            Integer maxPlayers = getMaxPlayersQuota();
-            
-            Long totalPlayers = demandeRepository.countByTeamAndSeasonAndStatusAndType(
-                demande.getTeamId(),
-                demande.getSeasonId(),
-                ACTIVE_STATUSES,
-                BigDecimal.valueOf(JOUEUR_TYPE)
+        int maxPlayers = context.getQuotas().maxPlayers();
+        long totalPlayers = context.quotaUsed(QuotaType.TOTAL, PlayerQuotaValidator::isActivePlayer);
+        
+        if (totalPlayers >= maxPlayers) {
+            result.addError(
+                "Nombre maximum de joueurs atteint pour cette équipe (" + maxPlayers + ")"
+            );
+            return false;
+        }
+        
+        if (totalPlayers >= maxPlayers - 5) {
+            result.addWarning(
+                "Attention: proche du quota maximum (" + totalPlayers + "/" + maxPlayers + ")"
             );
-            
-            if (totalPlayers >= maxPlayers) {
-                result.addError(
-                    "Nombre maximum de joueurs atteint pour cette équipe (" + maxPlayers + ")"
-                );
-                return false;
-            }
-            
-            if (totalPlayers >= maxPlayers - 5) {
-                result.addWarning(
-                    "Attention: proche du quota maximum (" + totalPlayers + "/" + maxPlayers + ")"
-                );
-            }
-            
-        } catch (Exception e) {
-            result.addWarning("Impossible de vérifier le quota total de joueurs");
         }
         
         return true;
@@ -147,7 +93,8 @@ public class PlayerQuotaValidator {
     
     private boolean validateProfessionalQuota(
         DemandePlayersDTO demande,
-        ValidationResult result
+        ValidationResult result,
+        ValidationContext context
     ) {
         if (demande.getRegimeId() == null) {
             return true;
@@ -156,38 +103,20 @@ public class PlayerQuotaValidator {
         Long regimeId = demande.getRegimeId().longValue();
         
         // Vérifier si c'est un régime professionnel
-        if (!regimeId.equals(PROFESSIONNEL) && 
-            !regimeId.equals(SEMI_PROFESSIONNEL) && 
-            !regimeId.equals(STAGIAIRE)) {
+        if (!PRO_REGIMES.contains(regimeId)) {
             return true;
         }
         
-        try {
-            Integer maxProPlayers = getMaxProPlayersQuota();
-            
-            List<BigDecimal> proRegimes = Arrays.asList(
-                BigDecimal.valueOf(PROFESSIONNEL),
-                BigDecimal.valueOf(SEMI_PROFESSIONNEL),
-                BigDecimal.valueOf(STAGIAIRE)
-            );
-            
-            Long proCount = demandeRepository.countByTeamAndSeasonAndRegimesAndStatus(
-                demande.getTeamId(),
-                demande.getSeasonId(),
-                proRegimes,
-                ACTIVE_STATUSES,
-                BigDecimal.valueOf(JOUEUR_TYPE)
+        int maxProPlayers = context.getQuotas().maxProPlayers();
+        long proCount = context.quotaUsed(QuotaType.PROFESSIONNEL,
+            row -> isActivePlayer(row) && row.regimeId() != null && PRO_REGIMES.contains(row.regimeId())
+        );
+        
+        if (proCount >= maxProPlayers) {
+            result.addError(
+                "Nombre maximum de joueurs professionnels atteint (" + maxProPlayers + ")"
             );
-            
-            if (proCount >= maxProPlayers) {
-                result.addError(
-                    "Nombre maximum de joueurs professionnels atteint (" + maxProPlayers + ")"
-                );
-                return false;
-            }
-            
-        } catch (Exception e) {
-            result.addWarning("Impossible de vérifier le quota de joueurs professionnels");
+            return false;
         }
         
         return true;
@@ -196,8 +125,8 @@ public class PlayerQuotaValidator {
     private boolean validateForeignPlayersQuota(
         DemandePlayersDTO demande,
         ValidationResult result,
-        Long categoryId,
-        Long divisionId
+        Long divisionId,
+        ValidationContext context
     ) {
         // Seulement pour les joueurs étrangers
         if (demande.getPaysId() == null || 
@@ -210,26 +139,16 @@ public class PlayerQuotaValidator {
             return true;
         }
         
-        try {
-            Integer maxForeign = getMaxForeignPlayersQuota(divisionId);
-            
-            Long foreignCount = demandeRepository.countByTeamAndSeasonAndPaysNotAndStatus(
-                demande.getTeamId(),
-                demande.getSeasonId(),
-                BigDecimal.valueOf(TUNISIE),
-                ACTIVE_STATUSES,
-                BigDecimal.valueOf(JOUEUR_TYPE)
+        int maxForeign = getMaxForeignPlayersQuota(divisionId, context);
+        long foreignCount = context.quotaUsed(QuotaType.ETRANGER,
+            row -> isActivePlayer(row) && row.foreign()
+        );
+        
+        if (foreignCount >= maxForeign) {
+            result.addError(
+                "Nombre maximum de joueurs étrangers atteint (" + maxForeign + ")"
             );
-            
-            if (foreignCount >= maxForeign) {
-                result.addError(
-                    "Nombre maximum de joueurs étrangers atteint (" + maxForeign + ")"
-                );
-                return false;
-            }
-            
-        } catch (Exception e) {
-            result.addWarning("Impossible de vérifier le quota de joueurs étrangers");
+            return false;
         }
         
         return true;
@@ -239,4 +158,4 @@ public class PlayerQuotaValidator {
         return divisionId != null && 
                (divisionId.equals(LIGUE_I) || divisionId.equals(LIGUE_II));
     }
-}
\ No newline at end of file
+}
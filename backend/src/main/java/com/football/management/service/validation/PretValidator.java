@@ -1,8 +1,6 @@
 package com.football.management.service.validation;
 
 import com.football.management.dto.DemandePlayersDTO;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -22,9 +20,6 @@ import java.time.Period;
 @Component
 public class PretValidator {
 
-    @Autowired
-    private JdbcTemplate jdbcTemplate;
-
     // Constantes pour les régimes
     private static final Long AMATEUR = 1L;
     private static final Long PROFESSIONNEL = 2L;
@@ -41,7 +36,7 @@ public class PretValidator {
     /**
      * Valide une demande de PRÊT (Type 5)
      */
-    public ValidationResult validatePret(DemandePlayersDTO dto, Long categoryId, Long divisionId) {
+    public ValidationResult validatePret(DemandePlayersDTO dto, Long categoryId, Long divisionId, ValidationContext context) {
         ValidationResult result = new ValidationResult();
 
         System.out.println("════════════════════════════════════════════════════════════");
@@ -54,7 +49,7 @@ public class PretValidator {
         System.out.println("📅 Age: " + (isCadetsOrOlder ? "CADETS+ (≥16 ans)" : "<CADETS (<16 ans)"));
 
         // ÉTAPE 2: Vérifier que le joueur EXISTE
-        if (!playerExists(dto, isCadetsOrOlder)) {
+        if (!playerExists(dto, isCadetsOrOlder, context)) {
             String errorMsg = formatError(
                 "❌ JOUEUR INTROUVABLE DANS LE SYSTÈME",
                 "",
@@ -77,8 +72,8 @@ public class PretValidator {
             if (isProfessionalRegime(regimeId)) {
                 // PRÊT PROFESSIONNEL (PRO, SEMI-PRO, STAGIAIRE)
                 System.out.println("🔍 Type: PRÊT PROFESSIONNEL");
-                if (!validatePretProfessionalQuota(dto, categoryId)) {
-                    String errorMsg = formatQuotaError("PRÊT PROFESSIONNEL", categoryId);
+                if (!validatePretProfessionalQuota(categoryId, context)) {
+                    String errorMsg = formatQuotaError("PRÊT PROFESSIONNEL", categoryId, context);
                     result.addError(errorMsg);
                     System.out.println("❌ VALIDATION PRÊT - ÉCHEC: Quota PRÊT PRO atteint");
                     System.out.println("════════════════════════════════════════════════════════════\n");
@@ -89,8 +84,8 @@ public class PretValidator {
                 if (divisionId != null) {
                     if (divisionId.equals(LIGUE_I)) {
                         System.out.println("🔍 Type: PRÊT AMATEUR LIGUE I");
-                        if (!validatePretAmateurQuota(dto, categoryId, "LIGUE I")) {
-                            String errorMsg = formatQuotaError("PRÊT AMATEUR LIGUE I", categoryId);
+                        if (!validatePretAmateurQuota(categoryId, "LIGUE I", context)) {
+                            String errorMsg = formatQuotaError("PRÊT AMATEUR LIGUE I", categoryId, context);
                             result.addError(errorMsg);
                             System.out.println("❌ VALIDATION PRÊT - ÉCHEC: Quota PRÊT AMATEUR L1 atteint");
                             System.out.println("════════════════════════════════════════════════════════════\n");
@@ -98,8 +93,8 @@ public class PretValidator {
                         }
                     } else if (divisionId.equals(LIGUE_II)) {
                         System.out.println("🔍 Type: PRÊT AMATEUR LIGUE II");
-                        if (!validatePretAmateurQuota(dto, categoryId, "LIGUE II")) {
-                            String errorMsg = formatQuotaError("PRÊT AMATEUR LIGUE II", categoryId);
+                        if (!validatePretAmateurQuota(categoryId, "LIGUE II", context)) {
+                            String errorMsg = formatQuotaError("PRÊT AMATEUR LIGUE II", categoryId, context);
                             result.addError(errorMsg);
                             System.out.println("❌ VALIDATION PRÊT - ÉCHEC: Quota PRÊT AMATEUR L2 atteint");
                             System.out.println("════════════════════════════════════════════════════════════\n");
@@ -107,8 +102,8 @@ public class PretValidator {
                         }
                     } else if (divisionId.equals(LIGUE_III_1) || divisionId.equals(LIGUE_III_2)) {
                         System.out.println("🔍 Type: PRÊT AMATEUR LIGUE III");
-                        if (!validatePretAmateurQuota(dto, categoryId, "LIGUE III")) {
-                            String errorMsg = formatQuotaError("PRÊT AMATEUR LIGUE III", categoryId);
+                        if (!validatePretAmateurQuota(categoryId, "LIGUE III", context)) {
+                            String errorMsg = formatQuotaError("PRÊT AMATEUR LIGUE III", categoryId, context);
                             result.addError(errorMsg);
                             System.out.println("❌ VALIDATION PRÊT - ÉCHEC: Quota PRÊT AMATEUR L3 atteint");
                             System.out.println("════════════════════════════════════════════════════════════\n");
@@ -120,7 +115,7 @@ public class PretValidator {
         }
 
         // ÉTAPE 4: Vérifier qu'il n'y a pas déjà une demande cette saison
-        if (hasExistingDemandeThisSeason(dto, isCadetsOrOlder)) {
+        if (hasExistingDemandeThisSeason(dto, isCadetsOrOlder, context)) {
             String errorMsg = formatError(
                 "❌ DEMANDE DÉJÀ ENREGISTRÉE",
                 "",
@@ -173,156 +168,80 @@ public class PretValidator {
     /**
      * ÉTAPE 2: Vérifie que le joueur EXISTE dans ct_intervenants
      */
-    private boolean playerExists(DemandePlayersDTO dto, boolean isCadetsOrOlder) {
-        try {
-            String sql;
-            Object[] params;
-
-            if (isCadetsOrOlder) {
-                // CADETS+ : Recherche par CIN ou Passeport
-                sql = "SELECT COUNT(*) FROM ct_intervenants " +
-                      "WHERE cin_number = ? OR passport_num = ?";
-                params = new Object[]{dto.getCinNumber(), dto.getPassportNum()};
-            } else {
-                // <CADETS : Recherche par nom + prénom + date naissance
-                sql = "SELECT COUNT(*) FROM ct_intervenants " +
-                      "WHERE UPPER(last_name) = UPPER(?) " +
-                      "AND UPPER(name) = UPPER(?) " +
-                      "AND date_of_birth = ?";
-                params = new Object[]{dto.getLastName(), dto.getName(), dto.getDateOfBirth()};
-            }
-
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, params);
-            return count != null && count > 0;
-
-        } catch (Exception e) {
-            System.out.println("⚠️  Erreur vérification existence joueur: " + e.getMessage());
-            return false;
-        }
+    private boolean playerExists(DemandePlayersDTO dto, boolean isCadetsOrOlder, ValidationContext context) {
+        return context.playerExists(dto, isCadetsOrOlder);
     }
 
     /**
      * ÉTAPE 3.1: Valide le quota PRÊT PROFESSIONNEL
      */
-    private boolean validatePretProfessionalQuota(DemandePlayersDTO dto, Long categoryId) {
-        try {
-            // Récupérer le quota global depuis ct_param_demandes
-            String sqlQuota = "SELECT nbr_pret FROM ct_param_demandes WHERE ct_param_demande_id = 1";
-            Integer maxQuota = jdbcTemplate.queryForObject(sqlQuota, Integer.class);
-
-            if (maxQuota == null || maxQuota == 0) {
-                System.out.println("⚠️  Quota PRÊT PRO non configuré → Autoriser");
-                return true; // Pas de quota configuré = autoriser
-            }
-
-            // Compter le nombre de demandes PRÊT PRO actuelles
-            String sqlCount = "SELECT COUNT(*) FROM ct_demandes " +
-                            "WHERE ct_team_id = ? " +
-                            "AND ct_season_id = ? " +
-                            "AND ct_type_licence_id = 5 " +
-                            "AND ct_player_category_id = ? " +
-                            "AND ct_regime_id IN (2, 3, 4) " + // PRO, SEMI-PRO, STAGIAIRE
-                            "AND ct_demande_statu_id != 0";
-
-            Integer currentCount = jdbcTemplate.queryForObject(sqlCount, Integer.class,
-                dto.getTeamId(), dto.getSeasonId(), categoryId);
-
-            System.out.println("📊 Quota PRÊT PRO: " + currentCount + "/" + maxQuota);
+    private boolean validatePretProfessionalQuota(Long categoryId, ValidationContext context) {
+        // Quota global depuis ct_param_demandes
+        Integer maxQuota = context.getQuotas().maxPret();
+        if (maxQuota == null || maxQuota == 0) {
+            System.out.println("⚠️  Quota PRÊT PRO non configuré → Autoriser");
+            return true; // Pas de quota configuré = autoriser
+        }
 
-            return currentCount < maxQuota;
+        // Demandes PRÊT PRO actuelles (PRO, SEMI-PRO, STAGIAIRE)
+        long currentCount = context.countTeamDemandes(row ->
+            isPretOfCategory(row, categoryId)
+                && row.regimeId() != null
+                && isProfessionalRegime(row.regimeId()));
 
-        } catch (Exception e) {
-            System.out.println("⚠️  Erreur validation quota PRÊT PRO: " + e.getMessage());
-            return true; // En cas d'erreur, autoriser
-        }
+        System.out.println("📊 Quota PRÊT PRO: " + currentCount + "/" + maxQuota);
+        return currentCount < maxQuota;
     }
 
     /**
      * ÉTAPE 3.2: Valide le quota PRÊT AMATEUR (LIGUE I, II, III)
      */
-    private boolean validatePretAmateurQuota(DemandePlayersDTO dto, Long categoryId, String ligueLabel) {
-        try {
-            // Récupérer le quota global depuis ct_param_demandes
-            String sqlQuota = "SELECT nbr_pret FROM ct_param_demandes WHERE ct_param_demande_id = 1";
-            Integer maxQuota = jdbcTemplate.queryForObject(sqlQuota, Integer.class);
-
-            if (maxQuota == null || maxQuota == 0) {
-                System.out.println("⚠️  Quota PRÊT AMATEUR " + ligueLabel + " non configuré → Autoriser");
-                return true;
-            }
-
-            // Déterminer l'ID de division
-            Long divisionId = null;
-            if ("LIGUE I".equals(ligueLabel)) divisionId = LIGUE_I;
-            else if ("LIGUE II".equals(ligueLabel)) divisionId = LIGUE_II;
-            else if ("LIGUE III".equals(ligueLabel)) divisionId = LIGUE_III_1; // ou LIGUE_III_2
-
-            // Compter le nombre de demandes PRÊT AMATEUR actuelles pour cette division
-            String sqlCount = "SELECT COUNT(*) FROM ct_demandes d " +
-                            "INNER JOIN ct_team_divisions td ON d.ct_team_id = td.ct_team_id AND td.ct_season_id = d.ct_season_id " +
-                            "WHERE d.ct_team_id = ? " +
-                            "AND d.ct_season_id = ? " +
-                            "AND d.ct_type_licence_id = 5 " +
-                            "AND d.ct_player_category_id = ? " +
-                            "AND d.ct_regime_id = 1 " + // AMATEUR
-                            "AND td.ct_division_id = ? " +
-                            "AND d.ct_demande_statu_id != 0";
-
-            Integer currentCount = jdbcTemplate.queryForObject(sqlCount, Integer.class,
-                dto.getTeamId(), dto.getSeasonId(), categoryId, divisionId);
+    private boolean validatePretAmateurQuota(Long categoryId, String ligueLabel, ValidationContext context) {
+        // Quota global depuis ct_param_demandes
+        Integer maxQuota = context.getQuotas().maxPret();
+        if (maxQuota == null || maxQuota == 0) {
+            System.out.println("⚠️  Quota PRÊT AMATEUR " + ligueLabel + " non configuré → Autoriser");
+            return true;
+        }
 
-            System.out.println("📊 Quota PRÊT AMATEUR " + ligueLabel + ": " + currentCount + "/" + maxQuota);
+        // Déterminer l'ID de division
+        Long divisionId = null;
+        if ("LIGUE I".equals(ligueLabel)) divisionId = LIGUE_I;
+        else if ("LIGUE II".equals(ligueLabel)) divisionId = LIGUE_II;
+        else if ("LIGUE III".equals(ligueLabel)) divisionId = LIGUE_III_1; // ou LIGUE_III_2
+
+        // Les demandes ne comptent que si l'équipe joue dans cette division pour la saison
+        long currentCount = 0;
+        if (context.getSeasonDivisionIds().contains(divisionId)) {
+            currentCount = context.countTeamDemandes(row ->
+                isPretOfCategory(row, categoryId) && AMATEUR.equals(row.regimeId()));
+        }
 
-            return currentCount < maxQuota;
+        System.out.println("📊 Quota PRÊT AMATEUR " + ligueLabel + ": " + currentCount + "/" + maxQuota);
+        return currentCount < maxQuota;
+    }
 
-        } catch (Exception e) {
-            System.out.println("⚠️  Erreur validation quota PRÊT AMATEUR: " + e.getMessage());
-            return true;
-        }
+    /**
+     * Demande de PRÊT non annulée de la catégorie donnée
+     */
+    private boolean isPretOfCategory(ValidationContext.TeamDemandeCount row, Long categoryId) {
+        return ValidationContext.is(row.typeLicenceId(), 5L)
+            && categoryId != null && categoryId.equals(row.categoryId())
+            && row.isNotCancelled();
     }
 
     /**
      * ÉTAPE 4: Vérifie s'il existe déjà une demande cette saison
      */
-    private boolean hasExistingDemandeThisSeason(DemandePlayersDTO dto, boolean isCadetsOrOlder) {
+    private boolean hasExistingDemandeThisSeason(DemandePlayersDTO dto, boolean isCadetsOrOlder, ValidationContext context) {
         if (dto.getTeamId() == null || dto.getSeasonId() == null) {
             System.out.println("⚠️  Team ID ou Season ID manquant → SKIP vérification");
             return false;
         }
-
-        String sql;
-        Object[] params;
-
-        try {
-            if (isCadetsOrOlder) {
-                // CADETS+ : Recherche par CIN ou Passeport
-                sql = "SELECT COUNT(*) FROM ct_demandes " +
-                      "WHERE ct_team_id = ? " +
-                      "AND ct_season_id = ? " +
-                      "AND ct_type_licence_id = 5 " +
-                      "AND (cin_number = ? OR passport_num = ?) " +
-                      "AND ct_demande_statu_id != 0";
-                params = new Object[]{dto.getTeamId(), dto.getSeasonId(), dto.getCinNumber(), dto.getPassportNum()};
-            } else {
-                // <CADETS : Recherche par nom + prénom + date naissance
-                sql = "SELECT COUNT(*) FROM ct_demandes " +
-                      "WHERE ct_team_id = ? " +
-                      "AND ct_season_id = ? " +
-                      "AND ct_type_licence_id = 5 " +
-                      "AND UPPER(last_name) = UPPER(?) " +
-                      "AND UPPER(name) = UPPER(?) " +
-                      "AND date_of_birth = ? " +
-                      "AND ct_demande_statu_id != 0";
-                params = new Object[]{dto.getTeamId(), dto.getSeasonId(), dto.getLastName(), dto.getName(), dto.getDateOfBirth()};
-            }
-
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, params);
-            return count != null && count > 0;
-
-        } catch (Exception e) {
-            System.out.println("⚠️  Erreur vérification doublon: " + e.getMessage());
-            return false;
-        }
+        return context.hasDemande(dto, isCadetsOrOlder, d ->
+            ValidationContext.sameId(d.teamId(), dto.getTeamId())
+                && ValidationContext.is(d.typeLicenceId(), 5L)
+                && d.isNotCancelled());
     }
 
     /**
@@ -346,23 +265,17 @@ public class PretValidator {
     /**
      * Formate un message d'erreur de quota
      */
-    private String formatQuotaError(String quotaType, Long categoryId) {
-        try {
-            String sqlQuota = "SELECT nbr_pret FROM ct_param_demandes WHERE ct_param_demande_id = 1";
-            Integer maxQuota = jdbcTemplate.queryForObject(sqlQuota, Integer.class);
-
-            return formatError(
-                "❌ QUOTA " + quotaType + " ATTEINT",
-                "",
-                "Nombre maximum de demandes PRÊT (" + quotaType + ") atteint.",
-                "",
-                "➤ Catégorie: " + getCategoryLabel(categoryId),
-                "➤ Quota maximum: " + (maxQuota != null ? maxQuota : "Non défini"),
-                "➤ Impossible de créer une nouvelle demande PRÊT pour cette catégorie."
-            );
-        } catch (Exception e) {
-            return "❌ QUOTA " + quotaType + " ATTEINT";
-        }
+    private String formatQuotaError(String quotaType, Long categoryId, ValidationContext context) {
+        Integer maxQuota = context.getQuotas().maxPret();
+        return formatError(
+            "❌ QUOTA " + quotaType + " ATTEINT",
+            "",
+            "Nombre maximum de demandes PRÊT (" + quotaType + ") atteint.",
+            "",
+            "➤ Catégorie: " + getCategoryLabel(categoryId),
+            "➤ Quota maximum: " + (maxQuota != null ? maxQuota : "Non défini"),
+            "➤ Impossible de créer une nouvelle demande PRÊT pour cette catégorie."
+        );
     }
 
     /**
@@ -29,7 +29,7 @@ public class RenewalValidator {
     /**
      * Valide une demande de RENOUVELLEMENT
      */
-    public ValidationResult validateRenewal(DemandePlayersDTO dto) {
+    public ValidationResult validateRenewal(DemandePlayersDTO dto, ValidationContext context) {
         ValidationResult result = new ValidationResult();
 
         // Vérifier si c'est bien un RENOUVELLEMENT (type = 2)
@@ -48,7 +48,7 @@ public class RenewalValidator {
 
         // ✅ ÉTAPE 2: Vérifier que le joueur EXISTE dans le système
         System.out.println("\n🔍 ÉTAPE 2: Vérification existence du joueur dans ct_intervenants...");
-        if (!playerExists(dto, isCadetsOrOlder)) {
+        if (!playerExists(dto, isCadetsOrOlder, context)) {
             result.addError("❌ JOUEUR INTROUVABLE\n\n" +
                 "Ce joueur n'existe pas dans le système.\n\n" +
                 "➤ Utilisez \"NOUVELLE LICENCE\" pour enregistrer un nouveau joueur.");
@@ -60,7 +60,7 @@ public class RenewalValidator {
 
         // ✅ ÉTAPE 3: Vérifier qu'il avait une licence l'année dernière dans LE MÊME CLUB
         System.out.println("\n🔍 ÉTAPE 3: Vérification licence saison précédente dans ct_team_intervenants...");
-        if (!hadLicenceLastSeasonInSameTeam(dto, isCadetsOrOlder)) {
+        if (!hadLicenceLastSeasonInSameTeam(dto, isCadetsOrOlder, context)) {
             result.addError("❌ JOUEUR NON LICENCIÉ L'ANNÉE DERNIÈRE\n\n" +
                 "Ce joueur n'avait pas de licence dans votre club lors de la saison précédente.\n\n" +
                 "➤ Veuillez utiliser l'un des types suivants :\n\n" +
@@ -75,7 +75,7 @@ public class RenewalValidator {
 
         // ✅ ÉTAPE 4: Vérifier qu'il n'y a pas déjà une demande de renouvellement cette saison
         System.out.println("\n📋 ÉTAPE 4: Vérification demandes existantes...");
-        if (hasExistingRenewalThisSeason(dto, isCadetsOrOlder)) {
+        if (hasExistingRenewalThisSeason(dto, isCadetsOrOlder, context)) {
             result.addError("❌ DEMANDE DE RENOUVELLEMENT DÉJÀ ENREGISTRÉE\n\n" +
                 "Ce joueur a déjà une demande de renouvellement enregistrée pour cette saison.\n\n" +
                 "➤ Impossible de créer une deuxième demande de renouvellement pour le même joueur dans la même saison.");
@@ -112,80 +112,11 @@ public class RenewalValidator {
      * - CADETS+ (≥16 ans): Recherche par CIN ou Passeport
      * - <CADETS (<16 ans): Recherche par Nom + Prénom + Date de Naissance
      */
-    private boolean playerExists(DemandePlayersDTO dto, boolean isCadetsOrOlder) {
-        String sql;
-        Object[] params;
+    private boolean playerExists(DemandePlayersDTO dto, boolean isCadetsOrOlder, ValidationContext context) {
+        boolean found = context.playerExists(dto, isCadetsOrOlder);
 
-        if (isCadetsOrOlder) {
-            // CADETS+ : Recherche par CIN ou Passeport
-            System.out.println("🔎 Recherche intervenant par: CIN ou Passeport");
-            System.out.println("   CIN: " + dto.getCinNumber());
-            System.out.println("   Passeport: " + dto.getPassportNum());
-
-            // ✅ Vérification AVANT d'exécuter la requête
-            if (dto.getCinNumber() == null && dto.getPassportNum() == null) {
-                System.out.println("⚠️  Aucun CIN ni Passeport fourni → BLOQUER (obligatoire pour renouvellement)");
-                return false;
-            }
-
-            sql = "SELECT COUNT(*) FROM ct_intervenants " +
-                  "WHERE cin_number = ? OR passport_num = ?";
-
-            params = new Object[]{
-                dto.getCinNumber(),
-                dto.getPassportNum()
-            };
-
-        } else {
-            // <CADETS : Recherche par Nom + Prénom + Date Naissance
-            System.out.println("🔎 Recherche intervenant par: Nom + Prénom + Date");
-            System.out.println("   Nom: " + dto.getLastName());
-            System.out.println("   Prénom: " + dto.getName());
-            System.out.println("   Date: " + dto.getDateOfBirth());
-
-            // ✅ Vérification AVANT d'exécuter la requête
-            if (dto.getLastName() == null || dto.getName() == null || dto.getDateOfBirth() == null) {
-                System.out.println("⚠️  Informations incomplètes → BLOQUER (obligatoires pour renouvellement)");
-                return false;
-            }
-
-            sql = "SELECT COUNT(*) FROM ct_intervenants " +
-                  "WHERE UPPER(last_name) = UPPER(?) " +
-                  "AND UPPER(name) = UPPER(?) " +
-                  "AND date_of_birth = ?";
-
-            params = new Object[]{
-                dto.getLastName(),
-                dto.getName(),
-                dto.getDateOfBirth()
-            };
-        }
-
-        try {
-            System.out.println("   📝 SQL Intervenants: " + sql);
-            System.out.println("   📝 Params: " + java.util.Arrays.toString(params));
-
-            Object countObj = jdbcTemplate.queryForObject(sql, Object.class, params);
-            int count = convertToInt(countObj);
-
-            System.out.println("   ✅ Résultat COUNT intervenants: " + count);
-
-            if (count > 0) {
-                System.out.println("   ✅ Joueur trouvé dans ct_intervenants");
-                return true;
-            } else {
-                System.out.println("   ❌ Joueur NON trouvé dans ct_intervenants");
-                return false;
-            }
-
-        } catch (Exception e) {
-            System.err.println("❌ ERREUR SQL lors de la vérification du joueur dans ct_intervenants:");
-            System.err.println("   Message: " + e.getMessage());
-            e.printStackTrace();
-            // ⚠️ IMPORTANT: En cas d'erreur SQL, on BLOQUE par sécurité
-            System.err.println("   ⚠️  PAR SÉCURITÉ: On bloque la demande");
-            return false;
-        }
+        System.out.println(found ? "   ✅ Joueur trouvé dans ct_intervenants" : "   ❌ Joueur NON trouvé dans ct_intervenants");
+        return found;
     }
 
     /**
@@ -196,211 +127,44 @@ public class RenewalValidator {
      *   ET type_licence NOT IN (5=PRÊT, 6=RENOUVELLEMENT_SPÉCIAL)
      * - OU joueurs de la saison ACTUELLE avec type_licence IN (4=MUTATION, 11=LIBRE)
      *
-     * Table: ct_team_intervenants
-     * Critères de recherche:
-     * - CADETS+ (≥16 ans): Recherche par CIN ou Passeport
-     * - <CADETS (<16 ans): Recherche par Nom + Prénom + Date de Naissance
+     * Évalué sur l'historique ct_team_intervenants du ValidationContext
      */
-    private boolean hadLicenceLastSeasonInSameTeam(DemandePlayersDTO dto, boolean isCadetsOrOlder) {
+    private boolean hadLicenceLastSeasonInSameTeam(DemandePlayersDTO dto, boolean isCadetsOrOlder, ValidationContext context) {
         if (dto.getTeamId() == null || dto.getSeasonId() == null) {
             System.out.println("⚠️  Team ID ou Season ID manquant → SKIP vérification");
             return false;
         }
 
         System.out.println("📅 Saison actuelle: " + dto.getSeasonId());
+        long season = dto.getSeasonId().longValue();
 
-        String sql;
-        Object[] params;
-
-        if (isCadetsOrOlder) {
-            // CADETS+ : Recherche par CIN ou Passeport
-            System.out.println("🔎 Recherche éligibilité renouvellement par: CIN ou Passeport");
-            System.out.println("   CIN: " + dto.getCinNumber());
-            System.out.println("   Passeport: " + dto.getPassportNum());
-
-            if (dto.getCinNumber() == null && dto.getPassportNum() == null) {
-                System.out.println("⚠️  Aucun CIN ni Passeport fourni → SKIP vérification");
-                return false;
-            }
-
-            // ✅ LOGIQUE COMPLEXE avec JOINTURE: Saisons précédentes OU saison actuelle avec MUTATION/LIBRE
-            sql = "SELECT COUNT(*) FROM ct_team_intervenants ti " +
-                  "INNER JOIN ct_intervenants i ON ti.ct_intervenant_id = i.ct_intervenant_id " +
-                  "WHERE ti.ct_team_id = ? " +
-                  "AND ti.ct_intervenant_type_id = 1 " +  // Type = Joueur
-                  "AND (i.cin_number = ? OR i.passport_num = ?) " +
-                  "AND (" +
-                  "    (ti.ct_season_id < ? AND ti.ct_type_licence_id NOT IN (5, 6)) " +  // Saisons précédentes (pas PRÊT/RENOUVELLEMENT_SPÉCIAL)
-                  "    OR (ti.ct_season_id = ? AND ti.ct_type_licence_id IN (4, 11)) " +  // Saison actuelle avec MUTATION/LIBRE
-                  ")";
-
-            params = new Object[]{
-                dto.getTeamId(),
-                dto.getCinNumber(),
-                dto.getPassportNum(),
-                dto.getSeasonId(),  // Pour ct_season_id < ?
-                dto.getSeasonId()   // Pour ct_season_id = ?
-            };
-
-        } else {
-            // <CADETS : Recherche par Nom + Prénom + Date Naissance
-            System.out.println("🔎 Recherche éligibilité renouvellement par: Nom + Prénom + Date");
-            System.out.println("   Nom: " + dto.getLastName());
-            System.out.println("   Prénom: " + dto.getName());
-            System.out.println("   Date: " + dto.getDateOfBirth());
-
-            if (dto.getLastName() == null || dto.getName() == null || dto.getDateOfBirth() == null) {
-                System.out.println("⚠️  Informations incomplètes → SKIP vérification");
-                return false;
-            }
-
-            // ✅ LOGIQUE COMPLEXE avec JOINTURE: Saisons précédentes OU saison actuelle avec MUTATION/LIBRE
-            sql = "SELECT COUNT(*) FROM ct_team_intervenants ti " +
-                  "INNER JOIN ct_intervenants i ON ti.ct_intervenant_id = i.ct_intervenant_id " +
-                  "WHERE ti.ct_team_id = ? " +
-                  "AND ti.ct_intervenant_type_id = 1 " +  // Type = Joueur
-                  "AND UPPER(i.last_name) = UPPER(?) " +
-                  "AND UPPER(i.name) = UPPER(?) " +
-                  "AND i.date_of_birth = ? " +
-                  "AND (" +
-                  "    (ti.ct_season_id < ? AND ti.ct_type_licence_id NOT IN (5, 6)) " +  // Saisons précédentes (pas PRÊT/RENOUVELLEMENT_SPÉCIAL)
-                  "    OR (ti.ct_season_id = ? AND ti.ct_type_licence_id IN (4, 11)) " +  // Saison actuelle avec MUTATION/LIBRE
-                  ")";
-
-            params = new Object[]{
-                dto.getTeamId(),
-                dto.getLastName(),
-                dto.getName(),
-                dto.getDateOfBirth(),
-                dto.getSeasonId(),  // Pour ct_season_id < ?
-                dto.getSeasonId()   // Pour ct_season_id = ?
-            };
-        }
-
-        try {
-            System.out.println("   📝 SQL Team Intervenants (LOGIQUE COMPLEXE): " + sql);
-            System.out.println("   📝 Params: " + java.util.Arrays.toString(params));
-
-            Object countObj = jdbcTemplate.queryForObject(sql, Object.class, params);
-            int count = convertToInt(countObj);
-
-            System.out.println("   ✅ Résultat COUNT éligibilité: " + count);
-
-            if (count > 0) {
-                System.out.println("   ✅ Joueur ÉLIGIBLE pour renouvellement");
-                System.out.println("   (Avait une licence saisons précédentes OU MUTATION/LIBRE cette saison)");
-                return true;
-            } else {
-                System.out.println("   ❌ Joueur NON ÉLIGIBLE pour renouvellement");
-                return false;
-            }
+        boolean eligible = context.hasLicence(dto, isCadetsOrOlder, l ->
+            ValidationContext.sameId(l.teamId(), dto.getTeamId())
+                && ValidationContext.is(l.intervenantTypeId(), 1L)  // Type = Joueur
+                && l.seasonId() != null && l.typeLicenceId() != null
+                && ((l.seasonId() < season && l.typeLicenceId() != 5L && l.typeLicenceId() != 6L)  // Saisons précédentes (pas PRÊT/RENOUVELLEMENT_SPÉCIAL)
+                    || (l.seasonId() == season && (l.typeLicenceId() == 4L || l.typeLicenceId() == 11L))));  // Saison actuelle avec MUTATION/LIBRE
 
-        } catch (Exception e) {
-            System.err.println("❌ ERREUR SQL lors de la vérification de l'éligibilité:");
-            System.err.println("   Message: " + e.getMessage());
-            e.printStackTrace();
-            // ⚠️ IMPORTANT: En cas d'erreur SQL, on BLOQUE par sécurité
-            System.err.println("   ⚠️  PAR SÉCURITÉ: On bloque la demande");
-            return false;
-        }
+        System.out.println(eligible ? "   ✅ Joueur ÉLIGIBLE pour renouvellement" : "   ❌ Joueur NON ÉLIGIBLE pour renouvellement");
+        return eligible;
     }
 
     /**
      * ÉTAPE 4: Vérifie si une demande de renouvellement existe déjà pour ce joueur cette saison
-     *
-     * Critères de recherche:
-     * - CADETS+ (≥16 ans): Recherche par CIN ou Passeport
-     * - <CADETS (<16 ans): Recherche par Nom + Prénom + Date de Naissance
      */
-    private boolean hasExistingRenewalThisSeason(DemandePlayersDTO dto, boolean isCadetsOrOlder) {
+    private boolean hasExistingRenewalThisSeason(DemandePlayersDTO dto, boolean isCadetsOrOlder, ValidationContext context) {
         if (dto.getSeasonId() == null || dto.getTeamId() == null) {
             System.out.println("⚠️  Season ID ou Team ID manquant → SKIP vérification");
             return false;
         }
 
-        String sql;
-        Object[] params;
-
-        if (isCadetsOrOlder) {
-            // CADETS+ : Recherche par CIN ou Passeport
-            System.out.println("🔎 Recherche demande par: CIN ou Passeport");
-            System.out.println("   CIN: " + dto.getCinNumber());
-            System.out.println("   Passeport: " + dto.getPassportNum());
-
-            if (dto.getCinNumber() == null && dto.getPassportNum() == null) {
-                System.out.println("⚠️  Aucun CIN ni Passeport fourni → SKIP vérification");
-                return false; // Pas de critère de recherche
-            }
-
-            sql = "SELECT COUNT(*) FROM ct_demandes " +
-                  "WHERE ct_team_id = ? " +
-                  "AND ct_season_id = ? " +
-                  "AND ct_type_licence_id = 2 " +
-                  "AND (cin_number = ? OR passport_num = ?) " +
-                  "AND ct_demande_statu_id != 0";
-
-            params = new Object[]{
-                dto.getTeamId(),
-                dto.getSeasonId(),
-                dto.getCinNumber(),
-                dto.getPassportNum()
-            };
-
-        } else {
-            // <CADETS : Recherche par Nom + Prénom + Date Naissance
-            System.out.println("🔎 Recherche demande par: Nom + Prénom + Date de Naissance");
-            System.out.println("   Nom: " + dto.getLastName());
-            System.out.println("   Prénom: " + dto.getName());
-            System.out.println("   Date: " + dto.getDateOfBirth());
-
-            if (dto.getLastName() == null || dto.getName() == null || dto.getDateOfBirth() == null) {
-                System.out.println("⚠️  Informations incomplètes → SKIP vérification");
-                return false;
-            }
-
-            sql = "SELECT COUNT(*) FROM ct_demandes " +
-                  "WHERE ct_team_id = ? " +
-                  "AND ct_season_id = ? " +
-                  "AND ct_type_licence_id = 2 " +
-                  "AND UPPER(last_name) = UPPER(?) " +
-                  "AND UPPER(name) = UPPER(?) " +
-                  "AND date_of_birth = ? " +
-                  "AND ct_demande_statu_id != 0";
-
-            params = new Object[]{
-                dto.getTeamId(),
-                dto.getSeasonId(),
-                dto.getLastName(),
-                dto.getName(),
-                dto.getDateOfBirth()
-            };
-        }
-
-        try {
-            System.out.println("   📝 SQL Demandes: " + sql);
-            System.out.println("   📝 Params: " + java.util.Arrays.toString(params));
-
-            Object countObj = jdbcTemplate.queryForObject(sql, Object.class, params);
-            int count = convertToInt(countObj);
-
-            System.out.println("   ✅ Résultat COUNT demandes: " + count);
+        boolean found = context.hasDemande(dto, isCadetsOrOlder, d ->
+            ValidationContext.sameId(d.teamId(), dto.getTeamId())
+                && ValidationContext.is(d.typeLicenceId(), 2L)
+                && d.isNotCancelled());
 
-            if (count > 0) {
-                System.out.println("   ❌ DEMANDE(S) DE RENOUVELLEMENT EXISTANTE(S) trouvée(s)!");
-                return true;
-            } else {
-                System.out.println("   ✅ Aucune demande de renouvellement existante");
-                return false;
-            }
-
-        } catch (Exception e) {
-            System.err.println("❌ ERREUR SQL lors de la vérification des demandes:");
-            System.err.println("   Message: " + e.getMessage());
-            e.printStackTrace();
-            // En cas d'erreur, on bloque par sécurité
-            System.err.println("   ⚠️  PAR SÉCURITÉ: On bloque la demande");
-            return true;
-        }
+        System.out.println(found ? "   ❌ DEMANDE(S) DE RENOUVELLEMENT EXISTANTE(S) trouvée(s)!" : "   ✅ Aucune demande de renouvellement existante");
+        return found;
     }
 
     /**
@@ -0,0 +1,326 @@
+package com.football.management.service.validation;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.service.quota.QuotaType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Données de référence d'une validation, chargées une seule fois par ValidationContextLoader
+ * avant le passage des validateurs : division et quotas de l'équipe, demandes de l'équipe
+ * pour la saison (agrégées), places occupées dans les quotas (ct_quota_ledger), et tout ce qui concerne le joueur (fiches ct_intervenants,
+ * historique ct_team_intervenants, demandes de la saison).
+ *
+ * Les validateurs évaluent leurs règles en mémoire sur ce contexte : le nombre
+ * d'allers-retours avec la base ne dépend plus du nombre de règles.
+ */
+public class ValidationContext {
+
+    /** Demandes actives pour la détection des doublons : INITIAL, EN_ATTENTE, IMPRIMEE (quotas : voir QuotaType) */
+    static final Set<Long> ACTIVE_STATUSES = Set.of(1L, 8L, 9L);
+
+    private static final Long INITIAL_STATUS = 1L;
+    private static final Long INITIAL_INTERVENANT_TYPE = 1L;  // Joueur
+    private static final long TUNISIE = 193L;
+
+    private final Long divisionId;
+    private final Set<Long> seasonDivisionIds;
+    private final QuotaParameters quotas;
+    private final List<TeamDemandeCount> teamCounts;
+    private final List<KnownIntervenant> intervenants;
+    private final List<TeamLicence> licences;
+    private final List<SeasonDemande> seasonDemandes;
+    private final Map<QuotaType, Long> quotaUsage;
+
+    public ValidationContext(
+        Long divisionId,
+        Set<Long> seasonDivisionIds,
+        QuotaParameters quotas,
+        List<TeamDemandeCount> teamCounts,
+        List<KnownIntervenant> intervenants,
+        List<TeamLicence> licences,
+        List<SeasonDemande> seasonDemandes
+    ) {
+        this(divisionId, seasonDivisionIds, quotas, teamCounts, intervenants, licences, seasonDemandes, Map.of());
+    }
+
+    public ValidationContext(
+        Long divisionId,
+        Set<Long> seasonDivisionIds,
+        QuotaParameters quotas,
+        List<TeamDemandeCount> teamCounts,
+        List<KnownIntervenant> intervenants,
+        List<TeamLicence> licences,
+        List<SeasonDemande> seasonDemandes,
+        Map<QuotaType, Long> quotaUsage
+    ) {
+        this.divisionId = divisionId;
+        this.seasonDivisionIds = Set.copyOf(seasonDivisionIds);
+        this.quotas = quotas;
+        this.teamCounts = List.copyOf(teamCounts);
+        this.intervenants = List.copyOf(intervenants);
+        this.licences = List.copyOf(licences);
+        this.seasonDemandes = List.copyOf(seasonDemandes);
+        this.quotaUsage = Map.copyOf(quotaUsage);
+    }
+
+    // ========== ÉQUIPE ==========
+
+    /** Dernière division connue de l'équipe (10 = LIGUE_REG par défaut) */
+    public Long getDivisionId() {
+        return divisionId;
+    }
+
+    /** Divisions de l'équipe pour la saison de la demande */
+    public Set<Long> getSeasonDivisionIds() {
+        return seasonDivisionIds;
+    }
+
+    public QuotaParameters getQuotas() {
+        return quotas;
+    }
+
+    public List<TeamDemandeCount> getTeamCounts() {
+        return teamCounts;
+    }
+
+    /**
+     * Nombre de demandes de l'équipe pour la saison répondant au critère
+     */
+    public long countTeamDemandes(Predicate<TeamDemandeCount> criteria) {
+        return teamCounts.stream()
+            .filter(criteria)
+            .mapToLong(TeamDemandeCount::count)
+            .sum();
+    }
+
+    /**
+     * Places occupées dans un quota : ligne du registre ct_quota_ledger,
+     * ou comptage sur les demandes de l'équipe si elle n'existe pas encore
+     */
+    public long quotaUsed(QuotaType type, Predicate<TeamDemandeCount> fallback) {
+        Long used = quotaUsage.get(type);
+        return used != null ? used : countTeamDemandes(fallback);
+    }
+
+    // ========== JOUEUR ==========
+
+    public List<KnownIntervenant> getIntervenants() {
+        return intervenants;
+    }
+
+    public List<TeamLicence> getLicences() {
+        return licences;
+    }
+
+    public List<SeasonDemande> getSeasonDemandes() {
+        return seasonDemandes;
+    }
+
+    /**
+     * Le joueur existe-t-il dans ct_intervenants ?
+     *
+     * @param byDocument true : recherche par CIN ou passeport (CADETS+),
+     *                   false : par nom + prénom + date de naissance
+     */
+    public boolean playerExists(DemandePlayersDTO dto, boolean byDocument) {
+        return intervenants.stream().anyMatch(i -> i.matches(dto, byDocument));
+    }
+
+    /**
+     * Le joueur a-t-il une ligne ct_team_intervenants répondant au critère ?
+     */
+    public boolean hasLicence(DemandePlayersDTO dto, boolean byDocument, Predicate<TeamLicence> criteria) {
+        Set<Long> intervenantIds = intervenants.stream()
+            .filter(i -> i.matches(dto, byDocument))
+            .map(KnownIntervenant::intervenantId)
+            .collect(Collectors.toSet());
+        return licences.stream()
+            .anyMatch(l -> intervenantIds.contains(l.intervenantId()) && criteria.test(l));
+    }
+
+    /**
+     * Le joueur a-t-il déjà une demande cette saison répondant au critère ?
+     */
+    public boolean hasDemande(DemandePlayersDTO dto, boolean byDocument, Predicate<SeasonDemande> criteria) {
+        return seasonDemandes.stream().anyMatch(d -> d.matches(dto, byDocument) && criteria.test(d));
+    }
+
+    // ========== LOTS ==========
+
+    /**
+     * Contexte incluant une demande acceptée plus tôt dans le même lot, comme si elle
+     * était déjà enregistrée (statut INITIAL) : les quotas et les doublons des demandes
+     * suivantes en tiennent compte.
+     */
+    public ValidationContext withAccepted(DemandePlayersDTO demande, Long categoryId) {
+        Long intervenantTypeId = demande.getCtIntervenantTypeId() != null
+            ? demande.getCtIntervenantTypeId().longValue()
+            : INITIAL_INTERVENANT_TYPE;
+        boolean foreign = demande.getPaysId() != null && demande.getPaysId().longValue() != TUNISIE;
+
+        List<TeamDemandeCount> counts = new ArrayList<>(teamCounts);
+        counts.add(new TeamDemandeCount(
+            INITIAL_STATUS,
+            intervenantTypeId,
+            toLong(demande.getRegimeId()),
+            toLong(demande.getTypeLicenceId()),
+            categoryId,
+            foreign,
+            1
+        ));
+
+        List<SeasonDemande> demandes = new ArrayList<>(seasonDemandes);
+        demandes.add(new SeasonDemande(
+            toLong(demande.getTeamId()),
+            toLong(demande.getTypeLicenceId()),
+            INITIAL_STATUS,
+            demande.getCinNumber(),
+            demande.getPassportNum(),
+            demande.getName(),
+            demande.getLastName(),
+            demande.getDateOfBirth()
+        ));
+
+        Map<QuotaType, Long> usage = new EnumMap<>(QuotaType.class);
+        usage.putAll(quotaUsage);
+        for (QuotaType type : QuotaType.heldBy(INITIAL_STATUS, intervenantTypeId, toLong(demande.getRegimeId()), foreign)) {
+            usage.computeIfPresent(type, (t, used) -> used + 1);
+        }
+
+        return new ValidationContext(divisionId, seasonDivisionIds, quotas, counts, intervenants, licences, demandes, usage);
+    }
+
+    // ========== LIGNES CHARGÉES ==========
+
+    /**
+     * Paramètres de quotas (ct_param_demandes, ct_param_category), valeurs par défaut déjà appliquées
+     */
+    public record QuotaParameters(
+        int maxPlayers,
+        int maxProPlayers,
+        int maxForeignLigue1,
+        int maxForeignLigue2,
+        Integer maxPret
+    ) {
+    }
+
+    /**
+     * Nombre de demandes de l'équipe pour la saison, par combinaison de critères
+     */
+    public record TeamDemandeCount(
+        Long statusId,
+        Long intervenantTypeId,
+        Long regimeId,
+        Long typeLicenceId,
+        Long categoryId,
+        boolean foreign,
+        long count
+    ) {
+
+        public boolean isActive() {
+            return statusId != null && ACTIVE_STATUSES.contains(statusId);
+        }
+
+        /** Exclut les demandes annulées (statut 0) */
+        public boolean isNotCancelled() {
+            return statusId != null && statusId != 0L;
+        }
+    }
+
+    public record KnownIntervenant(
+        Long intervenantId,
+        String cinNumber,
+        String passportNum,
+        String name,
+        String lastName,
+        LocalDate dateOfBirth
+    ) implements Identified {
+    }
+
+    public record TeamLicence(
+        Long intervenantId,
+        Long teamId,
+        Long seasonId,
+        Long typeLicenceId,
+        Long intervenantTypeId
+    ) {
+    }
+
+    public record SeasonDemande(
+        Long teamId,
+        Long typeLicenceId,
+        Long statusId,
+        String cinNumber,
+        String passportNum,
+        String name,
+        String lastName,
+        LocalDate dateOfBirth
+    ) implements Identified {
+
+        public boolean isNotCancelled() {
+            return statusId != null && statusId != 0L;
+        }
+    }
+
+    /**
+     * Identité d'un joueur, comparée comme dans les anciennes requêtes :
+     * "cin_number = ? OR passport_num = ?" ou
+     * "UPPER(last_name) = UPPER(?) AND UPPER(name) = UPPER(?) AND date_of_birth = ?"
+     */
+    public interface Identified {
+
+        String cinNumber();
+
+        String passportNum();
+
+        String name();
+
+        String lastName();
+
+        LocalDate dateOfBirth();
+
+        default boolean matches(DemandePlayersDTO dto, boolean byDocument) {
+            if (byDocument) {
+                return sameValue(cinNumber(), dto.getCinNumber())
+                    || sameValue(passportNum(), dto.getPassportNum());
+            }
+            return sameIgnoreCase(lastName(), dto.getLastName())
+                && sameIgnoreCase(name(), dto.getName())
+                && dto.getDateOfBirth() != null
+                && dto.getDateOfBirth().equals(dateOfBirth());
+        }
+    }
+
+    // ========== UTILITAIRES ==========
+
+    /** Égalité SQL : NULL ne correspond à rien */
+    static boolean sameValue(String a, String b) {
+        return a != null && a.equals(b);
+    }
+
+    static boolean sameIgnoreCase(String a, String b) {
+        return a != null && b != null && a.toUpperCase(Locale.ROOT).equals(b.toUpperCase(Locale.ROOT));
+    }
+
+    static Long toLong(BigDecimal value) {
+        return value != null ? value.longValue() : null;
+    }
+
+    static boolean is(Long value, long expected) {
+        return value != null && value == expected;
+    }
+
+    static boolean sameId(Long value, BigDecimal expected) {
+        return value != null && expected != null && value == expected.longValue();
+    }
+}
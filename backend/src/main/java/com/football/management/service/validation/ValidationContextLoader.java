@@ -0,0 +1,242 @@
+package com.football.management.service.validation;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.quota.QuotaType;
+import com.football.management.service.reference.ReferenceDataSnapshot;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.validation.ValidationContext.KnownIntervenant;
+import com.football.management.service.validation.ValidationContext.SeasonDemande;
+import com.football.management.service.validation.ValidationContext.TeamDemandeCount;
+import com.football.management.service.validation.ValidationContext.TeamLicence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Construit le ValidationContext d'une demande (ou d'un lot) en quelques requêtes ensemblistes,
+ * à la place des SELECT COUNT(*) que chaque validateur exécutait pour sa propre règle.
+ *
+ * Division de l'équipe et paramètres de quotas viennent de l'instantané des données
+ * de référence (ReferenceDataStore) et ne coûtent aucune requête.
+ *
+ * Le joueur est recherché une seule fois avec les deux jeux de critères
+ * (CIN / passeport et nom + prénom + date de naissance) ; chaque validateur
+ * applique ensuite en mémoire celui qui correspond à l'âge du joueur.
+ */
+@Component
+public class ValidationContextLoader {
+
+    private static final Long TUNISIE = 193L;
+
+    private static final String TEAM_COUNTS_SQL = """
+        SELECT d.ct_demande_statu_id, d.ct_intervenant_type_id, d.ct_regime_id,
+               d.ct_type_licence_id, d.ct_player_category_id,
+               COALESCE(d.cr_pays_id <> %d, false) AS foreign_player,
+               COUNT(*) AS nb
+        FROM ct_demandes d
+        WHERE d.ct_team_id = ? AND d.ct_season_id = ?
+        GROUP BY 1, 2, 3, 4, 5, 6
+        """.formatted(TUNISIE);
+
+    private static final String INTERVENANTS_SQL = """
+        SELECT i.ct_intervenant_id, i.cin_number, i.passport_num, i.name, i.last_name, i.date_of_birth,
+               ti.ct_team_id, ti.ct_season_id, ti.ct_type_licence_id, ti.ct_intervenant_type_id
+        FROM ct_intervenants i
+        LEFT JOIN ct_team_intervenants ti ON ti.ct_intervenant_id = i.ct_intervenant_id
+        WHERE """;
+
+    private static final String SEASON_DEMANDES_SQL = """
+        SELECT d.ct_team_id, d.ct_type_licence_id, d.ct_demande_statu_id,
+               d.cin_number, d.passport_num, d.name, d.last_name, d.date_of_birth
+        FROM ct_demandes d
+        WHERE d.ct_season_id = ? AND """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+
+    @Autowired
+    private QuotaLedger quotaLedger;
+
+    public ValidationContext load(DemandePlayersDTO demande) {
+        return loadBatch(List.of(demande));
+    }
+
+    /**
+     * Contexte partagé par un lot de demandes d'une même équipe et saison :
+     * les données de l'équipe sont lues une fois, et tous les joueurs du lot
+     * sont recherchés dans les mêmes requêtes (chaque validateur filtre ensuite
+     * sur l'identité de la demande qu'il examine).
+     */
+    public ValidationContext loadBatch(List<DemandePlayersDTO> demandes) {
+        DemandePlayersDTO first = demandes.get(0);
+        BigDecimal teamId = first.getTeamId();
+        BigDecimal seasonId = first.getSeasonId();
+
+        // Équipe : division et quotas depuis l'instantané, demandes de la saison agrégées
+        ReferenceDataSnapshot reference = referenceDataStore.getSnapshot();
+        Long divisionId = reference.latestDivision(ValidationContext.toLong(teamId));
+        Set<Long> seasonDivisionIds = reference.seasonDivisions(ValidationContext.toLong(teamId), ValidationContext.toLong(seasonId));
+
+        List<TeamDemandeCount> teamCounts = teamId == null || seasonId == null
+            ? List.of()
+            : jdbcTemplate.query(TEAM_COUNTS_SQL, (rs, rowNum) -> new TeamDemandeCount(
+                getLong(rs, "ct_demande_statu_id"),
+                getLong(rs, "ct_intervenant_type_id"),
+                getLong(rs, "ct_regime_id"),
+                getLong(rs, "ct_type_licence_id"),
+                getLong(rs, "ct_player_category_id"),
+                rs.getBoolean("foreign_player"),
+                rs.getLong("nb")
+            ), teamId, seasonId);
+
+        // Places occupées dans les quotas : lignes du registre de l'équipe pour la saison
+        Map<QuotaType, Long> quotaUsage = quotaLedger.usage(ValidationContext.toLong(teamId), ValidationContext.toLong(seasonId));
+
+        // Joueurs : fiches, historique des licences, demandes de la saison
+        List<KnownIntervenant> intervenants = new ArrayList<>();
+        List<TeamLicence> licences = new ArrayList<>();
+        List<SeasonDemande> seasonDemandes = new ArrayList<>();
+
+        IdentityFilter identities = new IdentityFilter(demandes);
+        if (!identities.isEmpty()) {
+            Map<Long, KnownIntervenant> byId = new LinkedHashMap<>();
+            jdbcTemplate.query(INTERVENANTS_SQL + identities.clause("i"), rs -> {
+                Long intervenantId = getLong(rs, "ct_intervenant_id");
+                byId.computeIfAbsent(intervenantId, id -> readIntervenant(rs, id));
+                if (getLong(rs, "ct_team_id") != null) {
+                    licences.add(new TeamLicence(
+                        intervenantId,
+                        getLong(rs, "ct_team_id"),
+                        getLong(rs, "ct_season_id"),
+                        getLong(rs, "ct_type_licence_id"),
+                        getLong(rs, "ct_intervenant_type_id")
+                    ));
+                }
+            }, identities.arguments());
+            intervenants.addAll(byId.values());
+
+            if (seasonId != null) {
+                List<Object> params = new ArrayList<>();
+                params.add(seasonId);
+                params.addAll(List.of(identities.arguments()));
+                seasonDemandes.addAll(jdbcTemplate.query(SEASON_DEMANDES_SQL + identities.clause("d"),
+                    (rs, rowNum) -> new SeasonDemande(
+                        getLong(rs, "ct_team_id"),
+                        getLong(rs, "ct_type_licence_id"),
+                        getLong(rs, "ct_demande_statu_id"),
+                        rs.getString("cin_number"),
+                        rs.getString("passport_num"),
+                        rs.getString("name"),
+                        rs.getString("last_name"),
+                        rs.getObject("date_of_birth", LocalDate.class)
+                    ), params.toArray()));
+            }
+        }
+
+        return new ValidationContext(
+            divisionId,
+            seasonDivisionIds,
+            reference.getQuotas(),
+            teamCounts,
+            intervenants,
+            licences,
+            seasonDemandes,
+            quotaUsage
+        );
+    }
+
+    // ========== UTILITAIRES ==========
+
+    private KnownIntervenant readIntervenant(ResultSet rs, Long intervenantId) {
+        try {
+            return new KnownIntervenant(
+                intervenantId,
+                rs.getString("cin_number"),
+                rs.getString("passport_num"),
+                rs.getString("name"),
+                rs.getString("last_name"),
+                rs.getObject("date_of_birth", LocalDate.class)
+            );
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Critères d'identité de toutes les demandes du lot, dans une seule clause :
+     * cin_number IN (...) OR passport_num IN (...)
+     * OR (UPPER(last_name), UPPER(name), date_of_birth) IN ((UPPER(?), UPPER(?), ?), ...)
+     */
+    private static final class IdentityFilter {
+
+        private final List<String> cinNumbers = new ArrayList<>();
+        private final List<String> passportNums = new ArrayList<>();
+        private final List<Object[]> names = new ArrayList<>();
+
+        IdentityFilter(List<DemandePlayersDTO> demandes) {
+            for (DemandePlayersDTO demande : demandes) {
+                if (demande.getCinNumber() != null && !cinNumbers.contains(demande.getCinNumber())) {
+                    cinNumbers.add(demande.getCinNumber());
+                }
+                if (demande.getPassportNum() != null && !passportNums.contains(demande.getPassportNum())) {
+                    passportNums.add(demande.getPassportNum());
+                }
+                if (demande.getLastName() != null && demande.getName() != null && demande.getDateOfBirth() != null) {
+                    names.add(new Object[] { demande.getLastName(), demande.getName(), demande.getDateOfBirth() });
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return cinNumbers.isEmpty() && passportNums.isEmpty() && names.isEmpty();
+        }
+
+        String clause(String alias) {
+            List<String> conditions = new ArrayList<>();
+            if (!cinNumbers.isEmpty()) {
+                conditions.add(alias + ".cin_number IN (" + placeholders(cinNumbers.size(), "?") + ")");
+            }
+            if (!passportNums.isEmpty()) {
+                conditions.add(alias + ".passport_num IN (" + placeholders(passportNums.size(), "?") + ")");
+            }
+            if (!names.isEmpty()) {
+                conditions.add("(UPPER(" + alias + ".last_name), UPPER(" + alias + ".name), " + alias + ".date_of_birth) IN ("
+                    + placeholders(names.size(), "(UPPER(?), UPPER(?), ?)") + ")");
+            }
+            return "(" + String.join(" OR ", conditions) + ")";
+        }
+
+        Object[] arguments() {
+            List<Object> args = new ArrayList<>(cinNumbers);
+            args.addAll(passportNums);
+            for (Object[] name : names) {
+                args.addAll(List.of(name));
+            }
+            return args.toArray();
+        }
+
+        private static String placeholders(int count, String placeholder) {
+            return String.join(", ", Collections.nCopies(count, placeholder));
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.football.management.service.validation;
 
 import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.validation.ValidationPipeline.Step;
+import com.football.management.service.validation.ValidationPipeline.ValidationInput;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 
 /**
  * Orchestrateur central qui coordonne tous les validateurs
@@ -51,19 +58,116 @@ public class ValidationOrchestrator {
     private PretValidator pretValidator;
 
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private ValidationContextLoader validationContextLoader;
+
+    @Autowired
+    private ReferenceDataStore referenceDataStore;
+
+    @Autowired
+    @Qualifier("validationExecutor")
+    private Executor validationExecutor;
+
+    @Value("${validation.pipeline.timeout-ms:10000}")
+    private long pipelineTimeoutMs;
+
+    // CIN/passeport, dates et champs obligatoires conditionnent toutes les étapes qui
+    // consultent le contexte ; celles-ci sont indépendantes entre elles et tournent en parallèle.
+    // L'ordre de déclaration est l'ordre de fusion des erreurs et avertissements.
+    private final ValidationPipeline pipeline = new ValidationPipeline(List.of(
+        Step.check("cadet-exception", (in, r) -> {
+            cadetExceptionChecker.checkAndAddWarning(in.demande(), r);
+            return true;
+        }),
+        Step.gate("cin-passport", (in, r) -> cinPassportValidator.validate(in.demande(), r, in.categoryId())),
+        Step.gate("dates", (in, r) -> dateValidator.validate(in.demande(), r)),
+        Step.gate("mandatory-fields", (in, r) ->
+            mandatoryFieldValidator.validate(in.demande(), r, in.categoryId(), in.divisionId())),
+        Step.check("quotas", (in, r) ->
+            playerQuotaValidator.validate(in.demande(), r, in.categoryId(), in.divisionId(), in.context()),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.check("duplicates", (in, r) ->
+            duplicateDemandeValidator.validate(in.demande(), r, in.categoryId(), in.context()),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.gate("nouvelle-licence", blocking((dto, ctx) -> nouvelleLicenceValidator.validateNouvelleLicence(dto, ctx)),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.gate("renouvellement", blocking((dto, ctx) -> renewalValidator.validateRenewal(dto, ctx)),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.gate("retour-pret", blocking((dto, ctx) -> renewalAfterLoanValidator.validateRenewalAfterLoan(dto, ctx)),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.gate("retour-mutation", blocking((dto, ctx) -> returnFromMutationValidator.validateReturnFromMutation(dto, ctx)),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.gate("pret", (in, r) -> copyErrors(
+            pretValidator.validatePret(in.demande(), in.categoryId(), in.divisionId(), in.context()), r),
+            "cin-passport", "dates", "mandatory-fields"),
+        Step.check("business-rules", (in, r) ->
+            businessRulesValidator.validate(in.demande(), r, in.categoryId(), in.divisionId()),
+            "cin-passport", "dates", "mandatory-fields")
+    ));
     
     /**
      * VALIDATION COMPLÈTE - Point d'entrée principal
      */
     public ValidationResult validateDemandeComplete(DemandePlayersDTO demande) {
+        ValidationContext context;
+        try {
+            // Charger en une fois les données de l'équipe et du joueur utilisées par les validateurs
+            context = validationContextLoader.load(demande);
+        } catch (Exception e) {
+            ValidationResult result = new ValidationResult();
+            result.addError("Erreur lors de la validation: " + e.getMessage());
+            return result;
+        }
+        return validateDemandeComplete(demande, context);
+    }
+    
+    /**
+     * VALIDATION D'UN LOT - Demandes d'une même équipe et saison (effectif déposé en début de saison)
+     * 
+     * Les données de l'équipe et de tous les joueurs sont chargées une seule fois ; chaque demande
+     * acceptée est ajoutée au contexte avant la suivante, de sorte que les quotas et les doublons
+     * sont évalués cumulativement (le 30e joueur voit les 29 précédents).
+     * 
+     * @return un résultat par demande, dans l'ordre du lot
+     */
+    public List<ValidationResult> validateBatch(List<DemandePlayersDTO> demandes) {
+        if (demandes.isEmpty()) {
+            return List.of();
+        }
+        
+        BigDecimal teamId = demandes.get(0).getTeamId();
+        BigDecimal seasonId = demandes.get(0).getSeasonId();
+        for (DemandePlayersDTO demande : demandes) {
+            if (!sameValue(teamId, demande.getTeamId()) || !sameValue(seasonId, demande.getSeasonId())) {
+                throw new IllegalArgumentException(
+                    "Toutes les demandes du lot doivent concerner la même équipe et la même saison");
+            }
+        }
+        
+        ValidationContext context = validationContextLoader.loadBatch(demandes);
+        List<ValidationResult> results = new ArrayList<>(demandes.size());
+        
+        for (DemandePlayersDTO demande : demandes) {
+            ValidationResult result = validateDemandeComplete(demande, context);
+            if (result.isValid()) {
+                context = context.withAccepted(demande, result.getCategoryId());
+            }
+            results.add(result);
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Validation d'une demande sur un contexte déjà chargé
+     */
+    public ValidationResult validateDemandeComplete(DemandePlayersDTO demande, ValidationContext context) {
         ValidationResult result = new ValidationResult();
         
         try {
-            // Calculer les infos de base
+            // 1. Calculer les infos de base
             Integer age = calculateAge(demande.getDateOfBirth());
             Long categoryId = calculatePlayerCategory(demande.getDateOfBirth());
-            Long divisionId = getTeamDivision(demande.getTeamId());
+            Long divisionId = context.getDivisionId();
             
             result.setAge(age);
             result.setCategoryId(categoryId);
@@ -71,77 +175,9 @@ public class ValidationOrchestrator {
             result.setPlayerCategory(getCategoryLabel(categoryId));
             result.setRegime(getRegimeLabel(demande.getRegimeId()));
             
-            // 1. Vérifier exception Cadet
-            cadetExceptionChecker.checkAndAddWarning(demande, result);
-            
-            // 2. Valider CIN/Passeport
-            if (!cinPassportValidator.validate(demande, result, categoryId)) {
-                return result;
-            }
-            
-            // 3. Valider les dates
-            if (!dateValidator.validate(demande, result)) {
-                return result;
-            }
-            
-            // 4. Valider les champs obligatoires
-            if (!mandatoryFieldValidator.validate(demande, result, categoryId, divisionId)) {
-                return result;
-            }
-            
-            // 5. Valider les quotas
-            playerQuotaValidator.validate(demande, result, categoryId, divisionId);
-            
-            // 6. Valider les doublons
-            duplicateDemandeValidator.validate(demande, result, categoryId);
-
-            // 7. ✅ Valider NOUVELLE LICENCE (Type 1)
-            ValidationResult nouvelleLicenceResult = nouvelleLicenceValidator.validateNouvelleLicence(demande);
-            if (!nouvelleLicenceResult.isValid()) {
-                for (String error : nouvelleLicenceResult.getErrors()) {
-                    result.addError(error);
-                }
-                return result;  // Bloquer si nouvelle licence invalide
-            }
-
-            // 8. ✅ Valider RENOUVELLEMENT (Type 2)
-            ValidationResult renewalResult = renewalValidator.validateRenewal(demande);
-            if (!renewalResult.isValid()) {
-                for (String error : renewalResult.getErrors()) {
-                    result.addError(error);
-                }
-                return result;  // Bloquer si renouvellement invalide
-            }
-
-            // 9. ✅ Valider RETOUR PRET (Type 3)
-            ValidationResult renewalAfterLoanResult = renewalAfterLoanValidator.validateRenewalAfterLoan(demande);
-            if (!renewalAfterLoanResult.isValid()) {
-                for (String error : renewalAfterLoanResult.getErrors()) {
-                    result.addError(error);
-                }
-                return result;  // Bloquer si retour prêt invalide
-            }
-
-            // 10. ✅ Valider RETOUR MUTATION (Type 9)
-            ValidationResult returnFromMutationResult = returnFromMutationValidator.validateReturnFromMutation(demande);
-            if (!returnFromMutationResult.isValid()) {
-                for (String error : returnFromMutationResult.getErrors()) {
-                    result.addError(error);
-                }
-                return result;  // Bloquer si retour mutation invalide
-            }
-
-            // 11. ✅ Valider PRÊT (Type 5)
-            ValidationResult pretResult = pretValidator.validatePret(demande, categoryId, divisionId);
-            if (!pretResult.isValid()) {
-                for (String error : pretResult.getErrors()) {
-                    result.addError(error);
-                }
-                return result;  // Bloquer si prêt invalide
-            }
-
-            // 12. Valider les règles métier
-            businessRulesValidator.validate(demande, result, categoryId, divisionId);
+            // 2. Exécuter les validateurs (en parallèle quand ils sont indépendants)
+            pipeline.run(new ValidationInput(demande, context, categoryId, divisionId),
+                result, validationExecutor, pipelineTimeoutMs);
             
         } catch (Exception e) {
             result.addError("Erreur lors de la validation: " + e.getMessage());
@@ -151,45 +187,40 @@ public class ValidationOrchestrator {
     }
     
     // MÉTHODES UTILITAIRES
+
+    /**
+     * Validateur par type de licence renvoyant son propre résultat : seules ses erreurs
+     * sont reprises, et un échec bloque la suite
+     */
+    private static ValidationPipeline.Check blocking(
+        BiFunction<DemandePlayersDTO, ValidationContext, ValidationResult> validator
+    ) {
+        return (in, r) -> copyErrors(validator.apply(in.demande(), in.context()), r);
+    }
+
+    private static boolean copyErrors(ValidationResult source, ValidationResult target) {
+        if (!source.isValid()) {
+            for (String error : source.getErrors()) {
+                target.addError(error);
+            }
+        }
+        return source.isValid();
+    }
+    
+    private boolean sameValue(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
     
     private Integer calculateAge(LocalDate birthDate) {
         if (birthDate == null) return null;
         return LocalDate.now().getYear() - birthDate.getYear();
     }
     
+    /**
+     * Catégorie selon les plages de ct_param_category (instantané en mémoire), SENIORS par défaut
+     */
     private Long calculatePlayerCategory(LocalDate birthDate) {
-        if (birthDate == null) return 7L; // SENIOR par défaut
-        
-        if (birthDate.isAfter(LocalDate.of(2017, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2019, 1, 1))) {
-            return 9L; // U7
-        }
-        if (birthDate.isAfter(LocalDate.of(2015, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2017, 1, 1))) {
-            return 1L; // U9
-        }
-        if (birthDate.isAfter(LocalDate.of(2013, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2015, 1, 1))) {
-            return 2L; // U11
-        }
-        if (birthDate.isAfter(LocalDate.of(2011, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2013, 1, 1))) {
-            return 3L; // U13
-        }
-        if (birthDate.isAfter(LocalDate.of(2009, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2011, 1, 1))) {
-            return 4L; // U15
-        }
-        if (birthDate.isAfter(LocalDate.of(2007, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2009, 1, 1))) {
-            return 5L; // U17
-        }
-        if (birthDate.isAfter(LocalDate.of(2005, 1, 1)) && 
-            birthDate.isBefore(LocalDate.of(2007, 1, 1))) {
-            return 6L; // U19
-        }
-        
-        return 7L; // SENIOR
+        return referenceDataStore.getSnapshot().categoryOf(birthDate);
     }
     
     private String getCategoryLabel(Long categoryId) {
@@ -218,21 +249,4 @@ public class ValidationOrchestrator {
             default: return "Régime " + regimeId;
         }
     }
-    
-    private Long getTeamDivision(BigDecimal teamId) {
-        try {
-            String sql = """
-                SELECT td.ct_division_id 
-                FROM ct_team_divisions td 
-                WHERE td.ct_team_id = ? 
-                ORDER BY td.ct_season_id DESC 
-                LIMIT 1
-                """;
-            
-            List<Long> results = jdbcTemplate.queryForList(sql, Long.class, teamId);
-            return results.isEmpty() ? 10L : results.get(0); // 10L = LIGUE_REG par défaut
-        } catch (Exception e) {
-            return 10L; // Division par défaut
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.football.management.service.validation;
+
+import com.football.management.dto.DemandePlayersDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Suite d'étapes de validation exécutées en parallèle selon leurs dépendances.
+ *
+ * Chaque étape déclare les étapes dont elle dépend : elle démarre dès que celles-ci ont réussi,
+ * et n'est pas exécutée si l'une d'elles a échoué. Les étapes sans lien entre elles tournent
+ * en même temps sur l'exécuteur fourni.
+ *
+ * Chaque étape écrit dans son propre ValidationResult ; les erreurs et avertissements sont
+ * ensuite fusionnés dans l'ordre de déclaration, quel que soit l'ordre de fin d'exécution.
+ * La fusion s'arrête après la première étape bloquante (gate) en échec : le résultat est
+ * identique à celui d'une exécution séquentielle qui s'arrêterait à cette étape.
+ */
+public class ValidationPipeline {
+
+    /**
+     * Données partagées par toutes les étapes d'une validation
+     */
+    public record ValidationInput(
+        DemandePlayersDTO demande,
+        ValidationContext context,
+        Long categoryId,
+        Long divisionId
+    ) {
+    }
+
+    /**
+     * Contrôle d'une étape : écrit ses erreurs / avertissements dans result,
+     * renvoie false si l'étape échoue
+     */
+    @FunctionalInterface
+    public interface Check {
+        boolean run(ValidationInput input, ValidationResult result);
+    }
+
+    /**
+     * @param gate      true : un échec arrête la fusion des étapes suivantes
+     * @param dependsOn étapes devant réussir avant l'exécution de celle-ci
+     */
+    public record Step(String name, boolean gate, Set<String> dependsOn, Check check) {
+
+        public static Step check(String name, Check check, String... dependsOn) {
+            return new Step(name, false, Set.of(dependsOn), check);
+        }
+
+        public static Step gate(String name, Check check, String... dependsOn) {
+            return new Step(name, true, Set.of(dependsOn), check);
+        }
+    }
+
+    /**
+     * Résultat d'une étape ; failure non null si le contrôle a levé une exception
+     */
+    private record Outcome(ValidationResult result, boolean passed, Exception failure) {
+
+        static final Outcome SKIPPED = new Outcome(new ValidationResult(), false, null);
+    }
+
+    private final List<Step> steps;
+
+    public ValidationPipeline(List<Step> steps) {
+        Set<String> declared = new HashSet<>();
+        for (Step step : steps) {
+            for (String dependency : step.dependsOn()) {
+                if (!declared.contains(dependency)) {
+                    throw new IllegalArgumentException(
+                        "Étape '" + step.name() + "' : dépendance '" + dependency + "' non déclarée avant elle");
+                }
+            }
+            if (!declared.add(step.name())) {
+                throw new IllegalArgumentException("Étape '" + step.name() + "' déclarée deux fois");
+            }
+        }
+        this.steps = List.copyOf(steps);
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Exécute toutes les étapes et fusionne leurs résultats dans result
+     *
+     * @param timeoutMs délai maximal de l'ensemble de la validation
+     */
+    public void run(ValidationInput input, ValidationResult result, Executor executor, long timeoutMs) {
+        Map<String, CompletableFuture<Outcome>> futures = new LinkedHashMap<>();
+
+        for (Step step : steps) {
+            if (step.dependsOn().isEmpty()) {
+                futures.put(step.name(), CompletableFuture.supplyAsync(() -> execute(step, input), executor));
+                continue;
+            }
+            List<CompletableFuture<Outcome>> dependencies = new ArrayList<>();
+            for (String dependency : step.dependsOn()) {
+                dependencies.add(futures.get(dependency));
+            }
+            futures.put(step.name(), CompletableFuture
+                .allOf(dependencies.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> dependencies.stream().allMatch(d -> d.join().passed())
+                    ? execute(step, input)
+                    : Outcome.SKIPPED, executor));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (Step step : steps) {
+            Outcome outcome;
+            try {
+                outcome = futures.get(step.name()).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                result.addError("Erreur lors de la validation: délai dépassé (" + step.name() + ")");
+                cancelAll(futures);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.addError("Erreur lors de la validation: interrompue (" + step.name() + ")");
+                cancelAll(futures);
+                return;
+            } catch (ExecutionException e) {
+                outcome = new Outcome(new ValidationResult(), false,
+                    e.getCause() instanceof Exception cause ? cause : e);
+            }
+
+            outcome.result().getWarnings().forEach(result::addWarning);
+            outcome.result().getErrors().forEach(result::addError);
+
+            if (outcome.failure() != null) {
+                result.addError("Erreur lors de la validation: " + outcome.failure().getMessage());
+                cancelAll(futures);
+                return;
+            }
+            if (step.gate() && outcome != Outcome.SKIPPED && !outcome.passed()) {
+                cancelAll(futures);
+                return;
+            }
+        }
+    }
+
+    private static Outcome execute(Step step, ValidationInput input) {
+        ValidationResult stepResult = new ValidationResult();
+        try {
+            boolean passed = step.check().run(input, stepResult);
+            return new Outcome(stepResult, passed, null);
+        } catch (Exception e) {
+            return new Outcome(stepResult, false, e);
+        }
+    }
+
+    /** Les étapes restantes ne seront pas fusionnées : inutile de les laisser démarrer */
+    private static void cancelAll(Map<String, CompletableFuture<Outcome>> futures) {
+        futures.values().forEach(future -> future.cancel(false));
+    }
+}
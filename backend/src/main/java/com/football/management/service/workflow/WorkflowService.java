@@ -10,23 +10,57 @@ import com.football.management.repository.StatusHistoryRepository;
 import com.football.management.mapper.DemandePlayersMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import com.football.management.dto.NotificationRequest;
 import com.football.management.service.notification.EmailNotificationService;
+import com.football.management.service.pdf.PdfCache;
+import com.football.management.service.quota.QuotaExceededException;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.stats.DemandeCounterStore;
 import org.springframework.beans.factory.annotation.Autowired;
 
 @Service
 public class WorkflowService {
     
+    private static final String INSERT_HISTORY_SQL = """
+        INSERT INTO sss_competition_db.ct_status_history
+            (ct_status_history_id, ct_demande_id, old_status_id, new_status_id, changed_by, changed_at, comment)
+        VALUES (nextval('sss_competition_db.ct_status_history_seq'), ?, ?, ?, ?, ?, ?)
+        """;
+    
+    /**
+     * Résultat d'une transition dans un changement de statut groupé
+     */
+    public record TransitionOutcome(Long demandeId, boolean success, Long oldStatusId, String error) {
+        
+        static TransitionOutcome failed(Long demandeId, Long oldStatusId, String error) {
+            return new TransitionOutcome(demandeId, false, oldStatusId, error);
+        }
+    }
+    
+    public record BulkTransitionReport(
+        Long newStatusId,
+        int total,
+        int succeeded,
+        int failed,
+        List<TransitionOutcome> outcomes
+    ) {}
+    
     @Autowired
     private DemandePlayersRepository demandeRepository;
     
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
     @Autowired
     private StatusHistoryRepository historyRepository;
     
@@ -36,6 +70,15 @@ public class WorkflowService {
     @Autowired
     private EmailNotificationService emailNotificationService;
     
+    @Autowired
+    private DemandeCounterStore counterStore;
+
+    @Autowired
+    private QuotaLedger quotaLedger;
+    
+    @Autowired
+    private PdfCache pdfCache;
+    
     @Transactional
     public DemandePlayersDTO changeStatus(
         Long demandeId, 
@@ -43,8 +86,8 @@ public class WorkflowService {
         Long userId,
         String comment
     ) {
-        // Récupérer la demande
-        DemandePlayers demande = demandeRepository.findById(BigDecimal.valueOf(demandeId))
+        // Récupérer la demande, verrouillée : les places de quota sont calculées sur le statut à jour
+        DemandePlayers demande = demandeRepository.findByIdForUpdate(BigDecimal.valueOf(demandeId))
             .orElseThrow(() -> new IllegalArgumentException("Demande non trouvée avec l'ID: " + demandeId));
         
         // Récupérer les statuts
@@ -63,8 +106,13 @@ public class WorkflowService {
         }
         
         // Effectuer la transition
+        DemandeCounterStore.CounterKey counterKeyBefore = DemandeCounterStore.CounterKey.of(demande);
+        QuotaLedger.Holding quotaHolding = QuotaLedger.Holding.of(demande);
         demande.setDemandeStatuId(BigDecimal.valueOf(newStatusId));
+        quotaLedger.update(quotaHolding, demande);  // réactivation : échoue si le quota est atteint
         DemandePlayers savedDemande = demandeRepository.save(demande);
+        counterStore.recordChanged(counterKeyBefore, savedDemande);
+        pdfCache.invalidate(demandeId);
         
         // Enregistrer dans l'historique
         StatusHistory history = new StatusHistory(
@@ -82,6 +130,114 @@ public class WorkflowService {
         return mapper.toDTO(savedDemande);
     }
     
+    /**
+     * Changement de statut groupé (validation ou impression de centaines de licences)
+     * 
+     * Les demandes sont chargées et verrouillées en une requête, les transitions vérifiées en mémoire ; le statut
+     * des demandes acceptées est modifié par un seul UPDATE et l'historique inséré en un lot JDBC.
+     * Une demande introuvable, une transition interdite ou un quota atteint sont signalés pour
+     * cette demande sans interrompre les autres.
+     * 
+     * @return un résultat par identifiant, dans l'ordre reçu (doublons ignorés)
+     */
+    @Transactional
+    public BulkTransitionReport changeStatusBulk(
+        List<Long> demandeIds,
+        Long newStatusId,
+        Long userId,
+        String comment
+    ) {
+        DemandeStatus newStatus = DemandeStatus.fromId(newStatusId)
+            .orElseThrow(() -> new IllegalArgumentException("Nouveau statut invalide: " + newStatusId));
+        BigDecimal newStatusValue = BigDecimal.valueOf(newStatusId);
+        
+        Set<Long> ids = new LinkedHashSet<>(demandeIds);
+        // Demandes verrouillées jusqu'au commit : une transition concurrente attend ce lot
+        Map<Long, DemandePlayers> demandes = demandeRepository.findAllByIdForUpdate(
+                ids.stream().map(BigDecimal::valueOf).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(d -> d.getDemandeId().longValue(), d -> d));
+        
+        List<TransitionOutcome> outcomes = new ArrayList<>(ids.size());
+        List<DemandePlayers> accepted = new ArrayList<>();
+        Map<Long, DemandeStatus> oldStatuses = new HashMap<>();
+        
+        for (Long id : ids) {
+            DemandePlayers demande = demandes.get(id);
+            if (demande == null) {
+                outcomes.add(TransitionOutcome.failed(id, null, "Demande non trouvée avec l'ID: " + id));
+                continue;
+            }
+            
+            BigDecimal oldStatusId = demande.getDemandeStatuId();
+            Long oldId = oldStatusId != null ? oldStatusId.longValue() : null;
+            Optional<DemandeStatus> oldStatus = DemandeStatus.fromBigDecimal(oldStatusId);
+            if (oldStatus.isEmpty()) {
+                outcomes.add(TransitionOutcome.failed(id, oldId, "Statut actuel invalide: " + oldStatusId));
+                continue;
+            }
+            if (!TransitionRule.isTransitionAllowed(oldStatus.get(), newStatus)) {
+                outcomes.add(TransitionOutcome.failed(id, oldId,
+                    TransitionRule.getTransitionErrorMessage(oldStatus.get(), newStatus)));
+                continue;
+            }
+            
+            // Réactivation : refusée pour cette seule demande si le quota est atteint
+            Optional<QuotaExceededException> quotaRefusal = quotaLedger.tryUpdate(
+                QuotaLedger.Holding.of(demande), QuotaLedger.Holding.of(demande, newStatusValue));
+            if (quotaRefusal.isPresent()) {
+                outcomes.add(TransitionOutcome.failed(id, oldId, quotaRefusal.get().getMessage()));
+                continue;
+            }
+            
+            outcomes.add(new TransitionOutcome(id, true, oldId, null));
+            accepted.add(demande);
+            oldStatuses.put(id, oldStatus.get());
+        }
+        
+        if (!accepted.isEmpty()) {
+            // Un seul UPDATE ; les entités chargées sont détachées et mises à jour en mémoire ensuite
+            demandeRepository.updateStatus(
+                accepted.stream().map(DemandePlayers::getDemandeId).collect(Collectors.toList()),
+                newStatusValue);
+            insertHistory(accepted, newStatusValue, userId, comment);
+            pdfCache.invalidateAll(
+                accepted.stream().map(d -> d.getDemandeId().longValue()).collect(Collectors.toList()));
+            
+            List<NotificationRequest> notifications = new ArrayList<>();
+            for (DemandePlayers demande : accepted) {
+                DemandeCounterStore.CounterKey counterKeyBefore = DemandeCounterStore.CounterKey.of(demande);
+                demande.setDemandeStatuId(newStatusValue);
+                counterStore.recordChanged(counterKeyBefore, demande);
+                
+                NotificationRequest notification = buildStatusChangeNotification(
+                    demande, oldStatuses.get(demande.getDemandeId().longValue()), newStatus, comment);
+                if (notification != null) {
+                    notifications.add(notification);
+                }
+            }
+            sendStatusChangeNotifications(notifications);
+        }
+        
+        return new BulkTransitionReport(newStatusId, outcomes.size(), accepted.size(),
+            outcomes.size() - accepted.size(), outcomes);
+    }
+    
+    /**
+     * Historique des transitions acceptées, en un seul lot d'INSERT
+     * (appelé avant la mise à jour du statut des entités, qui portent encore l'ancien)
+     */
+    private void insertHistory(List<DemandePlayers> demandes, BigDecimal newStatusId, Long userId, String comment) {
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(demandes.size());
+        for (DemandePlayers demande : demandes) {
+            rows.add(new Object[] {
+                demande.getDemandeId(), demande.getDemandeStatuId(), newStatusId, userId, changedAt, comment
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, rows);
+    }
+    
     public Map<String, Object> getAvailableTransitions(Long demandeId) {
         DemandePlayers demande = demandeRepository.findById(BigDecimal.valueOf(demandeId))
             .orElseThrow(() -> new IllegalArgumentException("Demande non trouvée"));
@@ -155,29 +311,11 @@ public class WorkflowService {
         String comment
     ) {
         try {
-            // Créer la requête de notification
-            NotificationRequest notificationRequest = new NotificationRequest();
-            notificationRequest.setDemandeId(demande.getDemandeId());
-            
-            // Email du joueur (à adapter selon votre structure)
-            String recipientEmail = getPlayerEmail(demande);
-            if (recipientEmail == null || recipientEmail.isEmpty()) {
+            NotificationRequest notificationRequest = buildStatusChangeNotification(demande, oldStatus, newStatus, comment);
+            if (notificationRequest == null) {
                 return; // Pas d'email, pas de notification
             }
             
-            notificationRequest.setRecipientEmail(recipientEmail);
-            notificationRequest.setRecipientName(demande.getName() + " " + demande.getLastName());
-            notificationRequest.setOldStatus(oldStatus.getLibelle());
-            notificationRequest.setNewStatus(newStatus.getLibelle());
-            notificationRequest.setComment(comment);
-            
-            // Déterminer le type de notification selon le nouveau statut
-            String notificationType = determineNotificationType(newStatus);
-            notificationRequest.setNotificationType(notificationType);
-            
-            // Ajouter des données supplémentaires
-            notificationRequest.addData("demandeUrl", "http://licencesftf.com/demandes/" + demande.getDemandeId());
-            
             // Envoyer la notification de manière asynchrone
             emailNotificationService.sendNotification(notificationRequest);
             
@@ -186,6 +324,52 @@ public class WorkflowService {
             System.err.println("Erreur lors de l'envoi de la notification : " + e.getMessage());
         }
     }
+    
+    /**
+     * Envoyer en une tâche les notifications d'un changement de statut groupé
+     */
+    private void sendStatusChangeNotifications(List<NotificationRequest> notifications) {
+        try {
+            emailNotificationService.sendNotifications(notifications);
+        } catch (Exception e) {
+            // Ne pas bloquer le workflow si l'email échoue
+            System.err.println("Erreur lors de l'envoi des notifications : " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Notification d'un changement de statut, ou null si le joueur n'a pas d'email
+     */
+    private NotificationRequest buildStatusChangeNotification(
+        DemandePlayers demande, 
+        DemandeStatus oldStatus, 
+        DemandeStatus newStatus,
+        String comment
+    ) {
+        // Email du joueur (à adapter selon votre structure)
+        String recipientEmail = getPlayerEmail(demande);
+        if (recipientEmail == null || recipientEmail.isEmpty()) {
+            return null;
+        }
+        
+        // Créer la requête de notification
+        NotificationRequest notificationRequest = new NotificationRequest();
+        notificationRequest.setDemandeId(demande.getDemandeId());
+        notificationRequest.setRecipientEmail(recipientEmail);
+        notificationRequest.setRecipientName(demande.getName() + " " + demande.getLastName());
+        notificationRequest.setOldStatus(oldStatus.getLibelle());
+        notificationRequest.setNewStatus(newStatus.getLibelle());
+        notificationRequest.setComment(comment);
+        
+        // Déterminer le type de notification selon le nouveau statut
+        String notificationType = determineNotificationType(newStatus);
+        notificationRequest.setNotificationType(notificationType);
+        
+        // Ajouter des données supplémentaires
+        notificationRequest.addData("demandeUrl", "http://licencesftf.com/demandes/" + demande.getDemandeId());
+        
+        return notificationRequest;
+    }
 
     /**
      * Déterminer le type de notification selon le statut
@@ -3,7 +3,7 @@ package com.football.management;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "print.jobs.spool-dir=${java.io.tmpdir}/ftf-print-spool-test")
 class ManagementApplicationTests {
 
 	@Test
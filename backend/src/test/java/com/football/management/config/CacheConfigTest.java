@@ -0,0 +1,99 @@
+package com.football.management.config;
+
+import com.football.management.service.DashboardService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests CacheConfig - Rafraîchissement anticipé des caches")
+class CacheConfigTest {
+
+    private static final String KEY = "global";
+
+    @Mock
+    private ObjectProvider<CacheRefresher> refreshers;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger reloads = new AtomicInteger();
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheRefresher refresher = new CacheRefresher() {
+            @Override
+            public String getCacheName() {
+                return "dashboardStats";
+            }
+
+            @Override
+            public Object reload(Object key) {
+                return "v" + (reloads.incrementAndGet() + 1);
+            }
+        };
+        lenient().when(refreshers.orderedStream()).thenAnswer(invocation -> Stream.of(refresher));
+
+        CacheConfig config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "refreshAfterSeconds", 120L);
+        config.ticker = nanos::get;
+
+        // Exécuteur direct : le rechargement est terminé au retour de la lecture qui l'a déclenché
+        CacheManager cacheManager = config.cacheManager(refreshers, Runnable::run);
+        cache = cacheManager.getCache("dashboardStats");
+        cache.put(KEY, "v1");
+    }
+
+    @Test
+    @DisplayName("Avant le délai de rafraîchissement - Valeur servie sans rechargement")
+    void testGet_BeforeRefreshDelay_ShouldNotReload() {
+        // Given
+        advanceSeconds(60);
+
+        // When & Then
+        assertEquals("v1", cache.get(KEY).get());
+        assertEquals(0, reloads.get());
+    }
+
+    @Test
+    @DisplayName("Après le délai, avant expiration - Valeur rechargée en arrière-plan par le refresher")
+    void testGet_AfterRefreshDelay_ShouldReloadBeforeExpiry() {
+        // Given : 3 minutes, moins que l'expiration de 10 minutes
+        advanceSeconds(180);
+
+        // When : la lecture sert l'ancienne valeur et déclenche le rechargement
+        assertEquals("v1", cache.get(KEY).get());
+
+        // Then
+        assertEquals(1, reloads.get());
+        assertEquals("v2", cache.get(KEY).get());
+    }
+
+    @Test
+    @DisplayName("Caches rafraîchis - Chacun a un refresher déclaré")
+    void testRefreshAheadCaches_ShouldAllHaveRefresher() {
+        List<String> refreshed = List.of(new DashboardService().getCacheName());
+        assertTrue(refreshed.containsAll(CacheConfig.REFRESH_AHEAD_CACHES));
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
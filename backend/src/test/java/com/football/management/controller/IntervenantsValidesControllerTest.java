@@ -0,0 +1,90 @@
+package com.football.management.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests IntervenantsValidesController - Recherche des intervenants validés")
+class IntervenantsValidesControllerTest {
+
+    private static final BigDecimal SEASON_ID = BigDecimal.valueOf(2025);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private IntervenantsValidesController controller;
+
+    // ==================== TESTS NOM / PRÉNOM ====================
+
+    @Test
+    @DisplayName("Nom accentué - Normalisé côté base des deux côtés du LIKE, valeur transmise telle quelle")
+    void testGetIntervenantsValides_AccentedName_ShouldCompareNormalizedValues() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(new ArrayList<>());
+
+        // When
+        ResponseEntity<List<Map<String, Object>>> response = controller.getIntervenantsValides(
+            null, null, SEASON_ID, "Hédi", "Ben Saïd", null, null, null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(sql.capture(), args.capture());
+        assertTrue(sql.getValue().contains(
+            "sss_competition_db.f_normalize_name(i.name) LIKE sss_competition_db.f_normalize_name(?) || '%'"));
+        assertTrue(sql.getValue().contains(
+            "sss_competition_db.f_normalize_name(i.last_name) LIKE sss_competition_db.f_normalize_name(?) || '%'"));
+        // Ni majuscules ni joker ajoutés en Java : f_normalize_name retire accents et casse
+        assertArrayEquals(new Object[] { SEASON_ID, "Hédi", "Ben Saïd" }, args.getValue());
+    }
+
+    @Test
+    @DisplayName("Nom vide - Aucun filtre de nom émis")
+    void testGetIntervenantsValides_BlankName_ShouldNotFilterOnName() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(new ArrayList<>());
+
+        // When
+        controller.getIntervenantsValides(null, BigDecimal.valueOf(101), SEASON_ID, "  ", null, null, "ab123", null, null);
+
+        // Then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(sql.capture(), args.capture());
+        assertFalse(sql.getValue().contains("f_normalize_name"));
+        assertArrayEquals(new Object[] { SEASON_ID, BigDecimal.valueOf(101), "AB123%" }, args.getValue());
+    }
+
+    @Test
+    @DisplayName("Erreur base de données - 500")
+    void testGetIntervenantsValides_DatabaseError_ShouldReturn500() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenThrow(new RuntimeException("DB down"));
+
+        // When
+        ResponseEntity<List<Map<String, Object>>> response = controller.getIntervenantsValides(
+            null, null, SEASON_ID, "Hédi", null, null, null, null, null);
+
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+}
@@ -0,0 +1,65 @@
+package com.football.management.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests SparseFields - Sélection des propriétés sérialisées")
+class SparseFieldsTest {
+
+    // Même filtre par défaut que JacksonConfig
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+
+    @Test
+    @DisplayName("Paramètre fields - Découpage et nettoyage")
+    void testParse_ShouldSplitAndTrim() {
+        assertEquals(Set.of("demandeId", "name"), SparseFields.parse(" demandeId, name ,,"));
+        assertNull(SparseFields.parse("  "));
+        assertNull(SparseFields.parse(null));
+    }
+
+    @Test
+    @DisplayName("Sans fields - Toutes les propriétés sont sérialisées")
+    void testApply_WithoutFields_ShouldSerializeAll() throws Exception {
+        // Given
+        DemandePlayersDTO dto = dto();
+
+        // When
+        Map<?, ?> json = objectMapper.readValue(objectMapper.writeValueAsString(SparseFields.apply(dto, null)), Map.class);
+
+        // Then
+        assertTrue(json.containsKey("licenceNum"));
+        assertTrue(json.containsKey("teamName"));
+    }
+
+    @Test
+    @DisplayName("Avec fields - Seules les propriétés demandées sont sérialisées")
+    void testApply_WithFields_ShouldKeepOnlySelected() throws Exception {
+        // Given
+        MappingJacksonValue value = (MappingJacksonValue) SparseFields.apply(dto(), Set.of("demandeId", "name"));
+
+        // When
+        String json = objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue());
+
+        // Then
+        assertEquals(Map.of("demandeId", 123, "name", "DUPONT"), objectMapper.readValue(json, Map.class));
+    }
+
+    private DemandePlayersDTO dto() {
+        DemandePlayersDTO dto = new DemandePlayersDTO();
+        dto.setDemandeId(BigDecimal.valueOf(123));
+        dto.setName("DUPONT");
+        dto.setLicenceNum("L123");
+        return dto;
+    }
+}
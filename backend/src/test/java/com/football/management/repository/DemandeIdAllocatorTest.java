@@ -0,0 +1,80 @@
+package com.football.management.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests DemandeIdAllocator - Identifiants par blocs de séquence")
+class DemandeIdAllocatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private DemandeIdAllocator allocator;
+
+    @Test
+    @DisplayName("Un nextval par bloc - Identifiants consécutifs dans le bloc")
+    void testNextId_ShouldUseOneSequenceCallPerBlock() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1001L, 1051L);
+
+        // When
+        List<BigDecimal> ids = new ArrayList<>();
+        for (int i = 0; i < DemandeIdAllocator.BLOCK_SIZE + 1; i++) {
+            ids.add(allocator.nextId());
+        }
+
+        // Then
+        assertEquals(BigDecimal.valueOf(1001), ids.get(0));
+        assertEquals(BigDecimal.valueOf(1050), ids.get(DemandeIdAllocator.BLOCK_SIZE - 1));
+        assertEquals(BigDecimal.valueOf(1051), ids.get(DemandeIdAllocator.BLOCK_SIZE));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Créations simultanées - Aucun identifiant en double")
+    void testNextId_Concurrent_ShouldNeverDuplicate() throws Exception {
+        // Given : chaque bloc suit le précédent, comme une séquence INCREMENT BY 50
+        long[] sequence = { 1 };
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> {
+            long value = sequence[0];
+            sequence[0] += DemandeIdAllocator.BLOCK_SIZE;
+            return value;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<BigDecimal>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(executor.submit(allocator::nextId));
+        }
+        Set<BigDecimal> ids = new HashSet<>();
+        for (Future<BigDecimal> future : futures) {
+            ids.add(future.get());
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(500, ids.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.football.management.repository;
+
+import com.football.management.dto.DemandeSearchCriteria;
+import com.football.management.entity.DemandePlayers;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests DemandePlayersRepositoryImpl - Pagination par curseur")
+class DemandePlayersRepositoryImplTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 9, 1);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<DemandePlayers> datedQuery;
+
+    @Mock
+    private TypedQuery<DemandePlayers> nullDateQuery;
+
+    @InjectMocks
+    private DemandePlayersRepositoryImpl repository;
+
+    @Test
+    @DisplayName("Curseur daté - Comparaison de lignes utilisable comme borne de l'index")
+    void testSearchAfter_DatedCursor_ShouldUseRowComparison() {
+        // Given
+        when(entityManager.createQuery(contains("(d.dateEnregistrement, d.demandeId) < (:cursorDate, :cursorId)"),
+                eq(DemandePlayers.class))).thenReturn(datedQuery);
+        when(datedQuery.getResultList()).thenReturn(demandes(DATE, 3));
+
+        // When
+        Slice<DemandePlayers> slice = repository.searchAfter(new DemandeSearchCriteria(),
+            new DemandeCursor(DATE, BigDecimal.valueOf(100)), 2);
+
+        // Then : une ligne de plus que demandé, donc page suivante sans requête des dates nulles
+        assertEquals(2, slice.getContent().size());
+        assertTrue(slice.hasNext());
+        verify(datedQuery).setParameter("cursorDate", DATE);
+        verify(datedQuery).setParameter("cursorId", BigDecimal.valueOf(100));
+        verify(datedQuery).setMaxResults(3);
+        verify(entityManager, times(1)).createQuery(anyString(), eq(DemandePlayers.class));
+    }
+
+    @Test
+    @DisplayName("Dates épuisées - Page complétée par les demandes sans date")
+    void testSearchAfter_DatesExhausted_ShouldContinueWithNullDates() {
+        // Given
+        when(entityManager.createQuery(contains("(d.dateEnregistrement, d.demandeId) <"), eq(DemandePlayers.class)))
+            .thenReturn(datedQuery);
+        when(entityManager.createQuery(contains("d.dateEnregistrement IS NULL ORDER BY"), eq(DemandePlayers.class)))
+            .thenReturn(nullDateQuery);
+        when(datedQuery.getResultList()).thenReturn(demandes(DATE, 1));
+        when(nullDateQuery.getResultList()).thenReturn(demandes(null, 2));
+
+        // When
+        Slice<DemandePlayers> slice = repository.searchAfter(new DemandeSearchCriteria(),
+            new DemandeCursor(DATE, BigDecimal.valueOf(100)), 2);
+
+        // Then
+        assertEquals(2, slice.getContent().size());
+        assertEquals(DATE, slice.getContent().get(0).getDateEnregistrement());
+        assertNull(slice.getContent().get(1).getDateEnregistrement());
+        assertTrue(slice.hasNext());
+        verify(nullDateQuery).setMaxResults(2);
+    }
+
+    private static List<DemandePlayers> demandes(LocalDate date, int count) {
+        List<DemandePlayers> demandes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DemandePlayers demande = new DemandePlayers();
+            demande.setDemandeId(BigDecimal.valueOf(99 - i));
+            demande.setDateEnregistrement(date);
+            demandes.add(demande);
+        }
+        return demandes;
+    }
+}
@@ -0,0 +1,99 @@
+package com.football.management.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests FilterQuery - Requêtes à filtres optionnels")
+class FilterQueryTest {
+
+    private final FilterQuery query = FilterQuery.select("SELECT d FROM DemandePlayers d")
+        .filter("teamId", "d.teamId = :teamId")
+        .filter("licenceNum", "d.licenceNum = :licenceNum")
+        .filter("lastName", "UPPER(d.lastName) LIKE UPPER(:lastName)")
+        .build();
+
+    @Test
+    @DisplayName("Seuls les filtres renseignés sont émis")
+    void testQuery_ShouldOnlyContainSuppliedPredicates() {
+        // When
+        FilterQuery.Binding binding = query.bind()
+            .set("teamId", null)
+            .set("licenceNum", "L123")
+            .set("lastName", "  ");
+
+        // Then
+        assertEquals("SELECT d FROM DemandePlayers d WHERE d.licenceNum = :licenceNum", binding.query());
+        assertEquals(Map.of("licenceNum", "L123"), binding.parameters());
+    }
+
+    @Test
+    @DisplayName("Même forme de filtres - Même requête, générée une seule fois")
+    void testQuery_SameShape_ShouldReuseStatement() {
+        // When
+        String first = query.bind().set("teamId", BigDecimal.ONE).orderBy("d.demandeId DESC").query();
+        String second = query.bind().set("teamId", BigDecimal.TEN).orderBy("d.demandeId DESC").query();
+        query.bind().set("teamId", BigDecimal.ONE).set("lastName", "ben", v -> "%" + v + "%").query();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(2, query.cachedShapes());
+    }
+
+    @Test
+    @DisplayName("Paramètres positionnels dans l'ordre de déclaration")
+    void testArguments_ShouldFollowDeclarationOrder() {
+        // When
+        FilterQuery.Binding binding = query.bind()
+            .set("lastName", "ben", v -> v + "%")
+            .set("teamId", BigDecimal.ONE);
+
+        // Then
+        assertArrayEquals(new Object[] { BigDecimal.ONE, "ben%" }, binding.arguments());
+        assertTrue(binding.query().indexOf("d.teamId") < binding.query().indexOf("d.lastName"));
+    }
+
+    @Test
+    @DisplayName("SELECT, tri et LIMIT paramétrés - Arguments dans l'ordre des \"?\"")
+    void testArguments_WithSelectOrderByAndLimit_ShouldFollowStatementOrder() {
+        // Given
+        FilterQuery scored = FilterQuery.select("SELECT x.id, f(?) as score FROM t x")
+            .filter("teamId", "x.team_id = ?")
+            .build();
+
+        // When
+        FilterQuery.Binding binding = scored.bind()
+            .selectArguments("ben")
+            .set("teamId", BigDecimal.ONE)
+            .orderBy("g(?, x.name) DESC", "ben")
+            .limit(20);
+
+        // Then
+        assertEquals("SELECT x.id, f(?) as score FROM t x WHERE x.team_id = ? ORDER BY g(?, x.name) DESC LIMIT ?",
+            binding.query());
+        assertArrayEquals(new Object[] { "ben", BigDecimal.ONE, "ben", 20 }, binding.arguments());
+    }
+
+    @Test
+    @DisplayName("LIMIT - Fait partie de la forme mise en cache")
+    void testQuery_WithAndWithoutLimit_ShouldBeDistinctShapes() {
+        // When
+        String limited = query.bind().set("teamId", BigDecimal.ONE).limit(10).query();
+        String unlimited = query.bind().set("teamId", BigDecimal.ONE).query();
+
+        // Then
+        assertTrue(limited.endsWith(" LIMIT ?"));
+        assertFalse(unlimited.contains("LIMIT"));
+        assertEquals(2, query.cachedShapes());
+    }
+
+    @Test
+    @DisplayName("Filtre inconnu - Rejeté")
+    void testSet_UnknownFilter_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> query.bind().set("inconnu", "x"));
+    }
+}
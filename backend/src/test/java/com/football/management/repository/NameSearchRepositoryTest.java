@@ -0,0 +1,100 @@
+package com.football.management.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests NameSearchRepository - Recherche de noms par similarité")
+class NameSearchRepositoryTest {
+
+    private static final String INDEXED_FULL_NAME =
+        "sss_competition_db.f_normalize_name(coalesce(%1$s.name, '') || ' ' || coalesce(%1$s.last_name, ''))";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private NameSearchRepository repository;
+
+    // ==================== TESTS INTERVENANTS ====================
+
+    @Test
+    @DisplayName("Intervenants - Expression de l'index trigrammes, LIMIT en fin de requête")
+    void testSearchIntervenants_ShouldUseIndexedExpressionAndLimit() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(new ArrayList<>());
+
+        // When
+        repository.searchIntervenants("Mohamed", null, null, 20);
+
+        // Then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(sql.capture(), args.capture());
+        assertTrue(sql.getValue().contains("<% " + INDEXED_FULL_NAME.formatted("i")));
+        assertFalse(sql.getValue().contains("full_name_norm"));
+        assertTrue(sql.getValue().endsWith(" LIMIT ?"));
+        // score, correspondance (x2), tri (x2), limite
+        assertArrayEquals(new Object[] { "Mohamed", "Mohamed", "Mohamed", "Mohamed", "Mohamed", 20 }, args.getValue());
+        assertEquals(countPlaceholders(sql.getValue()), args.getValue().length);
+    }
+
+    @Test
+    @DisplayName("Intervenants - Saison et équipe : un seul EXISTS, paramètres avant le tri")
+    void testSearchIntervenants_WithSeasonAndTeam_ShouldBindFiltersBeforeOrderBy() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(new ArrayList<>());
+
+        // When
+        repository.searchIntervenants("ben ali", BigDecimal.valueOf(2025), BigDecimal.valueOf(101), 10);
+
+        // Then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(sql.capture(), args.capture());
+        assertTrue(sql.getValue().contains("ti.ct_season_id = ? AND ti.ct_team_id = ?"));
+        assertArrayEquals(new Object[] { "ben ali", "ben ali", "ben ali", BigDecimal.valueOf(2025), BigDecimal.valueOf(101),
+            "ben ali", "ben ali", 10 }, args.getValue());
+        assertEquals(countPlaceholders(sql.getValue()), args.getValue().length);
+    }
+
+    // ==================== TESTS DEMANDES ====================
+
+    @Test
+    @DisplayName("Demandes - Filtres saison / équipe optionnels, LIMIT en dernier argument")
+    void testSearchDemandes_ShouldBindArgumentsInStatementOrder() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(new ArrayList<>());
+
+        // When
+        repository.searchDemandes("trabelsi", null, BigDecimal.valueOf(101), 5);
+
+        // Then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(sql.capture(), args.capture());
+        assertTrue(sql.getValue().contains(INDEXED_FULL_NAME.formatted("d") + " LIKE '%' ||"));
+        assertTrue(sql.getValue().contains("d.ct_team_id = ?"));
+        assertFalse(sql.getValue().contains("d.ct_season_id = ?"));
+        assertArrayEquals(new Object[] { "trabelsi", "trabelsi", "trabelsi", BigDecimal.valueOf(101),
+            "trabelsi", "trabelsi", 5 }, args.getValue());
+        assertEquals(countPlaceholders(sql.getValue()), args.getValue().length);
+    }
+
+    private static long countPlaceholders(String sql) {
+        return sql.chars().filter(c -> c == '?').count();
+    }
+}
@@ -1,11 +1,23 @@
 package com.football.management.service;
 
+import com.football.management.dto.CursorPageDTO;
 import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.dto.DemandeSummaryDTO;
 import com.football.management.entity.DemandePlayers;
 import com.football.management.entity.Team;
 import com.football.management.mapper.DemandePlayersMapper;
+import com.football.management.repository.DemandeCursor;
+import com.football.management.repository.DemandeIdAllocator;
 import com.football.management.repository.DemandePlayersRepository;
 import com.football.management.repository.TeamRepository;
+import com.football.management.service.pdf.PdfCache;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.reference.ReferenceDataSnapshot;
+import com.football.management.service.reference.ReferenceDataSnapshot.CategoryRange;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.stats.DemandeCounterStore;
+import com.football.management.service.stats.SeasonStatsService;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,13 +25,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +52,27 @@ class DemandePlayersServiceTest {
     @Mock
     private DemandePlayersMapper demandePlayersMapper;
 
+    @Mock
+    private DemandeIdAllocator demandeIdAllocator;
+
     @Mock
     private TeamRepository teamRepository; // ✅ AJOUTÉ
 
+    @Mock
+    private DemandeCounterStore counterStore;
+
+    @Mock
+    private QuotaLedger quotaLedger;
+
+    @Mock
+    private SeasonStatsService seasonStatsService;
+
+    @Mock
+    private PdfCache pdfCache;
+
+    @Mock
+    private ReferenceDataStore referenceDataStore;
+
     @InjectMocks
     private DemandePlayersService demandePlayersService;
 
@@ -44,6 +82,11 @@ class DemandePlayersServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(referenceDataStore.getSnapshot()).thenReturn(new ReferenceDataSnapshot(
+            1L, Instant.now(), new QuotaParameters(30, 25, 4, 3, null),
+            List.of(new CategoryRange(4L, LocalDate.of(2009, 1, 1), LocalDate.of(2010, 12, 31))),  // CADETS
+            List.of()));
+
         // Préparer un DTO de test
         demandeDTO = new DemandePlayersDTO();
         demandeDTO.setName("DUPONT");
@@ -112,7 +155,7 @@ class DemandePlayersServiceTest {
     void testCreateDemande_ShouldGenerateId() {
         // Given
         BigDecimal generatedId = BigDecimal.valueOf(456);
-        when(demandePlayersRepository.getNextDemandeId()).thenReturn(generatedId);
+        when(demandeIdAllocator.nextId()).thenReturn(generatedId);
         when(demandePlayersMapper.toEntity(demandeDTO)).thenReturn(demandeEntity);
         when(demandePlayersRepository.save(any(DemandePlayers.class))).thenReturn(demandeEntity);
         when(demandePlayersMapper.toDTO(demandeEntity)).thenReturn(demandeDTO);
@@ -122,8 +165,9 @@ class DemandePlayersServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(demandePlayersRepository).getNextDemandeId();
-        verify(demandePlayersRepository).save(any(DemandePlayers.class));
+        verify(demandeIdAllocator).nextId();
+        // Catégorie enregistrée : plage de naissance du référentiel (CADETS 2009-2010)
+        verify(demandePlayersRepository).save(argThat(d -> BigDecimal.valueOf(4).equals(d.getPlayerCategoryId())));
     }
 
     @Test
@@ -131,7 +175,7 @@ class DemandePlayersServiceTest {
     void testUpdateDemande_ExistingDemande_ShouldUpdate() {
         // Given
         Long demandeId = 123L;
-        when(demandePlayersRepository.findById(BigDecimal.valueOf(demandeId)))
+        when(demandePlayersRepository.findByIdForUpdate(BigDecimal.valueOf(demandeId)))
                 .thenReturn(Optional.of(demandeEntity));
         when(demandePlayersRepository.save(demandeEntity)).thenReturn(demandeEntity);
         when(demandePlayersMapper.toDTO(demandeEntity)).thenReturn(demandeDTO);
@@ -145,6 +189,7 @@ class DemandePlayersServiceTest {
         verify(demandePlayersRepository).findById(BigDecimal.valueOf(demandeId));
         verify(demandePlayersMapper).updateEntityFromDTO(demandeDTO, demandeEntity);
         verify(demandePlayersRepository).save(demandeEntity);
+        verify(pdfCache).invalidate(demandeId);
     }
 
     @Test
@@ -152,16 +197,17 @@ class DemandePlayersServiceTest {
     void testDeleteDemande_ExistingDemande_ShouldDelete() {
         // Given
         Long demandeId = 123L;
-        when(demandePlayersRepository.existsById(BigDecimal.valueOf(demandeId)))
-                .thenReturn(true);
-        doNothing().when(demandePlayersRepository).deleteById(BigDecimal.valueOf(demandeId));
+        when(demandePlayersRepository.findByIdForUpdate(BigDecimal.valueOf(demandeId)))
+                .thenReturn(Optional.of(demandeEntity));
+        doNothing().when(demandePlayersRepository).delete(demandeEntity);
 
         // When
         demandePlayersService.deleteDemande(demandeId);
 
         // Then
-        verify(demandePlayersRepository).existsById(BigDecimal.valueOf(demandeId));
-        verify(demandePlayersRepository).deleteById(BigDecimal.valueOf(demandeId));
+        verify(demandePlayersRepository).findById(BigDecimal.valueOf(demandeId));
+        verify(demandePlayersRepository).delete(demandeEntity);
+        verify(counterStore).recordDeleted(demandeEntity);
     }
 
     @Test
@@ -169,16 +215,16 @@ class DemandePlayersServiceTest {
     void testDeleteDemande_NonExistingDemande_ShouldThrowException() {
         // Given
         Long demandeId = 999L;
-        when(demandePlayersRepository.existsById(BigDecimal.valueOf(demandeId)))
-                .thenReturn(false);
+        when(demandePlayersRepository.findByIdForUpdate(BigDecimal.valueOf(demandeId)))
+                .thenReturn(Optional.empty());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
             () -> demandePlayersService.deleteDemande(demandeId));
         
         assertTrue(exception.getMessage().contains("non trouvée"));
-        verify(demandePlayersRepository).existsById(BigDecimal.valueOf(demandeId));
-        verify(demandePlayersRepository, never()).deleteById(any());
+        verify(demandePlayersRepository).findById(BigDecimal.valueOf(demandeId));
+        verify(demandePlayersRepository, never()).delete(any(DemandePlayers.class));
     }
 
     @Test
@@ -188,7 +234,7 @@ class DemandePlayersServiceTest {
         Long demandeId = 123L;
         Long newStatusId = 8L; // VALIDÉE
         
-        when(demandePlayersRepository.findById(BigDecimal.valueOf(demandeId)))
+        when(demandePlayersRepository.findByIdForUpdate(BigDecimal.valueOf(demandeId)))
                 .thenReturn(Optional.of(demandeEntity));
         when(demandePlayersRepository.save(demandeEntity)).thenReturn(demandeEntity);
         when(demandePlayersMapper.toDTO(demandeEntity)).thenReturn(demandeDTO);
@@ -200,6 +246,7 @@ class DemandePlayersServiceTest {
         assertNotNull(result);
         verify(demandePlayersRepository).findById(BigDecimal.valueOf(demandeId));
         verify(demandePlayersRepository).save(demandeEntity);
+        verify(pdfCache).invalidate(demandeId);
     }
 
     @Test
@@ -214,7 +261,7 @@ class DemandePlayersServiceTest {
         demande.setCinNumber("12345678"); // ✅ CIN fourni pour Cadet
         
         BigDecimal generatedId = BigDecimal.valueOf(999);
-        when(demandePlayersRepository.getNextDemandeId()).thenReturn(generatedId);
+        when(demandeIdAllocator.nextId()).thenReturn(generatedId);
         
         DemandePlayers savedEntity = new DemandePlayers();
         savedEntity.setDemandeId(generatedId);
@@ -235,8 +282,30 @@ class DemandePlayersServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(BigDecimal.valueOf(4), result.getPlayerCategoryId());
-        verify(demandePlayersRepository).getNextDemandeId();
-        verify(demandePlayersRepository).save(any(DemandePlayers.class));
+        verify(demandeIdAllocator).nextId();
+        // Hors de toute plage du référentiel : SENIORS
+        verify(demandePlayersRepository).save(argThat(d -> BigDecimal.valueOf(7).equals(d.getPlayerCategoryId())));
+    }
+
+    @Test
+    @DisplayName("Renouvellement - Catégorie recalculée depuis les plages du référentiel")
+    void testCreateRenouvellement_ShouldUseReferenceCategory() {
+        // Given - Joueur né en 2009, précédemment MINIMES
+        DemandePlayers previous = new DemandePlayers();
+        previous.setDemandeId(BigDecimal.valueOf(10));
+        previous.setName("TEST");
+        previous.setDateOfBirth(LocalDate.of(2009, 3, 1));
+        previous.setPlayerCategoryId(BigDecimal.valueOf(3));
+        when(demandePlayersRepository.findById(BigDecimal.valueOf(10))).thenReturn(Optional.of(previous));
+        when(demandeIdAllocator.nextId()).thenReturn(BigDecimal.valueOf(999));
+        when(demandePlayersRepository.save(any(DemandePlayers.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        demandePlayersService.createRenouvellement(10L, 2026L, 1L);
+
+        // Then
+        verify(demandePlayersRepository).save(argThat(d -> BigDecimal.valueOf(4).equals(d.getPlayerCategoryId())
+            && BigDecimal.valueOf(2026).equals(d.getSeasonId())));
     }
 
     @Test
@@ -251,7 +320,7 @@ class DemandePlayersServiceTest {
         demande.setCinNumber("12345678"); // ✅ CIN OBLIGATOIRE pour majeur
         
         BigDecimal generatedId = BigDecimal.valueOf(999);
-        when(demandePlayersRepository.getNextDemandeId()).thenReturn(generatedId);
+        when(demandeIdAllocator.nextId()).thenReturn(generatedId);
         
         DemandePlayers savedEntity = new DemandePlayers();
         savedEntity.setDemandeId(generatedId);
@@ -272,7 +341,7 @@ class DemandePlayersServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(BigDecimal.valueOf(7), result.getPlayerCategoryId());
-        verify(demandePlayersRepository).getNextDemandeId();
+        verify(demandeIdAllocator).nextId();
         verify(demandePlayersRepository).save(any(DemandePlayers.class));
     }
 
@@ -333,4 +402,103 @@ class DemandePlayersServiceTest {
         
         assertTrue(exception.getMessage().contains("prénom est obligatoire"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Comptage par équipe/saison/statut - Équipe null : aucun résultat, comme la requête JPQL")
+    void testCountByTeamSeasonAndStatus_NullTeam_ShouldMatchNothing() {
+        // Given
+        when(counterStore.isReady()).thenReturn(true);
+
+        // When
+        Long count = demandePlayersService.countDemandesByTeamSeasonAndStatus(null, 2025L, 1L);
+
+        // Then
+        assertEquals(0L, count);
+        verify(counterStore, never()).count(any());
+    }
+
+    @Test
+    @DisplayName("Statistiques par régime - Limitées à la saison demandée")
+    void testGetRegimeStatistics_ForSeason_ShouldUseSeasonStats() {
+        // Given
+        when(seasonStatsService.getSeasonStats(3L, null)).thenReturn(new SeasonStatsService.SeasonStats(
+            3L, null, true, Map.of(1L, 5L), Map.of(), Map.of()));
+
+        // When
+        List<Map<String, Object>> stats = demandePlayersService.getRegimeStatistics(3L, null);
+
+        // Then
+        assertEquals(1, stats.size());
+        assertEquals(BigDecimal.valueOf(1), stats.get(0).get("regimeId"));
+        assertEquals(5L, stats.get(0).get("count"));
+        assertEquals("Amateur", stats.get(0).get("label"));
+        verify(demandePlayersRepository, never()).countByRegime();
+    }
+
+    @Test
+    @DisplayName("Résumé de saison - Une seule lecture des statistiques pour le total et les trois répartitions")
+    void testGetSeasonSummary_ShouldReadSeasonStatsOnce() {
+        // Given
+        when(seasonStatsService.getSeasonStats(3L, 101L)).thenReturn(new SeasonStatsService.SeasonStats(
+            3L, 101L, false, Map.of(1L, 5L), Map.of(1L, 5L), Map.of(1L, 2L, 8L, 3L)));
+
+        // When
+        Map<String, Object> summary = demandePlayersService.getSeasonSummary(3L, 101L);
+
+        // Then
+        assertEquals(5L, summary.get("totalSaison"));
+        assertEquals(1, ((List<?>) summary.get("regimes")).size());
+        assertEquals(1, ((List<?>) summary.get("typesLicence")).size());
+        assertEquals(2, ((List<?>) summary.get("statuts")).size());
+        verify(seasonStatsService, times(1)).getSeasonStats(3L, 101L);
+        verify(demandePlayersRepository, never()).countByCriteria(any());
+        verify(counterStore, never()).count(any());
+    }
+
+    @Test
+    @DisplayName("Pagination par curseur - Curseur suivant construit depuis la dernière ligne")
+    void testSearchDemandesKeyset_ShouldReturnNextCursorWithoutCount() {
+        // Given
+        demandeEntity.setDateEnregistrement(LocalDate.of(2025, 9, 1));
+        when(demandePlayersRepository.searchAfter(any(), isNull(), eq(1)))
+            .thenReturn(new SliceImpl<>(List.of(demandeEntity), PageRequest.of(0, 1), true));
+        when(demandePlayersMapper.toDTOList(List.of(demandeEntity))).thenReturn(List.of(demandeDTO));
+
+        // When
+        CursorPageDTO<DemandePlayersDTO> page = demandePlayersService.searchDemandesKeyset(
+            null, null, 102L, 2025L, null, null, null, null, null, null, null, null, 1, false);
+
+        // Then
+        assertTrue(page.isHasNext());
+        assertNull(page.getTotalElements());
+        assertEquals(new DemandeCursor(LocalDate.of(2025, 9, 1), BigDecimal.valueOf(123)),
+            DemandeCursor.decode(page.getNextCursor()));
+        verify(demandePlayersRepository, never()).countByCriteria(any());
+    }
+
+    @Test
+    @DisplayName("Pagination par curseur - Curseur invalide rejeté")
+    void testSearchDemandesKeyset_InvalidCursor_ShouldThrow() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> demandePlayersService.searchDemandesKeyset(
+            null, null, null, null, null, null, null, null, null, null, null, "pas-un-curseur", 20, false));
+    }
+
+    @Test
+    @DisplayName("Candidats au renouvellement - Vue liste sans chargement d'entités")
+    void testGetRenewalCandidates_ShouldReturnSummariesWithoutMapping() {
+        // Given
+        DemandeSummaryDTO summary = new DemandeSummaryDTO(BigDecimal.valueOf(123), "DUPONT", "Jean",
+            LocalDate.of(2010, 10, 10), "L123", null, BigDecimal.valueOf(102), BigDecimal.valueOf(2025),
+            BigDecimal.valueOf(8), BigDecimal.valueOf(2), BigDecimal.valueOf(1), null, BigDecimal.valueOf(1), null);
+        when(demandePlayersRepository.findRenewalCandidateSummaries(BigDecimal.valueOf(102), BigDecimal.valueOf(2025)))
+            .thenReturn(List.of(summary));
+
+        // When
+        List<DemandeSummaryDTO> candidates = demandePlayersService.getRenewalCandidates(102L, 2025L);
+
+        // Then
+        assertEquals(List.of(summary), candidates);
+        verifyNoInteractions(demandePlayersMapper);
+    }
+}
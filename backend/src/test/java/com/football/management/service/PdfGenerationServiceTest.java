@@ -0,0 +1,139 @@
+package com.football.management.service;
+
+import com.football.management.entity.DemandePlayers;
+import com.football.management.service.pdf.PdfTemplates;
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.PdfIndirectReference;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests PdfGenerationService - Impression des licences par lot")
+class PdfGenerationServiceTest {
+
+    private PdfGenerationService pdfGenerationService;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        pdfGenerationService = new PdfGenerationService();
+        ReflectionTestUtils.setField(pdfGenerationService, "pdfRenderPool", pool);
+        ReflectionTestUtils.setField(pdfGenerationService, "pdfTemplates", new PdfTemplates());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Lot de licences - Un seul PDF, licences dans l'ordre de la liste")
+    void testGenerateLicencesPdf_ShouldMergeInOrder() throws Exception {
+        // Given
+        List<DemandePlayers> demandes = demandes(20);
+
+        // When
+        byte[] pdf = pdfGenerationService.generateLicencesPdf(demandes);
+
+        // Then
+        PdfReader reader = new PdfReader(pdf);
+        assertTrue(reader.getNumberOfPages() >= demandes.size());
+        int first = pageContaining(reader, "1001");
+        int middle = pageContaining(reader, "1010");
+        int last = pageContaining(reader, "1020");
+        reader.close();
+        assertTrue(first > 0 && first < middle && middle < last);
+    }
+
+    @Test
+    @DisplayName("Lot de licences - En-tête et pied de page stockés une seule fois (XObject partagé)")
+    void testGenerateLicencesPdf_ShouldShareStaticArtwork() throws Exception {
+        // When
+        byte[] pdf = pdfGenerationService.generateLicencesPdf(demandes(20));
+
+        // Then
+        PdfReader reader = new PdfReader(pdf);
+        Set<Integer> artworks = new HashSet<>();
+        for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+            PdfDictionary xobjects = reader.getPageN(page)
+                .getAsDict(PdfName.RESOURCES).getAsDict(PdfName.XOBJECT);
+            for (PdfName name : xobjects.getKeys()) {
+                artworks.add(((PdfIndirectReference) xobjects.get(name)).getNumber());
+            }
+        }
+        String firstPage = PdfTextExtractor.getTextFromPage(reader, 1);
+        reader.close();
+
+        assertEquals(1, artworks.size());
+        assertTrue(firstPage.contains("LICENCE DE JOUEUR"));
+        assertTrue(firstPage.contains("JOUEUR1"));
+    }
+
+    @Test
+    @DisplayName("Écriture en flux - PDF complet écrit dans le flux fourni, laissé ouvert")
+    void testWriteLicencesPdf_ShouldWriteToStreamWithoutClosingIt() throws Exception {
+        // Given : plus de licences que la fenêtre de rendu (2 x parallélisme)
+        List<DemandePlayers> demandes = demandes(30);
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        // When
+        pdfGenerationService.writeLicencesPdf(demandes, out);
+
+        // Then
+        assertFalse(closed.get());
+        PdfReader reader = new PdfReader(out.toByteArray());
+        assertTrue(pageContaining(reader, "1030") > pageContaining(reader, "1001"));
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("Lot vide - Refusé")
+    void testGenerateLicencesPdf_Empty_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> pdfGenerationService.generateLicencesPdf(List.of()));
+    }
+
+    private static List<DemandePlayers> demandes(int count) {
+        List<DemandePlayers> demandes = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            DemandePlayers demande = new DemandePlayers();
+            demande.setDemandeId(BigDecimal.valueOf(1000 + id));
+            demande.setName("JOUEUR" + id);
+            demande.setLastName("Test");
+            demandes.add(demande);
+        }
+        return demandes;
+    }
+
+    private static int pageContaining(PdfReader reader, String text) throws Exception {
+        for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+            if (PdfTextExtractor.getTextFromPage(reader, page).contains(text)) {
+                return page;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,137 @@
+package com.football.management.service.export;
+
+import com.football.management.repository.DemandeExportRepository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests BordereauService - Bordereau d'envoi")
+class BordereauServiceTest {
+
+    @Mock
+    private DemandeExportRepository exportRepository;
+
+    @InjectMocks
+    private BordereauService bordereauService;
+
+    // ==================== TESTS CHARGEMENT ====================
+
+    @Test
+    @DisplayName("Chargement - Une requête pour toute la sélection, libellés et dates formatés")
+    void testLoad_ShouldFormatLines() {
+        // Given
+        when(exportRepository.findBordereauLines(
+                List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(2)), BigDecimal.valueOf(101), BigDecimal.valueOf(2025)))
+            .thenReturn(lines(line("BEN ALI", 1, LocalDate.of(2008, 3, 14)), line("TRABELSI", 3, null)));
+
+        // When
+        BordereauService.Bordereau bordereau = bordereauService.load(101L, 2025L, List.of(1L, 2L));
+
+        // Then
+        assertEquals("Club Africain", bordereau.clubName());
+        assertEquals(2, bordereau.lignes().size());
+        assertEquals("Joueur", bordereau.lignes().get(0).get("typeIntervenant"));
+        assertEquals("14/03/2008", bordereau.lignes().get(0).get("dateNaissance"));
+        assertEquals("Entraîneur", bordereau.lignes().get(1).get("typeIntervenant"));
+        assertEquals("", bordereau.lignes().get(1).get("dateNaissance"));
+        verify(exportRepository, times(1)).findBordereauLines(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Chargement - Aucune ligne : nom du club remplacé par son ID")
+    void testLoad_NoLines_ShouldUseTeamIdAsClubName() {
+        // Given
+        when(exportRepository.findBordereauLines(any(), any(), any())).thenReturn(new ArrayList<>());
+
+        // When
+        BordereauService.Bordereau bordereau = bordereauService.load(101L, 2025L, List.of(1L));
+
+        // Then
+        assertEquals("Club ID: 101", bordereau.clubName());
+        assertTrue(bordereau.lignes().isEmpty());
+    }
+
+    // ==================== TESTS RENDU ====================
+
+    @Test
+    @DisplayName("HTML - Lignes rendues par le template, analysé une seule fois")
+    void testRenderHtml_ShouldRenderLinesWithCachedTemplate() {
+        // Given
+        BordereauService.Bordereau bordereau = new BordereauService.Bordereau(101L, 2025L, "Club Africain",
+            "01/09/2025", lines(displayLine("BEN ALI"), displayLine("TRABELSI")));
+
+        // When
+        String first = bordereauService.renderHtml(bordereau);
+        String second = bordereauService.renderHtml(bordereau);
+
+        // Then
+        assertEquals(first, second);
+        assertTrue(first.contains("Club Africain"));
+        assertTrue(first.contains("BEN ALI Mohamed"));
+        assertTrue(first.contains("TRABELSI Mohamed"));
+        SpringTemplateEngine engine = (SpringTemplateEngine) ReflectionTestUtils.getField(bordereauService, "templateEngine");
+        assertEquals(1, engine.getCacheManager().getTemplateCache().size());
+    }
+
+    @Test
+    @DisplayName("PDF - Document généré")
+    void testRenderPdf_ShouldProducePdf() throws Exception {
+        // Given
+        BordereauService.Bordereau bordereau = new BordereauService.Bordereau(101L, 2025L, "Club Africain",
+            "01/09/2025", lines(displayLine("BEN ALI")));
+
+        // When
+        byte[] pdf = bordereauService.renderPdf(bordereau);
+
+        // Then
+        assertTrue(new String(pdf, 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF-"));
+    }
+
+    /** Ligne telle que renvoyée par DemandeExportRepository */
+    private static Map<String, Object> line(String nom, int typeIntervenantId, LocalDate dateNaissance) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("typeIntervenantId", BigDecimal.valueOf(typeIntervenantId));
+        line.put("nom", nom);
+        line.put("prenom", "Mohamed");
+        line.put("dateNaissance", dateNaissance);
+        line.put("clubName", "Club Africain");
+        return line;
+    }
+
+    /** Ligne après chargement (libellés et dates déjà formatés) */
+    private static Map<String, Object> displayLine(String nom) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("typeIntervenant", "Joueur");
+        line.put("nom", nom);
+        line.put("prenom", "Mohamed");
+        line.put("cin", "01234567");
+        line.put("dateNaissance", "14/03/2008");
+        line.put("lieuNaissance", "TUNIS");
+        line.put("nationalite", "TUNISIE");
+        line.put("dateEnvoi", "01/09/2025");
+        return line;
+    }
+
+    @SafeVarargs
+    private static List<Map<String, Object>> lines(Map<String, Object>... lines) {
+        return new ArrayList<>(List.of(lines));
+    }
+}
@@ -0,0 +1,72 @@
+package com.football.management.service.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests XlsxTabularWriter - Export XLSX en flux")
+class XlsxTabularWriterTest {
+
+    @Test
+    @DisplayName("Classeur complet - Parties OOXML présentes et lignes écrites")
+    void testWrite_ShouldProduceValidPackage() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        XlsxTabularWriter writer = new XlsxTabularWriter(out, "Demandes");
+        writer.writeRow(List.of("Nom", "Prénom"));
+        writer.writeRow(Arrays.asList(12, null));
+        writer.finish();
+
+        // Then
+        Map<String, String> entries = readEntries(out.toByteArray());
+        assertTrue(entries.containsKey("[Content_Types].xml"));
+        assertTrue(entries.containsKey("_rels/.rels"));
+        assertTrue(entries.containsKey("xl/workbook.xml"));
+        assertTrue(entries.containsKey("xl/_rels/workbook.xml.rels"));
+
+        String sheet = entries.get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<t>Prénom</t>"));
+        assertTrue(sheet.contains("<c t=\"n\"><v>12</v></c><c/>"));
+        assertTrue(sheet.endsWith("</sheetData></worksheet>"));
+    }
+
+    @Test
+    @DisplayName("Caractères spéciaux - Échappés dans les cellules")
+    void testWrite_SpecialCharacters_ShouldBeEscaped() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        XlsxTabularWriter writer = new XlsxTabularWriter(out, "Demandes");
+        writer.writeRow(List.of("A & B <C>"));
+        writer.finish();
+
+        // Then
+        String sheet = readEntries(out.toByteArray()).get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<t>A &amp; B &lt;C&gt;</t>"));
+    }
+
+    private Map<String, String> readEntries(byte[] content) throws Exception {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(content), StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
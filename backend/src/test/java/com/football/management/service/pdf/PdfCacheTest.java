@@ -0,0 +1,187 @@
+package com.football.management.service.pdf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests PdfCache - Cache disque des PDF par empreinte")
+class PdfCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private PdfCache pdfCache;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        pdfCache = new PdfCache();
+        ReflectionTestUtils.setField(pdfCache, "enabled", true);
+        ReflectionTestUtils.setField(pdfCache, "directory", directory.toString());
+        renders = new AtomicInteger();
+    }
+
+    // ==================== TESTS LECTURE / ÉCRITURE ====================
+
+    @Test
+    @DisplayName("Deuxième téléchargement - Copie du fichier, sans nouveau rendu")
+    void testWrite_SameFingerprint_ShouldRenderOnce() throws Exception {
+        // When
+        String first = write(1L, "abc", "PDF-1");
+        String second = write(1L, "abc", "PDF-2");
+
+        // Then
+        assertEquals("PDF-1", first);
+        assertEquals("PDF-1", second);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Demande modifiée - Nouvelle empreinte rendue, ancienne version retirée")
+    void testWrite_NewFingerprint_ShouldReplacePreviousEntry() throws Exception {
+        // When
+        write(1L, "abc", "PDF-1");
+        String updated = write(1L, "def", "PDF-2");
+
+        // Then
+        assertEquals("PDF-2", updated);
+        assertEquals(2, renders.get());
+        try (var files = Files.list(directory.resolve("1"))) {
+            assertEquals(List.of("licence-def.pdf"), files.map(f -> f.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Invalidation - Fichiers de la demande supprimés, rendu au prochain téléchargement")
+    void testInvalidate_ShouldDeleteDemandeEntries() throws Exception {
+        // Given
+        write(1L, "abc", "PDF-1");
+        write(2L, "abc", "PDF-1");
+
+        // When
+        pdfCache.invalidate(1L);
+
+        // Then
+        assertEquals(List.of(), pdfFiles(1L));
+        assertEquals(List.of("licence-abc.pdf"), pdfFiles(2L));
+        write(1L, "abc", "PDF-1");
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    @DisplayName("Invalidation pendant un rendu - Fichier temporaire conservé, PDF servi et mis en cache")
+    void testInvalidate_DuringRender_ShouldKeepTemporaryFile() throws Exception {
+        // Given
+        write(1L, "abc", "PDF-1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When : une autre requête invalide la demande pendant le rendu
+        pdfCache.write(1L, "licence", "def", file -> {
+            renders.incrementAndGet();
+            file.write("PDF-2".getBytes(StandardCharsets.UTF_8));
+            pdfCache.invalidate(1L);
+        }, out);
+
+        // Then
+        assertEquals("PDF-2", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, renders.get());
+        assertEquals(List.of("licence-def.pdf"), pdfFiles(1L));
+    }
+
+    @Test
+    @DisplayName("Fichier temporaire disparu - Rendu direct dans la réponse")
+    void testWrite_TemporaryFileDeleted_ShouldRenderDirectly() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When : le fichier temporaire est supprimé par un tiers avant la copie
+        pdfCache.write(1L, "licence", "abc", file -> {
+            renders.incrementAndGet();
+            file.write("PDF-1".getBytes(StandardCharsets.UTF_8));
+            try (var files = Files.list(directory.resolve("1"))) {
+                for (Path tmp : files.toList()) {
+                    Files.delete(tmp);
+                }
+            }
+        }, out);
+
+        // Then
+        assertEquals("PDF-1", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, renders.get());
+        assertTrue(pdfCache.lookup(1L, "licence", "abc").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Recherche - Fichier servi tel quel une fois rendu, absent sinon")
+    void testLookup_ShouldReturnRenderedEntryOnly() throws Exception {
+        // Given
+        assertTrue(pdfCache.lookup(1L, "licence", "abc").isEmpty());
+        write(1L, "abc", "PDF-1");
+
+        // When
+        Optional<Path> entry = pdfCache.lookup(1L, "licence", "abc");
+
+        // Then
+        assertTrue(entry.isPresent());
+        assertEquals("PDF-1", Files.readString(entry.get()));
+        assertTrue(pdfCache.lookup(1L, "licence", "def").isEmpty());
+        assertTrue(pdfCache.lookup(1L, "recepisse", "abc").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cache désactivé - Rendu direct à chaque téléchargement")
+    void testWrite_Disabled_ShouldAlwaysRender() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(pdfCache, "enabled", false);
+
+        // When
+        write(1L, "abc", "PDF-1");
+        write(1L, "abc", "PDF-1");
+
+        // Then
+        assertEquals(2, renders.get());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // ==================== TESTS ETAG ====================
+
+    @Test
+    @DisplayName("If-None-Match - Liste, étiquette faible et joker reconnus")
+    void testMatches_ShouldFollowIfNoneMatchSyntax() {
+        assertTrue(PdfCache.matches("\"abc\"", "abc"));
+        assertTrue(PdfCache.matches("\"xyz\", W/\"abc\"", "abc"));
+        assertTrue(PdfCache.matches("*", "abc"));
+        assertFalse(PdfCache.matches("\"abd\"", "abc"));
+        assertFalse(PdfCache.matches("abc", "abc"));
+        assertFalse(PdfCache.matches(null, "abc"));
+    }
+
+    private String write(Long demandeId, String fingerprint, String content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pdfCache.write(demandeId, "licence", fingerprint, file -> {
+            renders.incrementAndGet();
+            file.write(content.getBytes(StandardCharsets.UTF_8));
+        }, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<String> pdfFiles(Long demandeId) throws Exception {
+        try (var files = Files.list(directory.resolve(String.valueOf(demandeId)))) {
+            return files.map(f -> f.getFileName().toString()).filter(name -> name.endsWith(".pdf")).sorted().toList();
+        }
+    }
+}
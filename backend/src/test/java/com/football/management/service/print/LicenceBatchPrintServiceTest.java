@@ -0,0 +1,203 @@
+package com.football.management.service.print;
+
+import com.football.management.dto.LicencePrintRequest;
+import com.football.management.entity.DemandePlayers;
+import com.football.management.enums.DemandeStatus;
+import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.service.PdfGenerationService;
+import com.football.management.service.workflow.WorkflowService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests LicenceBatchPrintService - Impression des licences par lot")
+class LicenceBatchPrintServiceTest {
+
+    @Mock
+    private DemandePlayersRepository demandeRepository;
+
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    @Mock
+    private WorkflowService workflowService;
+
+    @InjectMocks
+    private LicenceBatchPrintService licenceBatchPrintService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(licenceBatchPrintService, "maxLicences", 1000);
+    }
+
+    @Test
+    @DisplayName("Liste d'identifiants - Un seul chargement, ordre de la demande conservé")
+    void testSelect_ByIds_ShouldKeepRequestOrder() {
+        // Given : la base renvoie les lignes dans un autre ordre
+        when(demandeRepository.findAllById(anyList())).thenReturn(List.of(demande(3), demande(1), demande(2)));
+        LicencePrintRequest request = new LicencePrintRequest();
+        request.setDemandeIds(List.of(2L, 3L, 1L));
+
+        // When
+        List<DemandePlayers> demandes = licenceBatchPrintService.select(request);
+
+        // Then
+        assertEquals(List.of(2L, 3L, 1L), demandes.stream().map(d -> d.getDemandeId().longValue()).toList());
+        verify(demandeRepository, times(1)).findAllById(anyList());
+    }
+
+    @Test
+    @DisplayName("Identifiant inconnu - Impression refusée")
+    void testSelect_MissingId_ShouldThrow() {
+        // Given
+        when(demandeRepository.findAllById(anyList())).thenReturn(List.of(demande(1)));
+        LicencePrintRequest request = new LicencePrintRequest();
+        request.setDemandeIds(List.of(1L, 99L));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> licenceBatchPrintService.select(request));
+        assertTrue(exception.getMessage().contains("99"));
+    }
+
+    @Test
+    @DisplayName("Sélection au-delà du plafond - Refusée avant toute écriture")
+    void testSelect_OverLimit_ShouldThrow() {
+        // Given
+        ReflectionTestUtils.setField(licenceBatchPrintService, "maxLicences", 1);
+        when(demandeRepository.findAllById(anyList())).thenReturn(List.of(demande(1), demande(2)));
+        LicencePrintRequest request = new LicencePrintRequest();
+        request.setDemandeIds(List.of(1L, 2L));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> licenceBatchPrintService.select(request));
+    }
+
+    @Test
+    @DisplayName("Équipe et saison - Licences validées par le club, passées à IMPRIMEE avant d'être écrites")
+    void testPrepareAndPrint_ByTeam_ShouldMarkPrintedBeforeStreaming() throws Exception {
+        // Given
+        List<DemandePlayers> demandes = List.of(demande(1), demande(2));
+        when(demandeRepository.findForPrinting(BigDecimal.valueOf(101), BigDecimal.valueOf(2025),
+            DemandeStatus.VALIDEE_CLUB.getBigDecimalId())).thenReturn(demandes);
+        when(workflowService.changeStatusBulk(List.of(1L, 2L), DemandeStatus.IMPRIMEE.getId(), 1L, "Licence imprimée"))
+            .thenReturn(report(success(1), success(2)));
+        LicencePrintRequest request = new LicencePrintRequest();
+        request.setTeamId(101L);
+        request.setSeasonId(2025L);
+        request.setMarkPrinted(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        List<DemandePlayers> selected = licenceBatchPrintService.select(request);
+        LicenceBatchPrintService.PreparedPrint prepared = licenceBatchPrintService.prepare(selected, true, 1L);
+        licenceBatchPrintService.print(prepared.demandes(), out);
+
+        // Then : statut changé avant l'écriture du PDF
+        assertEquals(demandes, prepared.demandes());
+        assertTrue(prepared.failedIds().isEmpty());
+        InOrder inOrder = inOrder(workflowService, pdfGenerationService);
+        inOrder.verify(workflowService).changeStatusBulk(List.of(1L, 2L), DemandeStatus.IMPRIMEE.getId(), 1L, "Licence imprimée");
+        inOrder.verify(pdfGenerationService, times(1)).writeLicencesPdf(demandes, out);
+    }
+
+    @Test
+    @DisplayName("Passage à IMPRIMEE refusé (quota, transition) - Licence exclue du PDF et signalée")
+    void testPrepare_RefusedTransition_ShouldExcludeFromPrint() {
+        // Given
+        DemandePlayers accepted = demande(1);
+        List<DemandePlayers> demandes = List.of(accepted, demande(2));
+        when(workflowService.changeStatusBulk(anyList(), eq(DemandeStatus.IMPRIMEE.getId()), eq(1L), anyString()))
+            .thenReturn(report(success(1),
+                new WorkflowService.TransitionOutcome(2L, false, 8L, "Transition non autorisée")));
+
+        // When
+        LicenceBatchPrintService.PreparedPrint prepared = licenceBatchPrintService.prepare(demandes, true, 1L);
+
+        // Then
+        assertEquals(List.of(accepted), prepared.demandes());
+        assertEquals(List.of(2L), prepared.failedIds());
+    }
+
+    @Test
+    @DisplayName("Sans markPrinted - Toutes les licences imprimées, statut inchangé")
+    void testPrepare_WithoutMarkPrinted_ShouldKeepAllAndNotTouchStatus() {
+        // Given
+        List<DemandePlayers> demandes = List.of(demande(1), demande(2));
+
+        // When
+        LicenceBatchPrintService.PreparedPrint prepared = licenceBatchPrintService.prepare(demandes, false, 1L);
+
+        // Then
+        assertEquals(demandes, prepared.demandes());
+        assertNull(prepared.report());
+        verifyNoInteractions(workflowService);
+    }
+
+    @Test
+    @DisplayName("Gros lot - Passage à IMPRIMEE par tranches de 1000, une transaction chacune, résultats réunis")
+    void testMarkPrinted_LargeBatch_ShouldMarkByChunks() {
+        // Given
+        List<DemandePlayers> demandes = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            demandes.add(demande(id));
+        }
+        when(workflowService.changeStatusBulk(anyList(), eq(DemandeStatus.IMPRIMEE.getId()), eq(1L), anyString()))
+            .thenAnswer(invocation -> {
+                List<Long> ids = invocation.getArgument(0);
+                return report(ids.stream().map(id -> id == 1500L
+                        ? new WorkflowService.TransitionOutcome(id, false, 8L, "Transition non autorisée")
+                        : success(id))
+                    .toArray(WorkflowService.TransitionOutcome[]::new));
+            });
+
+        // When
+        WorkflowService.BulkTransitionReport report = licenceBatchPrintService.markPrinted(demandes, 1L);
+
+        // Then
+        ArgumentCaptor<List<Long>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(workflowService, times(3)).changeStatusBulk(chunks.capture(), any(), any(), any());
+        assertEquals(List.of(1000, 1000, 500), chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals(1L, chunks.getAllValues().get(0).get(0));
+        assertEquals(2001L, chunks.getAllValues().get(2).get(0));
+        assertEquals(2500, report.total());
+        assertEquals(2499, report.succeeded());
+        assertEquals(1, report.failed());
+        assertEquals(1500L, report.outcomes().get(1499).demandeId());
+    }
+
+    private static WorkflowService.TransitionOutcome success(long id) {
+        return new WorkflowService.TransitionOutcome(id, true, 2L, null);
+    }
+
+    private static WorkflowService.BulkTransitionReport report(WorkflowService.TransitionOutcome... outcomes) {
+        int succeeded = (int) Arrays.stream(outcomes).filter(WorkflowService.TransitionOutcome::success).count();
+        return new WorkflowService.BulkTransitionReport(DemandeStatus.IMPRIMEE.getId(), outcomes.length, succeeded,
+            outcomes.length - succeeded, List.of(outcomes));
+    }
+
+    private DemandePlayers demande(long id) {
+        DemandePlayers demande = new DemandePlayers();
+        demande.setDemandeId(BigDecimal.valueOf(id));
+        return demande;
+    }
+}
@@ -0,0 +1,331 @@
+package com.football.management.service.print;
+
+import com.football.management.dto.LicencePrintRequest;
+import com.football.management.entity.DemandePlayers;
+import com.football.management.enums.DemandeStatus;
+import com.football.management.repository.PrintJobRepository;
+import com.football.management.repository.PrintJobRepository.PrintJob;
+import com.football.management.repository.PrintJobRepository.Status;
+import com.football.management.service.PdfGenerationService;
+import com.football.management.service.workflow.WorkflowService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests PrintJobService - Impressions en arrière-plan")
+class PrintJobServiceTest {
+
+    private static final Long JOB = 42L;
+    private static final String OWNER = "print-1";
+
+    @TempDir
+    Path spool;
+
+    @Mock
+    private PrintJobRepository printJobRepository;
+
+    @Mock
+    private LicenceBatchPrintService licenceBatchPrintService;
+
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    @Mock
+    private ThreadPoolTaskExecutor printJobExecutor;
+
+    @Mock
+    private ForkJoinPool printJobRenderPool;
+
+    @InjectMocks
+    private PrintJobService printJobService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(printJobService, "spoolDirectory", spool.toString());
+        ReflectionTestUtils.setField(printJobService, "maxLicences", 20000);
+        ReflectionTestUtils.setField(printJobService, "retentionHours", 72);
+        ReflectionTestUtils.setField(printJobService, "instanceId", OWNER);
+        ReflectionTestUtils.setField(printJobService, "leaseSeconds", 300L);
+    }
+
+    // ==================== TESTS SOUMISSION ====================
+
+    @Test
+    @DisplayName("Soumission - Travail enregistré puis confié au pool, sans rendu sur le thread appelant")
+    void testSubmit_ShouldInsertAndExecute() {
+        // Given
+        when(printJobRepository.insert(isNull(), eq(101L), eq(2025L), isNull(), eq(true), eq(1L))).thenReturn(JOB);
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_ATTENTE, true)));
+
+        // When
+        PrintJob job = printJobService.submit(request(), 1L);
+
+        // Then
+        assertEquals(Status.EN_ATTENTE, job.status());
+        verify(printJobExecutor).execute(any(Runnable.class));
+        verifyNoInteractions(pdfGenerationService);
+    }
+
+    @Test
+    @DisplayName("Pool plein - Travail laissé en attente en base, pas d'erreur")
+    void testSubmit_PoolFull_ShouldStayQueued() {
+        // Given
+        when(printJobRepository.insert(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(JOB);
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_ATTENTE, true)));
+        doThrow(new TaskRejectedException("plein")).when(printJobExecutor).execute(any(Runnable.class));
+
+        // When
+        PrintJob job = printJobService.submit(request(), 1L);
+
+        // Then
+        assertEquals(Status.EN_ATTENTE, job.status());
+        verify(printJobRepository, never()).fail(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Sans sélection - Refusé avant enregistrement")
+    void testSubmit_NoSelection_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> printJobService.submit(new LicencePrintRequest(), 1L));
+        verifyNoInteractions(printJobRepository);
+    }
+
+    // ==================== TESTS EXÉCUTION ====================
+
+    @Test
+    @DisplayName("Exécution - Licences passées à IMPRIMEE avant le rendu, seules les acceptées écrites dans le spool")
+    void testRun_ShouldMarkPrintedThenSpoolAcceptedOnly() throws Exception {
+        // Given : 201 licences sélectionnées, la dernière refusée au passage à IMPRIMEE
+        List<DemandePlayers> selected = demandes(201);
+        List<DemandePlayers> demandes = selected.subList(0, 200);
+        when(printJobRepository.claim(JOB, OWNER)).thenReturn(true);
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_COURS, true)));
+        when(licenceBatchPrintService.select(any(LicencePrintRequest.class), eq(20000))).thenReturn(selected);
+        when(licenceBatchPrintService.prepare(selected, true, 1L)).thenReturn(new LicenceBatchPrintService.PreparedPrint(
+            demandes, report(200, new WorkflowService.TransitionOutcome(201L, false, 8L, "Transition non autorisée"))));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            IntConsumer progress = invocation.getArgument(3);
+            for (int done = 1; done <= demandes.size(); done++) {
+                out.write('x');
+                progress.accept(done);
+            }
+            return null;
+        }).when(pdfGenerationService).writeLicencesPdf(eq(demandes), any(), eq(printJobRenderPool), any());
+        when(printJobRepository.complete(JOB, OWNER, 200L)).thenReturn(true);
+
+        // When
+        printJobService.run(JOB);
+
+        // Then
+        assertEquals(200, Files.size(spool.resolve(JOB + ".pdf")));
+        assertFalse(Files.exists(spool.resolve(JOB + ".pdf.part")));
+        verify(printJobRepository).updateProgress(JOB, OWNER, 200, 0);
+        verify(printJobRepository).updateProgress(JOB, OWNER, 200, 100);
+        verify(printJobRepository, times(100)).updateProgress(eq(JOB), eq(OWNER), eq(200), anyInt());
+        InOrder inOrder = inOrder(licenceBatchPrintService, printJobRepository, pdfGenerationService);
+        inOrder.verify(licenceBatchPrintService).prepare(selected, true, 1L);
+        inOrder.verify(printJobRepository).recordPrinted(JOB, OWNER, 200, List.of(201L));
+        inOrder.verify(pdfGenerationService).writeLicencesPdf(eq(demandes), any(), eq(printJobRenderPool), any());
+        inOrder.verify(printJobRepository).complete(JOB, OWNER, 200L);
+    }
+
+    @Test
+    @DisplayName("Exécution - Aucune licence acceptée au passage à IMPRIMEE : travail en échec, refus enregistrés")
+    void testRun_AllRefused_ShouldFailWithoutRendering() throws Exception {
+        // Given
+        List<DemandePlayers> selected = demandes(1);
+        when(printJobRepository.claim(JOB, OWNER)).thenReturn(true);
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_COURS, true)));
+        when(licenceBatchPrintService.select(any(LicencePrintRequest.class), anyInt())).thenReturn(selected);
+        when(licenceBatchPrintService.prepare(selected, true, 1L)).thenReturn(new LicenceBatchPrintService.PreparedPrint(
+            List.of(), report(0, new WorkflowService.TransitionOutcome(1L, false, 8L, "Transition non autorisée"))));
+
+        // When
+        printJobService.run(JOB);
+
+        // Then
+        verify(printJobRepository).recordPrinted(JOB, OWNER, 0, List.of(1L));
+        verify(printJobRepository).fail(JOB, OWNER, "Aucune licence n'a pu passer au statut IMPRIMEE");
+        verifyNoInteractions(pdfGenerationService);
+        assertFalse(Files.exists(spool.resolve(JOB + ".pdf")));
+    }
+
+    @Test
+    @DisplayName("Exécution - Travail déjà pris par un autre worker : rien à faire")
+    void testRun_AlreadyClaimed_ShouldDoNothing() {
+        // Given
+        when(printJobRepository.claim(JOB, OWNER)).thenReturn(false);
+
+        // When
+        printJobService.run(JOB);
+
+        // Then
+        verify(printJobRepository, never()).findById(any());
+        verifyNoInteractions(licenceBatchPrintService, pdfGenerationService);
+    }
+
+    @Test
+    @DisplayName("Exécution - Sélection invalide : travail en échec avec le message, pas de fichier")
+    void testRun_SelectionError_ShouldFailJob() {
+        // Given
+        when(printJobRepository.claim(JOB, OWNER)).thenReturn(true);
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_COURS, false)));
+        when(licenceBatchPrintService.select(any(LicencePrintRequest.class), anyInt()))
+            .thenThrow(new IllegalArgumentException("Aucune licence à imprimer"));
+
+        // When
+        printJobService.run(JOB);
+
+        // Then
+        verify(printJobRepository).fail(JOB, OWNER, "Aucune licence à imprimer");
+        verify(printJobRepository, never()).complete(any(), any(), anyLong());
+        assertFalse(Files.exists(spool.resolve(JOB + ".pdf")));
+    }
+
+    // ==================== TESTS REPRISE ====================
+
+    @Test
+    @DisplayName("Démarrage - Seuls les travaux de cette instance sont remis en attente")
+    void testRecoverOnStartup_ShouldRequeueOwnJobsOnly() {
+        // Given
+        when(printJobRepository.findQueued(anyInt())).thenReturn(List.of());
+
+        // When
+        printJobService.recoverOnStartup();
+
+        // Then
+        verify(printJobRepository).requeueOwned(OWNER);
+        verify(printJobRepository).requeueExpired(300L);
+    }
+
+    @Test
+    @DisplayName("Répartition - Signe de vie des travaux en cours avant la reprise des travaux expirés")
+    void testDispatchQueued_ShouldHeartbeatBeforeRequeueingExpired() {
+        // Given
+        when(printJobRepository.findQueued(anyInt())).thenReturn(List.of());
+
+        // When
+        printJobService.dispatchQueued();
+
+        // Then
+        InOrder inOrder = inOrder(printJobRepository);
+        inOrder.verify(printJobRepository).heartbeat(OWNER);
+        inOrder.verify(printJobRepository).requeueExpired(300L);
+        verify(printJobRepository, never()).requeueOwned(any());
+    }
+
+    @Test
+    @DisplayName("Démarrage - Répertoire de spool partagé non configuré : démarrage refusé")
+    void testRecoverOnStartup_NoSpoolDirectory_ShouldThrow() {
+        // Given
+        ReflectionTestUtils.setField(printJobService, "spoolDirectory", " ");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> printJobService.recoverOnStartup());
+        verifyNoInteractions(printJobRepository);
+    }
+
+    @Test
+    @DisplayName("Purge - Fichier supprimé par la seule instance qui a fait expirer le travail")
+    void testDispatchQueued_ExpiredJobs_ShouldDeleteOnlyClaimedFiles() throws Exception {
+        // Given : deux travaux expirés, le second déjà pris par une autre instance
+        Files.writeString(spool.resolve("1.pdf"), "x");
+        Files.writeString(spool.resolve("2.pdf"), "x");
+        when(printJobRepository.findQueued(anyInt())).thenReturn(List.of());
+        when(printJobRepository.findFinishedBefore(any())).thenReturn(List.of(1L, 2L));
+        when(printJobRepository.markExpired(1L)).thenReturn(true);
+        when(printJobRepository.markExpired(2L)).thenReturn(false);
+
+        // When
+        printJobService.dispatchQueued();
+
+        // Then
+        assertFalse(Files.exists(spool.resolve("1.pdf")));
+        assertTrue(Files.exists(spool.resolve("2.pdf")));
+    }
+
+    @Test
+    @DisplayName("Exécution - Travail repris par une autre instance : résultat non enregistré")
+    void testRun_LeaseLost_ShouldNotOverwriteJob() throws Exception {
+        // Given
+        List<DemandePlayers> demandes = demandes(2);
+        when(printJobRepository.claim(JOB, OWNER)).thenReturn(true);
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_COURS, false)));
+        when(licenceBatchPrintService.select(any(LicencePrintRequest.class), anyInt())).thenReturn(demandes);
+        when(licenceBatchPrintService.prepare(demandes, false, 1L))
+            .thenReturn(new LicenceBatchPrintService.PreparedPrint(demandes, null));
+        when(printJobRepository.complete(eq(JOB), eq(OWNER), anyLong())).thenReturn(false);
+
+        // When
+        printJobService.run(JOB);
+
+        // Then
+        verify(printJobRepository).complete(eq(JOB), eq(OWNER), anyLong());
+        verify(printJobRepository, never()).fail(any(), any(), any());
+        verify(printJobRepository, never()).recordPrinted(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Téléchargement - Travail non terminé : refusé")
+    void testGetResult_NotFinished_ShouldThrow() {
+        // Given
+        when(printJobRepository.findById(JOB)).thenReturn(Optional.of(job(Status.EN_COURS, false)));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> printJobService.getResult(JOB));
+    }
+
+    private LicencePrintRequest request() {
+        LicencePrintRequest request = new LicencePrintRequest();
+        request.setTeamId(101L);
+        request.setSeasonId(2025L);
+        request.setMarkPrinted(true);
+        return request;
+    }
+
+    private PrintJob job(Status status, boolean markPrinted) {
+        return new PrintJob(JOB, status, List.of(), 101L, 2025L, null, markPrinted, 1L,
+            null, 0, null, List.of(), null, null, null, null, null);
+    }
+
+    /** Passage à IMPRIMEE : succeeded acceptées, puis les refus donnés */
+    private static WorkflowService.BulkTransitionReport report(int succeeded, WorkflowService.TransitionOutcome... refused) {
+        return new WorkflowService.BulkTransitionReport(DemandeStatus.IMPRIMEE.getId(), succeeded + refused.length,
+            succeeded, refused.length, List.of(refused));
+    }
+
+    private List<DemandePlayers> demandes(int count) {
+        List<DemandePlayers> demandes = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            DemandePlayers demande = new DemandePlayers();
+            demande.setDemandeId(BigDecimal.valueOf(id));
+            demandes.add(demande);
+        }
+        return demandes;
+    }
+}
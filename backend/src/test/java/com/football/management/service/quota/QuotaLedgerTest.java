@@ -0,0 +1,218 @@
+package com.football.management.service.quota;
+
+import com.football.management.entity.DemandePlayers;
+import com.football.management.service.reference.ReferenceDataSnapshot;
+import com.football.management.service.reference.ReferenceDataSnapshot.TeamDivision;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests QuotaLedger - Registre des places par quota")
+class QuotaLedgerTest {
+
+    private static final Long TEAM = 100L;
+    private static final Long SEASON = 2025L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ReferenceDataStore referenceDataStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private QuotaLedger quotaLedger;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(referenceDataStore.getSnapshot()).thenReturn(new ReferenceDataSnapshot(
+            1L, Instant.now(), new QuotaParameters(30, 25, 4, 3, null),
+            List.of(), List.of(new TeamDivision(TEAM, SEASON, 1L))
+        ));
+    }
+
+    @Test
+    @DisplayName("Place disponible - Une seule mise à jour conditionnelle")
+    void testReserve_PlaceAvailable_ShouldIncrementOnce() {
+        // Given
+        when(jdbcTemplate.update(contains("used + 1"), eq(TEAM), eq(SEASON), eq("TOTAL"), eq(30))).thenReturn(1);
+
+        // When
+        quotaLedger.reserve(demande(1L, 1L, 193L));
+
+        // Then
+        verify(jdbcTemplate, never()).update(contains("INSERT"), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ligne absente - Initialisée depuis ct_demandes puis réservée")
+    void testReserve_MissingRow_ShouldSeedThenIncrement() {
+        // Given
+        when(jdbcTemplate.update(contains("used + 1"), eq(TEAM), eq(SEASON), eq("TOTAL"), eq(30)))
+            .thenReturn(0)
+            .thenReturn(1);
+
+        // When
+        quotaLedger.reserve(demande(1L, 1L, 193L));
+
+        // Then
+        verify(jdbcTemplate).update(contains("INSERT INTO ct_quota_ledger"), eq(TEAM), eq(SEASON), eq("TOTAL"), eq(TEAM), eq(SEASON));
+    }
+
+    @Test
+    @DisplayName("Quota étrangers atteint en Ligue I - Exception, transaction annulée")
+    void testReserve_ForeignQuotaFull_ShouldThrow() {
+        // Given
+        when(jdbcTemplate.update(contains("used + 1"), eq(TEAM), eq(SEASON), eq("TOTAL"), eq(30))).thenReturn(1);
+        when(jdbcTemplate.update(contains("used + 1"), eq(TEAM), eq(SEASON), eq("ETRANGER"), eq(4))).thenReturn(0);
+
+        // When
+        QuotaExceededException exception = assertThrows(QuotaExceededException.class,
+            () -> quotaLedger.reserve(demande(1L, 1L, 75L)));
+
+        // Then
+        assertEquals(QuotaType.ETRANGER, exception.getQuotaType());
+        assertEquals("Nombre maximum de joueurs étrangers atteint (4)", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Demande rejetée - Libère ses places sans en prendre")
+    void testUpdate_Rejected_ShouldReleasePlaces() {
+        // Given
+        DemandePlayers demande = demande(1L, 2L, 193L);
+        QuotaLedger.Holding before = QuotaLedger.Holding.of(demande);
+        demande.setDemandeStatuId(BigDecimal.valueOf(10));
+
+        // When
+        quotaLedger.update(before, demande);
+
+        // Then
+        verify(jdbcTemplate).update(contains("used - 1"), eq(TEAM), eq(SEASON), eq("TOTAL"));
+        verify(jdbcTemplate).update(contains("used - 1"), eq(TEAM), eq(SEASON), eq("PROFESSIONNEL"));
+        verify(jdbcTemplate, never()).update(contains("used + 1"), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Réactivation refusée par lot - Places inchangées, refus renvoyé sans exception")
+    void testTryUpdate_QuotaFull_ShouldUndoAndReturnRefusal() {
+        // Given : demande étrangère rejetée réactivée, TOTAL disponible, ETRANGER complet
+        DemandePlayers demande = demande(10L, 1L, 75L);
+        QuotaLedger.Holding before = QuotaLedger.Holding.of(demande);
+        QuotaLedger.Holding after = QuotaLedger.Holding.of(demande, BigDecimal.ONE);
+        when(jdbcTemplate.update(contains("used + 1"), eq(TEAM), eq(SEASON), eq("TOTAL"), eq(30))).thenReturn(1);
+        when(jdbcTemplate.update(contains("used + 1"), eq(TEAM), eq(SEASON), eq("ETRANGER"), eq(4))).thenReturn(0);
+
+        // When
+        Optional<QuotaExceededException> refusal = quotaLedger.tryUpdate(before, after);
+
+        // Then
+        assertTrue(refusal.isPresent());
+        assertEquals(QuotaType.ETRANGER, refusal.get().getQuotaType());
+        verify(jdbcTemplate).update(contains("used - 1"), eq(TEAM), eq(SEASON), eq("TOTAL"));
+    }
+
+    @Test
+    @DisplayName("Validation par le club puis impression - La place reste occupée, registre inchangé")
+    void testUpdate_ValidatedThenPrinted_ShouldKeepPlaces() {
+        // Given
+        DemandePlayers demande = demande(1L, 2L, 75L);
+        QuotaLedger.Holding initial = QuotaLedger.Holding.of(demande);
+        demande.setDemandeStatuId(BigDecimal.valueOf(2));
+        QuotaLedger.Holding validated = QuotaLedger.Holding.of(demande);
+
+        // When
+        quotaLedger.update(initial, demande);
+        demande.setDemandeStatuId(BigDecimal.valueOf(9));
+        quotaLedger.update(validated, demande);
+
+        // Then
+        assertEquals(EnumSet.allOf(QuotaType.class), validated.types());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Staff ou demande inactive - Aucun quota concerné")
+    void testReserve_NotAPlayer_ShouldNotTouchLedger() {
+        // Given
+        DemandePlayers staff = demande(1L, 1L, 193L);
+        staff.setCtIntervenantTypeId(BigDecimal.valueOf(2));
+
+        // When
+        quotaLedger.reserve(staff);
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    // ==================== TESTS RÉCONCILIATION ====================
+
+    @Test
+    @DisplayName("Réconciliation - Ligne en écart verrouillée, recomptée puis corrigée")
+    @SuppressWarnings("unchecked")
+    void testReconcile_DriftedRow_ShouldLockRecountAndCorrect() {
+        // Given
+        when(jdbcTemplate.query(contains("COALESCE(a.actual, 0)"), any(RowMapper.class)))
+            .thenReturn(List.of(new QuotaLedger.LedgerRow(TEAM, SEASON, QuotaType.TOTAL)));
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class), eq(TEAM), eq(SEASON), eq("TOTAL")))
+            .thenReturn(List.of(12));
+        when(jdbcTemplate.queryForObject(contains("IN (1, 2, 8, 9)"), eq(Integer.class), eq(TEAM), eq(SEASON)))
+            .thenReturn(10);
+
+        // When
+        quotaLedger.reconcile();
+
+        // Then
+        verify(jdbcTemplate).update(contains("SET used = ?"), eq(10), eq(TEAM), eq(SEASON), eq("TOTAL"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Réconciliation - Écart résorbé entre-temps : aucune correction")
+    void testReconcile_RowAlreadyConsistent_ShouldNotUpdate() {
+        // Given
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Integer.class), eq(TEAM), eq(SEASON), eq("ETRANGER")))
+            .thenReturn(List.of(3));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(TEAM), eq(SEASON))).thenReturn(3);
+
+        // When
+        long drift = quotaLedger.reconcile(new QuotaLedger.LedgerRow(TEAM, SEASON, QuotaType.ETRANGER));
+
+        // Then
+        assertEquals(0, drift);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private DemandePlayers demande(Long statusId, Long regimeId, Long paysId) {
+        DemandePlayers demande = new DemandePlayers();
+        demande.setTeamId(BigDecimal.valueOf(TEAM));
+        demande.setSeasonId(BigDecimal.valueOf(SEASON));
+        demande.setDemandeStatuId(BigDecimal.valueOf(statusId));
+        demande.setCtIntervenantTypeId(BigDecimal.ONE);
+        demande.setRegimeId(BigDecimal.valueOf(regimeId));
+        demande.setPaysId(BigDecimal.valueOf(paysId));
+        return demande;
+    }
+}
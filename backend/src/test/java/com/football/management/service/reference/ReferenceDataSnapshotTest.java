@@ -0,0 +1,71 @@
+package com.football.management.service.reference;
+
+import com.football.management.service.reference.ReferenceDataSnapshot.CategoryRange;
+import com.football.management.service.reference.ReferenceDataSnapshot.TeamDivision;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests ReferenceDataSnapshot - Catégories et divisions en mémoire")
+class ReferenceDataSnapshotTest {
+
+    private final ReferenceDataSnapshot snapshot = new ReferenceDataSnapshot(
+        1L,
+        Instant.now(),
+        new QuotaParameters(80, 25, 4, 3, null),
+        List.of(
+            new CategoryRange(4L, LocalDate.of(2009, 1, 1), LocalDate.of(2010, 12, 31)),  // CADETS
+            new CategoryRange(3L, LocalDate.of(2011, 1, 1), LocalDate.of(2012, 12, 31)),  // MINIMES
+            new CategoryRange(4L, LocalDate.of(2009, 1, 1), LocalDate.of(2010, 12, 31)),  // même plage, autre régime
+            new CategoryRange(5L, LocalDate.of(2007, 1, 1), LocalDate.of(2009, 6, 30)),   // chevauche CADETS
+            new CategoryRange(9L, null, LocalDate.of(2018, 12, 31))                       // incomplète : ignorée
+        ),
+        List.of(
+            new TeamDivision(100L, 2024L, 2L),
+            new TeamDivision(100L, 2025L, 1L),
+            new TeamDivision(100L, 2025L, 3L)
+        )
+    );
+
+    @Test
+    @DisplayName("Bornes incluses - Premier et dernier jour de la plage")
+    void testFindCategory_Bounds_ShouldBeInclusive() {
+        assertEquals(3L, snapshot.findCategory(LocalDate.of(2011, 1, 1)));
+        assertEquals(3L, snapshot.findCategory(LocalDate.of(2012, 12, 31)));
+        assertEquals(4L, snapshot.findCategory(LocalDate.of(2010, 12, 31)));
+        assertNull(snapshot.findCategory(LocalDate.of(2013, 1, 1)));
+        assertNull(snapshot.findCategory(LocalDate.of(2006, 12, 31)));
+    }
+
+    @Test
+    @DisplayName("Plages qui se chevauchent - La plage commençant le plus tard l'emporte")
+    void testFindCategory_Overlap_ShouldPreferLatestStart() {
+        assertEquals(5L, snapshot.findCategory(LocalDate.of(2008, 12, 31)));
+        assertEquals(4L, snapshot.findCategory(LocalDate.of(2009, 3, 15)));
+        assertEquals(4L, snapshot.findCategory(LocalDate.of(2009, 7, 1)));
+    }
+
+    @Test
+    @DisplayName("Hors plage ou date absente - SENIORS par défaut")
+    void testCategoryOf_NoMatch_ShouldDefaultToSeniors() {
+        assertEquals(7L, snapshot.categoryOf(null));
+        assertEquals(7L, snapshot.categoryOf(LocalDate.of(1995, 5, 5)));
+        assertEquals(7L, snapshot.categoryOf(LocalDate.of(2017, 5, 5)));
+    }
+
+    @Test
+    @DisplayName("Divisions - Saison la plus récente et divisions de la saison")
+    void testDivisions_ShouldUseLatestSeason() {
+        assertEquals(Set.of(1L, 3L), snapshot.seasonDivisions(100L, 2025L));
+        assertEquals(Set.of(2L), snapshot.seasonDivisions(100L, 2024L));
+        assertTrue(Set.of(1L, 3L).contains(snapshot.latestDivision(100L)));
+        assertEquals(10L, snapshot.latestDivision(999L));
+    }
+}
@@ -0,0 +1,189 @@
+package com.football.management.service.renewal;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.entity.DemandePlayers;
+import com.football.management.mapper.DemandePlayersMapper;
+import com.football.management.repository.DemandeIdAllocator;
+import com.football.management.repository.DemandePlayersRepository;
+import com.football.management.service.DemandePlayersService;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.reference.ReferenceDataSnapshot;
+import com.football.management.service.reference.ReferenceDataStore;
+import com.football.management.service.renewal.TeamRenewalService.PlayerOutcome;
+import com.football.management.service.renewal.TeamRenewalService.Status;
+import com.football.management.service.renewal.TeamRenewalService.TeamRenewalReport;
+import com.football.management.service.stats.DemandeCounterStore;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+import com.football.management.service.validation.ValidationOrchestrator;
+import com.football.management.service.validation.ValidationResult;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests TeamRenewalService - Renouvellement de l'effectif d'une équipe")
+class TeamRenewalServiceTest {
+
+    private static final Long TEAM = 101L;
+    private static final Long SEASON = 2025L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DemandePlayersService demandePlayersService;
+
+    @Mock
+    private ValidationOrchestrator validationOrchestrator;
+
+    @Mock
+    private DemandePlayersRepository demandePlayersRepository;
+
+    @Mock
+    private DemandeIdAllocator demandeIdAllocator;
+
+    @Mock
+    private DemandePlayersMapper demandePlayersMapper;
+
+    @Mock
+    private QuotaLedger quotaLedger;
+
+    @Mock
+    private DemandeCounterStore counterStore;
+
+    @Mock
+    private ReferenceDataStore referenceDataStore;
+
+    @InjectMocks
+    private TeamRenewalService teamRenewalService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(referenceDataStore.getSnapshot()).thenReturn(new ReferenceDataSnapshot(
+            1L, Instant.now(), new QuotaParameters(30, 25, 4, 3, null), List.of(), List.of()));
+        lenient().when(demandePlayersMapper.toEntity(any(DemandePlayersDTO.class))).thenAnswer(invocation -> {
+            DemandePlayersDTO dto = invocation.getArgument(0);
+            DemandePlayers entity = new DemandePlayers();
+            entity.setIntervenantId(dto.getIntervenantId());
+            entity.setTeamId(dto.getTeamId());
+            entity.setSeasonId(dto.getSeasonId());
+            return entity;
+        });
+    }
+
+    @Test
+    @DisplayName("Corps vide - Tous les éligibles validés en un lot et insérés ensemble")
+    void testRenewTeam_AllEligible_ShouldValidateOnceAndInsertValidOnes() throws Exception {
+        // Given
+        when(demandePlayersService.getJoueursEligiblesRenouvellement(TEAM, null, SEASON))
+            .thenReturn(List.of(eligible(1), eligible(2)));
+        givenPlayers(0);
+        ValidationResult refused = new ValidationResult();
+        refused.addError("Quota atteint");
+        when(validationOrchestrator.validateBatch(anyList())).thenReturn(List.of(new ValidationResult(), refused));
+        when(demandeIdAllocator.nextId()).thenReturn(BigDecimal.valueOf(5001));
+
+        // When
+        TeamRenewalReport report = teamRenewalService.renewTeam(TEAM, SEASON, List.of(), 1L);
+
+        // Then
+        assertEquals(2, report.total());
+        assertEquals(1, report.created());
+        PlayerOutcome created = report.outcomes().get(0);
+        assertEquals(Status.CREE, created.status());
+        assertEquals(BigDecimal.valueOf(5001), created.demandeId());
+        assertEquals(Status.REFUSE, report.outcomes().get(1).status());
+        assertEquals(List.of("Quota atteint"), report.outcomes().get(1).errors());
+
+        verify(validationOrchestrator, times(1)).validateBatch(anyList());
+        verify(quotaLedger, times(1)).reserve(any(DemandePlayers.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DemandePlayers>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(demandePlayersRepository).insertAll(inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        verify(demandePlayersRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Joueur non éligible, en double ou pro sans contrat - Refusé sans bloquer les autres")
+    void testRenewTeam_InvalidEntries_ShouldReportPerPlayer() throws Exception {
+        // Given
+        when(demandePlayersService.getJoueursEligiblesRenouvellement(TEAM, null, SEASON))
+            .thenReturn(List.of(eligible(1), eligible(2)));
+        givenPlayers(2);
+        when(validationOrchestrator.validateBatch(anyList())).thenReturn(List.of(new ValidationResult()));
+        when(demandeIdAllocator.nextId()).thenReturn(BigDecimal.valueOf(5001));
+
+        // When : joueur 2 professionnel sans dates de contrat
+        TeamRenewalReport report = teamRenewalService.renewTeam(TEAM, SEASON,
+            List.of(form(1), form(99), form(1), form(2)), 1L);
+
+        // Then
+        List<Status> statuses = report.outcomes().stream().map(PlayerOutcome::status).toList();
+        assertEquals(List.of(Status.CREE, Status.NON_ELIGIBLE, Status.REFUSE, Status.REFUSE), statuses);
+        assertEquals(List.of("Date de début de contrat obligatoire pour les professionnels",
+            "Date de fin de contrat obligatoire pour les professionnels"), report.outcomes().get(3).errors());
+        assertEquals(1, report.created());
+        assertEquals(3, report.rejected());
+    }
+
+    private Map<String, Object> eligible(long id) {
+        Map<String, Object> joueur = new HashMap<>();
+        joueur.put("id", BigDecimal.valueOf(id));
+        joueur.put("nom", "NOM" + id);
+        joueur.put("prenom", "PRENOM" + id);
+        return joueur;
+    }
+
+    private DemandePlayersDTO form(long id) {
+        DemandePlayersDTO form = new DemandePlayersDTO();
+        form.setIntervenantId(BigDecimal.valueOf(id));
+        return form;
+    }
+
+    /**
+     * Joueurs 1 et 2 ; proId désigne le joueur de régime professionnel (0 : aucun)
+     */
+    private void givenPlayers(long proId) throws Exception {
+        ResultSet first = row(1, proId == 1 ? 2 : 1);
+        ResultSet second = row(2, proId == 2 ? 2 : 1);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(first);
+            handler.processRow(second);
+            return null;
+        }).when(jdbcTemplate).query(contains("ct_intervenants"), any(RowCallbackHandler.class), any(), any());
+    }
+
+    private ResultSet row(long id, long regimeId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBigDecimal("ct_intervenant_id")).thenReturn(BigDecimal.valueOf(id));
+        when(rs.getString("name")).thenReturn("NOM" + id);
+        when(rs.getString("last_name")).thenReturn("PRENOM" + id);
+        when(rs.getDate("date_of_birth")).thenReturn(Date.valueOf(LocalDate.of(1998, 5, 10)));
+        when(rs.getBigDecimal("cr_pays_id")).thenReturn(BigDecimal.valueOf(193));
+        when(rs.getBigDecimal("ct_regime_id")).thenReturn(BigDecimal.valueOf(regimeId));
+        return rs;
+    }
+}
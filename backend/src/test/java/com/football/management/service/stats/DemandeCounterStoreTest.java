@@ -0,0 +1,200 @@
+package com.football.management.service.stats;
+
+import com.football.management.entity.DemandePlayers;
+import com.football.management.repository.DemandeStatsRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests DemandeCounterStore - Compteurs de demandes en mémoire")
+class DemandeCounterStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+
+    @Mock
+    private DemandeStatsRepository statsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DemandeCounterStore counterStore;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(statsRepository.countByRegistrationDate()).thenReturn(rows(new Object[] { TODAY, 10L }));
+        lenient().when(statsRepository.findTeamNames()).thenReturn(Map.of(101L, "Club Africain"));
+    }
+
+    // ==================== TESTS CHARGEMENT ====================
+
+    @Test
+    @DisplayName("Chargement - Compteurs agrégés depuis la requête groupée")
+    void testReload_ShouldLoadGroupedCounts() {
+        // Given
+        when(statsRepository.countByCounterDimensions()).thenReturn(rows(
+            counterRow(101L, 1L, 7L),
+            counterRow(101L, 8L, 3L),
+            counterRow(102L, 1L, 5L)));
+
+        // When
+        counterStore.reload();
+
+        // Then
+        assertTrue(counterStore.isReady());
+        assertEquals(10, counterStore.count(DemandeCounterStore.forTeamAndSeason(101L, 2025L)));
+        assertEquals(Map.of(1L, 12L, 8L, 3L), counterStore.countBy(DemandeCounterStore.CounterKey::statusId, key -> true));
+        assertEquals(10, counterStore.countRegisteredSince(TODAY));
+        assertEquals("Club Africain", counterStore.getTeamName(101L));
+    }
+
+    @Test
+    @DisplayName("Chargement - Lectures dans une seule transaction REPEATABLE READ en lecture seule")
+    void testReload_ShouldReadInOneRepeatableReadTransaction() {
+        // Given
+        when(statsRepository.countByCounterDimensions()).thenReturn(rows(counterRow(101L, 1L, 7L)));
+
+        // When
+        counterStore.reload();
+
+        // Then
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, definition.getValue().getIsolationLevel());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(transactionManager).commit(any());
+    }
+
+    // ==================== TESTS MISES À JOUR ====================
+
+    @Test
+    @DisplayName("Changement de statut - Décompte déplacé d'un statut à l'autre")
+    void testRecordChanged_ShouldMoveCount() {
+        // Given
+        when(statsRepository.countByCounterDimensions()).thenReturn(rows(counterRow(101L, 1L, 7L)));
+        counterStore.reload();
+        DemandePlayers demande = demande(101L, 1L);
+        DemandeCounterStore.CounterKey before = DemandeCounterStore.CounterKey.of(demande);
+
+        // When
+        demande.setDemandeStatuId(BigDecimal.valueOf(8));
+        counterStore.recordChanged(before, demande);
+
+        // Then
+        assertEquals(Map.of(1L, 6L, 8L, 1L), counterStore.countBy(DemandeCounterStore.CounterKey::statusId, key -> true));
+    }
+
+    @Test
+    @DisplayName("Création après l'instantané du rechargement - Rejouée sur le nouvel état, pas perdue")
+    void testRecordCreated_DuringReload_ShouldBeReplayed() {
+        // Given : état initial, puis rechargement pendant lequel une demande est créée
+        when(statsRepository.countByCounterDimensions()).thenReturn(rows(counterRow(101L, 1L, 7L)));
+        when(statsRepository.countByRegistrationDate())
+            .thenReturn(rows(new Object[] { TODAY, 10L }))
+            .thenAnswer(invocation -> {
+                counterStore.recordCreated(demande(101L, 1L));
+                // Validée après l'instantané pris par la première requête : aucune lecture ne la voit
+                return rows(new Object[] { TODAY, 10L });
+            });
+        counterStore.reload();
+
+        // When
+        counterStore.reload();
+
+        // Then
+        assertEquals(8, counterStore.count(DemandeCounterStore.forTeamAndSeason(101L, 2025L)));
+        assertEquals(11, counterStore.countRegisteredSince(TODAY));
+    }
+
+    @Test
+    @DisplayName("Création vue par l'instantané du rechargement - Pas rejouée, pas comptée deux fois")
+    void testRecordCreated_BeforeReloadSnapshot_ShouldNotBeCountedTwice() {
+        // Given : état initial, puis création validée avant l'instantané mais notifiée pendant la première requête
+        when(statsRepository.countByCounterDimensions())
+            .thenReturn(rows(counterRow(101L, 1L, 7L)))
+            .thenAnswer(invocation -> {
+                counterStore.recordCreated(demande(101L, 1L));
+                return rows(counterRow(101L, 1L, 8L));
+            });
+        when(statsRepository.countByRegistrationDate())
+            .thenReturn(rows(new Object[] { TODAY, 10L }))
+            .thenReturn(rows(new Object[] { TODAY, 11L }));
+        counterStore.reload();
+
+        // When
+        counterStore.reload();
+
+        // Then : la création est déjà dans les deux lectures
+        assertEquals(8, counterStore.count(DemandeCounterStore.forTeamAndSeason(101L, 2025L)));
+        assertEquals(11, counterStore.countRegisteredSince(TODAY));
+    }
+
+    @Test
+    @DisplayName("Création après un rechargement - Pas rejouée une seconde fois")
+    void testRecordCreated_AfterReload_ShouldNotBeReplayed() {
+        // Given
+        when(statsRepository.countByCounterDimensions()).thenReturn(rows(counterRow(101L, 1L, 7L)));
+        counterStore.reload();
+        counterStore.recordCreated(demande(101L, 1L));
+
+        // When
+        counterStore.reload();
+        counterStore.recordCreated(demande(101L, 1L));
+
+        // Then : 7 en base + la création postérieure au rechargement
+        assertEquals(8, counterStore.count(DemandeCounterStore.forTeamAndSeason(101L, 2025L)));
+    }
+
+    @Test
+    @DisplayName("Réconciliation - L'écart est corrigé depuis la base")
+    void testReconcile_ShouldReplaceDriftedCounters() {
+        // Given
+        when(statsRepository.countByCounterDimensions())
+            .thenReturn(rows(counterRow(101L, 1L, 7L)))
+            .thenReturn(rows(counterRow(101L, 1L, 4L)));
+        counterStore.reload();
+
+        // When
+        counterStore.reconcile();
+
+        // Then
+        assertEquals(4, counterStore.count(DemandeCounterStore.forTeamAndSeason(101L, 2025L)));
+    }
+
+    private static DemandePlayers demande(Long teamId, Long statusId) {
+        DemandePlayers demande = new DemandePlayers();
+        demande.setTeamId(BigDecimal.valueOf(teamId));
+        demande.setSeasonId(BigDecimal.valueOf(2025));
+        demande.setDemandeStatuId(BigDecimal.valueOf(statusId));
+        demande.setDateEnregistrement(TODAY);
+        return demande;
+    }
+
+    /** (saison, équipe, statut, catégorie, régime, type de licence, nombre) */
+    private static Object[] counterRow(Long teamId, Long statusId, long count) {
+        return new Object[] { BigDecimal.valueOf(2025), BigDecimal.valueOf(teamId), BigDecimal.valueOf(statusId),
+            null, null, null, count };
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,147 @@
+package com.football.management.service.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Tests StatsAssembler - Requêtes statistiques en parallèle")
+class StatsAssemblerTest {
+
+    private StatsAssembler statsAssembler;
+    private ExecutorService executor;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        transactionManager = mock(PlatformTransactionManager.class);
+        statsAssembler = new StatsAssembler();
+        ReflectionTestUtils.setField(statsAssembler, "statsExecutor", executor);
+        ReflectionTestUtils.setField(statsAssembler, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(statsAssembler, "timeoutMs", 500L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Toutes les requêtes réussissent - Réponse complète")
+    void testAssemble_AllSucceed_ShouldBeComplete() {
+        // Given
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("total", () -> 42L);
+        queries.put("recentes", () -> 7L);
+
+        // When
+        StatsAssembler.StatsResult result = statsAssembler.assemble(queries);
+
+        // Then
+        assertTrue(result.isComplete());
+        assertEquals(42L, result.values().get("total"));
+        assertEquals(7L, result.values().get("recentes"));
+        assertFalse(result.toResponse().containsKey(StatsAssembler.ERRORS_KEY));
+    }
+
+    @Test
+    @DisplayName("Une requête échoue - Les autres sont renvoyées, l'échec est signalé")
+    void testAssemble_OneFails_ShouldReturnPartialResult() {
+        // Given
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("total", () -> 42L);
+        queries.put("parRegime", () -> {
+            throw new IllegalStateException("Base indisponible");
+        });
+
+        // When
+        StatsAssembler.StatsResult result = statsAssembler.assemble(queries);
+
+        // Then
+        assertFalse(result.isComplete());
+        assertEquals(42L, result.values().get("total"));
+        assertFalse(result.values().containsKey("parRegime"));
+        assertEquals("Base indisponible", result.errors().get("parRegime"));
+        assertTrue(result.toResponse().containsKey(StatsAssembler.ERRORS_KEY));
+    }
+
+    @Test
+    @DisplayName("Une requête dépasse le délai - Signalée sans bloquer la réponse")
+    void testAssemble_Timeout_ShouldReportTimeout() {
+        // Given
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("total", () -> 42L);
+        queries.put("lente", () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0L;
+        });
+
+        // When
+        long start = System.currentTimeMillis();
+        StatsAssembler.StatsResult result = statsAssembler.assemble(queries);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertEquals(42L, result.values().get("total"));
+        assertTrue(result.errors().get("lente").contains("Délai dépassé"));
+        assertTrue(elapsed < 5000);
+    }
+
+    @Test
+    @DisplayName("Délai appliqué en base - Transaction en lecture seule avec timeout de Statement")
+    void testAssemble_ShouldRunQueriesWithTransactionTimeout() {
+        // Given
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("total", () -> 42L);
+
+        // When
+        statsAssembler.assemble(queries);
+
+        // Then : 500 ms arrondis à 1 seconde
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(1, definition.getValue().getTimeout());
+    }
+
+    @Test
+    @DisplayName("Pool saturé - Requête signalée indisponible, pas exécutée sur le thread appelant")
+    void testAssemble_PoolSaturated_ShouldNotRunOnCaller() {
+        // Given
+        ReflectionTestUtils.setField(statsAssembler, "statsExecutor",
+            (java.util.concurrent.Executor) task -> { throw new RejectedExecutionException("plein"); });
+        AtomicBoolean ran = new AtomicBoolean();
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("total", () -> ran.getAndSet(true));
+
+        // When
+        StatsAssembler.StatsResult result = statsAssembler.assemble(queries);
+
+        // Then
+        assertFalse(ran.get());
+        assertFalse(result.isComplete());
+        assertTrue(result.errors().get("total").contains("saturé"));
+        verify(transactionManager, never()).getTransaction(any());
+    }
+}
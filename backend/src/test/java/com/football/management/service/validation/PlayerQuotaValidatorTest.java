@@ -0,0 +1,132 @@
+package com.football.management.service.validation;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.service.quota.QuotaType;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+import com.football.management.service.validation.ValidationContext.TeamDemandeCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests PlayerQuotaValidator - Quotas sur le ValidationContext")
+class PlayerQuotaValidatorTest {
+
+    private static final Long LIGUE_I = 1L;
+    private static final Long TUNISIE = 193L;
+    private static final Long FRANCE = 75L;
+
+    private PlayerQuotaValidator playerQuotaValidator;
+
+    @BeforeEach
+    void setUp() {
+        playerQuotaValidator = new PlayerQuotaValidator();
+    }
+
+    @Test
+    @DisplayName("Équipe sous le quota - DOIT passer sans avertissement")
+    void testTotalQuota_UnderLimit_ShouldPass() {
+        // Given
+        DemandePlayersDTO demande = demande(1L, TUNISIE);
+        ValidationContext context = context(new TeamDemandeCount(1L, 1L, 1L, 1L, 7L, false, 10));
+        ValidationResult result = new ValidationResult();
+
+        // When
+        boolean valid = playerQuotaValidator.validate(demande, result, 7L, LIGUE_I, context);
+
+        // Then
+        assertTrue(valid);
+        assertTrue(result.getErrors().isEmpty());
+        assertTrue(result.getWarnings().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Quota total atteint (statuts actifs uniquement) - DOIT échouer")
+    void testTotalQuota_Reached_ShouldFail() {
+        // Given
+        DemandePlayersDTO demande = demande(1L, TUNISIE);
+        ValidationContext context = context(
+            new TeamDemandeCount(1L, 1L, 1L, 1L, 7L, false, 15),
+            new TeamDemandeCount(8L, 1L, 1L, 2L, 7L, false, 15),
+            new TeamDemandeCount(0L, 1L, 1L, 1L, 7L, false, 50),  // annulées : non comptées
+            new TeamDemandeCount(1L, 2L, null, null, null, false, 50)  // staff : non compté
+        );
+        ValidationResult result = new ValidationResult();
+
+        // When
+        boolean valid = playerQuotaValidator.validate(demande, result, 7L, LIGUE_I, context);
+
+        // Then
+        assertFalse(valid);
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).contains("(30)"));
+    }
+
+    @Test
+    @DisplayName("Quota étrangers atteint en Ligue I - DOIT échouer")
+    void testForeignQuota_Reached_ShouldFail() {
+        // Given
+        DemandePlayersDTO demande = demande(1L, FRANCE);
+        ValidationContext context = context(new TeamDemandeCount(9L, 1L, 2L, 1L, 7L, true, 4));
+        ValidationResult result = new ValidationResult();
+
+        // When
+        boolean valid = playerQuotaValidator.validate(demande, result, 7L, LIGUE_I, context);
+
+        // Then
+        assertFalse(valid);
+        assertTrue(result.getErrors().get(0).contains("étrangers"));
+    }
+
+    @Test
+    @DisplayName("Registre des quotas disponible - Prime sur le comptage des demandes")
+    void testTotalQuota_LedgerRow_ShouldBeUsed() {
+        // Given
+        DemandePlayersDTO demande = demande(1L, TUNISIE);
+        ValidationContext context = new ValidationContext(
+            LIGUE_I,
+            Set.of(LIGUE_I),
+            new QuotaParameters(30, 25, 4, 3, 5),
+            List.of(new TeamDemandeCount(1L, 1L, 1L, 1L, 7L, false, 10)),
+            List.of(),
+            List.of(),
+            List.of(),
+            Map.of(QuotaType.TOTAL, 30L)
+        );
+        ValidationResult result = new ValidationResult();
+
+        // When
+        boolean valid = playerQuotaValidator.validate(demande, result, 7L, LIGUE_I, context);
+
+        // Then
+        assertFalse(valid);
+        assertTrue(result.getErrors().get(0).contains("(30)"));
+    }
+
+    private DemandePlayersDTO demande(Long regimeId, Long paysId) {
+        DemandePlayersDTO demande = new DemandePlayersDTO();
+        demande.setTeamId(BigDecimal.valueOf(100));
+        demande.setSeasonId(BigDecimal.valueOf(2025));
+        demande.setRegimeId(BigDecimal.valueOf(regimeId));
+        demande.setPaysId(BigDecimal.valueOf(paysId));
+        return demande;
+    }
+
+    private ValidationContext context(TeamDemandeCount... counts) {
+        return new ValidationContext(
+            LIGUE_I,
+            Set.of(LIGUE_I),
+            new QuotaParameters(30, 25, 4, 3, 5),
+            List.of(counts),
+            List.of(),
+            List.of(),
+            List.of()
+        );
+    }
+}
@@ -0,0 +1,104 @@
+package com.football.management.service.validation;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.service.validation.ValidationContext.KnownIntervenant;
+import com.football.management.service.validation.ValidationContext.QuotaParameters;
+import com.football.management.service.validation.ValidationContext.SeasonDemande;
+import com.football.management.service.validation.ValidationContext.TeamLicence;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests ValidationContext - Recherche du joueur en mémoire")
+class ValidationContextTest {
+
+    private static final LocalDate BIRTH_DATE = LocalDate.of(2012, 3, 10);
+
+    private final ValidationContext context = new ValidationContext(
+        10L,
+        Set.of(),
+        new QuotaParameters(80, 25, 4, 3, null),
+        List.of(),
+        List.of(
+            new KnownIntervenant(1L, "12345678", null, "Ali", "Ben Salah", null),
+            new KnownIntervenant(2L, null, null, "Sami", "Trabelsi", BIRTH_DATE)
+        ),
+        List.of(
+            new TeamLicence(1L, 100L, 2024L, 2L, 1L),
+            new TeamLicence(2L, 200L, 2024L, 1L, 1L)
+        ),
+        List.of(new SeasonDemande(100L, 2L, 0L, "12345678", null, "Ali", "Ben Salah", null))
+    );
+
+    @Test
+    @DisplayName("CADETS+ - Recherche par CIN, pas par nom")
+    void testPlayerExists_ByDocument_ShouldMatchCinOnly() {
+        // Given
+        DemandePlayersDTO byCin = new DemandePlayersDTO();
+        byCin.setCinNumber("12345678");
+
+        DemandePlayersDTO byName = new DemandePlayersDTO();
+        byName.setName("Sami");
+        byName.setLastName("Trabelsi");
+        byName.setDateOfBirth(BIRTH_DATE);
+
+        // Then
+        assertTrue(context.playerExists(byCin, true));
+        assertFalse(context.playerExists(byName, true));
+    }
+
+    @Test
+    @DisplayName("<CADETS - Nom, prénom et date de naissance sans tenir compte de la casse")
+    void testPlayerExists_ByName_ShouldIgnoreCase() {
+        // Given
+        DemandePlayersDTO demande = new DemandePlayersDTO();
+        demande.setName("SAMI");
+        demande.setLastName("trabelsi");
+        demande.setDateOfBirth(BIRTH_DATE);
+
+        // Then
+        assertTrue(context.playerExists(demande, false));
+        assertTrue(context.hasLicence(demande, false, l -> ValidationContext.is(l.teamId(), 200L)));
+        assertFalse(context.hasLicence(demande, false, l -> ValidationContext.is(l.teamId(), 100L)));
+    }
+
+    @Test
+    @DisplayName("Demande annulée - Ignorée par les contrôles de doublon")
+    void testHasDemande_CancelledDemande_ShouldBeIgnored() {
+        // Given
+        DemandePlayersDTO demande = new DemandePlayersDTO();
+        demande.setCinNumber("12345678");
+        demande.setTeamId(BigDecimal.valueOf(100));
+
+        // Then
+        assertTrue(context.hasDemande(demande, true, d -> ValidationContext.is(d.typeLicenceId(), 2L)));
+        assertFalse(context.hasDemande(demande, true, SeasonDemande::isNotCancelled));
+    }
+
+    @Test
+    @DisplayName("Lot - Une demande acceptée compte pour les quotas et doublons suivants")
+    void testWithAccepted_ShouldCountForFollowingDemandes() {
+        // Given
+        DemandePlayersDTO demande = new DemandePlayersDTO();
+        demande.setTeamId(BigDecimal.valueOf(100));
+        demande.setTypeLicenceId(BigDecimal.ONE);
+        demande.setRegimeId(BigDecimal.ONE);
+        demande.setPaysId(BigDecimal.valueOf(75));
+        demande.setCinNumber("87654321");
+
+        // When
+        ValidationContext next = context.withAccepted(demande, 7L);
+
+        // Then
+        assertEquals(0, context.countTeamDemandes(c -> c.isActive() && c.foreign()));
+        assertEquals(1, next.countTeamDemandes(c -> c.isActive() && c.foreign()));
+        assertFalse(context.hasDemande(demande, true, SeasonDemande::isNotCancelled));
+        assertTrue(next.hasDemande(demande, true, SeasonDemande::isNotCancelled));
+    }
+}
@@ -0,0 +1,132 @@
+package com.football.management.service.validation;
+
+import com.football.management.dto.DemandePlayersDTO;
+import com.football.management.service.validation.ValidationPipeline.Step;
+import com.football.management.service.validation.ValidationPipeline.ValidationInput;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests ValidationPipeline - Étapes de validation en parallèle")
+class ValidationPipelineTest {
+
+    private ExecutorService executor;
+    private final ValidationInput input = new ValidationInput(new DemandePlayersDTO(), null, 7L, 10L);
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Fusion dans l'ordre de déclaration, quel que soit l'ordre de fin")
+    void testRun_ShouldMergeInDeclarationOrder() {
+        // Given : la première étape finit la dernière
+        ValidationPipeline pipeline = new ValidationPipeline(List.of(
+            Step.check("lente", (in, r) -> {
+                sleep(100);
+                r.addWarning("lente");
+                return true;
+            }),
+            Step.check("rapide-1", (in, r) -> { r.addError("rapide-1"); return false; }),
+            Step.check("rapide-2", (in, r) -> { r.addError("rapide-2"); return false; })
+        ));
+        ValidationResult result = new ValidationResult();
+
+        // When
+        pipeline.run(input, result, executor, 1000);
+
+        // Then
+        assertEquals(List.of("lente"), result.getWarnings());
+        assertEquals(List.of("rapide-1", "rapide-2"), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Étape bloquante en échec - Les étapes suivantes sont ignorées, les dépendantes non exécutées")
+    void testRun_FailedGate_ShouldStopAndSkipDependents() {
+        // Given
+        AtomicBoolean dependentRan = new AtomicBoolean();
+        ValidationPipeline pipeline = new ValidationPipeline(List.of(
+            Step.gate("cin", (in, r) -> { r.addError("CIN invalide"); return false; }),
+            Step.check("independante", (in, r) -> { r.addError("ne doit pas apparaître"); return false; }),
+            Step.check("quotas", (in, r) -> { dependentRan.set(true); return true; }, "cin")
+        ));
+        ValidationResult result = new ValidationResult();
+
+        // When
+        pipeline.run(input, result, executor, 1000);
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(List.of("CIN invalide"), result.getErrors());
+        assertFalse(dependentRan.get());
+    }
+
+    @Test
+    @DisplayName("Étapes indépendantes - Durée proche de la plus lente, pas de la somme")
+    void testRun_IndependentSteps_ShouldRunConcurrently() {
+        // Given
+        ValidationPipeline pipeline = new ValidationPipeline(List.of(
+            Step.check("a", (in, r) -> sleep(200)),
+            Step.check("b", (in, r) -> sleep(200)),
+            Step.check("c", (in, r) -> sleep(200))
+        ));
+        ValidationResult result = new ValidationResult();
+
+        // When
+        long start = System.currentTimeMillis();
+        pipeline.run(input, result, executor, 2000);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertTrue(result.isValid());
+        assertTrue(elapsed < 500, "Durée trop longue : " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("Exception dans une étape - Erreur de validation et arrêt")
+    void testRun_StepThrows_ShouldReportError() {
+        // Given
+        ValidationPipeline pipeline = new ValidationPipeline(List.of(
+            Step.check("plante", (in, r) -> { throw new IllegalStateException("boom"); }),
+            Step.check("suivante", (in, r) -> { r.addError("ne doit pas apparaître"); return false; })
+        ));
+        ValidationResult result = new ValidationResult();
+
+        // When
+        pipeline.run(input, result, executor, 1000);
+
+        // Then
+        assertEquals(List.of("Erreur lors de la validation: boom"), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Dépendance non déclarée avant l'étape - Configuration refusée")
+    void testConstructor_UnknownDependency_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ValidationPipeline(List.of(
+            Step.check("quotas", (in, r) -> true, "cin")
+        )));
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+}
@@ -7,6 +7,12 @@ import com.football.management.enums.DemandeStatus;
 import com.football.management.mapper.DemandePlayersMapper;
 import com.football.management.repository.DemandePlayersRepository;
 import com.football.management.repository.StatusHistoryRepository;
+import com.football.management.service.notification.EmailNotificationService;
+import com.football.management.service.pdf.PdfCache;
+import com.football.management.service.quota.QuotaExceededException;
+import com.football.management.service.quota.QuotaLedger;
+import com.football.management.service.quota.QuotaType;
+import com.football.management.service.stats.DemandeCounterStore;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,12 +22,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +47,21 @@ class WorkflowServiceTest {
     @Mock
     private DemandePlayersMapper mapper;
 
+    @Mock
+    private DemandeCounterStore counterStore;
+
+    @Mock
+    private QuotaLedger quotaLedger;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EmailNotificationService emailNotificationService;
+
+    @Mock
+    private PdfCache pdfCache;
+
     @InjectMocks
     private WorkflowService workflowService;
 
@@ -66,7 +91,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.INITIAL.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -95,7 +120,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.EN_ATTENTE.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -122,7 +147,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.VALIDEE_CLUB.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -150,7 +175,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.IMPRIMEE.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
 
         // When & Then
@@ -175,7 +200,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.INITIAL.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
 
         // When & Then
@@ -199,7 +224,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.REJETEE.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
 
         // When & Then
@@ -224,7 +249,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.EN_ATTENTE.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -254,7 +279,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.INITIAL.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -283,7 +308,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.VALIDEE_CLUB.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -310,7 +335,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.INITIAL.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -335,6 +360,7 @@ class WorkflowServiceTest {
         assertEquals(DemandeStatus.EN_ATTENTE.getBigDecimalId(), savedHistory.getNewStatusId());
         assertEquals("Test historique", savedHistory.getComment());
         assertEquals(1L, savedHistory.getChangedBy());
+        verify(pdfCache).invalidate(123L);
     }
 
     @Test
@@ -404,7 +430,7 @@ class WorkflowServiceTest {
     @DisplayName("changeStatus() - Demande inexistante doit lever exception")
     void testChangeStatus_DemandeNotFound_ShouldThrowException() {
         // Given
-        when(demandeRepository.findById(BigDecimal.valueOf(999L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(999L)))
                 .thenReturn(Optional.empty());
 
         // When & Then
@@ -422,7 +448,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.INITIAL.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
 
         // When & Then
@@ -440,7 +466,7 @@ class WorkflowServiceTest {
         // Given
         demande.setDemandeStatuId(DemandeStatus.INITIAL.getBigDecimalId());
         
-        when(demandeRepository.findById(BigDecimal.valueOf(123L)))
+        when(demandeRepository.findByIdForUpdate(BigDecimal.valueOf(123L)))
                 .thenReturn(Optional.of(demande));
         when(demandeRepository.save(any(DemandePlayers.class)))
                 .thenReturn(demande);
@@ -460,4 +486,68 @@ class WorkflowServiceTest {
         verify(demandeRepository).save(any());
         verify(historyRepository).save(any());
     }
-}
\ No newline at end of file
+
+    // ==================== TESTS CHANGEMENT GROUPÉ ====================
+
+    @Test
+    @DisplayName("Lot - Un seul chargement verrouillé, un seul UPDATE, historique en un lot")
+    void testChangeStatusBulk_ShouldLoadOnceAndUpdateOnce() {
+        // Given
+        DemandePlayers second = demande(124, DemandeStatus.VALIDEE_CLUB);
+        demande.setDemandeStatuId(DemandeStatus.VALIDEE_CLUB.getBigDecimalId());
+        when(demandeRepository.findAllByIdForUpdate(anyList())).thenReturn(List.of(demande, second));
+        when(quotaLedger.tryUpdate(any(), any())).thenReturn(Optional.empty());
+
+        // When
+        WorkflowService.BulkTransitionReport report = workflowService.changeStatusBulk(
+            List.of(123L, 124L), DemandeStatus.IMPRIMEE.getId(), 1L, "Impression groupée");
+
+        // Then
+        assertEquals(2, report.succeeded());
+        assertEquals(0, report.failed());
+        verify(demandeRepository, times(1)).findAllByIdForUpdate(anyList());
+        verify(demandeRepository).updateStatus(
+            List.of(BigDecimal.valueOf(123), BigDecimal.valueOf(124)), DemandeStatus.IMPRIMEE.getBigDecimalId());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(emailNotificationService, times(1)).sendNotifications(anyList());
+        verify(pdfCache).invalidateAll(List.of(123L, 124L));
+        verify(demandeRepository, never()).save(any());
+        verify(historyRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Lot - Demande absente, transition interdite ou quota atteint : échec de cette seule demande")
+    void testChangeStatusBulk_PerIdFailures_ShouldNotAbortBatch() {
+        // Given
+        DemandePlayers printed = demande(124, DemandeStatus.IMPRIMEE);
+        DemandePlayers rejected = demande(125, DemandeStatus.REJETEE);
+        demande.setDemandeStatuId(DemandeStatus.EN_ATTENTE.getBigDecimalId());
+        when(demandeRepository.findAllByIdForUpdate(anyList())).thenReturn(List.of(demande, printed, rejected));
+        when(quotaLedger.tryUpdate(any(), any()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(new QuotaExceededException(QuotaType.TOTAL, 30)));
+
+        // When : 999 n'existe pas, 124 est imprimée (état final), 125 réactivée mais quota atteint
+        WorkflowService.BulkTransitionReport report = workflowService.changeStatusBulk(
+            List.of(123L, 999L, 124L, 125L, 123L), DemandeStatus.INITIAL.getId(), 1L, null);
+
+        // Then
+        assertEquals(4, report.total());
+        assertEquals(1, report.succeeded());
+        assertEquals(List.of(true, false, false, false),
+            report.outcomes().stream().map(WorkflowService.TransitionOutcome::success).toList());
+        assertTrue(report.outcomes().get(1).error().contains("non trouvée"));
+        assertTrue(report.outcomes().get(2).error().contains("état final"));
+        assertEquals(QuotaType.TOTAL.exceededMessage(30), report.outcomes().get(3).error());
+        verify(demandeRepository).updateStatus(eq(List.of(BigDecimal.valueOf(123))), any());
+    }
+
+    private DemandePlayers demande(long id, DemandeStatus status) {
+        DemandePlayers other = new DemandePlayers();
+        other.setDemandeId(BigDecimal.valueOf(id));
+        other.setName("TEST");
+        other.setLastName("Lot");
+        other.setDemandeStatuId(status.getBigDecimalId());
+        return other;
+    }
+}
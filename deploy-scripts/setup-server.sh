@@ -67,6 +67,7 @@ echo "📁 Création des répertoires..."
 sudo -u football mkdir -p /home/football/football-management/backend
 sudo -u football mkdir -p /home/football/football-management/frontend
 sudo -u football mkdir -p /home/football/football-management/logs
+sudo -u football mkdir -p /home/football/football-management/print-spool
 
 # ========================================
 # ÉTAPE 7: Configuration de PostgreSQL (si pas déjà fait)